@@ -19,8 +19,6 @@ import com.hedera.hashgraph.sdk.PrivateKey;
 import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.ReceiptStatusException;
 import io.github.cdimascio.dotenv.Dotenv;
-import io.grpc.Status.Code;
-import io.grpc.StatusRuntimeException;
 import java.io.IOException;
 import java.nio.charset.StandardCharsets;
 import java.util.List;
@@ -40,6 +38,11 @@ import ratpack.server.RatpackServer;
  */
 public class AppnetServer {
   private static final int SERVER_PORT = 5050;
+
+  /**
+   * Time in milliseconds without messages after which topic listeners reconnect to the mirror node.
+   */
+  private static final long LISTENER_IDLE_TIMEOUT = 300_000;
   private static Logger log = LoggerFactory.getLogger(AppnetServer.class);
   private Client client;
 
@@ -118,19 +121,8 @@ public class AppnetServer {
               log.warn("Invalid message received from DID topic: " + reason);
               log.warn(new String(resp.contents, StandardCharsets.UTF_8));
             })
-            .onError(e -> {
-              Code code = null;
-              if (e instanceof StatusRuntimeException) {
-                code = ((StatusRuntimeException) e).getStatus().getCode();
-              }
-
-              if (Code.UNAVAILABLE.equals(code)) {
-                // Restart if listener crashed.
-                startDidTopicListener();
-              } else {
-                log.error("Error while processing message from DID topic: ", e);
-              }
-            })
+            .setAutoReconnect(LISTENER_IDLE_TIMEOUT)
+            .onError(e -> log.error("Error while processing message from DID topic: ", e))
             .subscribe(client, envelope -> storage.storeDid(envelope));
   }
 
@@ -151,19 +143,8 @@ public class AppnetServer {
               log.warn("Invalid message received from VC topic: " + reason);
               log.warn(new String(resp.contents, StandardCharsets.UTF_8));
             })
-            .onError(e -> {
-              Code code = null;
-              if (e instanceof StatusRuntimeException) {
-                code = ((StatusRuntimeException) e).getStatus().getCode();
-              }
-
-              if (Code.UNAVAILABLE.equals(code)) {
-                // Restart if listener crashed.
-                startVcTopicListener();
-              } else {
-                log.error("Error while processing message from VC topic: ", e);
-              }
-            })
+            .setAutoReconnect(LISTENER_IDLE_TIMEOUT)
+            .onError(e -> log.error("Error while processing message from VC topic: ", e))
             .subscribe(client, envelope -> storage.storeVcStatus(envelope));
   }
 
@@ -2,6 +2,8 @@ package com.hedera.hashgraph.identity.hcs.example.appnet;
 
 import com.github.jsonldjava.shaded.com.google.common.collect.Sets;
 import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.IdentityStateStore;
+import com.hedera.hashgraph.identity.hcs.LogStructuredStateStore;
 import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
 import com.hedera.hashgraph.identity.hcs.example.appnet.dto.VerifiableCredentialStatus;
@@ -27,61 +29,25 @@ import org.threeten.bp.Instant;
 
 /**
  * This class implements appnet storage by persisting data to files.
- * Signatures and credential issuers are stored in two separate files, everytime a signature or issuer is added,
- * the complete set is persisted to file.
- * Additionally, DIDs and VCs are stored in their own files, along with the consensus timestamp of the last notification
- * received from mirror node. Persistence does not occur for every additional DiD or VC. Persistence occurs every
- * n and m notifications as determined by the .env file.
- * Upon restart, the persisted data is reloaded in memory and mirror subscriptions for the topic ids restarts
+ * DIDs and VCs are stored in their own append-only logs ({@link LogStructuredStateStore}), together with signatures
+ * of processed messages and the consensus timestamp of the last notification received from mirror node.
+ * Every notification is appended to the log, the logs are flushed to disk every n and m notifications
+ * as determined by the .env file.
+ * Credential issuers are stored in a separate file, everytime an issuer is added, the complete set is persisted to file.
+ * Upon restart, the logs are replayed into memory and mirror subscriptions for the topic ids restarts
  * from the last persisted notification + 1 nano second.
  */
 public class AppnetStorage extends AppnetStorageProperties {
   private static Logger log = LoggerFactory.getLogger(AppnetStorage.class);
-  private Set<String> signatures;
-  private Map<String, HcsDidMessage> didStorage;
-  private Map<String, MessageEnvelope<HcsVcMessage>> vcStorage;
-  private Map<String, PublicKey> credentialIssuers;
-
-  private void loadDids() throws IOException, ClassNotFoundException {
-    if (new File(DIDSFILEPATH).exists()) {
-      log.info("Loading DiDs from persistence");
-      try (InputStream fis = Files.newInputStream(Paths.get(DIDSFILEPATH))) {
-        ObjectInputStream ois = new ObjectInputStream(fis);
-        this.didStorage = (Map<String, HcsDidMessage>) ois.readObject();
-        this.lastDiDConsensusTimeStamp = (Instant) ois.readObject();
-        ois.close();
-      }
-    } else {
-      this.didStorage = new HashMap<>();
-    }
-  }
-
-  private void loadVcs() throws IOException, ClassNotFoundException {
-    if (new File(VCSFILEPATH).exists()) {
-      log.info("Loading VCs from persistence");
-      try (InputStream fis = Files.newInputStream(Paths.get(VCSFILEPATH))) {
-        ObjectInputStream ois = new ObjectInputStream(fis);
-        this.vcStorage = (Map<String, MessageEnvelope<HcsVcMessage>>) ois.readObject();
-        this.lastVCConsensusTimeStamp = (Instant) ois.readObject();
-        ois.close();
-      }
-    } else {
-      this.vcStorage = new HashMap<>();
-    }
-  }
 
-  private void loadSignatures() throws IOException, ClassNotFoundException {
-    if (new File(SIGNATURES_FILE_PATH).exists()) {
-      log.info("Loading Signatures from persistence");
-      try (InputStream fis = Files.newInputStream(Paths.get(SIGNATURES_FILE_PATH))) {
-        ObjectInputStream ois = new ObjectInputStream(fis);
-        this.signatures = (HashSet) ois.readObject();
-        ois.close();
-      }
-    } else {
-      this.signatures = new HashSet<>();
-    }
-  }
+  /**
+   * Consensus time in milliseconds after which signatures of processed messages are no longer checked for duplicates.
+   * Listeners resume after the last processed message, so only messages redelivered around a restart are duplicates.
+   */
+  private static final long SIGNATURE_RETENTION_WINDOW = 24 * 60 * 60 * 1000L;
+  private IdentityStateStore<HcsDidMessage> didStore;
+  private IdentityStateStore<HcsVcMessage> vcStore;
+  private Map<String, PublicKey> credentialIssuers;
 
   private void loadCredentialIssuers() throws IOException, ClassNotFoundException {
     this.credentialIssuers = new HashMap<>();
@@ -106,9 +72,10 @@ public class AppnetStorage extends AppnetStorageProperties {
   public AppnetStorage() throws IOException, ClassNotFoundException {
     super();
     // load persisted data if it exists
-    loadDids();
-    loadVcs();
-    loadSignatures();
+    didStore = new LogStructuredStateStore<>(Paths.get(DIDS_LOG_FILE_PATH), HcsDidMessage.class)
+            .setSignatureRetentionWindow(SIGNATURE_RETENTION_WINDOW);
+    vcStore = new LogStructuredStateStore<>(Paths.get(VCS_LOG_FILE_PATH), HcsVcMessage.class)
+            .setSignatureRetentionWindow(SIGNATURE_RETENTION_WINDOW);
     loadCredentialIssuers();
   }
 
@@ -119,7 +86,8 @@ public class AppnetStorage extends AppnetStorageProperties {
    * @return The last valid DID message registered on hedera with DID document inside.
    */
   public HcsDidMessage resolveDid(final String did) {
-    return didStorage.get(did);
+    MessageEnvelope<HcsDidMessage> envelope = didStore.get(did);
+    return envelope == null ? null : envelope.open();
   }
 
   /**
@@ -157,22 +125,30 @@ public class AppnetStorage extends AppnetStorageProperties {
       return;
     }
 
-    if (signatures.contains(envelope.getSignature())) {
-      log.warn("Duplicate message signature detected, message ignored: " + envelope.getSignature());
-      return;
-    }
+    try {
+      if (didStore.containsSignature(envelope.getSignature())) {
+        log.warn("Duplicate message signature detected, message ignored: " + envelope.getSignature());
+        return;
+      }
 
-    signatures.add(envelope.getSignature());
-    persistSignatures();
-    HcsDidMessage msg = envelope.open();
+      // The signature is recorded last, so that a message interrupted by a crash is processed again on restart.
+      storeDid(envelope, envelope.open());
+      didStore.addSignature(envelope.getSignature(), envelope.getConsensusTimestamp());
+      flushDids();
+    } catch (IOException ioe) {
+      log.error(ioe.getMessage());
+    }
+  }
 
-    HcsDidMessage existing = didStorage.get(msg.getDid());
+  private void storeDid(final MessageEnvelope<HcsDidMessage> envelope, final HcsDidMessage msg) throws IOException {
+    HcsDidMessage existing = resolveDid(msg.getDid());
     if (existing != null
             && (envelope.getConsensusTimestamp().isBefore(existing.getUpdated())
             || (DidMethodOperation.DELETE.equals(existing.getOperation())
             && !DidMethodOperation.DELETE.equals(msg.getOperation())))) {
 
       log.warn("Outdated DID message received, ignored.");
+      didStore.advance(envelope.getConsensusTimestamp(), envelope.getMirrorResponse().sequenceNumber);
       return;
     }
 
@@ -185,9 +161,7 @@ public class AppnetStorage extends AppnetStorageProperties {
     }
 
     log.info("New DID message " + msg.getOperation() + " received for: " + msg.getDid());
-    didStorage.put(msg.getDid(), msg);
-
-    persistDiDs(envelope.getConsensusTimestamp());
+    didStore.put(msg.getDid(), envelope);
   }
 
   /**
@@ -199,7 +173,7 @@ public class AppnetStorage extends AppnetStorageProperties {
     *     was not found (e.g. credential was never issued).
   */
   public VerifiableCredentialStatus resolveVcStatus(final String credentialHash) {
-    MessageEnvelope<HcsVcMessage> envelope = vcStorage.get(credentialHash);
+    MessageEnvelope<HcsVcMessage> envelope = vcStore.get(credentialHash);
 
     return envelope == null ? null
         : VerifiableCredentialStatus.fromHcsVcMessage(envelope.open(), envelope.getConsensusTimestamp());
@@ -217,28 +191,36 @@ public class AppnetStorage extends AppnetStorageProperties {
       return;
     }
 
-    if (signatures.contains(envelope.getSignature())) {
-      log.warn("Duplicate message signature detected, message ignored: " + envelope.getSignature());
-      return;
-    }
+    try {
+      if (vcStore.containsSignature(envelope.getSignature())) {
+        log.warn("Duplicate message signature detected, message ignored: " + envelope.getSignature());
+        return;
+      }
 
-    signatures.add(envelope.getSignature());
-    persistSignatures();
-    HcsVcMessage msg = envelope.open();
+      // The signature is recorded last, so that a message interrupted by a crash is processed again on restart.
+      storeVcStatus(envelope, envelope.open());
+      vcStore.addSignature(envelope.getSignature(), envelope.getConsensusTimestamp());
+      flushVcs();
+    } catch (IOException ioe) {
+      log.error(ioe.getMessage());
+    }
+  }
 
-    MessageEnvelope<HcsVcMessage> existing = vcStorage.get(msg.getCredentialHash());
+  private void storeVcStatus(final MessageEnvelope<HcsVcMessage> envelope, final HcsVcMessage msg)
+          throws IOException {
+    MessageEnvelope<HcsVcMessage> existing = vcStore.get(msg.getCredentialHash());
     // Skip messages that are older than the once collected or if we already have a REVOKED message
     if (existing != null
             && (envelope.getConsensusTimestamp().isBefore(existing.getConsensusTimestamp())
             || (HcsVcOperation.REVOKE.equals(existing.open().getOperation())
             && !HcsVcOperation.REVOKE.equals(msg.getOperation())))) {
       log.warn("Outdated VC message received, ignored.");
+      vcStore.advance(envelope.getConsensusTimestamp(), envelope.getMirrorResponse().sequenceNumber);
       return;
     }
 
     log.info("New VC message " + msg.getOperation() + " received for: " + msg.getCredentialHash());
-    vcStorage.put(msg.getCredentialHash(), envelope);
-    persistVCs(msg.getTimestamp());
+    vcStore.put(msg.getCredentialHash(), envelope);
   }
 
   /**
@@ -259,58 +241,28 @@ public class AppnetStorage extends AppnetStorageProperties {
   }
 
   /**
-   * Persists DiDs from memory into a file.
+   * Flushes the DID log to disk every n notifications.
    *
-   * @param consensusTimeStamp The consensusTimeStamp of the last message received from mirror node
+   * @throws IOException In case the log could not be flushed.
    */
-  private void persistDiDs(final Instant consensusTimeStamp) {
+  private void flushDids() throws IOException {
     didCount += 1;
     if (didCount == didStoreInterval) {
       didCount = 0;
-      try (OutputStream fos = Files.newOutputStream(Paths.get(DIDSFILEPATH), StandardOpenOption.CREATE)) {
-        ObjectOutputStream oos = new ObjectOutputStream(fos);
-        oos.writeObject(didStorage);
-        oos.writeObject(consensusTimeStamp);
-        oos.close();
-        log.info("Serialized DiD HashMap data is saved in persistedDID.ser");
-      } catch (IOException ioe) {
-        log.error(ioe.getMessage());
-      }
+      didStore.flush();
     }
   }
 
   /**
-   * Persists VCss from memory into a file.
+   * Flushes the VC log to disk every m notifications.
    *
-   * @param consensusTimeStamp The consensusTimeStamp of the last message received from mirror node
+   * @throws IOException In case the log could not be flushed.
    */
-  private void persistVCs(final Instant consensusTimeStamp) {
+  private void flushVcs() throws IOException {
     vcCount += 1;
     if (vcCount == vcStoreInterval) {
       vcCount = 0;
-      try (OutputStream fos = Files.newOutputStream(Paths.get(VCSFILEPATH), StandardOpenOption.CREATE)) {
-        ObjectOutputStream oos = new ObjectOutputStream(fos);
-        oos.writeObject(vcStorage);
-        oos.writeObject(consensusTimeStamp);
-        oos.close();
-        log.info("Serialized VC HashMap data is saved in persistedVC.ser");
-      } catch (IOException ioe) {
-        log.error(ioe.getMessage());
-      }
-    }
-  }
-
-  /**
-   * Persists signatures to a file.
-   */
-  private void persistSignatures() {
-    try (OutputStream fos = Files.newOutputStream(Paths.get(SIGNATURES_FILE_PATH), StandardOpenOption.CREATE)) {
-      ObjectOutputStream oos = new ObjectOutputStream(fos);
-      oos.writeObject(signatures);
-      oos.close();
-      log.info("Serialized signatures data is saved in signatures.ser");
-    } catch (IOException ioe) {
-      log.error(ioe.getMessage());
+      vcStore.flush();
     }
   }
 
@@ -341,7 +293,8 @@ public class AppnetStorage extends AppnetStorageProperties {
    * @return Instant the last consensus timestamp for DiD
    */
   public Instant getLastDiDConsensusTimeStamp() {
-    return this.lastDiDConsensusTimeStamp;
+    Instant persisted = didStore.getLastConsensusTimestamp();
+    return persisted == null ? this.lastDiDConsensusTimeStamp : persisted;
   }
 
   /**
@@ -350,6 +303,7 @@ public class AppnetStorage extends AppnetStorageProperties {
    * @return Instant the last consensus timestamp for VC
    */
   public Instant getLastVCConsensusTimeStamp() {
-    return this.lastVCConsensusTimeStamp;
+    Instant persisted = vcStore.getLastConsensusTimestamp();
+    return persisted == null ? this.lastVCConsensusTimeStamp : persisted;
   }
 }
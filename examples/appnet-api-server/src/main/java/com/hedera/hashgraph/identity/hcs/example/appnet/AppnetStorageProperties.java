@@ -13,9 +13,8 @@ import java.nio.file.Path;
 public abstract class AppnetStorageProperties {
   protected static final String PERSISTENCE_DIR = "data/";
   protected static final String CREDENTIAL_ISSUERS_FILE_PATH = PERSISTENCE_DIR + "persistedCredentialIssuers.ser";
-  protected static final String SIGNATURES_FILE_PATH = PERSISTENCE_DIR + "persistedSignatures.ser";
-  protected static final String DIDSFILEPATH = PERSISTENCE_DIR + "persistedDiDs.ser";
-  protected static final String VCSFILEPATH = PERSISTENCE_DIR + "persistedVCs.ser";
+  protected static final String DIDS_LOG_FILE_PATH = PERSISTENCE_DIR + "persistedDids.log";
+  protected static final String VCS_LOG_FILE_PATH = PERSISTENCE_DIR + "persistedVcs.log";
   protected int didStoreInterval;
   protected int vcStoreInterval;
   protected int didCount;
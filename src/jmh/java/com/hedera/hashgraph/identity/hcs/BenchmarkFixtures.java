@@ -0,0 +1,87 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.gson.JsonArray;
+import com.google.gson.JsonObject;
+import com.google.gson.JsonParser;
+import com.hedera.hashgraph.identity.DidDocumentJsonProperties;
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import java.security.GeneralSecurityException;
+import javax.crypto.Cipher;
+import javax.crypto.spec.SecretKeySpec;
+import org.threeten.bp.Instant;
+
+/**
+ * Offline inputs shared by benchmarks: DID documents of different sizes and a symmetric message cipher.
+ */
+public final class BenchmarkFixtures {
+  /**
+   * Message mode parameter value of benchmarks with plain messages.
+   */
+  public static final String PLAIN = "PLAIN";
+
+  /**
+   * Message mode parameter value of benchmarks with encrypted messages.
+   */
+  public static final String ENCRYPTED = "ENCRYPTED";
+
+  private static final SecretKeySpec KEY = new SecretKeySpec(new byte[16], "AES");
+
+  /**
+   * Generates the DID document of the given DID with additional service endpoints to reach a realistic size.
+   *
+   * @param did          The DID.
+   * @param serviceCount The number of service endpoints to add.
+   * @return The DID document as JSON string.
+   */
+  public static String didDocumentJson(final HcsDid did, final int serviceCount) {
+    JsonObject root = JsonParser.parseString(did.generateDidDocument().toJson()).getAsJsonObject();
+    if (serviceCount > 0) {
+      JsonArray services = new JsonArray(serviceCount);
+      for (int i = 0; i < serviceCount; i++) {
+        JsonObject service = new JsonObject();
+        service.addProperty(DidDocumentJsonProperties.ID, did.toDid() + "#service-" + i);
+        service.addProperty("type", "LinkedDomains");
+        service.addProperty("serviceEndpoint", "https://service-" + i + ".example.com/identity");
+        services.add(service);
+      }
+      root.add(DidDocumentJsonProperties.SERVICE, services);
+    }
+
+    return root.toString();
+  }
+
+  /**
+   * Encrypts message attributes with AES.
+   *
+   * @param plain The plain attribute bytes.
+   * @return The encrypted bytes.
+   */
+  public static byte[] encrypt(final byte[] plain) {
+    return apply(Cipher.ENCRYPT_MODE, plain);
+  }
+
+  /**
+   * Decrypts message attributes encrypted by {@link #encrypt(byte[])}.
+   *
+   * @param encrypted          The encrypted attribute bytes.
+   * @param consensusTimestamp The consensus timestamp of the message, not used.
+   * @return The plain bytes.
+   */
+  public static byte[] decrypt(final byte[] encrypted, final Instant consensusTimestamp) {
+    return apply(Cipher.DECRYPT_MODE, encrypted);
+  }
+
+  private static byte[] apply(final int mode, final byte[] input) {
+    try {
+      Cipher cipher = Cipher.getInstance("AES/ECB/PKCS5Padding");
+      cipher.init(mode, KEY);
+      return cipher.doFinal(input);
+    } catch (GeneralSecurityException e) {
+      throw new IllegalStateException(e);
+    }
+  }
+
+  private BenchmarkFixtures() {
+    // This class is not to be instantiated.
+  }
+}
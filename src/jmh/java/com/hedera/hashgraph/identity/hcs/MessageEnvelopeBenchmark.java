@@ -0,0 +1,101 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.google.gson.reflect.TypeToken;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import com.hedera.hashgraph.identity.utils.Iso8601InstantTypeAdapter;
+import com.hedera.hashgraph.sdk.FileId;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import java.lang.reflect.Type;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.Instant;
+
+/**
+ * Measures JSON round-trips of DID and VC message envelopes.
+ * The per-call {@link GsonBuilder} variants reproduce the previous behaviour of building a new {@link Gson}
+ * instance for every call and serve as a baseline for the shared instance.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageEnvelopeBenchmark {
+  private static final FileId ADDRESS_BOOK_FID = FileId.fromString("0.0.1");
+
+  private String didEnvelopeJson;
+  private String vcEnvelopeJson;
+
+  /**
+   * Prepares signed DID and VC envelopes.
+   */
+  @Setup
+  public void setup() {
+    PrivateKey privateKey = HcsDid.generateDidRootKey();
+    HcsDid did = new HcsDid("testnet", privateKey.getPublicKey(), ADDRESS_BOOK_FID);
+
+    byte[] didMessage = HcsDidMessage
+            .fromDidDocumentJson(did.generateDidDocument().toJson(), DidMethodOperation.CREATE)
+            .sign(privateKey);
+    didEnvelopeJson = new String(didMessage, StandardCharsets.UTF_8);
+
+    byte[] vcMessage = HcsVcMessage
+            .fromCredentialHash(did.getIdString(), HcsVcOperation.ISSUE)
+            .sign(privateKey);
+    vcEnvelopeJson = new String(vcMessage, StandardCharsets.UTF_8);
+  }
+
+  @Benchmark
+  public String didEnvelopeRoundTrip() {
+    return MessageEnvelope.fromJson(didEnvelopeJson, HcsDidMessage.class).toJson();
+  }
+
+  @Benchmark
+  public String vcEnvelopeRoundTrip() {
+    return MessageEnvelope.fromJson(vcEnvelopeJson, HcsVcMessage.class).toJson();
+  }
+
+  @Benchmark
+  public String didEnvelopeRoundTripWithGsonPerCall() {
+    Type type = TypeToken.getParameterized(MessageEnvelope.class, HcsDidMessage.class).getType();
+    MessageEnvelope<HcsDidMessage> envelope = newGson().fromJson(didEnvelopeJson, type);
+    return newGson().toJson(envelope);
+  }
+
+  @Benchmark
+  public String vcEnvelopeRoundTripWithGsonPerCall() {
+    Type type = TypeToken.getParameterized(MessageEnvelope.class, HcsVcMessage.class).getType();
+    MessageEnvelope<HcsVcMessage> envelope = newGson().fromJson(vcEnvelopeJson, type);
+    return newGson().toJson(envelope);
+  }
+
+  /**
+   * Builds a new {@link Gson} instance the way it was built before it was shared.
+   *
+   * @return A new {@link Gson} instance.
+   */
+  private static Gson newGson() {
+    return new GsonBuilder()
+            .disableHtmlEscaping()
+            .excludeFieldsWithoutExposeAnnotation()
+            .registerTypeAdapter(Instant.class, Iso8601InstantTypeAdapter.getInstance())
+            .create();
+  }
+}
@@ -0,0 +1,95 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.sdk.FileId;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import java.util.concurrent.TimeUnit;
+import java.util.function.UnaryOperator;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing, signing and signature verification of DID message envelopes
+ * with plain and encrypted messages and DID documents of different sizes.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class MessageEnvelopeCryptoBenchmark {
+  private static final FileId ADDRESS_BOOK_FID = FileId.fromString("0.0.1");
+
+  @Param({BenchmarkFixtures.PLAIN, BenchmarkFixtures.ENCRYPTED})
+  public String mode;
+
+  /**
+   * Number of service endpoints in the DID document, which determines the message size.
+   */
+  @Param({"0", "16", "128"})
+  public int serviceCount;
+
+  private PrivateKey privateKey;
+  private PublicKey publicKey;
+  private UnaryOperator<HcsDidMessage> encrypter;
+  private HcsDidMessage message;
+  private byte[] signedEnvelope;
+  private MessageEnvelope<HcsDidMessage> parsedEnvelope;
+
+  /**
+   * Prepares the DID message and its signed envelope.
+   */
+  @Setup
+  public void setup() {
+    privateKey = HcsDid.generateDidRootKey();
+    publicKey = privateKey.getPublicKey();
+    HcsDid did = new HcsDid("testnet", publicKey, ADDRESS_BOOK_FID);
+
+    message = HcsDidMessage
+            .fromDidDocumentJson(BenchmarkFixtures.didDocumentJson(did, serviceCount), DidMethodOperation.CREATE)
+            .open();
+    encrypter = BenchmarkFixtures.ENCRYPTED.equals(mode) ? HcsDidMessage.getEncrypter(BenchmarkFixtures::encrypt)
+            : null;
+
+    signedEnvelope = newEnvelope().sign(privateKey);
+    parsedEnvelope = MessageEnvelope.fromJson(signedEnvelope, HcsDidMessage.class);
+  }
+
+  @Benchmark
+  public MessageEnvelope<HcsDidMessage> fromJson() {
+    return MessageEnvelope.fromJson(signedEnvelope, HcsDidMessage.class);
+  }
+
+  /**
+   * Encrypts the message in encrypted mode, signs the envelope and serializes it.
+   *
+   * @return The signed envelope bytes.
+   */
+  @Benchmark
+  public byte[] sign() {
+    return newEnvelope().sign(privateKey);
+  }
+
+  @Benchmark
+  public boolean isSignatureValid() {
+    return parsedEnvelope.isSignatureValid(e -> publicKey);
+  }
+
+  private MessageEnvelope<HcsDidMessage> newEnvelope() {
+    MessageEnvelope<HcsDidMessage> envelope = new MessageEnvelope<>(message);
+    return encrypter == null ? envelope : envelope.encrypt(encrypter);
+  }
+}
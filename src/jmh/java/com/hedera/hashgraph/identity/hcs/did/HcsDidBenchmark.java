@@ -0,0 +1,75 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.BenchmarkFixtures;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.sdk.FileId;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.util.concurrent.TimeUnit;
+import java8.util.function.BiFunction;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.Instant;
+
+/**
+ * Measures validation of DID messages as received from the DID topic, including parsing of the envelope,
+ * decryption in encrypted mode and decoding of the DID document.
+ * Every invocation parses the envelope again, as validation results are memoized by the message.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HcsDidBenchmark {
+  private static final TopicId DID_TOPIC_ID = TopicId.fromString("0.0.2");
+  private static final FileId ADDRESS_BOOK_FID = FileId.fromString("0.0.1");
+
+  @Param({BenchmarkFixtures.PLAIN, BenchmarkFixtures.ENCRYPTED})
+  public String mode;
+
+  /**
+   * Number of service endpoints in the DID document, which determines the message size.
+   */
+  @Param({"0", "16", "128"})
+  public int serviceCount;
+
+  private byte[] signedEnvelope;
+  private BiFunction<HcsDidMessage, Instant, HcsDidMessage> decrypter;
+
+  /**
+   * Prepares the signed DID message envelope.
+   */
+  @Setup
+  public void setup() {
+    PrivateKey privateKey = HcsDid.generateDidRootKey();
+    HcsDid did = new HcsDid("testnet", privateKey.getPublicKey(), ADDRESS_BOOK_FID, DID_TOPIC_ID);
+
+    MessageEnvelope<HcsDidMessage> envelope = HcsDidMessage.fromDidDocumentJson(
+            BenchmarkFixtures.didDocumentJson(did, serviceCount), DidMethodOperation.CREATE);
+    if (BenchmarkFixtures.ENCRYPTED.equals(mode)) {
+      envelope.encrypt(HcsDidMessage.getEncrypter(BenchmarkFixtures::encrypt));
+      decrypter = HcsDidMessage.getDecrypter(BenchmarkFixtures::decrypt);
+    }
+
+    signedEnvelope = envelope.sign(privateKey);
+  }
+
+  @Benchmark
+  public boolean isValid() {
+    return MessageEnvelope.fromJson(signedEnvelope, HcsDidMessage.class)
+            .open(decrypter)
+            .isValid(DID_TOPIC_ID);
+  }
+}
@@ -0,0 +1,66 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.sdk.FileId;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Measures parsing of DID strings with and without the topic parameter, with the parse cache disabled (size 0)
+ * and enabled.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HcsDidParsingBenchmark {
+  private static final FileId ADDRESS_BOOK_FID = FileId.fromString("0.0.1");
+
+  @Param({"0", "1024"})
+  private long parseCacheSize;
+
+  private String did;
+  private String didWithTopic;
+
+  /**
+   * Generates the DID strings and configures the parse cache.
+   */
+  @Setup
+  public void setup() {
+    HcsDid.setParseCacheSize(parseCacheSize);
+    did = new HcsDid("testnet", HcsDid.generateDidRootKey().getPublicKey(), ADDRESS_BOOK_FID).toDid();
+    didWithTopic = new HcsDid("testnet", HcsDid.generateDidRootKey().getPublicKey(), ADDRESS_BOOK_FID,
+            TopicId.fromString("0.0.2")).toDid();
+  }
+
+  /**
+   * Disables the parse cache again.
+   */
+  @TearDown
+  public void tearDown() {
+    HcsDid.setParseCacheSize(0);
+  }
+
+  @Benchmark
+  public HcsDid fromString() {
+    return HcsDid.fromString(did);
+  }
+
+  @Benchmark
+  public HcsDid fromStringWithTopic() {
+    return HcsDid.fromString(didWithTopic);
+  }
+}
@@ -0,0 +1,59 @@
+package com.hedera.hashgraph.identity.hcs.vc;
+
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import com.hedera.hashgraph.sdk.FileId;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.threeten.bp.Instant;
+
+/**
+ * Measures calculation of credential hashes of VC documents with different numbers of credential types.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class HcsVcBenchmark {
+  private static final FileId ADDRESS_BOOK_FID = FileId.fromString("0.0.1");
+
+  /**
+   * Number of types of the credential in addition to the default one.
+   */
+  @Param({"0", "8", "64"})
+  public int typeCount;
+
+  private HcsVcDocumentBase<CredentialSubject> document;
+
+  /**
+   * Prepares the VC document.
+   */
+  @Setup
+  public void setup() {
+    HcsDid issuer = new HcsDid("testnet", HcsDid.generateDidRootKey().getPublicKey(), ADDRESS_BOOK_FID);
+
+    document = new HcsVcDocumentBase<>();
+    document.setId("https://example.com/credentials/1872");
+    document.setIssuer(new Issuer(issuer.toDid(), "Example Issuer"));
+    document.setIssuanceDate(Instant.ofEpochSecond(1_600_000_000L));
+    for (int i = 0; i < typeCount; i++) {
+      document.addType("ExampleCredential" + i);
+    }
+  }
+
+  @Benchmark
+  public String toCredentialHash() {
+    return document.toCredentialHash();
+  }
+}
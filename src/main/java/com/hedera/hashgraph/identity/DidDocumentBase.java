@@ -49,12 +49,28 @@ public class DidDocumentBase {
    * @return The {@link DidDocumentBase}.
    */
   public static DidDocumentBase fromJson(final String json) {
+    try {
+      return fromJson(JsonParser.parseString(json).getAsJsonObject());
+    } catch (IllegalArgumentException e) {
+      throw e;
+    } catch (Exception e) {
+      throw new IllegalArgumentException("Given JSON string is not a valid DID document", e);
+    }
+  }
+
+  /**
+   * Converts an already parsed DID document JSON tree into a {@link DidDocumentBase} object.
+   * Please note this conversion respects only the fields of the base DID document. All other fields are ignored.
+   *
+   * @param root The DID document as JSON object.
+   * @return The {@link DidDocumentBase}.
+   */
+  public static DidDocumentBase fromJson(final JsonObject root) {
     Gson gson = JsonUtils.getGson();
 
     DidDocumentBase result = null;
 
     try {
-      JsonObject root = JsonParser.parseString(json).getAsJsonObject();
       result = gson.fromJson(root, DidDocumentBase.class);
 
       if (root.has(DidDocumentJsonProperties.PUBLIC_KEY)) {
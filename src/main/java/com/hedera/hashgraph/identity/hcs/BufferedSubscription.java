@@ -0,0 +1,242 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Subscription of a {@link MessagePublisher} that buffers messages received from the topic
+ * until the subscriber requests them. Messages are delivered to the subscriber on the given executor
+ * by one task at a time.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+final class BufferedSubscription<T extends Message> implements MessageSubscription {
+  private final MessageSubscriber<T> subscriber;
+  private final ArrayDeque<MessageEnvelope<T>> buffer;
+  private final int bufferSize;
+  private final OverflowStrategy overflowStrategy;
+  private final Executor executor;
+  private final Runnable onCancel;
+  private final AtomicInteger pendingDrains;
+  private long demand;
+  private long droppedCount;
+  private boolean completed;
+  private boolean cancelled;
+  private Throwable error;
+
+  /**
+   * Creates a new subscription.
+   *
+   * @param subscriber       The subscriber to deliver messages to.
+   * @param bufferSize       The maximum number of buffered messages.
+   * @param overflowStrategy What to do with a new message when the buffer is full.
+   * @param executor         The executor to deliver messages in.
+   * @param onCancel         Called once when the subscription is cancelled or terminated.
+   */
+  BufferedSubscription(final MessageSubscriber<T> subscriber, final int bufferSize,
+                       final OverflowStrategy overflowStrategy, final Executor executor, final Runnable onCancel) {
+    this.subscriber = subscriber;
+    this.buffer = new ArrayDeque<>(Math.min(bufferSize, 1024));
+    this.bufferSize = bufferSize;
+    this.overflowStrategy = overflowStrategy;
+    this.executor = executor;
+    this.onCancel = onCancel;
+    this.pendingDrains = new AtomicInteger();
+  }
+
+  /**
+   * Adds a message received from the topic to the buffer, applying the overflow strategy if it is full.
+   *
+   * @param envelope The valid message envelope.
+   */
+  void offer(final MessageEnvelope<T> envelope) {
+    synchronized (this) {
+      while (!isTerminated() && buffer.size() >= bufferSize) {
+        if (overflowStrategy == OverflowStrategy.DROP_OLDEST) {
+          buffer.poll();
+          droppedCount++;
+        } else if (overflowStrategy == OverflowStrategy.FAIL) {
+          buffer.clear();
+          error = new IllegalStateException("Subscriber buffer of " + bufferSize + " messages overflowed.");
+        } else {
+          try {
+            wait();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            error = e;
+          }
+        }
+      }
+
+      if (isTerminated()) {
+        if (error == null) {
+          return;
+        }
+      } else {
+        buffer.add(envelope);
+      }
+    }
+
+    drain();
+  }
+
+  /**
+   * Signals that no more messages will be offered. The subscriber is completed once the buffer is drained.
+   */
+  void complete() {
+    synchronized (this) {
+      completed = true;
+    }
+
+    drain();
+  }
+
+  /**
+   * Fails the subscription immediately, buffered messages are discarded.
+   *
+   * @param err The error.
+   */
+  void fail(final Throwable err) {
+    synchronized (this) {
+      if (isTerminated()) {
+        return;
+      }
+
+      buffer.clear();
+      error = err;
+      notifyAll();
+    }
+
+    drain();
+  }
+
+  @Override
+  public void request(final long n) {
+    if (n <= 0) {
+      fail(new IllegalArgumentException("Requested number of messages must be positive."));
+      return;
+    }
+
+    synchronized (this) {
+      demand = demand + n < 0 ? Long.MAX_VALUE : demand + n;
+    }
+
+    drain();
+  }
+
+  @Override
+  public void cancel() {
+    synchronized (this) {
+      if (cancelled) {
+        return;
+      }
+
+      cancelled = true;
+      buffer.clear();
+      notifyAll();
+    }
+
+    onCancel.run();
+  }
+
+  /**
+   * Returns the number of messages dropped because the buffer was full.
+   *
+   * @return The number of dropped messages.
+   */
+  synchronized long getDroppedCount() {
+    return droppedCount;
+  }
+
+  /**
+   * Returns the number of messages waiting in the buffer.
+   *
+   * @return The number of buffered messages.
+   */
+  synchronized int getBufferedCount() {
+    return buffer.size();
+  }
+
+  private boolean isTerminated() {
+    return cancelled || error != null;
+  }
+
+  /**
+   * Schedules delivery of buffered messages unless it is already scheduled.
+   */
+  private void drain() {
+    if (pendingDrains.getAndIncrement() != 0) {
+      return;
+    }
+
+    try {
+      executor.execute(this::deliver);
+    } catch (RejectedExecutionException e) {
+      pendingDrains.set(0);
+      cancel();
+    }
+  }
+
+  /**
+   * Delivers buffered messages while there is demand, then the terminal signal if any.
+   * Repeats as long as new drains were requested while delivering.
+   */
+  private void deliver() {
+    int missed = 1;
+    while (true) {
+      while (true) {
+        MessageEnvelope<T> next;
+        Throwable failure = null;
+        synchronized (this) {
+          if (cancelled) {
+            return;
+          }
+
+          if (error != null || (completed && buffer.isEmpty())) {
+            // Terminal signals are delivered once, the subscription is cancelled afterwards.
+            failure = error;
+            next = null;
+            cancelled = true;
+          } else if (demand > 0 && !buffer.isEmpty()) {
+            next = buffer.poll();
+            if (demand != Long.MAX_VALUE) {
+              demand--;
+            }
+            notifyAll();
+          } else {
+            break;
+          }
+        }
+
+        if (next == null) {
+          signalTerminated(failure);
+          return;
+        }
+
+        try {
+          subscriber.onNext(next);
+        } catch (RuntimeException e) {
+          // Subscribers must not throw, the stream cannot continue past a message it did not accept.
+          cancel();
+          return;
+        }
+      }
+
+      missed = pendingDrains.addAndGet(-missed);
+      if (missed == 0) {
+        return;
+      }
+    }
+  }
+
+  private void signalTerminated(final Throwable failure) {
+    onCancel.run();
+    if (failure != null) {
+      subscriber.onError(failure);
+    } else {
+      subscriber.onComplete();
+    }
+  }
+}
@@ -0,0 +1,237 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.io.BufferedInputStream;
+import java.io.DataInputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.zip.CRC32;
+
+/**
+ * Framing of the append-only files of {@link TopicArchive} and {@link LogStructuredStateStore}.
+ * Every record is prefixed by the length and CRC32 checksum of its payload.
+ * As records are only ever appended, a crash can only tear the last record of a file, which is cut off on recovery.
+ * Any other invalid record means that the file is corrupted and is reported as an error.
+ */
+final class ChecksummedRecords {
+  /**
+   * Length and checksum of the record payload.
+   */
+  static final int HEADER_SIZE = 8;
+
+  /**
+   * This is a utility class, never to be instantiated.
+   */
+  private ChecksummedRecords() {
+    // Empty on purpose.
+  }
+
+  /**
+   * Allocates a buffer for a record, positioned after the header where the payload is to be written.
+   *
+   * @param payloadSize The size of the payload.
+   * @return The record buffer.
+   */
+  static ByteBuffer allocate(final int payloadSize) {
+    ByteBuffer buffer = ByteBuffer.allocate(HEADER_SIZE + payloadSize);
+    buffer.position(HEADER_SIZE);
+    return buffer;
+  }
+
+  /**
+   * Writes the header of a record allocated by {@link #allocate(int)} once its payload was written,
+   * and flips the buffer for writing to a file.
+   *
+   * @param buffer The record buffer positioned after the payload.
+   * @return The record buffer.
+   */
+  static ByteBuffer seal(final ByteBuffer buffer) {
+    int payloadSize = buffer.position() - HEADER_SIZE;
+    CRC32 crc = new CRC32();
+    crc.update(buffer.array(), buffer.arrayOffset() + HEADER_SIZE, payloadSize);
+    buffer.putInt(0, payloadSize).putInt(4, (int) crc.getValue());
+    buffer.flip();
+    return buffer;
+  }
+
+  /**
+   * Frames the given payload as a record.
+   *
+   * @param payload The record payload.
+   * @param length  The length of the payload.
+   * @return The record buffer, ready for writing to a file.
+   */
+  static ByteBuffer frame(final byte[] payload, final int length) {
+    return seal(allocate(length).put(payload, 0, length));
+  }
+
+  /**
+   * Appends a record at the position of the channel.
+   * A partially written record is cut off, so that records appended later are not lost on recovery.
+   *
+   * @param channel The file to append to.
+   * @param record  The record buffer.
+   * @throws IOException In case writing failed.
+   */
+  static void append(final FileChannel channel, final ByteBuffer record) throws IOException {
+    long start = channel.position();
+    try {
+      while (record.hasRemaining()) {
+        channel.write(record);
+      }
+    } catch (IOException e) {
+      try {
+        channel.truncate(start);
+      } catch (IOException suppressed) {
+        e.addSuppressed(suppressed);
+      }
+      throw e;
+    }
+  }
+
+  /**
+   * Reads the record at the position of the buffer and advances the buffer past it.
+   *
+   * @param buffer         The buffer holding records.
+   * @param maxPayloadSize The maximum size of a valid payload.
+   * @return The payload of the record or NULL if the record is incomplete or invalid, leaving the position unchanged.
+   */
+  static ByteBuffer read(final ByteBuffer buffer, final int maxPayloadSize) {
+    if (buffer.remaining() < HEADER_SIZE) {
+      return null;
+    }
+
+    int start = buffer.position();
+    int payloadSize = buffer.getInt();
+    int checksum = buffer.getInt();
+    if (payloadSize < 1 || payloadSize > maxPayloadSize || payloadSize > buffer.remaining()) {
+      buffer.position(start);
+      return null;
+    }
+
+    ByteBuffer payload = buffer.slice();
+    payload.limit(payloadSize);
+    CRC32 crc = new CRC32();
+    crc.update(payload.duplicate());
+    if ((int) crc.getValue() != checksum) {
+      buffer.position(start);
+      return null;
+    }
+
+    buffer.position(start + HEADER_SIZE + payloadSize);
+    return payload;
+  }
+
+  /**
+   * Reads all records of a file in order and passes their payloads to the consumer.
+   * A torn record at the end of the file ends the recovery, an invalid record before it fails it.
+   *
+   * @param file           The file to recover.
+   * @param maxPayloadSize The maximum size of a valid payload.
+   * @param consumer       The consumer of record payloads.
+   * @return The length of the valid part of the file, where the next record is to be appended.
+   * @throws IOException In case the file could not be read, is corrupted or the consumer failed.
+   */
+  static long recover(final Path file, final int maxPayloadSize, final PayloadConsumer consumer) throws IOException {
+    long size = Files.size(file);
+    long validLength = 0;
+    CRC32 crc = new CRC32();
+    try (InputStream is = Files.newInputStream(file);
+         DataInputStream in = new DataInputStream(new BufferedInputStream(is))) {
+      while (validLength < size) {
+        if (size - validLength < HEADER_SIZE) {
+          return validLength;
+        }
+
+        int payloadSize = in.readInt();
+        int checksum = in.readInt();
+        if (payloadSize < 1 || payloadSize > maxPayloadSize) {
+          checkTornTail(file, validLength, size);
+          return validLength;
+        }
+
+        byte[] payload = new byte[payloadSize];
+        try {
+          in.readFully(payload);
+        } catch (EOFException e) {
+          // The last record was not written completely.
+          return validLength;
+        }
+
+        crc.reset();
+        crc.update(payload, 0, payloadSize);
+        if ((int) crc.getValue() != checksum) {
+          // Only the last record may have been written partially.
+          if (validLength + HEADER_SIZE + payloadSize < size) {
+            checkTornTail(file, validLength, size);
+          }
+          return validLength;
+        }
+
+        consumer.accept(ByteBuffer.wrap(payload));
+        validLength += HEADER_SIZE + payloadSize;
+      }
+    }
+
+    return validLength;
+  }
+
+  /**
+   * Checks that an invalid record is followed by nothing but zeros, as left by a crash after the file was extended
+   * but before its contents were written.
+   *
+   * @param file   The file.
+   * @param offset The offset of the invalid record.
+   * @param size   The size of the file.
+   * @throws IOException In case the file is corrupted or could not be read.
+   */
+  private static void checkTornTail(final Path file, final long offset, final long size) throws IOException {
+    try (FileChannel channel = FileChannel.open(file)) {
+      ByteBuffer buffer = ByteBuffer.allocate(8192);
+      long position = offset;
+      while (position < size) {
+        buffer.clear();
+        int read = channel.read(buffer, position);
+        if (read < 0) {
+          return;
+        }
+
+        for (int i = 0; i < read; i++) {
+          if (buffer.get(i) != 0) {
+            throw corrupted(file, offset);
+          }
+        }
+        position += read;
+      }
+    }
+  }
+
+  /**
+   * Creates the error reported for a corrupted record.
+   *
+   * @param file   The corrupted file.
+   * @param offset The offset of the corrupted record.
+   * @return The error.
+   */
+  static IOException corrupted(final Path file, final long offset) {
+    return new IOException("Corrupted record at offset " + offset + " of " + file
+            + ", records after it cannot be recovered.");
+  }
+
+  /**
+   * Consumer of record payloads during a recovery.
+   */
+  interface PayloadConsumer {
+    /**
+     * Accepts the payload of the next valid record.
+     *
+     * @param payload The record payload.
+     * @throws IOException In case the payload is malformed.
+     */
+    void accept(ByteBuffer payload) throws IOException;
+  }
+}
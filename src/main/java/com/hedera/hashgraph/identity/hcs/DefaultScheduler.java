@@ -0,0 +1,35 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * The scheduler with daemon threads shared by resolvers and submitters that were not given a scheduler of their own.
+ * It is created on first use and never shut down.
+ */
+final class DefaultScheduler {
+  /**
+   * This is a utility class, never to be instantiated.
+   */
+  private DefaultScheduler() {
+    // Empty on purpose.
+  }
+
+  /**
+   * Returns the shared scheduler.
+   *
+   * @return The scheduler instance.
+   */
+  static ScheduledExecutorService get() {
+    return Holder.INSTANCE;
+  }
+
+  /**
+   * Lazily initialized holder of the scheduler instance.
+   */
+  private static final class Holder {
+    private static final ScheduledExecutorService INSTANCE = Executors.newScheduledThreadPool(2,
+            new ThreadFactoryBuilder().setNameFormat("hcs-identity-scheduler-%d").setDaemon(true).build());
+  }
+}
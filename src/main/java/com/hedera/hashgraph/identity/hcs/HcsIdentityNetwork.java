@@ -1,10 +1,13 @@
 package com.hedera.hashgraph.identity.hcs;
 
 import com.google.common.base.Charsets;
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
 import com.google.protobuf.ByteString;
 import com.hedera.hashgraph.identity.DidMethodOperation;
 import com.hedera.hashgraph.identity.hcs.did.HcsDid;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidResolutionCache;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidResolutionCoordinator;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidResolver;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidTopicListener;
 import com.hedera.hashgraph.identity.hcs.did.HcsDidTransaction;
@@ -22,13 +25,22 @@ import com.hedera.hashgraph.sdk.PrivateKey;
 import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicId;
 import java.util.Collection;
+import java.util.concurrent.Executor;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.function.Function;
 
 /**
  * Appnet's identity network based on Hedera HCS DID method specification.
+ * The network is meant to be long-lived: topic IDs are parsed from the address book once, and resolvers and listeners
+ * created by the network share its scheduler, validation executor and metrics, so that they are cheap to create
+ * for each request. Transactions created by the network record to its metrics as well.
+ * The scheduler, resolution coordinator and caches created by the network are released when it is closed.
  */
-public final class HcsIdentityNetwork {
+public final class HcsIdentityNetwork implements AutoCloseable {
   /**
    * The address book of appnet's identity network.
    */
@@ -39,6 +51,63 @@ public final class HcsIdentityNetwork {
    */
   private String network;
 
+  /**
+   * The scheduler shared by resolvers of this network.
+   */
+  private ScheduledExecutorService scheduler;
+
+  /**
+   * Whether the scheduler was created by this network and shall be shut down when it is closed.
+   */
+  private boolean ownsScheduler;
+
+  /**
+   * Whether the scheduler was handed out, after which it cannot be replaced.
+   */
+  private boolean schedulerInUse;
+
+  /**
+   * The metrics of transactions, listeners and resolvers created by this network.
+   */
+  private volatile IdentityMetrics metrics = IdentityMetrics.NOOP;
+
+  /**
+   * The executor validating messages of listeners and resolvers of this network, NULL to validate on the caller.
+   */
+  private volatile Executor validationExecutor;
+  private volatile int validationBatchSize;
+  private volatile int validationParallelism;
+
+  /**
+   * The DID topic ID parsed from the address book.
+   */
+  private volatile ParsedTopicId didTopicId;
+
+  /**
+   * The VC topic ID parsed from the address book.
+   */
+  private volatile ParsedTopicId vcTopicId;
+
+  /**
+   * The number of resolvers created by this network that are executing at the moment.
+   */
+  private final AtomicInteger liveResolvers = new AtomicInteger();
+
+  /**
+   * The coordinator of concurrent DID resolutions, created on first use.
+   */
+  private HcsDidResolutionCoordinator didResolutionCoordinator;
+
+  /**
+   * The cache of DID resolutions, created on first use.
+   */
+  private HcsDidResolutionCache didResolutionCache;
+
+  /**
+   * Whether this network was closed.
+   */
+  private boolean closed;
+
   /**
    * Creates a new identity network instance.
    */
@@ -112,7 +181,9 @@ public final class HcsIdentityNetwork {
    * @return The {@link HcsDidTransaction} instance.
    */
   public HcsDidTransaction createDidTransaction(final DidMethodOperation operation) {
-    return new HcsDidTransaction(operation, getDidTopicId());
+    HcsDidTransaction transaction = new HcsDidTransaction(operation, getDidTopicId());
+    transaction.setMetrics(metrics);
+    return transaction;
   }
 
   /**
@@ -122,7 +193,9 @@ public final class HcsIdentityNetwork {
    * @return The {@link HcsDidTransaction} instance.
    */
   public HcsDidTransaction createDidTransaction(final MessageEnvelope<HcsDidMessage> message) {
-    return new HcsDidTransaction(message, getDidTopicId());
+    HcsDidTransaction transaction = new HcsDidTransaction(message, getDidTopicId());
+    transaction.setMetrics(metrics);
+    return transaction;
   }
 
   /**
@@ -135,7 +208,9 @@ public final class HcsIdentityNetwork {
    */
   public HcsVcTransaction createVcTransaction(final HcsVcOperation operation, final String credentialHash,
                                               final PublicKey signerPublicKey) {
-    return new HcsVcTransaction(getVcTopicId(), operation, credentialHash, signerPublicKey);
+    HcsVcTransaction transaction = new HcsVcTransaction(getVcTopicId(), operation, credentialHash, signerPublicKey);
+    transaction.setMetrics(metrics);
+    return transaction;
   }
 
   /**
@@ -147,7 +222,9 @@ public final class HcsIdentityNetwork {
    */
   public HcsVcTransaction createVcTransaction(final MessageEnvelope<HcsVcMessage> message,
                                               final PublicKey signerPublicKey) {
-    return new HcsVcTransaction(getVcTopicId(), message, signerPublicKey);
+    HcsVcTransaction transaction = new HcsVcTransaction(getVcTopicId(), message, signerPublicKey);
+    transaction.setMetrics(metrics);
+    return transaction;
   }
 
   /**
@@ -193,13 +270,86 @@ public final class HcsIdentityNetwork {
     return new HcsDid(getNetwork(), publicKey, getAddressBook().getFileId(), tid);
   }
 
+  /**
+   * Creates a submitter of DID messages to the DID topic of this network.
+   *
+   * @param client The Hedera network client paying for submissions.
+   * @return The DID message submitter.
+   */
+  public MessageSubmitter<HcsDidMessage> createDidSubmitter(final Client client) {
+    return new MessageSubmitter<HcsDidMessage>(client, getDidTopicId()).setScheduler(getScheduler());
+  }
+
+  /**
+   * Creates a submitter of VC status messages to the VC topic of this network.
+   *
+   * @param client The Hedera network client paying for submissions.
+   * @return The VC message submitter.
+   */
+  public MessageSubmitter<HcsVcMessage> createVcSubmitter(final Client client) {
+    return new MessageSubmitter<HcsVcMessage>(client, getVcTopicId()).setScheduler(getScheduler());
+  }
+
+  /**
+   * Creates a tracker confirming many DID messages submitted to the DID topic with a single subscription.
+   *
+   * @param client The mirror node client.
+   * @return The DID message confirmation tracker.
+   */
+  public MessageConfirmationTracker<HcsDidMessage> createDidConfirmationTracker(final Client client) {
+    return new MessageConfirmationTracker<>(getDidTopicListener(), client);
+  }
+
+  /**
+   * Creates a tracker confirming many VC messages submitted to the VC topic with a single subscription.
+   *
+   * @param client The mirror node client.
+   * @return The VC message confirmation tracker.
+   */
+  public MessageConfirmationTracker<HcsVcMessage> createVcConfirmationTracker(final Client client) {
+    return new MessageConfirmationTracker<>(getVcTopicListener(), client);
+  }
+
   /**
    * Returns a DID resolver for this network.
    *
    * @return The DID resolver for this network.
    */
   public HcsDidResolver getDidResolver() {
-    return new HcsDidResolver(getDidTopicId());
+    HcsDidResolver resolver = new HcsDidResolver(getDidTopicId());
+    configure(resolver);
+    return resolver;
+  }
+
+  /**
+   * Returns the DID resolution coordinator of this network.
+   * The coordinator merges concurrent DID resolution requests into a single scan of the DID topic.
+   *
+   * @return The DID resolution coordinator.
+   */
+  public synchronized HcsDidResolutionCoordinator getDidResolutionCoordinator() {
+    if (didResolutionCoordinator == null) {
+      didResolutionCoordinator = new HcsDidResolutionCoordinator(this::getDidResolver, getScheduler());
+    }
+
+    return didResolutionCoordinator;
+  }
+
+  /**
+   * Returns the DID resolution cache of this network in front of its resolution coordinator.
+   * The cache holds at most {@link HcsDidResolutionCache#DEFAULT_MAXIMUM_SIZE} DIDs for
+   * {@link HcsDidResolutionCache#DEFAULT_EXPIRE_AFTER} milliseconds and stops listening for updates
+   * when the network is closed.
+   *
+   * @return The DID resolution cache.
+   */
+  public synchronized HcsDidResolutionCache getDidResolutionCache() {
+    if (didResolutionCache == null) {
+      didResolutionCache = new HcsDidResolutionCache(getDidResolutionCoordinator(),
+              HcsDidResolutionCache.DEFAULT_MAXIMUM_SIZE, HcsDidResolutionCache.DEFAULT_EXPIRE_AFTER);
+    }
+
+    return didResolutionCache;
   }
 
   /**
@@ -208,7 +358,9 @@ public final class HcsIdentityNetwork {
    * @return The DID topic ID.
    */
   public TopicId getDidTopicId() {
-    return TopicId.fromString(addressBook.getDidTopicId());
+    ParsedTopicId result = ParsedTopicId.of(didTopicId, addressBook.getDidTopicId());
+    didTopicId = result;
+    return result.topicId;
   }
 
   /**
@@ -217,7 +369,9 @@ public final class HcsIdentityNetwork {
    * @return The DID topic listener.
    */
   public HcsDidTopicListener getDidTopicListener() {
-    return new HcsDidTopicListener(getDidTopicId());
+    HcsDidTopicListener listener = new HcsDidTopicListener(getDidTopicId());
+    configure(listener);
+    return listener;
   }
 
   /**
@@ -226,7 +380,9 @@ public final class HcsIdentityNetwork {
    * @return The VC topic ID.
    */
   public TopicId getVcTopicId() {
-    return TopicId.fromString(addressBook.getVcTopicId());
+    ParsedTopicId result = ParsedTopicId.of(vcTopicId, addressBook.getVcTopicId());
+    vcTopicId = result;
+    return result.topicId;
   }
 
   /**
@@ -235,7 +391,7 @@ public final class HcsIdentityNetwork {
    * @return The VC status resolver for this network.
    */
   public HcsVcStatusResolver getVcStatusResolver() {
-    return new HcsVcStatusResolver(getVcTopicId());
+    return getVcStatusResolver(null);
   }
 
   /**
@@ -248,7 +404,9 @@ public final class HcsIdentityNetwork {
    */
   public HcsVcStatusResolver getVcStatusResolver(
           final Function<String, Collection<PublicKey>> publicKeysProvider) {
-    return new HcsVcStatusResolver(getVcTopicId(), publicKeysProvider);
+    HcsVcStatusResolver resolver = new HcsVcStatusResolver(getVcTopicId(), publicKeysProvider);
+    configure(resolver);
+    return resolver;
   }
 
   /**
@@ -257,7 +415,7 @@ public final class HcsIdentityNetwork {
    * @return The VC topic listener.
    */
   public HcsVcTopicListener getVcTopicListener() {
-    return new HcsVcTopicListener(getVcTopicId());
+    return getVcTopicListener(null);
   }
 
   /**
@@ -270,6 +428,209 @@ public final class HcsIdentityNetwork {
    */
   public HcsVcTopicListener getVcTopicListener(
           final Function<String, Collection<PublicKey>> publicKeysProvider) {
-    return new HcsVcTopicListener(getVcTopicId(), publicKeysProvider);
+    HcsVcTopicListener listener = new HcsVcTopicListener(getVcTopicId(), publicKeysProvider);
+    configure(listener);
+    return listener;
+  }
+
+  /**
+   * Applies the shared configuration of this network to a listener it creates.
+   *
+   * @param listener The listener.
+   */
+  private void configure(final MessageListener<?> listener) {
+    listener.setScheduler(this::getListenerScheduler)
+            .setMetrics(metrics);
+
+    Executor executor = validationExecutor;
+    if (executor != null) {
+      listener.setParallelValidation(executor, validationBatchSize, validationParallelism);
+    }
+  }
+
+  /**
+   * Applies the shared configuration of this network to a resolver it creates.
+   *
+   * @param resolver The resolver.
+   */
+  private void configure(final MessageResolver<?> resolver) {
+    resolver.setLiveCounter(liveResolvers)
+            .setScheduler(getScheduler())
+            .setMetrics(metrics);
+
+    Executor executor = validationExecutor;
+    if (executor != null) {
+      resolver.setParallelValidation(executor, validationBatchSize, validationParallelism);
+    }
+  }
+
+  /**
+   * Enables parallel validation of messages in listeners and resolvers created by this network from now on.
+   * The executor is shared by all of them and is owned by the caller.
+   *
+   * @param executor    The executor to validate messages in.
+   * @param batchSize   The maximum number of messages validated together by one task.
+   * @param parallelism The maximum number of batches validated at the same time by one listener.
+   * @return This identity network instance.
+   * @see MessageListener#setParallelValidation(Executor, int, int)
+   */
+  public synchronized HcsIdentityNetwork setParallelValidation(final Executor executor, final int batchSize,
+                                                               final int parallelism) {
+    if (executor == null || batchSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("Executor, positive batch size and parallelism must be provided.");
+    }
+
+    this.validationBatchSize = batchSize;
+    this.validationParallelism = parallelism;
+    this.validationExecutor = executor;
+    return this;
+  }
+
+  /**
+   * Defines the scheduler shared by resolvers of this network.
+   * The given scheduler is owned by the caller and is not shut down when this network is closed.
+   * If not defined, the network creates a scheduler with two daemon threads on first use.
+   * The scheduler must be defined before the first resolver, submitter or resolution coordinator is created
+   * and before a listener of this network reconnects, as they keep using the scheduler they were given.
+   *
+   * @param scheduler The scheduler to use.
+   * @return This identity network instance.
+   * @throws IllegalStateException If the scheduler of this network is already in use.
+   */
+  public synchronized HcsIdentityNetwork setScheduler(final ScheduledExecutorService scheduler) {
+    if (scheduler == null) {
+      throw new IllegalArgumentException("Scheduler must be provided.");
+    }
+
+    if (schedulerInUse) {
+      throw new IllegalStateException("Scheduler is already in use by resolvers or listeners of this network.");
+    }
+
+    this.scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * Returns the scheduler shared by resolvers of this network.
+   * Once returned, the scheduler can no longer be replaced by {@link #setScheduler(ScheduledExecutorService)}.
+   *
+   * @return The scheduler.
+   * @throws IllegalStateException If this network was already closed.
+   */
+  public synchronized ScheduledExecutorService getScheduler() {
+    if (closed) {
+      throw new IllegalStateException("Identity network has been closed.");
+    }
+
+    if (scheduler == null) {
+      scheduler = Executors.newScheduledThreadPool(2,
+              new ThreadFactoryBuilder().setNameFormat("hcs-identity-network-%d").setDaemon(true).build());
+      ownsScheduler = true;
+    }
+
+    schedulerInUse = true;
+    return scheduler;
+  }
+
+  /**
+   * Returns the scheduler shared by resolvers of this network to a listener, which asks for it only when it needs
+   * to schedule a reconnection, so that listeners without auto-reconnect do not create it.
+   *
+   * @return The scheduler.
+   * @throws RejectedExecutionException If this network was already closed.
+   */
+  private synchronized ScheduledExecutorService getListenerScheduler() {
+    if (closed) {
+      throw new RejectedExecutionException("Identity network has been closed.");
+    }
+
+    return getScheduler();
+  }
+
+  /**
+   * Defines the metrics of transactions, listeners and resolvers created by this network from now on.
+   * By default nothing is recorded.
+   *
+   * @param metrics The metrics to record to.
+   * @return This identity network instance.
+   */
+  public HcsIdentityNetwork setMetrics(final IdentityMetrics metrics) {
+    if (metrics == null) {
+      throw new IllegalArgumentException("Metrics must be provided.");
+    }
+
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Returns the metrics of transactions, listeners and resolvers created by this network.
+   *
+   * @return The metrics.
+   */
+  public IdentityMetrics getMetrics() {
+    return metrics;
+  }
+
+  /**
+   * Returns the number of resolvers created by this network that are executing at the moment,
+   * including those executed by its DID resolution coordinator.
+   * For the number of all resolvers executing in this JVM see {@link MessageResolver#getLiveResolverCount()}.
+   *
+   * @return The number of live resolvers.
+   */
+  public int getLiveResolverCount() {
+    return liveResolvers.get();
+  }
+
+  /**
+   * Closes this network, stops its DID resolution coordinator and the update subscription of its DID resolution
+   * cache and shuts down the scheduler created by it.
+   * Pending requests of the coordinator fail, other resolvers still executing finish at their next timeout check
+   * at the latest.
+   */
+  @Override
+  public synchronized void close() {
+    if (closed) {
+      return;
+    }
+
+    closed = true;
+    if (didResolutionCache != null) {
+      didResolutionCache.stopListening();
+    }
+
+    if (didResolutionCoordinator != null) {
+      didResolutionCoordinator.close();
+    }
+
+    if (ownsScheduler) {
+      scheduler.shutdown();
+    }
+  }
+
+  /**
+   * A topic ID parsed from its string form in the address book.
+   * The address book can be modified, so the ID is parsed again whenever its string form changes.
+   */
+  private static final class ParsedTopicId {
+    private final String source;
+    private final TopicId topicId;
+
+    private ParsedTopicId(final String source) {
+      this.source = source;
+      this.topicId = TopicId.fromString(source);
+    }
+
+    /**
+     * Returns the cached topic ID if it was parsed from the given string, otherwise parses the string.
+     *
+     * @param cached The cached topic ID or NULL.
+     * @param source The topic ID string from the address book.
+     * @return The parsed topic ID.
+     */
+    static ParsedTopicId of(final ParsedTopicId cached, final String source) {
+      return cached != null && cached.source.equals(source) ? cached : new ParsedTopicId(source);
+    }
   }
 }
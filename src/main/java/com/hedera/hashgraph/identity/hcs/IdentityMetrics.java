@@ -0,0 +1,154 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.sdk.TopicId;
+
+/**
+ * Receives measurements of topic listeners, resolvers and message transactions.
+ * All methods are no-ops by default, so implementations override only what they record, typically by binding
+ * counters and timers of a metrics library such as Micrometer, tagged with the topic ID and the rejection reason
+ * or stage. Methods are called on the threads that process messages, including the validation pipeline workers,
+ * and must be thread-safe and fast.
+ */
+public interface IdentityMetrics {
+  /**
+   * Metrics that record nothing, used unless other metrics are defined.
+   */
+  IdentityMetrics NOOP = new IdentityMetrics() {
+  };
+
+  /**
+   * Stage of processing a received message.
+   */
+  enum Stage {
+    /**
+     * Parsing of the envelope and the message inside it.
+     */
+    PARSE,
+
+    /**
+     * Decryption of an encrypted message.
+     */
+    DECRYPT,
+
+    /**
+     * Verification of the envelope signature.
+     */
+    VERIFY,
+
+    /**
+     * Decoding and parsing of the DID document of a DID message, including the extraction of its DID root key.
+     */
+    DOCUMENT
+  }
+
+  /**
+   * Reason why a received message was rejected. Reasons are a small fixed set, so that they can be used as tags.
+   */
+  enum RejectionReason {
+    /**
+     * The message was rejected by an external filter.
+     */
+    FILTERED,
+
+    /**
+     * The envelope could not be extracted from the mirror response.
+     */
+    MALFORMED,
+
+    /**
+     * The message is encrypted and no decryption function was provided.
+     */
+    NOT_DECRYPTABLE,
+
+    /**
+     * The envelope contained no message.
+     */
+    EMPTY,
+
+    /**
+     * The envelope signature is not valid.
+     */
+    INVALID_SIGNATURE,
+
+    /**
+     * The message content is not valid.
+     */
+    INVALID_CONTENT,
+
+    /**
+     * The running hash of the message did not match.
+     */
+    RUNNING_HASH_MISMATCH,
+
+    /**
+     * Validation failed with an exception or for another reason.
+     */
+    ERROR
+  }
+
+  /**
+   * Records a message received by a listener, live or replayed from an archive.
+   *
+   * @param topicId The topic of the message.
+   */
+  default void messageReceived(final TopicId topicId) {
+  }
+
+  /**
+   * Records a message rejected by a listener.
+   *
+   * @param topicId The topic of the message.
+   * @param reason  The reason of the rejection.
+   */
+  default void messageRejected(final TopicId topicId, final RejectionReason reason) {
+  }
+
+  /**
+   * Records the duration of a single stage of processing a received message.
+   *
+   * @param topicId The topic of the message.
+   * @param stage   The processing stage.
+   * @param nanos   The duration in nanoseconds.
+   */
+  default void recordLatency(final TopicId topicId, final Stage stage, final long nanos) {
+  }
+
+  /**
+   * Records a finished resolution.
+   *
+   * @param topicId         The resolved topic.
+   * @param nanos           The duration of the topic scan in nanoseconds.
+   * @param messagesScanned The number of messages received from the topic, valid or not.
+   * @param matches         The number of requested entries that were resolved.
+   */
+  default void resolutionFinished(final TopicId topicId, final long nanos, final long messagesScanned,
+                                  final long matches) {
+  }
+
+  /**
+   * Records a message transaction accepted by the network.
+   *
+   * @param topicId The topic the message was submitted to.
+   * @param nanos   The duration of the submission in nanoseconds.
+   */
+  default void messageSubmitted(final TopicId topicId, final long nanos) {
+  }
+
+  /**
+   * Records a submitted message received back from the mirror node.
+   *
+   * @param topicId The topic the message was submitted to.
+   * @param nanos   The time from the start of the submission to the confirmation in nanoseconds.
+   */
+  default void messageConfirmed(final TopicId topicId, final long nanos) {
+  }
+
+  /**
+   * Records a failure of a message transaction, either of its submission or of its confirmation.
+   *
+   * @param topicId The topic the message was submitted to.
+   * @param error   The error.
+   */
+  default void transactionFailed(final TopicId topicId, final Throwable error) {
+  }
+}
@@ -0,0 +1,88 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.io.Closeable;
+import java.io.IOException;
+import org.threeten.bp.Instant;
+
+/**
+ * Persistent store of the state of an identity topic, as maintained by appnets listening to the topic:
+ * the last valid message of every DID or credential hash, the signatures of messages already processed
+ * and the position in the topic up to which messages were processed.
+ * After a restart, topic listeners shall resume from {@link #getLastConsensusTimestamp()} plus one nanosecond.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public interface IdentityStateStore<T extends Message> extends Closeable {
+  /**
+   * Returns the last stored message for the given DID or credential hash.
+   *
+   * @param key The DID or credential hash.
+   * @return The stored message or NULL if there is none.
+   */
+  MessageEnvelope<T> get(String key);
+
+  /**
+   * Stores the message as the current state of the given DID or credential hash
+   * and advances the position of the store to the consensus timestamp of the message.
+   *
+   * @param key      The DID or credential hash.
+   * @param envelope The message envelope.
+   * @throws IOException In case the message could not be persisted.
+   */
+  void put(String key, MessageEnvelope<T> envelope) throws IOException;
+
+  /**
+   * Records the signature of a processed message.
+   *
+   * @param signature          The message signature.
+   * @param consensusTimestamp The consensus timestamp of the message, used to age out old signatures.
+   * @return True if the signature was added, false if it was already recorded.
+   * @throws IOException In case the signature could not be persisted.
+   */
+  boolean addSignature(String signature, Instant consensusTimestamp) throws IOException;
+
+  /**
+   * Checks if the signature of a message was already recorded.
+   *
+   * @param signature The message signature.
+   * @return True if the signature was recorded, false otherwise.
+   */
+  boolean containsSignature(String signature);
+
+  /**
+   * Advances the position of the store past a message that did not change the state, e.g. an outdated one.
+   *
+   * @param consensusTimestamp The consensus timestamp of the processed message.
+   * @param sequenceNumber     The sequence number of the processed message.
+   * @throws IOException In case the position could not be persisted.
+   */
+  void advance(Instant consensusTimestamp, long sequenceNumber) throws IOException;
+
+  /**
+   * Returns the consensus timestamp of the last processed message.
+   *
+   * @return The consensus timestamp or NULL if no message was processed yet.
+   */
+  Instant getLastConsensusTimestamp();
+
+  /**
+   * Returns the sequence number of the last processed message.
+   *
+   * @return The sequence number or 0 if no message was processed yet.
+   */
+  long getLastSequenceNumber();
+
+  /**
+   * Returns the number of DIDs or credential hashes in the store.
+   *
+   * @return The number of stored keys.
+   */
+  int size();
+
+  /**
+   * Makes all changes durable.
+   *
+   * @throws IOException In case the changes could not be written.
+   */
+  void flush() throws IOException;
+}
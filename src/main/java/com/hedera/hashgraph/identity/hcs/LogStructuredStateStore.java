@@ -0,0 +1,640 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.google.gson.Gson;
+import com.google.gson.GsonBuilder;
+import com.hedera.hashgraph.identity.utils.Iso8601InstantTypeAdapter;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import org.threeten.bp.Instant;
+
+/**
+ * {@link IdentityStateStore} persisted in an append-only log file.
+ * Every change is appended to the log as a single record framed by {@link ChecksummedRecords}, so writes take
+ * constant time regardless of the size of the state. The state is kept in memory in its encoded form and rebuilt
+ * from the log when the store is opened.
+ * Once the log holds more superseded records than live ones, it is compacted in the background by writing
+ * a snapshot of the state to a new file that atomically replaces the log.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public class LogStructuredStateStore<T extends Message> implements IdentityStateStore<T> {
+  /**
+   * Default minimum number of superseded records in the log before it is compacted.
+   */
+  public static final int DEFAULT_COMPACTION_THRESHOLD = 10_000;
+
+  private static final byte PUT = 1;
+  private static final byte SIGNATURE = 2;
+  private static final byte POSITION = 3;
+
+  /**
+   * Records larger than this are considered corrupted.
+   */
+  private static final int MAX_RECORD_SIZE = 64 * 1024 * 1024;
+
+  private static final long DEFAULT_EXECUTOR_KEEP_ALIVE = 60;
+
+  /**
+   * Serializes opened messages with all their fields, including those that are not part of the topic message,
+   * like creation and update timestamps of DID messages.
+   */
+  private static final Gson MESSAGE_GSON = new GsonBuilder()
+          .disableHtmlEscaping()
+          .registerTypeAdapter(Instant.class, Iso8601InstantTypeAdapter.getInstance())
+          .create();
+
+  private final Path file;
+  private final Path compactionFile;
+  private final Class<T> messageClass;
+  private final Map<String, byte[]> state;
+  private final SignatureIndex signatures;
+  private final RecordBuffer recordBuffer;
+  private final Object compactionLock;
+  private FileChannel channel;
+  private Instant lastConsensusTimestamp;
+  private long lastSequenceNumber;
+  private long recordCount;
+  private int compactionThreshold;
+  private boolean syncOnWrite;
+  private Executor compactionExecutor;
+  private ExecutorService defaultCompactionExecutor;
+  private boolean compacting;
+  private long compactionRetryCount;
+  private IOException compactionError;
+
+  /**
+   * Opens the store persisted in the given file, creating the file if it does not exist.
+   * A record torn by a crash at the end of the log is cut off.
+   *
+   * @param file         The log file.
+   * @param messageClass Class of the messages in the topic.
+   * @throws IOException In case the log is corrupted, could not be read or opened for writing.
+   */
+  public LogStructuredStateStore(final Path file, final Class<T> messageClass) throws IOException {
+    if (file == null || messageClass == null) {
+      throw new IllegalArgumentException("Log file and message class must be provided.");
+    }
+
+    this.file = file;
+    this.compactionFile = file.resolveSibling(file.getFileName() + ".compact");
+    this.messageClass = messageClass;
+    this.state = new HashMap<>();
+    this.signatures = new SignatureIndex();
+    this.recordBuffer = new RecordBuffer();
+    this.compactionLock = new Object();
+    this.compactionThreshold = DEFAULT_COMPACTION_THRESHOLD;
+
+    // A leftover of an interrupted compaction, the log itself is still complete.
+    Files.deleteIfExists(compactionFile);
+
+    long validLength = 0;
+    if (Files.exists(file)) {
+      validLength = ChecksummedRecords.recover(file, MAX_RECORD_SIZE, this::replay);
+    }
+
+    channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.WRITE);
+    if (channel.size() > validLength) {
+      channel.truncate(validLength);
+    }
+    channel.position(validLength);
+  }
+
+  @Override
+  public synchronized MessageEnvelope<T> get(final String key) {
+    byte[] encoded = state.get(key);
+    return encoded == null ? null : decode(encoded);
+  }
+
+  @Override
+  public synchronized void put(final String key, final MessageEnvelope<T> envelope) throws IOException {
+    if (key == null || envelope == null) {
+      throw new IllegalArgumentException("Key and message envelope must be provided.");
+    }
+
+    SerializableMirrorConsensusResponse response = envelope.getMirrorResponse();
+    byte[] encoded = encode(envelope);
+
+    DataOutputStream out = startRecord(recordBuffer, PUT);
+    out.writeUTF(key);
+    writePosition(out, response == null ? null : response.consensusTimestamp,
+            response == null ? 0 : response.sequenceNumber);
+    out.writeInt(encoded.length);
+    out.write(encoded);
+    appendRecord();
+
+    state.put(key, encoded);
+    if (response != null) {
+      updatePosition(response.consensusTimestamp, response.sequenceNumber);
+    }
+
+    compactIfNeeded();
+  }
+
+  @Override
+  public synchronized boolean addSignature(final String signature, final Instant consensusTimestamp)
+          throws IOException {
+    if (signature == null || signatures.contains(signature)) {
+      return false;
+    }
+
+    // Only the digest of the signature is persisted, as it is all the index holds.
+    long[] hash = signatures.hash(signature);
+    long timestamp = consensusTimestamp == null ? Long.MAX_VALUE
+            : consensusTimestamp.getEpochSecond() * 1_000_000_000L + consensusTimestamp.getNano();
+
+    DataOutputStream out = startRecord(recordBuffer, SIGNATURE);
+    writeSignature(out, hash[0], hash[1], timestamp);
+    appendRecord();
+
+    signatures.add(hash[0], hash[1], timestamp);
+    compactIfNeeded();
+    return true;
+  }
+
+  @Override
+  public synchronized boolean containsSignature(final String signature) {
+    return signatures.contains(signature);
+  }
+
+  @Override
+  public synchronized void advance(final Instant consensusTimestamp, final long sequenceNumber) throws IOException {
+    if (consensusTimestamp == null) {
+      return;
+    }
+
+    DataOutputStream out = startRecord(recordBuffer, POSITION);
+    writePosition(out, consensusTimestamp, sequenceNumber);
+    appendRecord();
+
+    updatePosition(consensusTimestamp, sequenceNumber);
+    compactIfNeeded();
+  }
+
+  @Override
+  public synchronized Instant getLastConsensusTimestamp() {
+    return lastConsensusTimestamp;
+  }
+
+  @Override
+  public synchronized long getLastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  @Override
+  public synchronized int size() {
+    return state.size();
+  }
+
+  /**
+   * Forces all written changes to the storage device.
+   * If a background compaction failed since the last flush, its error is thrown after flushing.
+   * The log is left unchanged by a failed compaction.
+   *
+   * @throws IOException In case the log could not be written or a background compaction failed.
+   */
+  @Override
+  public synchronized void flush() throws IOException {
+    channel.force(false);
+
+    if (compactionError != null) {
+      IOException error = compactionError;
+      compactionError = null;
+      throw new IOException("Background compaction of " + file + " failed.", error);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (defaultCompactionExecutor != null) {
+      defaultCompactionExecutor.shutdown();
+    }
+
+    if (channel.isOpen()) {
+      channel.force(false);
+      channel.close();
+    }
+  }
+
+  /**
+   * Rewrites the log as a snapshot of the current state, dropping superseded records.
+   * The snapshot is written without blocking other operations of the store,
+   * changes made meanwhile are copied over before the snapshot replaces the log.
+   *
+   * @throws IOException In case the snapshot could not be written, the log is left unchanged.
+   */
+  public void compact() throws IOException {
+    synchronized (compactionLock) {
+      Map<String, byte[]> stateSnapshot;
+      long[] signaturesSnapshot;
+      Instant consensusTimestamp;
+      long sequenceNumber;
+      long logLength;
+      long snapshotRecordCount;
+      synchronized (this) {
+        if (!channel.isOpen()) {
+          return;
+        }
+
+        stateSnapshot = new HashMap<>(state);
+        signaturesSnapshot = new long[signatures.size() * 3];
+        int[] index = new int[1];
+        signatures.forEach((hi, lo, timestamp) -> {
+          signaturesSnapshot[index[0]++] = hi;
+          signaturesSnapshot[index[0]++] = lo;
+          signaturesSnapshot[index[0]++] = timestamp;
+        });
+        consensusTimestamp = lastConsensusTimestamp;
+        sequenceNumber = lastSequenceNumber;
+        logLength = channel.position();
+        snapshotRecordCount = recordCount;
+      }
+
+      try (FileChannel snapshot = FileChannel.open(compactionFile, StandardOpenOption.CREATE,
+              StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+        long count = writeSnapshot(snapshot, stateSnapshot, signaturesSnapshot, consensusTimestamp, sequenceNumber);
+        snapshot.force(true);
+
+        synchronized (this) {
+          if (!channel.isOpen()) {
+            snapshot.close();
+            Files.deleteIfExists(compactionFile);
+            return;
+          }
+
+          // Records appended while the snapshot was written follow it unchanged.
+          long tailCount = recordCount - snapshotRecordCount;
+          copyLog(logLength, channel.position(), snapshot);
+          snapshot.force(true);
+          snapshot.close();
+
+          channel.close();
+          try {
+            Files.move(compactionFile, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+            recordCount = count + tailCount;
+          } finally {
+            // Continue appending to whichever file is the log now.
+            channel = FileChannel.open(file, StandardOpenOption.WRITE);
+            channel.position(channel.size());
+          }
+        }
+      } catch (IOException e) {
+        Files.deleteIfExists(compactionFile);
+        throw e;
+      }
+    }
+  }
+
+  /**
+   * Defines the minimum number of superseded records in the log before it is compacted. Default is 10 000.
+   *
+   * @param compactionThreshold The minimum number of superseded records.
+   * @return This store instance.
+   */
+  public synchronized LogStructuredStateStore<T> setCompactionThreshold(final int compactionThreshold) {
+    if (compactionThreshold < 1) {
+      throw new IllegalArgumentException("Compaction threshold must be positive.");
+    }
+
+    this.compactionThreshold = compactionThreshold;
+    return this;
+  }
+
+  /**
+   * Defines the executor that compacts the log in the background, so that writes of the caller are not blocked
+   * by rewriting the whole state. By default, every store uses its own daemon thread, created when needed.
+   *
+   * @param executor The compaction executor.
+   * @return This store instance.
+   */
+  public synchronized LogStructuredStateStore<T> setCompactionExecutor(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("Compaction executor must be provided.");
+    }
+
+    this.compactionExecutor = executor;
+    return this;
+  }
+
+  /**
+   * Defines the window of consensus time behind the newest message, outside of which signatures are aged out
+   * of the duplicate index. Listeners resume after the last processed message, so older messages are not received
+   * again. Default is 0, keeping signatures forever.
+   *
+   * @param retentionWindow The retention window in milliseconds.
+   * @return This store instance.
+   * @see SignatureIndex#setRetentionWindow(long)
+   */
+  public synchronized LogStructuredStateStore<T> setSignatureRetentionWindow(final long retentionWindow) {
+    signatures.setRetentionWindow(retentionWindow);
+    return this;
+  }
+
+  /**
+   * Defines whether every write is forced to the storage device before it returns.
+   * Otherwise writes are durable after {@link #flush()} or {@link #close()}, but a crash of the operating system
+   * may lose the most recent ones. Disabled by default.
+   *
+   * @param syncOnWrite Whether to force every write to the storage device.
+   * @return This store instance.
+   */
+  public synchronized LogStructuredStateStore<T> setSyncOnWrite(final boolean syncOnWrite) {
+    this.syncOnWrite = syncOnWrite;
+    return this;
+  }
+
+  /**
+   * Applies a single record of the log to the in-memory state.
+   *
+   * @param payload The record payload.
+   * @throws IOException In case the record is malformed.
+   */
+  private void replay(final ByteBuffer payload) throws IOException {
+    DataInputStream in = new DataInputStream(
+            new ByteArrayInputStream(payload.array(), payload.arrayOffset(), payload.remaining()));
+    byte type = in.readByte();
+    if (type == PUT) {
+      String key = in.readUTF();
+      readPosition(in);
+      byte[] encoded = new byte[in.readInt()];
+      in.readFully(encoded);
+      state.put(key, encoded);
+    } else if (type == SIGNATURE) {
+      signatures.add(in.readLong(), in.readLong(), in.readLong());
+    } else if (type == POSITION) {
+      readPosition(in);
+    } else {
+      throw new IOException("Unknown record type " + type + " in " + file);
+    }
+
+    recordCount++;
+  }
+
+  private void readPosition(final DataInputStream in) throws IOException {
+    long sequenceNumber = in.readLong();
+    long seconds = in.readLong();
+    int nanos = in.readInt();
+    if (sequenceNumber >= 0) {
+      updatePosition(Instant.ofEpochSecond(seconds, nanos), sequenceNumber);
+    }
+  }
+
+  private static void writePosition(final DataOutputStream out, final Instant consensusTimestamp,
+                                    final long sequenceNumber) throws IOException {
+    out.writeLong(consensusTimestamp == null ? -1 : sequenceNumber);
+    out.writeLong(consensusTimestamp == null ? 0 : consensusTimestamp.getEpochSecond());
+    out.writeInt(consensusTimestamp == null ? 0 : consensusTimestamp.getNano());
+  }
+
+  private static void writeSignature(final DataOutputStream out, final long hi, final long lo,
+                                     final long timestamp) throws IOException {
+    out.writeLong(hi);
+    out.writeLong(lo);
+    out.writeLong(timestamp);
+  }
+
+  private void updatePosition(final Instant consensusTimestamp, final long sequenceNumber) {
+    if (lastConsensusTimestamp == null || consensusTimestamp.isAfter(lastConsensusTimestamp)) {
+      lastConsensusTimestamp = consensusTimestamp;
+    }
+
+    lastSequenceNumber = Math.max(lastSequenceNumber, sequenceNumber);
+  }
+
+  /**
+   * Starts a new record in the given buffer.
+   *
+   * @param buffer The record buffer.
+   * @param type   The record type.
+   * @return The stream to write the record payload to.
+   * @throws IOException Never, the buffer is in memory.
+   */
+  private static DataOutputStream startRecord(final RecordBuffer buffer, final byte type) throws IOException {
+    buffer.reset();
+    DataOutputStream out = new DataOutputStream(buffer);
+    out.writeByte(type);
+    return out;
+  }
+
+  /**
+   * Appends the record in the record buffer to the log.
+   *
+   * @throws IOException In case writing failed.
+   */
+  private void appendRecord() throws IOException {
+    ChecksummedRecords.append(channel, recordBuffer.frame());
+
+    recordCount++;
+    if (syncOnWrite) {
+      channel.force(false);
+    }
+  }
+
+  /**
+   * Writes a snapshot of the state to the compaction file.
+   *
+   * @param snapshot           The compaction file.
+   * @param stateSnapshot      The copy of the state.
+   * @param signaturesSnapshot The signature digests and timestamps.
+   * @param consensusTimestamp The last consensus timestamp.
+   * @param sequenceNumber     The last sequence number.
+   * @return The number of written records.
+   * @throws IOException In case writing failed.
+   */
+  private static long writeSnapshot(final FileChannel snapshot, final Map<String, byte[]> stateSnapshot,
+                                    final long[] signaturesSnapshot, final Instant consensusTimestamp,
+                                    final long sequenceNumber) throws IOException {
+    RecordBuffer buffer = new RecordBuffer();
+    long count = 0;
+    for (Map.Entry<String, byte[]> entry : stateSnapshot.entrySet()) {
+      DataOutputStream out = startRecord(buffer, PUT);
+      out.writeUTF(entry.getKey());
+      writePosition(out, null, 0);
+      out.writeInt(entry.getValue().length);
+      out.write(entry.getValue());
+      ChecksummedRecords.append(snapshot, buffer.frame());
+      count++;
+    }
+
+    for (int i = 0; i < signaturesSnapshot.length; i += 3) {
+      writeSignature(startRecord(buffer, SIGNATURE), signaturesSnapshot[i], signaturesSnapshot[i + 1],
+              signaturesSnapshot[i + 2]);
+      ChecksummedRecords.append(snapshot, buffer.frame());
+      count++;
+    }
+
+    if (consensusTimestamp != null) {
+      writePosition(startRecord(buffer, POSITION), consensusTimestamp, sequenceNumber);
+      ChecksummedRecords.append(snapshot, buffer.frame());
+      count++;
+    }
+
+    return count;
+  }
+
+  /**
+   * Copies a range of the log to the end of the target file.
+   *
+   * @param from   The start of the range.
+   * @param to     The end of the range.
+   * @param target The target file.
+   * @throws IOException In case copying failed.
+   */
+  private void copyLog(final long from, final long to, final FileChannel target) throws IOException {
+    try (FileChannel log = FileChannel.open(file, StandardOpenOption.READ)) {
+      long position = from;
+      while (position < to) {
+        position += log.transferTo(position, to - position, target);
+      }
+    }
+  }
+
+  /**
+   * Starts a background compaction once the log holds at least the threshold of superseded records
+   * and more of them than live ones.
+   */
+  private void compactIfNeeded() {
+    long live = state.size() + signatures.size() + 1L;
+    long superseded = recordCount - live;
+    if (compacting || recordCount < compactionRetryCount
+            || superseded < compactionThreshold || superseded <= live) {
+      return;
+    }
+
+    compacting = true;
+    try {
+      getCompactionExecutor().execute(this::compactInBackground);
+    } catch (RejectedExecutionException e) {
+      compacting = false;
+    }
+  }
+
+  private void compactInBackground() {
+    try {
+      compact();
+    } catch (IOException e) {
+      synchronized (this) {
+        compactionError = e;
+        // Do not retry on every write.
+        compactionRetryCount = recordCount + compactionThreshold;
+      }
+    } finally {
+      synchronized (this) {
+        compacting = false;
+      }
+    }
+  }
+
+  private Executor getCompactionExecutor() {
+    if (compactionExecutor == null) {
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(1, 1, DEFAULT_EXECUTOR_KEEP_ALIVE, TimeUnit.SECONDS,
+              new LinkedBlockingQueue<>(),
+              new ThreadFactoryBuilder().setNameFormat("identity-state-compaction-%d").setDaemon(true).build());
+      pool.allowCoreThreadTimeOut(true);
+      defaultCompactionExecutor = pool;
+      compactionExecutor = pool;
+    }
+
+    return compactionExecutor;
+  }
+
+  /**
+   * Encodes the envelope with its original bytes, mirror response and opened message.
+   *
+   * @param envelope The message envelope.
+   * @return The encoded envelope.
+   * @throws IOException Never, the buffer is in memory.
+   */
+  private static byte[] encode(final MessageEnvelope<?> envelope) throws IOException {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    DataOutputStream out = new DataOutputStream(bytes);
+
+    // The original bytes keep the signature verifiable.
+    boolean rawKept = envelope.rawMessage != null;
+    byte[] json = rawKept ? envelope.rawMessage : envelope.toJson().getBytes(StandardCharsets.UTF_8);
+    out.writeBoolean(rawKept);
+    out.writeInt(json.length);
+    out.write(json);
+
+    SerializableMirrorConsensusResponse response = envelope.mirrorResponse;
+    out.writeBoolean(response != null);
+    if (response != null) {
+      writePosition(out, response.consensusTimestamp, response.sequenceNumber);
+      byte[] runningHash = response.runningHash == null ? new byte[0] : response.runningHash;
+      out.writeInt(runningHash.length);
+      out.write(runningHash);
+    }
+
+    // Decrypted messages and fields set by resolvers are not part of the envelope JSON.
+    Message opened = envelope.decryptedMessage;
+    out.writeBoolean(opened != null);
+    if (opened != null) {
+      byte[] openedJson = MESSAGE_GSON.toJson(opened).getBytes(StandardCharsets.UTF_8);
+      out.writeInt(openedJson.length);
+      out.write(openedJson);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  private MessageEnvelope<T> decode(final byte[] encoded) {
+    try {
+      DataInputStream in = new DataInputStream(new ByteArrayInputStream(encoded));
+      boolean rawKept = in.readBoolean();
+      byte[] json = new byte[in.readInt()];
+      in.readFully(json);
+
+      MessageEnvelope<T> envelope = MessageEnvelope.fromJson(json, messageClass);
+      if (!rawKept) {
+        envelope.discardRawMessage();
+      }
+
+      if (in.readBoolean()) {
+        long sequenceNumber = in.readLong();
+        Instant consensusTimestamp = Instant.ofEpochSecond(in.readLong(), in.readInt());
+        byte[] runningHash = new byte[in.readInt()];
+        in.readFully(runningHash);
+        envelope.mirrorResponse = new SerializableMirrorConsensusResponse(consensusTimestamp,
+                rawKept ? json : null, runningHash, sequenceNumber);
+      }
+
+      if (in.readBoolean()) {
+        byte[] openedJson = new byte[in.readInt()];
+        in.readFully(openedJson);
+        envelope.decryptedMessage = MESSAGE_GSON.fromJson(new String(openedJson, StandardCharsets.UTF_8),
+                messageClass);
+      }
+
+      return envelope;
+    } catch (IOException | RuntimeException e) {
+      throw new IllegalStateException("Stored message could not be read.", e);
+    }
+  }
+
+  /**
+   * Reusable buffer of a record payload.
+   */
+  private static final class RecordBuffer extends ByteArrayOutputStream {
+    ByteBuffer frame() {
+      return ChecksummedRecords.frame(buf, count);
+    }
+  }
+}
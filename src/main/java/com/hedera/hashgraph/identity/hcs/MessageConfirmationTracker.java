@@ -0,0 +1,343 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.TopicMessage;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import org.threeten.bp.Instant;
+
+/**
+ * Tracks confirmations of many submitted messages with a single topic subscription.
+ * Pending submissions are indexed by their content, so each message received from the topic is matched
+ * with a single map lookup before it is parsed, regardless of how many submissions are in flight.
+ * The subscription reconnects when no message was received for the idle timeout, which is how a failed stream
+ * is detected. If it fails for good, pending confirmations are failed with the error and the next tracked message
+ * opens a new subscription.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public class MessageConfirmationTracker<T extends Message> implements AutoCloseable {
+  /**
+   * Default time in milliseconds after which a tracked message that was not confirmed fails.
+   */
+  public static final long DEFAULT_CONFIRMATION_TIMEOUT = 120_000;
+
+  /**
+   * Default time in milliseconds the subscription starts before the message was tracked.
+   */
+  public static final long DEFAULT_START_TIME_LOOKBACK = 60_000;
+
+  /**
+   * Default time in milliseconds without messages after which the subscription reconnects.
+   */
+  public static final long DEFAULT_IDLE_TIMEOUT = 30_000;
+
+  private final MessageListener<T> listener;
+  private final Client client;
+  private final Map<ContentKey, List<CompletableFuture<MessageEnvelope<T>>>> pending;
+  private Consumer<Throwable> errorHandler;
+  private ScheduledExecutorService scheduler;
+  private long confirmationTimeout;
+  private long startTimeLookback;
+  private boolean subscribed;
+  private boolean closed;
+
+  /**
+   * Creates a new tracker.
+   *
+   * @param listener The listener of the topic, configured with a decrypter if messages are encrypted.
+   * @param client   The mirror node client.
+   */
+  public MessageConfirmationTracker(final MessageListener<T> listener, final Client client) {
+    if (listener == null || client == null) {
+      throw new IllegalArgumentException("Listener and client must be provided.");
+    }
+
+    this.listener = listener;
+    this.client = client;
+    this.pending = new ConcurrentHashMap<>();
+    this.confirmationTimeout = DEFAULT_CONFIRMATION_TIMEOUT;
+    this.startTimeLookback = DEFAULT_START_TIME_LOOKBACK;
+
+    listener.setAutoReconnect(DEFAULT_IDLE_TIMEOUT)
+            .setIgnoreErrors(false)
+            .onError(this::handleError)
+            .addFilter(r -> pending.containsKey(new ContentKey(r.contents)))
+            .onInvalidMessageReceived(this::handleInvalidMessage);
+  }
+
+  /**
+   * Starts tracking the given message, which must be tracked before it is submitted.
+   * The topic subscription is opened on the first tracked message.
+   * If the message is not confirmed within the confirmation timeout, the future fails with a {@link TimeoutException}.
+   * Cancelling the future stops tracking it.
+   *
+   * @param messageContent The signed envelope bytes to be submitted.
+   * @return The future completed with the message once consensus was reached on it.
+   */
+  public CompletableFuture<MessageEnvelope<T>> track(final byte[] messageContent) {
+    CompletableFuture<MessageEnvelope<T>> future = new CompletableFuture<>();
+    ContentKey key = new ContentKey(messageContent);
+    pending.compute(key, (k, list) -> {
+      List<CompletableFuture<MessageEnvelope<T>>> result = list == null ? new ArrayList<>(1) : list;
+      result.add(future);
+      return result;
+    });
+
+    try {
+      subscribeIfNeeded();
+    } catch (RuntimeException e) {
+      remove(key, future);
+      throw e;
+    }
+
+    future.whenComplete((msg, err) -> remove(key, future));
+    scheduleTimeout(key, future);
+    return future;
+  }
+
+  /**
+   * Stops tracking the given message, for example because its submission failed.
+   * Pending futures of the message are cancelled.
+   *
+   * @param messageContent The signed envelope bytes.
+   */
+  public void untrack(final byte[] messageContent) {
+    List<CompletableFuture<MessageEnvelope<T>>> futures = pending.remove(new ContentKey(messageContent));
+    if (futures != null) {
+      futures.forEach(f -> f.cancel(false));
+    }
+  }
+
+  /**
+   * Returns the number of distinct messages waiting for confirmation.
+   *
+   * @return The number of pending messages.
+   */
+  public int getPendingCount() {
+    return pending.size();
+  }
+
+  /**
+   * Defines a handler for errors of the topic subscription.
+   *
+   * @param handler The error handler.
+   * @return This tracker instance.
+   */
+  public MessageConfirmationTracker<T> onError(final Consumer<Throwable> handler) {
+    this.errorHandler = handler;
+    return this;
+  }
+
+  /**
+   * Defines the time after which a tracked message that was not confirmed fails. Default is 2 minutes.
+   *
+   * @param timeout The timeout in milliseconds, 0 to wait without a limit.
+   * @return This tracker instance.
+   */
+  public MessageConfirmationTracker<T> setConfirmationTimeout(final long timeout) {
+    if (timeout < 0) {
+      throw new IllegalArgumentException("Confirmation timeout must not be negative.");
+    }
+
+    this.confirmationTimeout = timeout;
+    return this;
+  }
+
+  /**
+   * Defines how long before the first tracked message the subscription starts, so that confirmations are not missed
+   * when the local clock runs ahead of consensus time. Messages of the topic that are not tracked are skipped
+   * before they are parsed, so a generous lookback is cheap. Default is 1 minute.
+   *
+   * @param lookback The lookback in milliseconds.
+   * @return This tracker instance.
+   */
+  public MessageConfirmationTracker<T> setStartTimeLookback(final long lookback) {
+    if (lookback < 0) {
+      throw new IllegalArgumentException("Start time lookback must not be negative.");
+    }
+
+    this.startTimeLookback = lookback;
+    return this;
+  }
+
+  /**
+   * Defines the scheduler used for confirmation timeouts and reconnections.
+   * By default the shared daemon scheduler of the SDK is used.
+   *
+   * @param scheduler The scheduler to use.
+   * @return This tracker instance.
+   */
+  public MessageConfirmationTracker<T> setScheduler(final ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+    listener.setScheduler(scheduler);
+    return this;
+  }
+
+  /**
+   * Opens the topic subscription unless it is open already.
+   */
+  private synchronized void subscribeIfNeeded() {
+    if (closed) {
+      throw new IllegalStateException("Confirmation tracker has been closed.");
+    }
+
+    if (subscribed) {
+      return;
+    }
+
+    listener.setStartTime(Instant.now().minusMillis(startTimeLookback))
+            .subscribe(client, this::handleConfirmedMessage);
+    subscribed = true;
+  }
+
+  /**
+   * Fails the future of a tracked message if it is not confirmed within the confirmation timeout.
+   *
+   * @param key    The content of the message.
+   * @param future The future of the message.
+   */
+  private void scheduleTimeout(final ContentKey key, final CompletableFuture<MessageEnvelope<T>> future) {
+    if (confirmationTimeout == 0 || future.isDone()) {
+      return;
+    }
+
+    ScheduledFuture<?> timeout;
+    try {
+      timeout = getScheduler().schedule(() -> {
+        remove(key, future);
+        future.completeExceptionally(new TimeoutException("Message was not confirmed within "
+                + confirmationTimeout + " ms."));
+      }, confirmationTimeout, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // The scheduler was shut down, the message is tracked without a timeout.
+      return;
+    }
+
+    future.whenComplete((msg, err) -> timeout.cancel(false));
+  }
+
+  /**
+   * Removes a single future of a tracked message.
+   *
+   * @param key    The content of the message.
+   * @param future The future to remove.
+   */
+  private void remove(final ContentKey key, final CompletableFuture<MessageEnvelope<T>> future) {
+    pending.computeIfPresent(key, (k, list) -> {
+      list.remove(future);
+      return list.isEmpty() ? null : list;
+    });
+  }
+
+  /**
+   * Handles an error of the topic subscription.
+   * Invalid messages are only reported, any other error means that the stream could not be recovered,
+   * so pending confirmations fail and the next tracked message opens a new subscription.
+   *
+   * @param err The error.
+   */
+  private void handleError(final Throwable err) {
+    if (!(err instanceof InvalidMessageException)) {
+      synchronized (this) {
+        subscribed = false;
+        listener.unsubscribe();
+      }
+
+      new ArrayList<>(pending.keySet()).forEach(key -> {
+        List<CompletableFuture<MessageEnvelope<T>>> futures = pending.remove(key);
+        if (futures != null) {
+          futures.forEach(f -> f.completeExceptionally(err));
+        }
+      });
+    }
+
+    if (errorHandler != null) {
+      errorHandler.accept(err);
+    }
+  }
+
+  private ScheduledExecutorService getScheduler() {
+    return scheduler != null ? scheduler : DefaultScheduler.get();
+  }
+
+  /**
+   * Completes futures of a confirmed message.
+   *
+   * @param envelope The valid message received from the topic.
+   */
+  private void handleConfirmedMessage(final MessageEnvelope<T> envelope) {
+    byte[] content = envelope.getMirrorResponse() == null ? null : envelope.getMirrorResponse().message;
+    if (content == null) {
+      return;
+    }
+
+    List<CompletableFuture<MessageEnvelope<T>>> futures = pending.remove(new ContentKey(content));
+    if (futures != null) {
+      futures.forEach(f -> f.complete(envelope));
+    }
+  }
+
+  /**
+   * Fails futures of a tracked message that was found invalid.
+   *
+   * @param response The mirror response.
+   * @param reason   The reason why message validation failed.
+   */
+  private void handleInvalidMessage(final TopicMessage response, final String reason) {
+    List<CompletableFuture<MessageEnvelope<T>>> futures = pending.remove(new ContentKey(response.contents));
+    if (futures != null) {
+      futures.forEach(f -> f.completeExceptionally(new InvalidMessageException(response, reason)));
+    }
+  }
+
+  /**
+   * Closes the topic subscription and cancels all pending confirmations.
+   */
+  @Override
+  public synchronized void close() {
+    closed = true;
+    listener.unsubscribe();
+    new ArrayList<>(pending.keySet()).forEach(key -> {
+      List<CompletableFuture<MessageEnvelope<T>>> futures = pending.remove(key);
+      if (futures != null) {
+        futures.forEach(f -> f.cancel(false));
+      }
+    });
+  }
+
+  /**
+   * Message content used as a map key.
+   */
+  private static final class ContentKey {
+    private final byte[] content;
+    private final int hash;
+
+    ContentKey(final byte[] content) {
+      this.content = content;
+      this.hash = Arrays.hashCode(content);
+    }
+
+    @Override
+    public boolean equals(final Object other) {
+      return other instanceof ContentKey
+              && hash == ((ContentKey) other).hash
+              && Arrays.equals(content, ((ContentKey) other).content);
+    }
+
+    @Override
+    public int hashCode() {
+      return hash;
+    }
+  }
+}
@@ -1,18 +1,13 @@
 package com.hedera.hashgraph.identity.hcs;
 
 import com.google.common.base.Strings;
-import com.google.gson.Gson;
-import com.google.gson.JsonObject;
-import com.google.gson.JsonParser;
 import com.google.gson.annotations.Expose;
 import com.google.gson.annotations.SerializedName;
-import com.google.gson.reflect.TypeToken;
 import com.hedera.hashgraph.identity.utils.JsonUtils;
 import com.hedera.hashgraph.sdk.PrivateKey;
 import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicMessage;
 import java.io.Serializable;
-import java.lang.reflect.Type;
 import java.nio.charset.StandardCharsets;
 import java.util.Base64;
 import java.util.function.Function;
@@ -25,8 +20,8 @@ import org.threeten.bp.Instant;
  * The envelope for Hedera identity messages sent to HCS DID or VC topics.
  */
 public class MessageEnvelope<T extends Message> implements Serializable {
-  private static final String MESSAGE_KEY = "message";
-  private static final String SIGNATURE_KEY = "signature";
+  static final String MESSAGE_KEY = "message";
+  static final String SIGNATURE_KEY = "signature";
 
   @Expose(serialize = false, deserialize = false)
   private static final long serialVersionUID = 1L;
@@ -42,8 +37,18 @@ public class MessageEnvelope<T extends Message> implements Serializable {
   @SerializedName(SIGNATURE_KEY)
   protected String signature;
 
+  /**
+   * The original envelope bytes this envelope was parsed from.
+   * The message member occupies rawMessageLength bytes starting at rawMessageOffset.
+   */
+  @Expose(serialize = false, deserialize = false)
+  protected byte[] rawMessage;
+
+  @Expose(serialize = false, deserialize = false)
+  protected int rawMessageOffset;
+
   @Expose(serialize = false, deserialize = false)
-  protected String messageJson;
+  protected int rawMessageLength;
 
   @Expose(serialize = false, deserialize = false)
   protected T decryptedMessage;
@@ -83,14 +88,29 @@ public class MessageEnvelope<T extends Message> implements Serializable {
   public static <U extends Message> MessageEnvelope<U> fromMirrorResponse(
           final TopicMessage response, final Class<U> messageClass) {
 
-    String msgJson = new String(response.contents, StandardCharsets.UTF_8);
-
-    MessageEnvelope<U> result = MessageEnvelope.fromJson(msgJson, messageClass);
+    MessageEnvelope<U> result = MessageEnvelope.fromJson(response.contents, messageClass);
     result.mirrorResponse = new SerializableMirrorConsensusResponse(response);
 
     return result;
   }
 
+  /**
+   * Converts a message read from a {@link TopicArchive} into object instance.
+   *
+   * @param <U>          Type of the message inside envelope.
+   * @param response     Archived topic message.
+   * @param messageClass Class type of the message inside envelope.
+   * @return The {@link MessageEnvelope}.
+   */
+  public static <U extends Message> MessageEnvelope<U> fromArchivedResponse(
+          final SerializableMirrorConsensusResponse response, final Class<U> messageClass) {
+
+    MessageEnvelope<U> result = MessageEnvelope.fromJson(response.message, messageClass);
+    result.mirrorResponse = response;
+
+    return result;
+  }
+
   /**
    * Converts a VC topic message from a JSON string into object instance.
    *
@@ -100,16 +120,21 @@ public class MessageEnvelope<T extends Message> implements Serializable {
    * @return The {@link MessageEnvelope}.
    */
   public static <U extends Message> MessageEnvelope<U> fromJson(final String json, final Class<U> messageClass) {
-    Gson gson = JsonUtils.getGson();
-    Type envelopeType = TypeToken.getParameterized(MessageEnvelope.class, messageClass).getType();
-
-    MessageEnvelope<U> result = gson.fromJson(json, envelopeType);
-
-    // extract original message JSON part separately to be able to verify signature.
-    JsonObject root = JsonParser.parseString(json).getAsJsonObject();
-    result.messageJson = root.has(MESSAGE_KEY) ? root.get(MESSAGE_KEY).toString() : null;
+    return fromJson(json.getBytes(StandardCharsets.UTF_8), messageClass);
+  }
 
-    return result;
+  /**
+   * Converts a topic message from UTF-8 encoded JSON bytes into object instance.
+   * The envelope is read in a single pass and keeps a reference to the original bytes of the message,
+   * so that its signature is verified exactly over what was submitted to the topic.
+   *
+   * @param <U>          Type of the message inside envelope.
+   * @param json         Topic message as UTF-8 encoded JSON.
+   * @param messageClass Class of the message inside envelope.
+   * @return The {@link MessageEnvelope}.
+   */
+  public static <U extends Message> MessageEnvelope<U> fromJson(final byte[] json, final Class<U> messageClass) {
+    return MessageEnvelopeReader.read(json, messageClass);
   }
 
   /**
@@ -190,7 +215,7 @@ public class MessageEnvelope<T extends Message> implements Serializable {
    * @return True if the message is valid, false otherwise.
    */
   public boolean isSignatureValid(final Function<MessageEnvelope<T>, PublicKey> publicKeyProvider) {
-    if (signature == null || messageJson == null) {
+    if (signature == null || rawMessage == null) {
       return false;
     }
 
@@ -200,9 +225,9 @@ public class MessageEnvelope<T extends Message> implements Serializable {
     }
 
     byte[] signatureToVerify = Base64.getDecoder().decode(signature.getBytes(StandardCharsets.UTF_8));
-    byte[] messageBytes = messageJson.getBytes(StandardCharsets.UTF_8);
 
-    return Ed25519.verify(signatureToVerify, 0, publicKey.toBytes(), 0, messageBytes, 0, messageBytes.length);
+    return Ed25519.verify(signatureToVerify, 0, publicKey.toBytes(), 0,
+            rawMessage, rawMessageOffset, rawMessageLength);
   }
 
   /**
@@ -240,6 +265,34 @@ public class MessageEnvelope<T extends Message> implements Serializable {
     return decryptedMessage;
   }
 
+  /**
+   * Sets the range of the original envelope bytes that holds the message JSON.
+   *
+   * @param source The original envelope bytes.
+   * @param offset Start of the message JSON.
+   * @param length Length of the message JSON.
+   */
+  void setRawMessage(final byte[] source, final int offset, final int length) {
+    this.rawMessage = source;
+    this.rawMessageOffset = offset;
+    this.rawMessageLength = length;
+  }
+
+  /**
+   * Releases the original envelope bytes received from the mirror node, once the envelope was validated.
+   * The consensus timestamp, sequence number and running hash of the mirror response are kept.
+   * Afterwards the signature can no longer be verified, so {@link #isSignatureValid(Function)} returns false.
+   */
+  public void discardRawMessage() {
+    this.rawMessage = null;
+    this.rawMessageOffset = 0;
+    this.rawMessageLength = 0;
+
+    if (mirrorResponse != null) {
+      this.mirrorResponse = mirrorResponse.withoutMessage();
+    }
+  }
+
   public String getSignature() {
     return signature;
   }
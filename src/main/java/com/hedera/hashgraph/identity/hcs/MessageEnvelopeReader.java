@@ -0,0 +1,250 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.gson.Gson;
+import com.google.gson.JsonSyntaxException;
+import com.hedera.hashgraph.identity.utils.JsonUtils;
+import java.io.ByteArrayInputStream;
+import java.io.InputStreamReader;
+import java.io.Reader;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * Single-pass reader of message envelopes serialized as UTF-8 JSON.
+ * The reader walks the top-level envelope object once, deserializes each member directly from its byte range
+ * and records the exact range of the message member, so that signatures can be verified over the original bytes.
+ * JSON structural characters are all ASCII, so scanning UTF-8 bytes never mistakes a multi-byte character for one.
+ */
+final class MessageEnvelopeReader {
+  private static final byte[] MODE_KEY = "mode".getBytes(StandardCharsets.UTF_8);
+  private static final byte[] MESSAGE_KEY = MessageEnvelope.MESSAGE_KEY.getBytes(StandardCharsets.UTF_8);
+  private static final byte[] SIGNATURE_KEY = MessageEnvelope.SIGNATURE_KEY.getBytes(StandardCharsets.UTF_8);
+
+  private final byte[] json;
+  private final int end;
+  private int pos;
+
+  /**
+   * Creates a new reader for the given envelope bytes.
+   *
+   * @param json The envelope JSON as UTF-8 bytes.
+   */
+  private MessageEnvelopeReader(final byte[] json) {
+    this.json = json;
+    this.end = json.length;
+  }
+
+  /**
+   * Reads a message envelope from its UTF-8 JSON representation.
+   *
+   * @param <U>          Type of the message inside envelope.
+   * @param json         The envelope JSON as UTF-8 bytes.
+   * @param messageClass Class of the message inside envelope.
+   * @return The {@link MessageEnvelope} referencing the raw message bytes.
+   * @throws JsonSyntaxException In case the given bytes are not a valid JSON object.
+   */
+  static <U extends Message> MessageEnvelope<U> read(final byte[] json, final Class<U> messageClass) {
+    return new MessageEnvelopeReader(json).readEnvelope(messageClass);
+  }
+
+  /**
+   * Reads the top-level envelope object.
+   *
+   * @param <U>          Type of the message inside envelope.
+   * @param messageClass Class of the message inside envelope.
+   * @return The {@link MessageEnvelope}.
+   */
+  private <U extends Message> MessageEnvelope<U> readEnvelope(final Class<U> messageClass) {
+    Gson gson = JsonUtils.getGson();
+    MessageEnvelope<U> result = new MessageEnvelope<>();
+
+    expect('{');
+    boolean first = true;
+    while (true) {
+      skipWhitespace();
+      if (peek() == '}') {
+        pos++;
+        break;
+      }
+
+      if (!first) {
+        expect(',');
+        skipWhitespace();
+      }
+      first = false;
+
+      int keyStart = pos;
+      skipString();
+      int keyEnd = pos;
+      expect(':');
+      skipWhitespace();
+
+      int valueStart = pos;
+      skipValue();
+      int valueEnd = pos;
+
+      if (isKey(keyStart, keyEnd, MESSAGE_KEY)) {
+        result.message = gson.fromJson(reader(valueStart, valueEnd), messageClass);
+        result.setRawMessage(json, valueStart, valueEnd - valueStart);
+      } else if (isKey(keyStart, keyEnd, SIGNATURE_KEY)) {
+        result.signature = gson.fromJson(reader(valueStart, valueEnd), String.class);
+      } else if (isKey(keyStart, keyEnd, MODE_KEY)) {
+        result.mode = gson.fromJson(reader(valueStart, valueEnd), MessageMode.class);
+      }
+    }
+
+    skipWhitespace();
+    if (pos != end) {
+      throw syntaxError("Unexpected content after the envelope");
+    }
+
+    return result;
+  }
+
+  /**
+   * Checks if the JSON string in the given range is the given member name.
+   *
+   * @param start Start of the quoted string, inclusive.
+   * @param stop  End of the quoted string, exclusive.
+   * @param key   The member name as UTF-8 bytes.
+   * @return True if the string is the given member name.
+   */
+  private boolean isKey(final int start, final int stop, final byte[] key) {
+    int length = stop - start - 2;
+    for (int i = start + 1; i < stop - 1; i++) {
+      if (json[i] == '\\') {
+        // Rare escaped member name, decode it properly.
+        return new String(key, StandardCharsets.UTF_8)
+                .equals(JsonUtils.getGson().fromJson(reader(start, stop), String.class));
+      }
+    }
+
+    if (length != key.length) {
+      return false;
+    }
+
+    for (int i = 0; i < length; i++) {
+      if (json[start + 1 + i] != key[i]) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Creates a character reader over the given range of the JSON bytes.
+   *
+   * @param start Start of the range, inclusive.
+   * @param stop  End of the range, exclusive.
+   * @return The reader.
+   */
+  private Reader reader(final int start, final int stop) {
+    return new InputStreamReader(new ByteArrayInputStream(json, start, stop - start), StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Skips a JSON value of any type starting at the current position.
+   */
+  private void skipValue() {
+    byte b = peek();
+    if (b == '"') {
+      skipString();
+    } else if (b == '{' || b == '[') {
+      skipContainer();
+    } else {
+      skipLiteral();
+    }
+  }
+
+  /**
+   * Skips an object or an array including all nested values.
+   */
+  private void skipContainer() {
+    int depth = 0;
+    while (pos < end) {
+      byte b = json[pos];
+      if (b == '"') {
+        skipString();
+        continue;
+      }
+
+      pos++;
+      if (b == '{' || b == '[') {
+        depth++;
+      } else if ((b == '}' || b == ']') && --depth == 0) {
+        return;
+      }
+    }
+
+    throw syntaxError("Unterminated object or array");
+  }
+
+  /**
+   * Skips a quoted string including escape sequences.
+   */
+  private void skipString() {
+    expect('"');
+    while (pos < end) {
+      byte b = json[pos++];
+      if (b == '\\') {
+        pos++;
+      } else if (b == '"') {
+        return;
+      }
+    }
+
+    throw syntaxError("Unterminated string");
+  }
+
+  /**
+   * Skips a number or a true, false or null literal.
+   */
+  private void skipLiteral() {
+    int start = pos;
+    while (pos < end) {
+      byte b = json[pos];
+      if (b == ',' || b == '}' || b == ']' || isWhitespace(b)) {
+        break;
+      }
+      pos++;
+    }
+
+    if (pos == start) {
+      throw syntaxError("Value expected");
+    }
+  }
+
+  /**
+   * Skips whitespace and expects the given structural character.
+   *
+   * @param c The expected character.
+   */
+  private void expect(final char c) {
+    skipWhitespace();
+    if (peek() != c) {
+      throw syntaxError("Expected '" + c + "'");
+    }
+    pos++;
+  }
+
+  private byte peek() {
+    if (pos >= end) {
+      throw syntaxError("Unexpected end of input");
+    }
+    return json[pos];
+  }
+
+  private void skipWhitespace() {
+    while (pos < end && isWhitespace(json[pos])) {
+      pos++;
+    }
+  }
+
+  private static boolean isWhitespace(final byte b) {
+    return b == ' ' || b == '\n' || b == '\r' || b == '\t';
+  }
+
+  private JsonSyntaxException syntaxError(final String reason) {
+    return new JsonSyntaxException(reason + " at offset " + pos + " of message envelope JSON.");
+  }
+}
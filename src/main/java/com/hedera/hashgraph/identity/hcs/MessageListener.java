@@ -5,10 +5,23 @@ import com.hedera.hashgraph.sdk.SubscriptionHandle;
 import com.hedera.hashgraph.sdk.TopicId;
 import com.hedera.hashgraph.sdk.TopicMessage;
 import com.hedera.hashgraph.sdk.TopicMessageQuery;
+import java.io.IOException;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
+import java.util.function.Function;
 import java.util.function.Predicate;
+import java.util.function.Supplier;
 import java8.util.function.BiConsumer;
 import java8.util.function.BiFunction;
 import org.threeten.bp.Instant;
@@ -18,6 +31,22 @@ import org.threeten.bp.Instant;
  * Messages are received from a given mirror node, parsed and validated.
  */
 public abstract class MessageListener<T extends Message> {
+  /**
+   * Default delay in milliseconds before the first reconnection attempt after a stream failure.
+   */
+  public static final long DEFAULT_RECONNECT_BACKOFF = 250;
+
+  /**
+   * Default maximum delay in milliseconds between reconnection attempts.
+   */
+  public static final long DEFAULT_MAX_RECONNECT_BACKOFF = 30_000;
+
+  /**
+   * Number of consecutive idle reconnections without a new message after which a quiet topic is no longer
+   * checked for idleness until the next message arrives.
+   */
+  private static final int MAX_IDLE_RECONNECTS = 3;
+
   protected final TopicId topicId;
   protected final TopicMessageQuery query;
   protected Consumer<Throwable> errorHandler;
@@ -26,6 +55,44 @@ public abstract class MessageListener<T extends Message> {
   protected SubscriptionHandle subscriptionHandle;
   protected List<Predicate<TopicMessage>> filters;
   protected BiConsumer<TopicMessage, String> invalidMessageHandler;
+  protected Runnable completionHandler;
+  protected long endSequenceNumber;
+  protected long messagesLimit;
+  protected Executor validationExecutor;
+  protected int validationBatchSize;
+  protected int validationParallelism;
+  protected IdentityMetrics metrics;
+  private final AtomicBoolean completed;
+  private volatile long lastSequenceNumber;
+  private volatile Instant lastConsensusTimestamp;
+  private final AtomicLong receivedMessagesCount;
+  private Instant startTime;
+  private Instant endTime;
+  private TopicArchive archive;
+  private RunningHashVerifier verifier;
+  private Client client;
+  private Consumer<TopicMessage> responseHandler;
+  private boolean autoReconnect;
+  private long idleTimeout;
+  private long reconnectBackoff;
+  private long maxReconnectBackoff;
+  private Supplier<ScheduledExecutorService> scheduler;
+  private ScheduledFuture<?> reconnectTask;
+  private boolean reconnectPending;
+  private long disconnectedAt;
+  private volatile boolean stopped;
+  private volatile int reconnectAttempt;
+  private volatile long lastArrivalTime;
+  private final AtomicInteger activeReceivers;
+  private int idleReconnects;
+  private boolean idleCheckSuspended;
+  private long lastReceivedSequenceNumber;
+  private Instant lastReceivedConsensusTimestamp;
+  private final AtomicLong reconnectCount;
+  private final AtomicLong duplicateCount;
+  private final AtomicLong totalGapMillis;
+  private volatile long lastGapMillis;
+  private Consumer<IdentityMetrics.RejectionReason> rejectionHandler;
 
   /**
    * Creates a new instance of a topic listener for the given consensus topic.
@@ -37,7 +104,16 @@ public abstract class MessageListener<T extends Message> {
     this.topicId = topicId;
     this.query = new TopicMessageQuery().setTopicId(topicId);
     this.ignoreErrors = false;
-
+    this.endSequenceNumber = Long.MAX_VALUE;
+    this.completed = new AtomicBoolean(false);
+    this.receivedMessagesCount = new AtomicLong();
+    this.reconnectBackoff = DEFAULT_RECONNECT_BACKOFF;
+    this.maxReconnectBackoff = DEFAULT_MAX_RECONNECT_BACKOFF;
+    this.activeReceivers = new AtomicInteger();
+    this.reconnectCount = new AtomicLong();
+    this.duplicateCount = new AtomicLong();
+    this.totalGapMillis = new AtomicLong();
+    this.metrics = IdentityMetrics.NOOP;
   }
 
   /**
@@ -48,6 +124,17 @@ public abstract class MessageListener<T extends Message> {
    */
   protected abstract MessageEnvelope<T> extractMessage(final TopicMessage response);
 
+  /**
+   * Extracts and parses the message of a record replayed from a {@link TopicArchive}.
+   * Listeners that do not override this method skip archived messages.
+   *
+   * @param response Archived message of this listener's topic.
+   * @return The message inside an envelope or NULL if it could not be extracted.
+   */
+  protected MessageEnvelope<T> extractArchivedMessage(final SerializableMirrorConsensusResponse response) {
+    return null;
+  }
+
   /**
    * Validates the message and its envelope signature.
    *
@@ -82,18 +169,475 @@ public abstract class MessageListener<T extends Message> {
    * @return This listener instance.
    */
   public MessageListener<T> subscribe(final Client client, final Consumer<MessageEnvelope<T>> receiver) {
-    subscriptionHandle = query.subscribe(
-      client,
-      resp -> handleResponse(resp, receiver)
-    );
+    stopped = false;
+    if (validationExecutor != null) {
+      ValidationPipeline<TopicMessage, T> pipeline = new ValidationPipeline<>(this::validateResponse,
+              this::trackProgress, receiver, this::handleError, validationExecutor, validationBatchSize,
+              validationParallelism);
+      responseHandler = pipeline::submit;
+    } else {
+      responseHandler = resp -> {
+        handleResponse(resp, receiver);
+        trackProgress(resp);
+      };
+    }
+
+    if (archive != null) {
+      boolean archiving = replayArchive(receiver);
+      if (stopped || isFinished()) {
+        return this;
+      }
+
+      if (archiving) {
+        Consumer<TopicMessage> handler = responseHandler;
+        responseHandler = resp -> {
+          archiveResponse(resp);
+          // Messages between the end of the archive and the start time only fill the archive.
+          if (startTime == null || !resp.consensusTimestamp.isBefore(startTime)) {
+            handler.accept(resp);
+          }
+        };
+      }
+    }
+
+    if (verifier != null) {
+      Consumer<TopicMessage> handler = responseHandler;
+      responseHandler = resp -> {
+        if (verifyResponse(resp)) {
+          handler.accept(resp);
+        }
+      };
+    }
+
+    if (!autoReconnect) {
+      resumeAfterArchive();
+      subscriptionHandle = query.subscribe(client, responseHandler);
+      return this;
+    }
+
+    synchronized (this) {
+      this.client = client;
+      this.lastArrivalTime = System.currentTimeMillis();
+      openSubscription();
+    }
 
     return this;
   }
 
+  /**
+   * Delivers valid messages of the archive from the start time of this listener to the receiver,
+   * on the calling thread and in consensus order, and records the last archived message as received,
+   * so that the live subscription continues after it.
+   * The archive is only replayed if it covers the start time, otherwise the live subscription starts
+   * at the start time and archived messages are streamed again.
+   *
+   * @param receiver Receiver of parsed messages.
+   * @return True if live messages continue the archive and should be appended to it, false otherwise.
+   */
+  private boolean replayArchive(final Consumer<MessageEnvelope<T>> receiver) {
+    if (!archive.covers(startTime)) {
+      // Messages up to the last archived one are skipped by the archive, the following ones continue it.
+      return true;
+    }
+
+    // The live subscription of a limited query must start at the start time to count messages correctly,
+    // so messages before it cannot be streamed only to fill the archive.
+    boolean fillArchive = messagesLimit == 0;
+    SerializableMirrorConsensusResponse[] last = new SerializableMirrorConsensusResponse[1];
+    try {
+      archive.replay(0, record -> {
+        if (stopped || completed.get()
+                || (endTime != null && !record.consensusTimestamp.isBefore(endTime))) {
+          return false;
+        }
+
+        boolean beforeStart = startTime != null && record.consensusTimestamp.isBefore(startTime);
+        if (beforeStart && !fillArchive) {
+          return true;
+        }
+
+        last[0] = record;
+        synchronized (this) {
+          lastReceivedSequenceNumber = record.sequenceNumber;
+          lastReceivedConsensusTimestamp = record.consensusTimestamp;
+        }
+
+        if (beforeStart) {
+          return true;
+        }
+
+        MessageEnvelope<T> envelope = validateArchivedResponse(record);
+        if (envelope != null) {
+          receiver.accept(envelope);
+        }
+        trackProgress(record.consensusTimestamp, record.sequenceNumber);
+        return true;
+      });
+    } catch (IOException e) {
+      handleError(e);
+    }
+
+    // Archived messages were verified when they were appended, live messages continue their chain.
+    if (verifier != null && last[0] != null) {
+      verifier.setAnchor(last[0].consensusTimestamp, last[0].sequenceNumber, last[0].runningHash);
+    }
+
+    // Otherwise the live subscription starts at the start time, after the end of the archive.
+    return last[0] != null || startTime == null || !startTime.isAfter(archive.getLastConsensusTimestamp());
+  }
+
+  /**
+   * Verifies sequence continuity and the running hash of a message received from the mirror node.
+   * Messages with a running hash that does not match are passed to the error handler and dropped.
+   *
+   * @param response Response message coming from the mirror node for the topic.
+   * @return True if the message can be processed, false otherwise.
+   */
+  private boolean verifyResponse(final TopicMessage response) {
+    RunningHashVerifier.Result result = verifier.verify(response.consensusTimestamp, response.sequenceNumber,
+            response.runningHash, response.contents);
+
+    if (result == RunningHashVerifier.Result.MISMATCH) {
+      metrics.messageReceived(topicId);
+      metrics.messageRejected(topicId, IdentityMetrics.RejectionReason.RUNNING_HASH_MISMATCH);
+      handleError(new InvalidMessageException(response,
+              "Running hash verification failed for sequence number " + response.sequenceNumber));
+      return false;
+    }
+
+    return result != RunningHashVerifier.Result.DUPLICATE;
+  }
+
+  /**
+   * Extracts the message from an archived record and validates it.
+   * Filters are not applied and invalid messages are not reported, as there is no mirror response for them.
+   *
+   * @param response Archived message of this listener's topic.
+   * @return The valid message inside an envelope or NULL if the message is invalid.
+   */
+  private MessageEnvelope<T> validateArchivedResponse(final SerializableMirrorConsensusResponse response) {
+    metrics.messageReceived(topicId);
+
+    long start = System.nanoTime();
+    MessageEnvelope<T> envelope = extractArchivedMessage(response);
+    if (envelope == null) {
+      metrics.messageRejected(topicId, IdentityMetrics.RejectionReason.MALFORMED);
+      return null;
+    }
+    metrics.recordLatency(topicId, IdentityMetrics.Stage.PARSE, System.nanoTime() - start);
+
+    if (MessageMode.ENCRYPTED.equals(envelope.getMode()) && decrypter == null) {
+      metrics.messageRejected(topicId, IdentityMetrics.RejectionReason.NOT_DECRYPTABLE);
+      return null;
+    }
+
+    return isMessageValid(envelope, null) ? envelope : null;
+  }
+
+  /**
+   * Moves the start of the live subscription after the last archived message.
+   */
+  private synchronized void resumeAfterArchive() {
+    if (lastReceivedConsensusTimestamp == null) {
+      return;
+    }
+
+    query.setStartTime(lastReceivedConsensusTimestamp.plusNanos(1));
+    if (messagesLimit > 0) {
+      query.setLimit(messagesLimit - receivedMessagesCount.get());
+    }
+  }
+
+  /**
+   * Appends a message received from the mirror node to the archive.
+   *
+   * @param response Response message coming from the mirror node for the topic.
+   */
+  private void archiveResponse(final TopicMessage response) {
+    try {
+      archive.append(response);
+    } catch (IOException | IllegalArgumentException e) {
+      handleError(e);
+    }
+  }
+
+  /**
+   * Opens the topic subscription in the auto-reconnect mode, resuming after the last received message.
+   * Must be called while holding the lock.
+   */
+  private void openSubscription() {
+    if (lastReceivedConsensusTimestamp != null) {
+      query.setStartTime(lastReceivedConsensusTimestamp.plusNanos(1));
+    }
+
+    if (messagesLimit > 0) {
+      query.setLimit(messagesLimit - receivedMessagesCount.get());
+    }
+
+    try {
+      subscriptionHandle = query.subscribe(client, this::receiveResponse);
+    } catch (RuntimeException e) {
+      scheduleReconnect(reconnectDelay());
+      return;
+    }
+
+    if (disconnectedAt > 0) {
+      long gap = System.currentTimeMillis() - disconnectedAt;
+      lastGapMillis = gap;
+      totalGapMillis.addAndGet(gap);
+      reconnectCount.incrementAndGet();
+      disconnectedAt = 0;
+    }
+
+    // Bounded queries legitimately go quiet after their last message.
+    if (idleTimeout > 0 && endTime == null && !idleCheckSuspended) {
+      scheduleIdleCheck(idleTimeout);
+    }
+  }
+
+  /**
+   * Receives a response in the auto-reconnect mode, skipping messages already received before a reconnection.
+   *
+   * @param response Response message coming from the mirror node for the topic.
+   */
+  private void receiveResponse(final TopicMessage response) {
+    lastArrivalTime = System.currentTimeMillis();
+    synchronized (this) {
+      if (response.sequenceNumber <= lastReceivedSequenceNumber) {
+        duplicateCount.incrementAndGet();
+        return;
+      }
+
+      lastReceivedSequenceNumber = response.sequenceNumber;
+      lastReceivedConsensusTimestamp = response.consensusTimestamp;
+      reconnectAttempt = 0;
+      idleReconnects = 0;
+      if (idleCheckSuspended) {
+        idleCheckSuspended = false;
+        if (!stopped && !reconnectPending) {
+          scheduleIdleCheck(idleTimeout);
+        }
+      }
+    }
+
+    // The receiver is called without holding the lock, so that a slow receiver does not block reconnection checks.
+    activeReceivers.incrementAndGet();
+    try {
+      responseHandler.accept(response);
+    } finally {
+      lastArrivalTime = System.currentTimeMillis();
+      activeReceivers.decrementAndGet();
+    }
+  }
+
+  /**
+   * Closes the current stream and schedules a new subscription after the given delay.
+   * Must be called while holding the lock.
+   *
+   * @param delay The delay in milliseconds.
+   */
+  private void scheduleReconnect(final long delay) {
+    if (stopped || reconnectPending || isFinished()) {
+      return;
+    }
+
+    reconnectPending = true;
+    if (disconnectedAt == 0) {
+      disconnectedAt = System.currentTimeMillis();
+    }
+
+    if (subscriptionHandle != null) {
+      subscriptionHandle.unsubscribe();
+    }
+
+    cancelReconnectTask();
+    reconnectAttempt++;
+    try {
+      reconnectTask = getScheduler().schedule(this::reconnect, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      stopOnRejectedSchedule(e);
+    }
+  }
+
+  /**
+   * Reopens the topic subscription after a scheduled delay.
+   */
+  private synchronized void reconnect() {
+    reconnectPending = false;
+    if (!stopped && !isFinished()) {
+      openSubscription();
+    }
+  }
+
+  /**
+   * Schedules a check whether the stream has been silent for longer than the idle timeout.
+   * Must be called while holding the lock.
+   *
+   * @param delay The delay in milliseconds.
+   */
+  private void scheduleIdleCheck(final long delay) {
+    cancelReconnectTask();
+    try {
+      reconnectTask = getScheduler().schedule(this::checkIdle, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      stopOnRejectedSchedule(e);
+    }
+  }
+
+  /**
+   * Stops this listener once its scheduler was shut down, e.g. when the identity network that created it
+   * was closed, as it could neither reconnect nor detect an idle stream any more. The error is reported.
+   * Must be called while holding the lock.
+   *
+   * @param e The error of the rejected task.
+   */
+  private void stopOnRejectedSchedule(final RejectedExecutionException e) {
+    stopped = true;
+    reconnectPending = false;
+    if (subscriptionHandle != null) {
+      subscriptionHandle.unsubscribe();
+    }
+
+    handleError(e);
+  }
+
+  /**
+   * Reconnects if no message has been received within the idle timeout, which is extended with the backoff
+   * while consecutive reconnections do not bring any new message. Time spent in the receiver does not count.
+   * After {@link #MAX_IDLE_RECONNECTS} idle reconnections in a row the topic is considered quiet and the stream
+   * is kept until the next message arrives.
+   */
+  private synchronized void checkIdle() {
+    if (stopped || reconnectPending) {
+      return;
+    }
+
+    if (activeReceivers.get() > 0) {
+      scheduleIdleCheck(idleTimeout);
+      return;
+    }
+
+    int attempt = reconnectAttempt;
+    long timeout = idleTimeout + (attempt > 0 ? backoff(attempt - 1) : 0);
+    long idle = System.currentTimeMillis() - lastArrivalTime;
+    if (idle < timeout) {
+      scheduleIdleCheck(timeout - idle);
+      return;
+    }
+
+    if (idleReconnects >= MAX_IDLE_RECONNECTS) {
+      idleCheckSuspended = true;
+      return;
+    }
+
+    idleReconnects++;
+    scheduleReconnect(0);
+  }
+
+  /**
+   * Returns the jittered delay of the next reconnection attempt.
+   *
+   * @return The delay in milliseconds.
+   */
+  private long reconnectDelay() {
+    return backoff(reconnectAttempt);
+  }
+
+  /**
+   * Calculates an exponential backoff with jitter between half and the full delay.
+   *
+   * @param attempt The number of consecutive attempts made so far.
+   * @return The delay in milliseconds.
+   */
+  private long backoff(final int attempt) {
+    long delay = Math.min(maxReconnectBackoff, reconnectBackoff << Math.min(attempt, 20));
+    return delay / 2 + ThreadLocalRandom.current().nextLong(delay / 2 + 1);
+  }
+
+  private void cancelReconnectTask() {
+    ScheduledFuture<?> task = reconnectTask;
+    if (task != null) {
+      task.cancel(false);
+      reconnectTask = null;
+    }
+  }
+
+  /**
+   * Checks if the bounded query of this listener has received all its messages.
+   *
+   * @return True if no more messages are expected, false otherwise.
+   */
+  private boolean isFinished() {
+    return completed.get()
+            || lastReceivedSequenceNumber >= endSequenceNumber
+            || (messagesLimit > 0 && receivedMessagesCount.get() >= messagesLimit)
+            || (endTime != null && lastReceivedConsensusTimestamp != null
+            && !lastReceivedConsensusTimestamp.isBefore(endTime));
+  }
+
+  private ScheduledExecutorService getScheduler() {
+    Supplier<ScheduledExecutorService> supplier = scheduler;
+    return supplier != null ? supplier.get() : DefaultScheduler.get();
+  }
+
+  /**
+   * Creates a publisher of this listener's messages with backpressure and bounded buffering.
+   * The listener is subscribed when a subscriber subscribes to the publisher.
+   *
+   * @param client Mirror client instance.
+   * @return The {@link MessagePublisher} of this listener.
+   */
+  public MessagePublisher<T> toPublisher(final Client client) {
+    return new MessagePublisher<>(this, client);
+  }
+
+  /**
+   * Records the position of the given response in the topic and signals completion
+   * if it is the last message requested by this listener.
+   *
+   * @param response Response message coming from the mirror node for the topic.
+   */
+  protected void trackProgress(final TopicMessage response) {
+    trackProgress(response.consensusTimestamp, response.sequenceNumber);
+  }
+
+  /**
+   * Records the given position in the topic and signals completion
+   * if it is the last message requested by this listener.
+   *
+   * @param consensusTimestamp The consensus timestamp of the message.
+   * @param sequenceNumber     The sequence number of the message.
+   */
+  private void trackProgress(final Instant consensusTimestamp, final long sequenceNumber) {
+    lastSequenceNumber = sequenceNumber;
+    lastConsensusTimestamp = consensusTimestamp;
+    long received = receivedMessagesCount.incrementAndGet();
+
+    if (sequenceNumber >= endSequenceNumber
+            || (messagesLimit > 0 && received >= messagesLimit)) {
+      complete();
+    }
+  }
+
+  /**
+   * Signals that the bounded query of this listener reached its end.
+   * The completion handler is called at most once.
+   */
+  protected void complete() {
+    if (completionHandler != null && completed.compareAndSet(false, true)) {
+      completionHandler.run();
+    }
+  }
+
   /**
    * Stops receiving messages from the topic.
    */
   public void unsubscribe() {
+    synchronized (this) {
+      stopped = true;
+      cancelReconnectTask();
+    }
+
     if (subscriptionHandle != null) {
       subscriptionHandle.unsubscribe();
     }
@@ -107,35 +651,77 @@ public abstract class MessageListener<T extends Message> {
    */
   protected void handleResponse(final TopicMessage response,
                                 final Consumer<MessageEnvelope<T>> receiver) {
+    MessageEnvelope<T> envelope = validateResponse(response);
+    if (envelope != null) {
+      receiver.accept(envelope);
+    }
+  }
+
+  /**
+   * Runs filters on the response, extracts the message from it and validates it.
+   *
+   * @param response Response message coming from the mirror node for the topic.
+   * @return The valid message inside an envelope or NULL if the message is invalid.
+   */
+  protected MessageEnvelope<T> validateResponse(final TopicMessage response) {
+    metrics.messageReceived(topicId);
 
     // Run external filters first
     if (filters != null) {
       for (Predicate<TopicMessage> filter : filters) {
         if (!filter.test(response)) {
-          reportInvalidMessage(response, "Message was rejected by external filter");
-          return;
+          reportInvalidMessage(response, IdentityMetrics.RejectionReason.FILTERED,
+                  "Message was rejected by external filter");
+          return null;
         }
       }
     }
 
     // Extract and parse message from the response.
+    long start = System.nanoTime();
     MessageEnvelope<T> envelope = extractMessage(response);
 
     // Skip encrypted messages if decrypter was not provided
     if (envelope == null) {
-      reportInvalidMessage(response, "Extracting envelope from the mirror response failed");
-      return;
+      reportInvalidMessage(response, IdentityMetrics.RejectionReason.MALFORMED,
+              "Extracting envelope from the mirror response failed");
+      return null;
     }
+    metrics.recordLatency(topicId, IdentityMetrics.Stage.PARSE, System.nanoTime() - start);
 
     if (MessageMode.ENCRYPTED.equals(envelope.getMode()) && decrypter == null) {
-      reportInvalidMessage(response, "Message is encrypted and no decryption function was provided");
-      return;
+      reportInvalidMessage(response, IdentityMetrics.RejectionReason.NOT_DECRYPTABLE,
+              "Message is encrypted and no decryption function was provided");
+      return null;
     }
 
     // Check if message inside the envelope is valid and only accept it if it is.
-    if (isMessageValid(envelope, response)) {
-      receiver.accept(envelope);
+    return isMessageValid(envelope, response) ? envelope : null;
+  }
+
+  /**
+   * Opens the message in the envelope with the decryption function of this listener, if one was provided.
+   * Only the time spent in the decryption function is recorded as the {@link IdentityMetrics.Stage#DECRYPT} stage,
+   * decoding of the encrypted fields and construction of the plain message are not included.
+   *
+   * @param envelope         The envelope of the message.
+   * @param messageDecrypter The factory of a message decrypter from a decryption function of single attributes.
+   * @return The message in a plain mode.
+   */
+  protected T openMessage(
+          final MessageEnvelope<T> envelope,
+          final Function<BiFunction<byte[], Instant, byte[]>, BiFunction<T, Instant, T>> messageDecrypter) {
+    if (decrypter == null) {
+      return envelope.open();
     }
+
+    DecryptionTimer timer = new DecryptionTimer(decrypter);
+    T message = envelope.open(messageDecrypter.apply(timer));
+    if (timer.called) {
+      metrics.recordLatency(topicId, IdentityMetrics.Stage.DECRYPT, timer.nanos);
+    }
+
+    return message;
   }
 
   /**
@@ -169,7 +755,25 @@ public abstract class MessageListener<T extends Message> {
    * @param reason   The reason why message validation failed.
    */
   protected void reportInvalidMessage(final TopicMessage response, final String reason) {
-    if (invalidMessageHandler != null) {
+    reportInvalidMessage(response, IdentityMetrics.RejectionReason.ERROR, reason);
+  }
+
+  /**
+   * Records the rejection of an invalid message and reports it to the handler.
+   *
+   * @param response        The mirror response or NULL for an archived message.
+   * @param rejectionReason The reason recorded in the metrics of this listener.
+   * @param reason          The reason why message validation failed.
+   */
+  protected void reportInvalidMessage(final TopicMessage response,
+                                      final IdentityMetrics.RejectionReason rejectionReason, final String reason) {
+    metrics.messageRejected(topicId, rejectionReason);
+    if (rejectionHandler != null) {
+      rejectionHandler.accept(rejectionReason);
+    }
+
+    // Archived messages are validated without a mirror response.
+    if (invalidMessageHandler != null && response != null) {
       invalidMessageHandler.accept(response, reason);
     }
   }
@@ -198,6 +802,66 @@ public abstract class MessageListener<T extends Message> {
     return this;
   }
 
+  /**
+   * Defines a handler notified of the reason of every message rejected by validation, live or archived.
+   * Used by resolvers to keep checkpoints before messages that may be accepted later.
+   *
+   * @param handler The rejection handler.
+   * @return This listener instance.
+   */
+  MessageListener<T> onRejected(final Consumer<IdentityMetrics.RejectionReason> handler) {
+    this.rejectionHandler = handler;
+    return this;
+  }
+
+  /**
+   * Defines a handler called once when the listener received the last message of a bounded query,
+   * that is the message with the end sequence number or the last message within the limit.
+   *
+   * @param handler The completion handler.
+   * @return This listener instance.
+   */
+  public MessageListener<T> onComplete(final Runnable handler) {
+    this.completionHandler = handler;
+    return this;
+  }
+
+  /**
+   * Enables parallel validation of messages in the common fork-join pool.
+   *
+   * @param batchSize   The maximum number of messages validated together by one task.
+   * @param parallelism The maximum number of batches validated at the same time.
+   * @return This listener instance.
+   * @see #setParallelValidation(Executor, int, int)
+   */
+  public MessageListener<T> setParallelValidation(final int batchSize, final int parallelism) {
+    return setParallelValidation(ForkJoinPool.commonPool(), batchSize, parallelism);
+  }
+
+  /**
+   * Enables parallel validation of messages, including signature verification, on the given executor.
+   * Received messages are collected into micro-batches, which are validated concurrently,
+   * and valid messages are still delivered to the receiver one by one in consensus order.
+   * Filters, decrypter, error and invalid message handlers are then called from the executor threads
+   * and must be thread-safe. Must be called before subscribing.
+   *
+   * @param executor    The executor to validate messages in.
+   * @param batchSize   The maximum number of messages validated together by one task.
+   * @param parallelism The maximum number of batches validated at the same time.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setParallelValidation(final Executor executor, final int batchSize,
+                                                  final int parallelism) {
+    if (executor == null || batchSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("Executor, positive batch size and parallelism must be provided.");
+    }
+
+    this.validationExecutor = executor;
+    this.validationBatchSize = batchSize;
+    this.validationParallelism = parallelism;
+    return this;
+  }
+
   /**
    * Defines decryption function that decrypts submitted message attributes after consensus is reached.
    * Decryption function must accept a byte array of encrypted message and an Instant that is its consensus timestamp,
@@ -214,22 +878,239 @@ public abstract class MessageListener<T extends Message> {
 
   public MessageListener<T> setStartTime(final Instant startTime) {
     query.setStartTime(startTime);
+    this.startTime = startTime;
     return this;
   }
 
   public MessageListener<T> setEndTime(final Instant endTime) {
     query.setEndTime(endTime);
+    this.endTime = endTime;
     return this;
   }
 
   public MessageListener<T> setLimit(final long messagesLimit) {
     query.setLimit(messagesLimit);
+    this.messagesLimit = messagesLimit;
+    return this;
+  }
+
+  /**
+   * Defines the sequence number of the last message expected by a bounded query.
+   * Once a message with this sequence number is received, the completion handler is called.
+   *
+   * @param endSequenceNumber The sequence number of the last message in the queried time range.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setEndSequenceNumber(final long endSequenceNumber) {
+    this.endSequenceNumber = endSequenceNumber;
+    return this;
+  }
+
+  /**
+   * Returns the sequence number of the last message received from the topic, valid or not.
+   *
+   * @return The last received sequence number or 0 if no message was received yet.
+   */
+  public long getLastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  /**
+   * Returns the number of messages received from the topic since subscription, valid or not,
+   * including messages replayed from the archive.
+   *
+   * @return The number of received messages.
+   */
+  public long getReceivedMessagesCount() {
+    return receivedMessagesCount.get();
+  }
+
+  /**
+   * Returns the consensus timestamp of the last message received from the topic, valid or not.
+   *
+   * @return The last received consensus timestamp or NULL if no message was received yet.
+   */
+  public Instant getLastConsensusTimestamp() {
+    return lastConsensusTimestamp;
+  }
+
+  /**
+   * Defines an archive of this listener's topic to replay before subscribing to the mirror node.
+   * On subscription, archived messages from the start time are validated and delivered to the receiver on the calling
+   * thread, then the live subscription continues after the last archived message and appends every new message
+   * to the archive. Filters are not applied to archived messages and invalid archived messages are not reported.
+   * If the archive already covers the end of a bounded query, no live subscription is opened.
+   * The archive is only replayed if it covers the start time, see {@link TopicArchive#covers(Instant)},
+   * otherwise all messages from the start time are streamed from the mirror node and those following the archive
+   * are appended to it. Messages that would leave a gap in the archive are passed to the error handler.
+   * Must be called before subscribing.
+   *
+   * @param archive The archive of this listener's topic.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setArchive(final TopicArchive archive) {
+    this.archive = archive;
+    return this;
+  }
+
+  /**
+   * Defines a verifier of sequence continuity and running hashes of received messages.
+   * Messages are verified in consensus order before they are archived, parsed and validated.
+   * Gaps are reported to the gap handler of the verifier, messages with a running hash that does not match
+   * are passed to the error handler as {@link InvalidMessageException} and dropped.
+   * Must be called before subscribing.
+   *
+   * @param verifier The verifier of this listener's topic.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setRunningHashVerifier(final RunningHashVerifier verifier) {
+    this.verifier = verifier;
+    return this;
+  }
+
+  /**
+   * Defines metrics recording received and rejected messages of this listener
+   * and the latency of parsing, decrypting and verifying them. By default nothing is recorded.
+   *
+   * @param metrics The metrics to record to.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setMetrics(final IdentityMetrics metrics) {
+    if (metrics == null) {
+      throw new IllegalArgumentException("Metrics must be provided.");
+    }
+
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Enables automatic reconnection of the topic subscription.
+   * The mirror node client does not pass stream failures to the listener, so a failed stream is detected
+   * by the idle timeout only: an open-ended listener reconnects when no message has been received for the given
+   * idle timeout, which is extended with a jittered exponential backoff while consecutive reconnections do not bring
+   * any new message. With an idle timeout of 0 the listener never reconnects.
+   * The listener resumes from the consensus timestamp of the last received message plus one nanosecond
+   * and skips messages with sequence numbers that were already received. Time spent in the receiver does not count as idle.
+   * After three idle reconnections in a row without a new message the topic is considered quiet, and the listener
+   * keeps its stream without further idle checks until the next message arrives. Must be called before subscribing.
+   *
+   * @param idleTimeout Time in milliseconds without messages after which the listener reconnects, 0 to disable.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setAutoReconnect(final long idleTimeout) {
+    if (idleTimeout < 0) {
+      throw new IllegalArgumentException("Idle timeout must not be negative.");
+    }
+
+    this.autoReconnect = true;
+    this.idleTimeout = idleTimeout;
+    return this;
+  }
+
+  /**
+   * Defines the delay before the first reconnection attempt, doubled with each consecutive attempt
+   * up to the given maximum. Default is 250 milliseconds and at most 30 seconds.
+   *
+   * @param initialBackoff The initial delay in milliseconds.
+   * @param maxBackoff     The maximum delay in milliseconds.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setReconnectBackoff(final long initialBackoff, final long maxBackoff) {
+    if (initialBackoff < 1 || maxBackoff < initialBackoff) {
+      throw new IllegalArgumentException("Backoff must be positive and not greater than the maximum backoff.");
+    }
+
+    this.reconnectBackoff = initialBackoff;
+    this.maxReconnectBackoff = maxBackoff;
+    return this;
+  }
+
+  /**
+   * Defines the scheduler used to delay reconnections. By default the shared daemon scheduler of the SDK is used.
+   *
+   * @param scheduler The scheduler to use.
+   * @return This listener instance.
+   */
+  public MessageListener<T> setScheduler(final ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler == null ? null : () -> scheduler;
     return this;
   }
 
+  /**
+   * Defines the supplier of the scheduler used to delay reconnections, which is asked for it on first use.
+   * The supplier may throw {@link RejectedExecutionException} if the scheduler is no longer available.
+   *
+   * @param scheduler The supplier of the scheduler to use.
+   * @return This listener instance.
+   */
+  MessageListener<T> setScheduler(final Supplier<ScheduledExecutorService> scheduler) {
+    this.scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * Returns the number of successful reconnections of the topic subscription.
+   *
+   * @return The number of reconnections.
+   */
+  public long getReconnectCount() {
+    return reconnectCount.get();
+  }
+
+  /**
+   * Returns the number of redelivered messages skipped after reconnections.
+   *
+   * @return The number of duplicate messages.
+   */
+  public long getDuplicateCount() {
+    return duplicateCount.get();
+  }
+
+  /**
+   * Returns the time between detecting the last disconnection and the subscription being reopened.
+   *
+   * @return The duration of the last gap in milliseconds or 0 if the listener never reconnected.
+   */
+  public long getLastGapMillis() {
+    return lastGapMillis;
+  }
+
+  /**
+   * Returns the total time the listener spent reconnecting.
+   *
+   * @return The sum of all gap durations in milliseconds.
+   */
+  public long getTotalGapMillis() {
+    return totalGapMillis.get();
+  }
+
   public MessageListener<T> setIgnoreErrors(final boolean ignoreErrors) {
     this.ignoreErrors = ignoreErrors;
     return this;
   }
 
+  /**
+   * Decryption function measuring the total time spent in the function it wraps while opening one message.
+   */
+  private static final class DecryptionTimer implements BiFunction<byte[], Instant, byte[]> {
+    private final BiFunction<byte[], Instant, byte[]> decrypter;
+    private long nanos;
+    private boolean called;
+
+    DecryptionTimer(final BiFunction<byte[], Instant, byte[]> decrypter) {
+      this.decrypter = decrypter;
+    }
+
+    @Override
+    public byte[] apply(final byte[] bytes, final Instant consensusTimestamp) {
+      called = true;
+      long start = System.nanoTime();
+      try {
+        return decrypter.apply(bytes, consensusTimestamp);
+      } finally {
+        nanos += System.nanoTime() - start;
+      }
+    }
+  }
 }
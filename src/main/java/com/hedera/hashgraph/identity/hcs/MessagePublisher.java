@@ -0,0 +1,147 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.sdk.Client;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Publishes valid messages received by a {@link MessageListener} to a single {@link MessageSubscriber}
+ * with backpressure. Messages are buffered until the subscriber requests them, up to the configured buffer size,
+ * and are delivered on the given executor instead of the thread receiving messages from the mirror node.
+ * When the buffer is full, the configured {@link OverflowStrategy} applies.
+ * The interfaces mirror {@code java.util.concurrent.Flow}, which is not available on Java 8.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public class MessagePublisher<T extends Message> {
+  /**
+   * Default maximum number of buffered messages.
+   */
+  public static final int DEFAULT_BUFFER_SIZE = 256;
+
+  private final MessageListener<T> listener;
+  private final Client client;
+  private int bufferSize;
+  private OverflowStrategy overflowStrategy;
+  private Executor executor;
+  private BufferedSubscription<T> subscription;
+
+  /**
+   * Creates a new publisher of the given listener's messages.
+   *
+   * @param listener The topic listener, configured with start time, decrypter and filters if needed.
+   * @param client   The mirror node client.
+   */
+  public MessagePublisher(final MessageListener<T> listener, final Client client) {
+    if (listener == null || client == null) {
+      throw new IllegalArgumentException("Listener and client must be provided.");
+    }
+
+    this.listener = listener;
+    this.client = client;
+    this.bufferSize = DEFAULT_BUFFER_SIZE;
+    this.overflowStrategy = OverflowStrategy.BLOCK;
+    this.executor = ForkJoinPool.commonPool();
+  }
+
+  /**
+   * Subscribes the given subscriber to the topic.
+   * The topic subscription of the listener is opened immediately and closed when the subscription is cancelled
+   * or terminated. Unless the listener has its own error handler, errors of the listener fail the subscription.
+   * A publisher accepts only one subscriber.
+   *
+   * @param subscriber The subscriber.
+   */
+  public synchronized void subscribe(final MessageSubscriber<T> subscriber) {
+    if (subscriber == null) {
+      throw new IllegalArgumentException("Subscriber must be provided.");
+    }
+
+    if (subscription != null) {
+      throw new IllegalStateException("Publisher already has a subscriber.");
+    }
+
+    BufferedSubscription<T> sub = new BufferedSubscription<>(subscriber, bufferSize, overflowStrategy, executor,
+            listener::unsubscribe);
+    this.subscription = sub;
+
+    if (listener.errorHandler == null) {
+      listener.onError(sub::fail);
+    }
+
+    Runnable completionHandler = listener.completionHandler;
+    listener.onComplete(() -> {
+      if (completionHandler != null) {
+        completionHandler.run();
+      }
+      sub.complete();
+    });
+
+    subscriber.onSubscribe(sub);
+    listener.subscribe(client, sub::offer);
+  }
+
+  /**
+   * Returns the number of messages dropped because the buffer was full.
+   *
+   * @return The number of dropped messages.
+   */
+  public synchronized long getDroppedCount() {
+    return subscription == null ? 0 : subscription.getDroppedCount();
+  }
+
+  /**
+   * Returns the number of messages waiting in the buffer for demand of the subscriber.
+   *
+   * @return The number of buffered messages.
+   */
+  public synchronized int getBufferedCount() {
+    return subscription == null ? 0 : subscription.getBufferedCount();
+  }
+
+  /**
+   * Defines the maximum number of buffered messages. Default is 256.
+   *
+   * @param bufferSize The maximum number of buffered messages.
+   * @return This publisher instance.
+   */
+  public MessagePublisher<T> setBufferSize(final int bufferSize) {
+    if (bufferSize < 1) {
+      throw new IllegalArgumentException("Buffer size must be positive.");
+    }
+
+    this.bufferSize = bufferSize;
+    return this;
+  }
+
+  /**
+   * Defines what happens with a new message when the buffer is full. Default is {@link OverflowStrategy#BLOCK}.
+   *
+   * @param overflowStrategy The overflow strategy.
+   * @return This publisher instance.
+   */
+  public MessagePublisher<T> setOverflowStrategy(final OverflowStrategy overflowStrategy) {
+    if (overflowStrategy == null) {
+      throw new IllegalArgumentException("Overflow strategy must be provided.");
+    }
+
+    this.overflowStrategy = overflowStrategy;
+    return this;
+  }
+
+  /**
+   * Defines the executor in which messages are delivered to the subscriber.
+   * Default is the common fork-join pool.
+   *
+   * @param executor The executor to use.
+   * @return This publisher instance.
+   */
+  public MessagePublisher<T> setExecutor(final Executor executor) {
+    if (executor == null) {
+      throw new IllegalArgumentException("Executor must be provided.");
+    }
+
+    this.executor = executor;
+    return this;
+  }
+}
@@ -3,13 +3,24 @@ package com.hedera.hashgraph.identity.hcs;
 import com.hedera.hashgraph.identity.utils.Validator;
 import com.hedera.hashgraph.sdk.Client;
 import com.hedera.hashgraph.sdk.TopicId;
+import com.hedera.hashgraph.sdk.TopicInfoQuery;
+import java.util.AbstractMap;
 import java.util.HashMap;
-import java.util.HashSet;
+import java.util.Iterator;
 import java.util.Map;
-import java.util.Set;
-import java.util.concurrent.Executors;
+import java.util.NoSuchElementException;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
 import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.function.Consumer;
 import java8.util.function.BiFunction;
@@ -19,19 +30,49 @@ public abstract class MessageResolver<T extends Message> {
 
   /**
    * Default time to wait before finishing resolution and after the last message was received.
+   * When the end of the topic is known, resolution finishes as soon as the last message is received
+   * and this timeout only applies if the mirror node stops streaming before that.
    */
   public static final long DEFAULT_TIMEOUT = 30_000;
 
+  /**
+   * Default number of consecutive resolutions that may hold a checkpoint back at a message rejected
+   * for a reason that is not final.
+   */
+  public static final int DEFAULT_CHECKPOINT_HOLD_BACK_LIMIT = 3;
+
+  /**
+   * Number of resolvers executing at the moment in this JVM.
+   */
+  private static final AtomicInteger LIVE_RESOLVERS = new AtomicInteger();
+
   protected final TopicId topicId;
   protected final Map<String, MessageEnvelope<T>> results;
-  private final ScheduledExecutorService executorService;
+  private final AtomicBoolean live;
+  private AtomicInteger liveCounter;
+  private ScheduledExecutorService scheduler;
+  private ScheduledFuture<?> timeoutTask;
   private final AtomicLong lastMessageArrivalTime;
+  private final AtomicBoolean finished;
   private Consumer<Map<String, MessageEnvelope<T>>> resultsHandler;
+  private Consumer<Map.Entry<String, MessageEnvelope<T>>> finalResultHandler;
   private Consumer<Throwable> errorHandler;
   private BiFunction<byte[], Instant, byte[]> decrypter;
-  private Set<String> existingSignatures;
+  private SignatureIndex existingSignatures;
   private MessageListener<T> listener;
   private long noMoreMessagesTimeout;
+  private ResolverCheckpoint<T> checkpoint;
+  private Map<String, MessageEnvelope<T>> heldBackState;
+  private int checkpointHoldBackLimit;
+  private boolean endOfTopicDetection;
+  private Executor validationExecutor;
+  private int validationBatchSize;
+  private int validationParallelism;
+  private boolean dropRawMessages;
+  private TopicArchive archive;
+  private RunningHashVerifier verifier;
+  private IdentityMetrics metrics;
+  private long executionStart;
 
   /**
    * Instantiates a message resolver.
@@ -41,9 +82,23 @@ public abstract class MessageResolver<T extends Message> {
   public MessageResolver(final TopicId topicId) {
     this.topicId = topicId;
     this.results = new HashMap<>();
-    this.executorService = Executors.newScheduledThreadPool(2);
+    this.scheduler = DefaultScheduler.get();
+    this.live = new AtomicBoolean(false);
     this.noMoreMessagesTimeout = DEFAULT_TIMEOUT;
     this.lastMessageArrivalTime = new AtomicLong(System.currentTimeMillis());
+    this.finished = new AtomicBoolean(false);
+    this.metrics = IdentityMetrics.NOOP;
+    this.checkpointHoldBackLimit = DEFAULT_CHECKPOINT_HOLD_BACK_LIMIT;
+  }
+
+  /**
+   * Returns the number of resolvers executing at the moment in this JVM,
+   * that is resolvers which were executed and did not finish yet.
+   *
+   * @return The number of live resolvers.
+   */
+  public static int getLiveResolverCount() {
+    return LIVE_RESOLVERS.get();
   }
 
   /**
@@ -58,8 +113,54 @@ public abstract class MessageResolver<T extends Message> {
    * Applies custom filters on the message and if successfully verified, adds it to the results map.
    *
    * @param envelope Message inside an envelope in PLAIN mode.
+   * @deprecated Use {@link #processMessage(MessageEnvelope, Map)}, which also supports checkpoints.
+   */
+  @Deprecated
+  protected void processMessage(final MessageEnvelope<T> envelope) {
+    processMessage(envelope, results);
+  }
+
+  /**
+   * Applies custom filters on the message and if successfully verified, adds it to the given state map.
+   *
+   * @param envelope Message inside an envelope in PLAIN mode.
+   * @param state    The map of resolved messages to update, either results or the checkpoint state.
+   */
+  protected abstract void processMessage(MessageEnvelope<T> envelope, Map<String, MessageEnvelope<T>> state);
+
+  /**
+   * Checks if a message rejected by the listener for the given reason will be rejected by every later resolution
+   * of the topic as well. Rejections that depend on the configuration of the resolver, like keys supplied
+   * by the caller, are not final and the checkpoint is not advanced past such messages.
+   *
+   * @param reason The reason of the rejection.
+   * @return True if the rejection is final, false otherwise.
    */
-  protected abstract void processMessage(final MessageEnvelope<T> envelope);
+  protected boolean isRejectionFinal(final IdentityMetrics.RejectionReason reason) {
+    return true;
+  }
+
+  /**
+   * Returns the key of the result the given message is resolved into.
+   * Resolvers that do not override this method never hand out results before the resolution is finished.
+   *
+   * @param message The message read from the topic.
+   * @return The key of the result or NULL if it is not known.
+   */
+  protected String getResultKey(final T message) {
+    return null;
+  }
+
+  /**
+   * Checks if the given result cannot be changed by any later message of the topic,
+   * so that it can be handed out by {@link #executeStreaming(Client)} before the resolution is finished.
+   *
+   * @param result The resolved message.
+   * @return True if the result is final, false otherwise.
+   */
+  protected boolean isResultFinal(final MessageEnvelope<T> result) {
+    return false;
+  }
 
   /**
    * Supplies message listener for messages of specified type.
@@ -70,26 +171,177 @@ public abstract class MessageResolver<T extends Message> {
 
   /**
    * Resolves queries defined in implementing classes against a mirror node.
+   * If enabled by {@link #setEndOfTopicDetection(boolean)}, the sequence number of the last message in the topic
+   * is queried from the network first, so that the resolution finishes as soon as this message is received.
+   * Otherwise the resolution finishes after the timeout.
    *
    * @param client The mirror node client.
    */
   public void execute(final Client client) {
     new Validator().checkValidationErrors("Resolver not executed: ", v -> validate(v));
-    existingSignatures = new HashSet<>();
+    existingSignatures = new SignatureIndex();
+    heldBackState = null;
+    executionStart = System.nanoTime();
+
+    if (live.compareAndSet(false, true)) {
+      LIVE_RESOLVERS.incrementAndGet();
+      if (liveCounter != null) {
+        liveCounter.incrementAndGet();
+      }
+    }
 
     listener = supplyMessageListener();
 
-    listener.setStartTime(Instant.MIN)
+    Instant startTime = checkpoint == null ? Instant.MIN : checkpoint.getNextStartTime();
+    long startSequenceNumber = checkpoint == null ? 0 : checkpoint.getLastSequenceNumber();
+
+    // The topic sequence number must be read before the end time is set, so that its message is in the range.
+    long endSequenceNumber = endOfTopicDetection ? queryTopicSequenceNumber(client) : -1;
+    if (endSequenceNumber >= 0 && endSequenceNumber <= startSequenceNumber) {
+      // Nothing new was submitted to the topic since the checkpoint.
+      finish();
+      return;
+    }
+
+    listener.setStartTime(startTime)
             .setEndTime(Instant.now())
+            .setEndSequenceNumber(endSequenceNumber > 0 ? endSequenceNumber : Long.MAX_VALUE)
             .setIgnoreErrors(false)
             .onError(errorHandler)
             .onDecrypt(decrypter)
-            .subscribe(client, msg -> handleMessage(msg));
+            .setMetrics(metrics)
+            .onComplete(this::finish);
+
+    if (checkpoint != null) {
+      listener.onRejected(this::holdBackCheckpoint);
+    }
+
+    if (validationExecutor != null) {
+      listener.setParallelValidation(validationExecutor, validationBatchSize, validationParallelism);
+    }
+
+    if (archive != null) {
+      listener.setArchive(archive);
+    }
+
+    if (verifier != null) {
+      listener.setRunningHashVerifier(verifier);
+    }
+
+    listener.subscribe(client, msg -> handleMessage(msg));
 
     lastMessageArrivalTime.set(System.currentTimeMillis());
     waitOrFinish();
   }
 
+  /**
+   * Resolves queries defined in implementing classes against a mirror node asynchronously.
+   * The execution is started in the common fork-join pool.
+   *
+   * @param client The mirror node client.
+   * @return The future completed with resolution results.
+   * @see #executeAsync(Client, Executor)
+   */
+  public CompletableFuture<Map<String, MessageEnvelope<T>>> executeAsync(final Client client) {
+    return executeAsync(client, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Resolves queries defined in implementing classes against a mirror node asynchronously.
+   * The returned future is completed with the same results that are passed to the 'whenFinished' handler,
+   * which is optional in this mode.
+   * If no error handler is defined, the first error completes the future exceptionally and stops the resolution.
+   * Cancelling the future stops the resolution as well.
+   *
+   * @param client   The mirror node client.
+   * @param executor The executor to start the execution in, which includes the topic sequence number query.
+   * @return The future completed with resolution results.
+   */
+  public CompletableFuture<Map<String, MessageEnvelope<T>>> executeAsync(final Client client,
+                                                                         final Executor executor) {
+    CompletableFuture<Map<String, MessageEnvelope<T>>> future = new CompletableFuture<>();
+
+    Consumer<Map<String, MessageEnvelope<T>>> handler = resultsHandler;
+    resultsHandler = res -> {
+      try {
+        if (handler != null) {
+          handler.accept(res);
+        }
+        future.complete(res);
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    };
+
+    if (errorHandler == null) {
+      errorHandler = err -> {
+        if (future.completeExceptionally(err)) {
+          abort();
+        }
+      };
+    }
+
+    future.whenComplete((res, err) -> {
+      if (future.isCancelled()) {
+        abort();
+      }
+    });
+
+    try {
+      executor.execute(() -> {
+        try {
+          execute(client);
+        } catch (RuntimeException e) {
+          future.completeExceptionally(e);
+          abort();
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+      abort();
+    }
+
+    return future;
+  }
+
+  /**
+   * Resolves queries defined in implementing classes against a mirror node and streams the results.
+   * Each entry is handed out as soon as it is final, for example a deleted DID, while the topic is still being read,
+   * and all other entries once the resolution is finished. Handed out entries are removed from this resolver,
+   * so that they can be garbage collected as soon as the caller is done with them. The iterator blocks until
+   * the next entry is available. Entries of messages that were not found have NULL values.
+   * Entries are only handed out early without a checkpoint, see {@link #isResultFinal(MessageEnvelope)}.
+   * Combine with {@link #setDropRawMessages(boolean)} to keep the memory footprint of bulk resolutions low.
+   * Errors of the resolution are thrown from the iterator.
+   *
+   * @param client The mirror node client.
+   * @return The iterator of resolution results.
+   */
+  public Iterator<Map.Entry<String, MessageEnvelope<T>>> executeStreaming(final Client client) {
+    ResultsIterator iterator = new ResultsIterator();
+    finalResultHandler = iterator::add;
+    executeAsync(client).whenComplete(iterator::finish);
+    return iterator;
+  }
+
+  /**
+   * Queries the current sequence number of the topic, that is the sequence number of its last message.
+   *
+   * @param client The client used to execute the query.
+   * @return The topic sequence number or -1 if it could not be obtained.
+   */
+  private long queryTopicSequenceNumber(final Client client) {
+    try {
+      TopicInfoQuery query = new TopicInfoQuery().setTopicId(topicId);
+      query.setMaxQueryPayment(query.getCost(client));
+
+      return query.execute(client).sequenceNumber;
+    } catch (Exception e) {
+      // Resolution still finishes after the timeout, just later.
+      return -1;
+    }
+  }
+
   /**
    * Handles incoming DID messages from DID Topic on a mirror node.
    *
@@ -98,44 +350,165 @@ public abstract class MessageResolver<T extends Message> {
   private void handleMessage(final MessageEnvelope<T> envelope) {
     lastMessageArrivalTime.set(System.currentTimeMillis());
 
-    // Skip messages that are not relevant for requested DID's
-    if (!matchesSearchCriteria(envelope.open())) {
+    // Skip messages that are not relevant for requested DID's, unless the whole topic state is checkpointed
+    if (checkpoint == null && !matchesSearchCriteria(envelope.open())) {
       return;
     }
 
     // Skip duplicated messages
-    if (existingSignatures.contains(envelope.getSignature())) {
+    if (!existingSignatures.add(envelope.getSignature(), envelope.getConsensusTimestamp())) {
       return;
     }
-    existingSignatures.add(envelope.getSignature());
 
-    processMessage(envelope);
+    if (checkpoint == null) {
+      processMessage(envelope, results);
+    } else {
+      synchronized (checkpoint) {
+        if (heldBackState == null) {
+          processMessage(envelope, checkpoint.getState());
+          checkpoint.advance(envelope);
+        } else {
+          processMessage(envelope, heldBackState);
+        }
+      }
+    }
+
+    // The signature was verified by the listener, the original bytes are not needed anymore.
+    if (dropRawMessages) {
+      envelope.discardRawMessage();
+    }
+
+    if (checkpoint == null && finalResultHandler != null) {
+      handOutIfFinal(getResultKey(envelope.open()));
+    }
+  }
+
+  /**
+   * Removes the result with the given key and hands it out to the streaming iterator if it is final.
+   * Later messages of this key no longer match the search criteria, as it is not part of the results anymore.
+   *
+   * @param key The key of the result.
+   */
+  private void handOutIfFinal(final String key) {
+    MessageEnvelope<T> result = key == null ? null : results.get(key);
+    if (result != null && isResultFinal(result)) {
+      results.remove(key);
+      finalResultHandler.accept(new AbstractMap.SimpleImmutableEntry<>(key, result));
+    }
+  }
+
+  /**
+   * Stops advancing the checkpoint at the first message rejected for a reason that is not final.
+   * The checkpoint keeps the state before this message, so that the next resolution reads it again,
+   * and the following messages of this resolution are processed into a copy of the checkpoint state.
+   * Once the checkpoint was held back by the configured number of consecutive resolutions,
+   * the rejection is taken as final and the checkpoint advances.
+   *
+   * @param reason The reason of the rejection.
+   */
+  private void holdBackCheckpoint(final IdentityMetrics.RejectionReason reason) {
+    if (isRejectionFinal(reason)) {
+      return;
+    }
+
+    synchronized (checkpoint) {
+      if (heldBackState == null && checkpoint.getHeldBackCount() < checkpointHoldBackLimit) {
+        heldBackState = new HashMap<>(checkpoint.getState());
+      }
+    }
   }
 
   /**
    * Waits for a new message from the topic for the configured amount of time.
    */
   private void waitOrFinish() {
+    if (finished.get()) {
+      return;
+    }
+
     // Check if the task should be rescheduled as new message arrived.
     long timeDiff = System.currentTimeMillis() - lastMessageArrivalTime.get();
     if (timeDiff < noMoreMessagesTimeout) {
       Runnable finishTask = () -> waitOrFinish();
 
-      executorService.schedule(finishTask, noMoreMessagesTimeout - timeDiff, TimeUnit.MILLISECONDS);
+      try {
+        timeoutTask = scheduler.schedule(finishTask, noMoreMessagesTimeout - timeDiff, TimeUnit.MILLISECONDS);
+        return;
+      } catch (RejectedExecutionException e) {
+        // The scheduler was shut down, finish with what was received so far.
+      }
+    }
+
+    finish();
+  }
+
+  /**
+   * Finishes the resolution, either when the last message of the topic was received or after the timeout.
+   * Results are delivered only once.
+   */
+  private void finish() {
+    if (!finished.compareAndSet(false, true)) {
       return;
     }
 
+    // Take the results from the checkpoint, it holds the state of the whole topic
+    if (checkpoint != null) {
+      synchronized (checkpoint) {
+        checkpoint.recordResolution(heldBackState != null);
+        if (heldBackState != null) {
+          results.replaceAll((key, value) -> heldBackState.get(key));
+        } else {
+          if (listener != null) {
+            checkpoint.advance(listener.getLastConsensusTimestamp(), listener.getLastSequenceNumber());
+          }
+          results.replaceAll((key, value) -> checkpoint.get(key));
+        }
+      }
+    }
+
+    release();
+    recordResolution();
+
     // Finish the task
     resultsHandler.accept(results);
+  }
+
+  /**
+   * Records the duration of the topic scan, the number of scanned messages and the number of resolved entries.
+   */
+  private void recordResolution() {
+    long matches = results.values().stream().filter(v -> v != null).count();
+    long scanned = listener == null ? 0 : listener.getReceivedMessagesCount();
+    metrics.resolutionFinished(topicId, System.nanoTime() - executionStart, scanned, matches);
+  }
+
+  /**
+   * Stops the resolution without delivering results.
+   */
+  private void abort() {
+    if (finished.compareAndSet(false, true)) {
+      release();
+    }
+  }
 
-    // Stop listening for new messages.
+  /**
+   * Stops listening for new messages and cancels the pending timeout task.
+   */
+  private void release() {
     if (listener != null) {
       listener.unsubscribe();
     }
 
-    // Stop the timeout executor.
-    if (executorService != null) {
-      executorService.shutdown();
+    ScheduledFuture<?> task = timeoutTask;
+    if (task != null) {
+      task.cancel(false);
+    }
+
+    if (live.compareAndSet(true, false)) {
+      LIVE_RESOLVERS.decrementAndGet();
+      if (liveCounter != null) {
+        liveCounter.decrementAndGet();
+      }
     }
   }
 
@@ -165,6 +538,7 @@ public abstract class MessageResolver<T extends Message> {
   /**
    * Defines a maximum time in milliseconds to wait for new messages from the topic.
    * Default is 30 seconds.
+   * If the end of the topic is known, this is only a safety net in case the mirror node stops streaming early.
    *
    * @param timeout The timeout in milliseconds to wait for new messages from the topic.
    * @return This resolver instance.
@@ -174,6 +548,165 @@ public abstract class MessageResolver<T extends Message> {
     return this;
   }
 
+  /**
+   * Defines the scheduler used to time out waiting for new messages.
+   * The scheduler is shared and is not shut down by the resolver.
+   * By default resolvers share a single daemon scheduler of the SDK,
+   * resolvers created by {@link HcsIdentityNetwork} use the scheduler of the network.
+   *
+   * @param scheduler The scheduler to use.
+   * @return This resolver instance.
+   */
+  public MessageResolver<T> setScheduler(final ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * Defines a counter of live resolvers that this resolver increments when it is executed
+   * and decrements when it finishes, in addition to the count of the whole JVM.
+   * Used by {@link HcsIdentityNetwork} to count the resolvers it created.
+   *
+   * @param counter The counter of live resolvers.
+   * @return This resolver instance.
+   */
+  MessageResolver<T> setLiveCounter(final AtomicInteger counter) {
+    this.liveCounter = counter;
+    return this;
+  }
+
+  /**
+   * Defines a checkpoint to resolve incrementally from.
+   * The resolver will only request messages newer than the checkpoint from the mirror node and will process
+   * all of them into the checkpoint, so that it holds the state of the whole topic after execution.
+   * Results are then taken from the checkpoint.
+   * The checkpoint is not advanced past a message rejected for a reason that is not final,
+   * see {@link #isRejectionFinal(IdentityMetrics.RejectionReason)}, so that later resolutions read it again,
+   * up to the limit set by {@link #setCheckpointHoldBackLimit(int)}.
+   * Persist the checkpoint after the resolution is finished to continue from it in the next execution.
+   *
+   * @param checkpoint The checkpoint of the previous resolutions of this resolver's topic.
+   * @return This resolver instance.
+   */
+  public MessageResolver<T> setCheckpoint(final ResolverCheckpoint<T> checkpoint) {
+    this.checkpoint = checkpoint;
+    return this;
+  }
+
+  /**
+   * Defines how many consecutive resolutions may keep the checkpoint before a message rejected for a reason
+   * that is not final. The resolution after that takes such rejections as final and advances the checkpoint
+   * past them, so that a message that never becomes valid does not pin the checkpoint forever.
+   * Defaults to {@link #DEFAULT_CHECKPOINT_HOLD_BACK_LIMIT}.
+   *
+   * @param limit The number of held back resolutions, 0 to always advance the checkpoint.
+   * @return This resolver instance.
+   */
+  public MessageResolver<T> setCheckpointHoldBackLimit(final int limit) {
+    if (limit < 0) {
+      throw new IllegalArgumentException("Checkpoint hold back limit must not be negative.");
+    }
+
+    this.checkpointHoldBackLimit = limit;
+    return this;
+  }
+
+  /**
+   * Enables parallel validation of topic messages on the given executor.
+   * Messages are processed by the resolver in consensus order, but the decrypter is called from executor threads.
+   *
+   * @param executor    The executor to validate messages in.
+   * @param batchSize   The maximum number of messages validated together by one task.
+   * @param parallelism The maximum number of batches validated at the same time.
+   * @return This resolver instance.
+   * @see MessageListener#setParallelValidation(Executor, int, int)
+   */
+  public MessageResolver<T> setParallelValidation(final Executor executor, final int batchSize,
+                                                  final int parallelism) {
+    if (executor == null || batchSize < 1 || parallelism < 1) {
+      throw new IllegalArgumentException("Executor, positive batch size and parallelism must be provided.");
+    }
+
+    this.validationExecutor = executor;
+    this.validationBatchSize = batchSize;
+    this.validationParallelism = parallelism;
+    return this;
+  }
+
+  /**
+   * Enables or disables releasing of the original message bytes received from the mirror node
+   * once a message was validated and processed.
+   * Resolution results then do not hold the submitted envelope bytes, but their signatures can no longer be verified.
+   * Disabled by default.
+   *
+   * @param drop Whether to drop the original message bytes.
+   * @return This resolver instance.
+   * @see MessageEnvelope#discardRawMessage()
+   */
+  public MessageResolver<T> setDropRawMessages(final boolean drop) {
+    this.dropRawMessages = drop;
+    return this;
+  }
+
+  /**
+   * Defines an archive of this resolver's topic.
+   * Archived messages are replayed from disk first and only newer messages are requested from the mirror node,
+   * which are appended to the archive. The archive can be shared by consecutive resolutions of the same topic.
+   *
+   * @param archive The archive of this resolver's topic.
+   * @return This resolver instance.
+   * @see MessageListener#setArchive(TopicArchive)
+   */
+  public MessageResolver<T> setArchive(final TopicArchive archive) {
+    this.archive = archive;
+    return this;
+  }
+
+  /**
+   * Defines a verifier of sequence continuity and running hashes of the messages received by this resolver.
+   * When resolving from a checkpoint, anchor the verifier at the last message of the checkpoint.
+   *
+   * @param verifier The verifier of this resolver's topic.
+   * @return This resolver instance.
+   * @see MessageListener#setRunningHashVerifier(RunningHashVerifier)
+   */
+  public MessageResolver<T> setRunningHashVerifier(final RunningHashVerifier verifier) {
+    this.verifier = verifier;
+    return this;
+  }
+
+  /**
+   * Defines metrics recording the duration of resolutions, the number of scanned messages and matches.
+   * The metrics are also passed to the topic listener of the resolver. By default nothing is recorded.
+   *
+   * @param metrics The metrics to record to.
+   * @return This resolver instance.
+   */
+  public MessageResolver<T> setMetrics(final IdentityMetrics metrics) {
+    if (metrics == null) {
+      throw new IllegalArgumentException("Metrics must be provided.");
+    }
+
+    this.metrics = metrics;
+    return this;
+  }
+
+  /**
+   * Enables or disables detection of the end of the topic.
+   * When enabled, the resolver executes a {@link TopicInfoQuery} to find the sequence number of the last message
+   * in the topic and finishes as soon as this message is received, instead of waiting for the timeout.
+   * The query blocks the executing thread and is paid by the client's operator on every execution,
+   * if it fails the resolver falls back to the timeout.
+   * Disabled by default.
+   *
+   * @param enabled Whether to detect the end of the topic.
+   * @return This resolver instance.
+   */
+  public MessageResolver<T> setEndOfTopicDetection(final boolean enabled) {
+    this.endOfTopicDetection = enabled;
+    return this;
+  }
+
   /**
    * Defines decryption function that decrypts submitted the message after consensus was reached.
    * Decryption function must accept a byte array of encrypted message and an Instant that is its consensus timestamp,
@@ -196,6 +729,82 @@ public abstract class MessageResolver<T extends Message> {
     validator.require(!results.isEmpty(), "Nothing to resolve.");
     validator.require(topicId != null, "Consensus topic ID not defined.");
     validator.require(resultsHandler != null, "Results handler 'whenFinished' not defined.");
+    validator.require(scheduler != null && !scheduler.isShutdown(), "Scheduler not defined or shut down.");
+  }
+
+  /**
+   * Iterator over resolution results that are handed out as they become final.
+   */
+  private final class ResultsIterator implements Iterator<Map.Entry<String, MessageEnvelope<T>>> {
+    private final BlockingQueue<Map.Entry<String, MessageEnvelope<T>>> queue;
+    private final Map.Entry<String, MessageEnvelope<T>> end;
+    private volatile Throwable error;
+    private Map.Entry<String, MessageEnvelope<T>> next;
+
+    ResultsIterator() {
+      this.queue = new LinkedBlockingQueue<>();
+      this.end = new AbstractMap.SimpleImmutableEntry<>(null, null);
+    }
+
+    /**
+     * Adds a final entry to be handed out.
+     *
+     * @param entry The final entry.
+     */
+    void add(final Map.Entry<String, MessageEnvelope<T>> entry) {
+      queue.add(entry);
+    }
+
+    /**
+     * Adds the remaining results once the resolution is finished and ends the iteration.
+     *
+     * @param remaining The remaining results or NULL if the resolution failed.
+     * @param err       The error of the resolution.
+     */
+    void finish(final Map<String, MessageEnvelope<T>> remaining, final Throwable err) {
+      if (err != null) {
+        error = err instanceof CompletionException && err.getCause() != null ? err.getCause() : err;
+      } else {
+        remaining.forEach((key, value) -> queue.add(new AbstractMap.SimpleImmutableEntry<>(key, value)));
+        remaining.clear();
+      }
+
+      queue.add(end);
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (next == null) {
+        try {
+          next = queue.take();
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+          throw new IllegalStateException("Interrupted while waiting for resolution results.", e);
+        }
+      }
+
+      if (next != end) {
+        return true;
+      }
+
+      Throwable err = error;
+      if (err != null) {
+        throw err instanceof RuntimeException ? (RuntimeException) err : new CompletionException(err);
+      }
+
+      return false;
+    }
+
+    @Override
+    public Map.Entry<String, MessageEnvelope<T>> next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+
+      Map.Entry<String, MessageEnvelope<T>> result = next;
+      next = null;
+      return result;
+    }
   }
 
 }
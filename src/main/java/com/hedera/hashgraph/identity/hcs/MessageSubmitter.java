@@ -0,0 +1,507 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.common.util.concurrent.ThreadFactoryBuilder;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.Hbar;
+import com.hedera.hashgraph.sdk.PrecheckStatusException;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.Status;
+import com.hedera.hashgraph.sdk.TopicId;
+import com.hedera.hashgraph.sdk.TopicMessageSubmitTransaction;
+import com.hedera.hashgraph.sdk.Transaction;
+import com.hedera.hashgraph.sdk.TransactionId;
+import com.hedera.hashgraph.sdk.TransactionResponse;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Function;
+import java.util.function.UnaryOperator;
+
+/**
+ * Submits many message envelopes to a topic concurrently using a single client.
+ * Envelopes are signed and submitted on the given executor, with at most the configured number of submissions
+ * in flight. When this limit is reached, {@link #submit(MessageEnvelope)} blocks the caller until a submission
+ * completes, which applies backpressure to the producer of envelopes.
+ * Submissions rejected by the network because it is busy, as well as timed out ones, are retried with an exponential
+ * backoff. Retries resubmit the same transaction with the same transaction ID, so that a submission which timed out
+ * but reached the network is not published twice. Only a transaction that expired before it was ever accepted
+ * is replaced by a new one.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public class MessageSubmitter<T extends Message> {
+  /**
+   * Default maximum number of submissions in flight.
+   */
+  public static final int DEFAULT_MAX_IN_FLIGHT = 16;
+
+  /**
+   * Default maximum number of retries of a single submission.
+   */
+  public static final int DEFAULT_MAX_RETRIES = 5;
+
+  /**
+   * Default delay in milliseconds before the first retry, doubled with each next retry.
+   */
+  public static final long DEFAULT_RETRY_BACKOFF = 500;
+
+  /**
+   * Precheck statuses after which the submission is retried.
+   */
+  private static final Set<Status> RETRYABLE_STATUSES = EnumSet.of(Status.BUSY,
+          Status.PLATFORM_TRANSACTION_NOT_CREATED, Status.PLATFORM_NOT_ACTIVE, Status.TRANSACTION_EXPIRED);
+
+  /**
+   * Time in seconds after which idle threads of the default executor are stopped.
+   */
+  private static final long DEFAULT_EXECUTOR_KEEP_ALIVE = 60;
+
+  private final Client client;
+  private final TopicId topicId;
+  private Semaphore inFlight;
+  private int maxInFlight;
+  private int maxRetries;
+  private long retryBackoff;
+  private Executor executor;
+  private ScheduledExecutorService scheduler;
+  private PrivateKey privateKey;
+  private UnaryOperator<byte[]> signer;
+  private Hbar maxTransactionFee;
+  private Function<TopicMessageSubmitTransaction, Transaction> buildTransactionFunction;
+  private Function<byte[], Submission> submissionFactory;
+
+  /**
+   * Creates a new submitter of messages to the given topic.
+   *
+   * @param client  The Hedera network client paying for submissions.
+   * @param topicId Consensus topic ID to which messages will be submitted.
+   */
+  public MessageSubmitter(final Client client, final TopicId topicId) {
+    if (client == null || topicId == null) {
+      throw new IllegalArgumentException("Client and topic ID must be provided.");
+    }
+
+    this.client = client;
+    this.topicId = topicId;
+    this.maxInFlight = DEFAULT_MAX_IN_FLIGHT;
+    this.maxRetries = DEFAULT_MAX_RETRIES;
+    this.retryBackoff = DEFAULT_RETRY_BACKOFF;
+    this.scheduler = DefaultScheduler.get();
+    this.submissionFactory = content -> new TransactionSubmission(buildTransaction(content));
+  }
+
+  /**
+   * Signs the envelope if it is not signed yet and submits it to the topic.
+   * Blocks if the maximum number of submissions is already in flight.
+   *
+   * @param envelope The message envelope, already encrypted if needed.
+   * @return The future completed with the ID of the successful transaction.
+   */
+  public CompletableFuture<TransactionId> submit(final MessageEnvelope<T> envelope) {
+    validate(envelope);
+
+    CompletableFuture<TransactionId> future = new CompletableFuture<>();
+    Semaphore permits = getPermits();
+    try {
+      permits.acquire();
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+      future.completeExceptionally(e);
+      return future;
+    }
+
+    future.whenComplete((id, err) -> permits.release());
+
+    try {
+      getExecutor().execute(() -> {
+        byte[] messageContent;
+        try {
+          messageContent = sign(envelope);
+        } catch (RuntimeException e) {
+          future.completeExceptionally(e);
+          return;
+        }
+
+        attempt(messageContent, null, false, 0, future);
+      });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+
+    return future;
+  }
+
+  /**
+   * Submits all given envelopes, blocking whenever the maximum number of submissions is in flight.
+   *
+   * @param envelopes The message envelopes.
+   * @return The futures of transaction IDs in the order of the envelopes.
+   */
+  public List<CompletableFuture<TransactionId>> submitAll(final Iterable<MessageEnvelope<T>> envelopes) {
+    List<CompletableFuture<TransactionId>> result = new ArrayList<>();
+    for (MessageEnvelope<T> envelope : envelopes) {
+      result.add(submit(envelope));
+    }
+
+    return result;
+  }
+
+  /**
+   * Returns the number of submissions currently in flight.
+   *
+   * @return The number of submissions in flight.
+   */
+  public int getInFlightCount() {
+    return maxInFlight - getPermits().availablePermits();
+  }
+
+  /**
+   * Signs the envelope unless it is signed already.
+   *
+   * @param envelope The message envelope.
+   * @return The signed envelope bytes.
+   */
+  private byte[] sign(final MessageEnvelope<T> envelope) {
+    if (envelope.getSignature() != null) {
+      return envelope.toJson().getBytes(StandardCharsets.UTF_8);
+    }
+
+    return privateKey != null ? envelope.sign(privateKey) : envelope.sign(signer);
+  }
+
+  /**
+   * Executes a single submission attempt and schedules a retry if it failed for a transient reason.
+   * Once an attempt timed out, the transaction might have reached the network, so it is only ever resubmitted
+   * with the same transaction ID and a duplicate transaction status is taken as its success.
+   *
+   * @param messageContent The signed envelope bytes.
+   * @param submission     The transaction of previous attempts or NULL to build a new one.
+   * @param timedOut       Whether a previous attempt of the transaction timed out.
+   * @param attempt        The number of attempts made so far.
+   * @param future         The future of the submission.
+   */
+  private void attempt(final byte[] messageContent, final Submission submission, final boolean timedOut,
+                       final int attempt, final CompletableFuture<TransactionId> future) {
+    Submission tx = submission;
+    Throwable failure;
+    boolean nextTimedOut = timedOut;
+    try {
+      if (tx == null) {
+        tx = submissionFactory.apply(messageContent);
+      }
+
+      Status status = tx.execute();
+      if (status == Status.OK) {
+        future.complete(tx.getTransactionId());
+        return;
+      }
+
+      if (timedOut && status == Status.DUPLICATE_TRANSACTION) {
+        // The attempt that timed out did reach the network.
+        future.complete(tx.getTransactionId());
+        return;
+      }
+
+      failure = tx.getRejection();
+      if (!RETRYABLE_STATUSES.contains(status)) {
+        future.completeExceptionally(failure);
+        return;
+      }
+
+      if (status == Status.TRANSACTION_EXPIRED) {
+        if (timedOut) {
+          // It is unknown whether the transaction reached consensus, a new one could publish the message twice.
+          future.completeExceptionally(new TimeoutException("Transaction " + tx.getTransactionId()
+                  + " expired after a timed out attempt, its outcome is unknown."));
+          return;
+        }
+
+        // The transaction was never accepted, it is safe to replace it.
+        tx = null;
+      }
+    } catch (TimeoutException e) {
+      nextTimedOut = true;
+      failure = e;
+    } catch (RuntimeException e) {
+      future.completeExceptionally(e);
+      return;
+    }
+
+    if (attempt >= maxRetries) {
+      future.completeExceptionally(failure);
+      return;
+    }
+
+    Submission retry = tx;
+    boolean retryTimedOut = nextTimedOut;
+    try {
+      long delay = retryBackoff << Math.min(attempt, 16);
+      scheduler.schedule(() -> getExecutor().execute(
+              () -> attempt(messageContent, retry, retryTimedOut, attempt + 1, future)),
+              delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(failure);
+    }
+  }
+
+  /**
+   * Builds the submit transaction, which is frozen with its transaction ID when it is executed first.
+   *
+   * @param messageContent The signed envelope bytes.
+   * @return The transaction.
+   */
+  private Transaction buildTransaction(final byte[] messageContent) {
+    TopicMessageSubmitTransaction tx = new TopicMessageSubmitTransaction()
+            .setTopicId(topicId)
+            .setMessage(messageContent);
+
+    if (maxTransactionFee != null) {
+      tx.setMaxTransactionFee(maxTransactionFee);
+    }
+
+    return buildTransactionFunction != null ? buildTransactionFunction.apply(tx) : tx;
+  }
+
+  /**
+   * Checks that the submitter is configured to sign the given envelope.
+   *
+   * @param envelope The message envelope.
+   */
+  private void validate(final MessageEnvelope<T> envelope) {
+    if (envelope == null) {
+      throw new IllegalArgumentException("Message envelope must be provided.");
+    }
+
+    if (envelope.getSignature() == null && privateKey == null && signer == null) {
+      throw new IllegalStateException("Signing function is missing.");
+    }
+
+    if (maxTransactionFee == null && buildTransactionFunction == null) {
+      throw new IllegalStateException("Transaction builder is missing.");
+    }
+  }
+
+  /**
+   * Replaces the transactions built for envelopes, so that retries can be tested without a network.
+   *
+   * @param factory The function building a submission of the signed envelope bytes.
+   * @return This submitter instance.
+   */
+  MessageSubmitter<T> setSubmissionFactory(final Function<byte[], Submission> factory) {
+    this.submissionFactory = factory;
+    return this;
+  }
+
+  private synchronized Semaphore getPermits() {
+    if (inFlight == null) {
+      inFlight = new Semaphore(maxInFlight);
+    }
+
+    return inFlight;
+  }
+
+  /**
+   * Returns the executor of submissions, by default a dedicated pool with one daemon thread per submission
+   * in flight, so that blocking network calls do not starve a shared pool. Idle threads of the pool are stopped.
+   *
+   * @return The executor.
+   */
+  private synchronized Executor getExecutor() {
+    if (executor == null) {
+      ThreadPoolExecutor pool = new ThreadPoolExecutor(maxInFlight, maxInFlight,
+              DEFAULT_EXECUTOR_KEEP_ALIVE, TimeUnit.SECONDS, new LinkedBlockingQueue<>(),
+              new ThreadFactoryBuilder().setNameFormat("hcs-message-submitter-%d").setDaemon(true).build());
+      pool.allowCoreThreadTimeOut(true);
+      executor = pool;
+    }
+
+    return executor;
+  }
+
+  /**
+   * Defines the maximum number of submissions in flight. Must be set before the first submission.
+   * Default is 16.
+   *
+   * @param maxInFlight The maximum number of submissions in flight.
+   * @return This submitter instance.
+   */
+  public synchronized MessageSubmitter<T> setMaxInFlight(final int maxInFlight) {
+    if (maxInFlight < 1) {
+      throw new IllegalArgumentException("Maximum number of submissions in flight must be positive.");
+    }
+
+    if (inFlight != null) {
+      throw new IllegalStateException("Maximum number of submissions in flight cannot be changed after submission.");
+    }
+
+    this.maxInFlight = maxInFlight;
+    return this;
+  }
+
+  /**
+   * Defines the maximum number of retries of a single submission. Default is 5.
+   *
+   * @param maxRetries The maximum number of retries.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> setMaxRetries(final int maxRetries) {
+    this.maxRetries = maxRetries;
+    return this;
+  }
+
+  /**
+   * Defines the delay in milliseconds before the first retry, doubled with each next retry.
+   * Default is 500 milliseconds.
+   *
+   * @param retryBackoff The initial retry delay in milliseconds.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> setRetryBackoff(final long retryBackoff) {
+    this.retryBackoff = retryBackoff;
+    return this;
+  }
+
+  /**
+   * Defines the executor in which envelopes are signed and transactions are executed.
+   * Its threads are blocked while transactions are executed, so it should not be a shared pool like the common
+   * fork-join pool. Default is a dedicated pool with as many threads as submissions in flight.
+   *
+   * @param executor The executor to use.
+   * @return This submitter instance.
+   */
+  public synchronized MessageSubmitter<T> setExecutor(final Executor executor) {
+    this.executor = executor;
+    return this;
+  }
+
+  /**
+   * Defines the scheduler used to delay retries.
+   *
+   * @param scheduler The scheduler to use.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> setScheduler(final ScheduledExecutorService scheduler) {
+    this.scheduler = scheduler;
+    return this;
+  }
+
+  /**
+   * Defines the private key to sign envelopes with.
+   *
+   * @param privateKey The private key to sign the messages with.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> setSigningKey(final PrivateKey privateKey) {
+    this.privateKey = privateKey;
+    return this;
+  }
+
+  /**
+   * Defines a function that signs envelopes. It must be thread-safe.
+   *
+   * @param signer The signing function to set.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> signMessage(final UnaryOperator<byte[]> signer) {
+    this.signer = signer;
+    return this;
+  }
+
+  /**
+   * Sets the maximum transaction fee.
+   *
+   * @param maxTransactionFee The maximum fee the client is willing to pay for each transaction.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> setMaxTransactionFee(final Hbar maxTransactionFee) {
+    this.maxTransactionFee = maxTransactionFee;
+    return this;
+  }
+
+  /**
+   * Sets {@link TopicMessageSubmitTransaction} parameters, builds and signs it without executing it.
+   * Topic ID and transaction message content are already set in the incoming transaction.
+   * Retries resubmit the built transaction, the function is only called again if it expired without being accepted
+   * by the network. It must be thread-safe.
+   *
+   * @param builderFunction The transaction builder function.
+   * @return This submitter instance.
+   */
+  public MessageSubmitter<T> buildAndSignTransaction(
+          final Function<TopicMessageSubmitTransaction, Transaction> builderFunction) {
+    this.buildTransactionFunction = builderFunction;
+    return this;
+  }
+
+  /**
+   * A transaction submitted to the topic, which is executed again with the same transaction ID when retried.
+   */
+  interface Submission {
+    /**
+     * Executes the transaction.
+     *
+     * @return {@link Status#OK} if the network accepted the transaction, otherwise the precheck status.
+     * @throws TimeoutException In case the network did not respond in time.
+     */
+    Status execute() throws TimeoutException;
+
+    /**
+     * Returns the ID of the transaction.
+     *
+     * @return The transaction ID.
+     */
+    TransactionId getTransactionId();
+
+    /**
+     * Returns the error of the last execution rejected with a precheck status.
+     *
+     * @return The error.
+     */
+    Exception getRejection();
+  }
+
+  /**
+   * Submission of a transaction built by the SDK.
+   */
+  private final class TransactionSubmission implements Submission {
+    private final Transaction transaction;
+    private TransactionId transactionId;
+    private PrecheckStatusException rejection;
+
+    TransactionSubmission(final Transaction transaction) {
+      this.transaction = transaction;
+    }
+
+    @Override
+    public Status execute() throws TimeoutException {
+      try {
+        transactionId = ((TransactionResponse) transaction.execute(client)).transactionId;
+        return Status.OK;
+      } catch (PrecheckStatusException e) {
+        rejection = e;
+        return e.status;
+      }
+    }
+
+    @Override
+    public TransactionId getTransactionId() {
+      return transactionId != null ? transactionId : transaction.getTransactionId();
+    }
+
+    @Override
+    public Exception getRejection() {
+      return rejection;
+    }
+  }
+}
@@ -0,0 +1,38 @@
+package com.hedera.hashgraph.identity.hcs;
+
+/**
+ * Receiver of topic messages published by a {@link MessagePublisher}.
+ * Mirrors {@code java.util.concurrent.Flow.Subscriber}, which is not available on Java 8,
+ * so that it can be adapted to Flow or Reactive Streams subscribers with a thin wrapper.
+ * Methods are called sequentially, never concurrently.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public interface MessageSubscriber<T extends Message> {
+  /**
+   * Called once before any other method, no messages are delivered until demand is signalled on the subscription.
+   *
+   * @param subscription The subscription.
+   */
+  void onSubscribe(MessageSubscription subscription);
+
+  /**
+   * Called with the next valid message of the topic, never more times than requested.
+   *
+   * @param envelope The message envelope.
+   */
+  void onNext(MessageEnvelope<T> envelope);
+
+  /**
+   * Called once when the stream failed, no other methods are called afterwards.
+   *
+   * @param err The error.
+   */
+  void onError(Throwable err);
+
+  /**
+   * Called once when the listener received the last message of a bounded query and all messages were delivered,
+   * no other methods are called afterwards.
+   */
+  void onComplete();
+}
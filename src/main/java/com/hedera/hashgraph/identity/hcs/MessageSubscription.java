@@ -0,0 +1,20 @@
+package com.hedera.hashgraph.identity.hcs;
+
+/**
+ * Link between a {@link MessagePublisher} and a {@link MessageSubscriber}, through which the subscriber signals demand.
+ * Mirrors {@code java.util.concurrent.Flow.Subscription}, which is not available on Java 8.
+ */
+public interface MessageSubscription {
+  /**
+   * Adds the given number of messages to the unfulfilled demand of the subscriber.
+   * A non-positive number fails the subscription with {@link IllegalArgumentException}.
+   *
+   * @param n The number of additional messages the subscriber is ready to receive.
+   */
+  void request(long n);
+
+  /**
+   * Stops delivery of messages and releases the topic subscription.
+   */
+  void cancel();
+}
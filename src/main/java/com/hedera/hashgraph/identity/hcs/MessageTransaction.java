@@ -8,6 +8,12 @@ import org.threeten.bp.Instant;
 
 import java.nio.charset.StandardCharsets;
 import java.util.Arrays;
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeoutException;
 import java.util.function.Consumer;
 import java.util.function.Function;
@@ -27,6 +33,10 @@ public abstract class MessageTransaction<T extends Message> {
   private PrivateKey privateKey;
   private MessageListener<T> listener;
   private Hbar maxTransactionFee;
+  private MessageConfirmationTracker<T> confirmationTracker;
+  private volatile CompletableFuture<MessageEnvelope<T>> trackedConfirmation;
+  private IdentityMetrics metrics = IdentityMetrics.NOOP;
+  private volatile long submissionStart;
 
   /**
    * Creates a new instance of a message transaction.
@@ -88,6 +98,7 @@ public abstract class MessageTransaction<T extends Message> {
     //      return;
     //    }
 
+    metrics.transactionFailed(topicId, err);
     if (errorHandler != null) {
       errorHandler.accept(err);
     } else {
@@ -128,6 +139,34 @@ public abstract class MessageTransaction<T extends Message> {
     return this;
   }
 
+  /**
+   * Defines a shared tracker to confirm the message with, instead of opening a topic subscription
+   * for this transaction only. The tracker's listener decrypts confirmed messages if they are encrypted.
+   *
+   * @param tracker The confirmation tracker of this transaction's topic.
+   * @return This transaction instance.
+   */
+  public MessageTransaction<T> setConfirmationTracker(final MessageConfirmationTracker<T> tracker) {
+    this.confirmationTracker = tracker;
+    return this;
+  }
+
+  /**
+   * Defines metrics recording the submission latency, the time from submission to confirmation
+   * and failures of this transaction. By default nothing is recorded.
+   *
+   * @param metrics The metrics to record to.
+   * @return This transaction instance.
+   */
+  public MessageTransaction<T> setMetrics(final IdentityMetrics metrics) {
+    if (metrics == null) {
+      throw new IllegalArgumentException("Metrics must be provided.");
+    }
+
+    this.metrics = metrics;
+    return this;
+  }
+
   /**
    * Defines a handler for errors when they happen during execution.
    *
@@ -208,7 +247,16 @@ public abstract class MessageTransaction<T extends Message> {
       messageContent = envelope.toJson().getBytes(StandardCharsets.UTF_8);
     }
 
-    if (receiver != null) {
+    if (receiver != null && confirmationTracker != null) {
+      trackedConfirmation = confirmationTracker.track(messageContent);
+      trackedConfirmation.whenComplete((msg, err) -> {
+        if (err == null) {
+          confirm(msg);
+        } else if (!(err instanceof CancellationException)) {
+          handleError(err instanceof CompletionException ? err.getCause() : err);
+        }
+      });
+    } else if (receiver != null) {
       listener = provideTopicListener(topicId);
       byte[] finalMessageContent = messageContent;
       listener.setStartTime(Instant.now().minusSeconds(1))
@@ -228,7 +276,7 @@ public abstract class MessageTransaction<T extends Message> {
               .onDecrypt(decrypter)
               .subscribe(client, msg -> {
                 listener.unsubscribe();
-                receiver.accept(msg);
+                confirm(msg);
               });
     }
 
@@ -243,8 +291,95 @@ public abstract class MessageTransaction<T extends Message> {
     return getTransactionId(client, tx);
   }
 
+  /**
+   * Builds the message and submits it to appnet's topic asynchronously.
+   * The submission is executed in the common fork-join pool.
+   *
+   * @param client The hedera network client.
+   * @return The future completed with the message once consensus was reached on it.
+   * @see #executeAsync(Client, Executor)
+   */
+  public CompletableFuture<MessageEnvelope<T>> executeAsync(final Client client) {
+    return executeAsync(client, ForkJoinPool.commonPool());
+  }
+
+  /**
+   * Builds the message and submits it to appnet's topic asynchronously.
+   * The returned future is completed with the message once it is received back from the mirror node,
+   * after it is passed to the 'onMessageConfirmed' handler if one is defined.
+   * Any error is passed to the error handler if one is defined and completes the future exceptionally.
+   * Cancelling the future or its failure stops listening for the message and removes it from the confirmation
+   * tracker, but cannot revert an already submitted transaction.
+   *
+   * @param client   The hedera network client.
+   * @param executor The executor to submit the transaction in, it will be blocked until the submission is done.
+   * @return The future completed with the message once consensus was reached on it.
+   */
+  public CompletableFuture<MessageEnvelope<T>> executeAsync(final Client client, final Executor executor) {
+    CompletableFuture<MessageEnvelope<T>> future = new CompletableFuture<>();
+
+    Consumer<MessageEnvelope<T>> confirmationHandler = receiver;
+    receiver = msg -> {
+      try {
+        if (confirmationHandler != null) {
+          confirmationHandler.accept(msg);
+        }
+        future.complete(msg);
+      } catch (RuntimeException e) {
+        future.completeExceptionally(e);
+      }
+    };
+
+    Consumer<Throwable> userErrorHandler = errorHandler;
+    errorHandler = err -> {
+      try {
+        if (userErrorHandler != null) {
+          userErrorHandler.accept(err);
+        }
+      } finally {
+        future.completeExceptionally(err);
+      }
+    };
+
+    future.whenComplete((msg, err) -> {
+      if (err != null) {
+        stopConfirmation();
+      }
+    });
+
+    try {
+      executor.execute(() -> {
+        // Cancelled before the submission started.
+        if (future.isDone()) {
+          return;
+        }
+
+        try {
+          execute(client);
+        } catch (RuntimeException e) {
+          future.completeExceptionally(e);
+        }
+      });
+    } catch (RejectedExecutionException e) {
+      future.completeExceptionally(e);
+    }
+
+    return future;
+  }
+
+  /**
+   * Records the confirmation of the submitted message and passes it to the receiver.
+   *
+   * @param envelope The submitted message received back from the mirror node.
+   */
+  private void confirm(final MessageEnvelope<T> envelope) {
+    metrics.messageConfirmed(topicId, System.nanoTime() - submissionStart);
+    receiver.accept(envelope);
+  }
+
   private TransactionId getTransactionId(final Client client, final TopicMessageSubmitTransaction tx) {
     TransactionId transactionId = null;
+    submissionStart = System.nanoTime();
     try {
       TransactionResponse response;
       if (buildTransactionFunction != null) {
@@ -256,16 +391,30 @@ public abstract class MessageTransaction<T extends Message> {
       }
       transactionId = response.transactionId;
       executed = true;
+      metrics.messageSubmitted(topicId, System.nanoTime() - submissionStart);
     } catch (PrecheckStatusException | TimeoutException e) {
+      stopConfirmation();
       handleError(e);
-      if (listener != null) {
-        listener.unsubscribe();
-      }
     }
 
     return transactionId;
   }
 
+  /**
+   * Stops waiting for the confirmation of the message, either by unsubscribing its listener
+   * or by removing it from the confirmation tracker.
+   */
+  private void stopConfirmation() {
+    if (listener != null) {
+      listener.unsubscribe();
+    }
+
+    CompletableFuture<MessageEnvelope<T>> confirmation = trackedConfirmation;
+    if (confirmation != null) {
+      confirmation.cancel(false);
+    }
+  }
+
   /**
    * Runs validation logic.
    *
@@ -0,0 +1,22 @@
+package com.hedera.hashgraph.identity.hcs;
+
+/**
+ * What a {@link MessagePublisher} does with a new message when its buffer is full.
+ */
+public enum OverflowStrategy {
+  /**
+   * Blocks the thread receiving messages from the mirror node until the subscriber makes room in the buffer.
+   * The mirror node stream then stops being read, so no more messages are buffered in the client.
+   */
+  BLOCK,
+
+  /**
+   * Drops the oldest buffered message to make room for the new one.
+   */
+  DROP_OLDEST,
+
+  /**
+   * Fails the subscription with an {@link IllegalStateException}.
+   */
+  FAIL
+}
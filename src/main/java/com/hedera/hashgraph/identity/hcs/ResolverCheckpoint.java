@@ -0,0 +1,162 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.io.Serializable;
+import java.util.HashMap;
+import java.util.Map;
+import org.threeten.bp.Instant;
+
+/**
+ * A checkpoint of a topic resolution: the consensus timestamp and sequence number of the last processed message
+ * together with a snapshot of the resolved state of every DID or credential hash seen in the topic up to that point.
+ * A resolver given a checkpoint only requests messages newer than the checkpoint from the mirror node and advances
+ * the checkpoint as it processes them, so consecutive resolutions stream only the missing delta of the topic.
+ * A checkpoint is specific to a single topic and must not be shared by resolvers executing at the same time.
+ *
+ * @param <T> Type of the messages in the topic.
+ */
+public class ResolverCheckpoint<T extends Message> implements Serializable {
+  private static final long serialVersionUID = 1L;
+
+  private final Map<String, MessageEnvelope<T>> state;
+  private Instant lastConsensusTimestamp;
+  private long lastSequenceNumber;
+  private int heldBackCount;
+
+  /**
+   * Creates an empty checkpoint that makes the resolver read the topic from its beginning.
+   */
+  public ResolverCheckpoint() {
+    this.state = new HashMap<>();
+  }
+
+  /**
+   * Reads a checkpoint previously persisted with {@link #writeTo(OutputStream)}.
+   *
+   * @param <U>         Type of the messages in the topic.
+   * @param inputStream The stream to read the checkpoint from.
+   * @return The checkpoint.
+   * @throws IOException            In case reading from the stream failed.
+   * @throws ClassNotFoundException In case the stream contains classes unknown to this application.
+   */
+  @SuppressWarnings("unchecked")
+  public static <U extends Message> ResolverCheckpoint<U> readFrom(final InputStream inputStream)
+          throws IOException, ClassNotFoundException {
+    ObjectInputStream ois = new ObjectInputStream(inputStream);
+    return (ResolverCheckpoint<U>) ois.readObject();
+  }
+
+  /**
+   * Persists this checkpoint into the given stream.
+   *
+   * @param outputStream The stream to write the checkpoint to.
+   * @throws IOException In case writing to the stream failed.
+   */
+  public synchronized void writeTo(final OutputStream outputStream) throws IOException {
+    ObjectOutputStream oos = new ObjectOutputStream(outputStream);
+    oos.writeObject(this);
+    oos.flush();
+  }
+
+  /**
+   * Returns the time from which the mirror node shall be queried to receive only messages not yet processed.
+   *
+   * @return The start time of the next resolution.
+   */
+  public synchronized Instant getNextStartTime() {
+    return lastConsensusTimestamp == null ? Instant.MIN : lastConsensusTimestamp.plusNanos(1);
+  }
+
+  /**
+   * Advances this checkpoint past the given message.
+   *
+   * @param envelope The processed message.
+   */
+  synchronized void advance(final MessageEnvelope<T> envelope) {
+    SerializableMirrorConsensusResponse response = envelope.getMirrorResponse();
+    if (response == null) {
+      return;
+    }
+
+    advance(response.consensusTimestamp, response.sequenceNumber);
+  }
+
+  /**
+   * Advances this checkpoint past the given position in the topic.
+   * Used to move past messages that were received but not relevant or not valid.
+   *
+   * @param consensusTimestamp The consensus timestamp of the last received message.
+   * @param sequenceNumber     The sequence number of the last received message.
+   */
+  synchronized void advance(final Instant consensusTimestamp, final long sequenceNumber) {
+    if (consensusTimestamp == null) {
+      return;
+    }
+
+    if (lastConsensusTimestamp == null || consensusTimestamp.isAfter(lastConsensusTimestamp)) {
+      lastConsensusTimestamp = consensusTimestamp;
+    }
+
+    lastSequenceNumber = Math.max(lastSequenceNumber, sequenceNumber);
+  }
+
+  /**
+   * Returns the resolved state of every DID or credential hash processed so far.
+   * It shall only be accessed from the resolver, by the thread handling topic messages.
+   *
+   * @return The mutable state snapshot.
+   */
+  Map<String, MessageEnvelope<T>> getState() {
+    return state;
+  }
+
+  /**
+   * Returns the last resolved message for the given DID or credential hash.
+   *
+   * @param key The DID or credential hash.
+   * @return The last valid message or NULL if none was found in the topic until this checkpoint.
+   */
+  public synchronized MessageEnvelope<T> get(final String key) {
+    return state.get(key);
+  }
+
+  /**
+   * Returns the number of DIDs or credential hashes tracked by this checkpoint.
+   *
+   * @return The size of the state snapshot.
+   */
+  public synchronized int size() {
+    return state.size();
+  }
+
+  /**
+   * Returns the number of consecutive resolutions that did not advance this checkpoint past a message
+   * rejected for a reason that is not final.
+   *
+   * @return The number of held back resolutions.
+   */
+  public synchronized int getHeldBackCount() {
+    return heldBackCount;
+  }
+
+  /**
+   * Records the outcome of a resolution that finished with this checkpoint.
+   *
+   * @param heldBack True if the resolution held this checkpoint back, false if it advanced it to the end.
+   */
+  synchronized void recordResolution(final boolean heldBack) {
+    heldBackCount = heldBack ? heldBackCount + 1 : 0;
+  }
+
+  public synchronized Instant getLastConsensusTimestamp() {
+    return lastConsensusTimestamp;
+  }
+
+  public synchronized long getLastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+}
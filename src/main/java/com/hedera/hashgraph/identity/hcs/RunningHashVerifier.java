@@ -0,0 +1,254 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+import java.util.function.LongFunction;
+import org.threeten.bp.Instant;
+
+/**
+ * Verifies that messages of a topic are received without gaps and, when the payer of each message is known,
+ * that their running hashes form the chain computed by the network.
+ * The running hash of a message is recomputed from the running hash of the previous message, the payer account,
+ * the topic, the consensus timestamp, the sequence number and the hash of the message contents
+ * (running hash version 3), so each message costs two SHA-384 digests regardless of the topic size.
+ * Messages must be verified in consensus order. Messages split into multiple chunks are not supported.
+ * Unless an anchor is set, the chain starts with the first verified message, which is only verified itself
+ * if it is the first message of the topic.
+ */
+public class RunningHashVerifier {
+  /**
+   * Version of the running hash algorithm implemented by this verifier.
+   */
+  public static final long RUNNING_HASH_VERSION = 3;
+
+  /**
+   * Size in bytes of a SHA-384 running hash.
+   */
+  public static final int RUNNING_HASH_SIZE = 48;
+
+  private final TopicId topicId;
+  private final MessageDigest digest;
+  private final ByteBuffer buffer;
+  private LongFunction<AccountId> payerResolver;
+  private Consumer<TopicGap> gapHandler;
+  private long lastSequenceNumber;
+  private Instant lastConsensusTimestamp;
+  private byte[] lastRunningHash;
+  private boolean anchored;
+  private final AtomicLong verifiedCount;
+  private final AtomicLong gapCount;
+  private final AtomicLong mismatchCount;
+
+  /**
+   * Creates a new verifier of the given topic.
+   *
+   * @param topicId The consensus topic ID.
+   */
+  public RunningHashVerifier(final TopicId topicId) {
+    if (topicId == null) {
+      throw new IllegalArgumentException("Topic ID must be provided.");
+    }
+
+    try {
+      this.digest = MessageDigest.getInstance("SHA-384");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-384 is not available.", e);
+    }
+
+    this.topicId = topicId;
+    this.buffer = ByteBuffer.allocate(RUNNING_HASH_SIZE + 9 * Long.BYTES + Integer.BYTES + RUNNING_HASH_SIZE);
+    this.verifiedCount = new AtomicLong();
+    this.gapCount = new AtomicLong();
+    this.mismatchCount = new AtomicLong();
+  }
+
+  /**
+   * Verifies the next message of the topic.
+   * A message with a gap before it is accepted and the gap is reported to the gap handler,
+   * the hash chain then continues from the running hash of this message.
+   * A message with a running hash that is missing or does not match is rejected and the chain does not advance,
+   * so a valid copy of the message received later is still verified. Otherwise the rejected message is reported
+   * as a gap before the next message, from which the chain then continues.
+   *
+   * @param consensusTimestamp The consensus timestamp of the message.
+   * @param sequenceNumber     The sequence number of the message.
+   * @param runningHash        The running hash of the topic after the message, as reported by the mirror node.
+   * @param contents           The message contents.
+   * @return The result of the verification.
+   */
+  public synchronized Result verify(final Instant consensusTimestamp, final long sequenceNumber,
+                                    final byte[] runningHash, final byte[] contents) {
+    if (!anchored) {
+      // The running hash of a new topic is all zeros, any later message starts an unverified chain.
+      setAnchor(null, sequenceNumber - 1, sequenceNumber == 1 ? new byte[RUNNING_HASH_SIZE] : null);
+    }
+
+    if (sequenceNumber <= lastSequenceNumber) {
+      return Result.DUPLICATE;
+    }
+
+    if (runningHash == null || runningHash.length != RUNNING_HASH_SIZE) {
+      return reject();
+    }
+
+    Result result;
+    AccountId payer;
+    if (sequenceNumber > lastSequenceNumber + 1) {
+      gapCount.incrementAndGet();
+      reportGap(sequenceNumber, consensusTimestamp);
+      result = Result.GAP;
+    } else if (lastRunningHash == null || payerResolver == null
+            || (payer = payerResolver.apply(sequenceNumber)) == null) {
+      result = Result.UNVERIFIED;
+    } else if (Arrays.equals(runningHash, computeRunningHash(payer, consensusTimestamp, sequenceNumber, contents))) {
+      verifiedCount.incrementAndGet();
+      result = Result.VERIFIED;
+    } else {
+      return reject();
+    }
+
+    lastSequenceNumber = sequenceNumber;
+    lastConsensusTimestamp = consensusTimestamp;
+    lastRunningHash = runningHash.clone();
+    return result;
+  }
+
+  /**
+   * Computes the running hash of a message from the running hash of the previous message.
+   *
+   * @param payer              The account that paid for the message submission.
+   * @param consensusTimestamp The consensus timestamp of the message.
+   * @param sequenceNumber     The sequence number of the message.
+   * @param contents           The message contents.
+   * @return The running hash of the topic after the message.
+   */
+  private byte[] computeRunningHash(final AccountId payer, final Instant consensusTimestamp,
+                                    final long sequenceNumber, final byte[] contents) {
+    byte[] contentsHash = digest.digest(contents == null ? new byte[0] : contents);
+
+    buffer.clear();
+    buffer.put(lastRunningHash)
+            .putLong(RUNNING_HASH_VERSION)
+            .putLong(payer.shard)
+            .putLong(payer.realm)
+            .putLong(payer.num)
+            .putLong(topicId.shard)
+            .putLong(topicId.realm)
+            .putLong(topicId.num)
+            .putLong(consensusTimestamp.getEpochSecond())
+            .putInt(consensusTimestamp.getNano())
+            .putLong(sequenceNumber)
+            .put(contentsHash);
+
+    digest.update(buffer.array(), 0, buffer.position());
+    return digest.digest();
+  }
+
+  private Result reject() {
+    mismatchCount.incrementAndGet();
+    return Result.MISMATCH;
+  }
+
+  private void reportGap(final long sequenceNumber, final Instant consensusTimestamp) {
+    if (gapHandler == null) {
+      return;
+    }
+
+    Instant startTime = lastConsensusTimestamp == null ? null : lastConsensusTimestamp.plusNanos(1);
+    gapHandler.accept(new TopicGap(lastSequenceNumber + 1, sequenceNumber - 1, startTime, consensusTimestamp));
+  }
+
+  /**
+   * Continues verification after a message that was verified before, for example one restored from a checkpoint
+   * or replayed from an archive. The next expected message is the one following the anchor.
+   *
+   * @param consensusTimestamp The consensus timestamp of the anchor message.
+   * @param sequenceNumber     The sequence number of the anchor message.
+   * @param runningHash        The running hash of the topic after the anchor message, NULL if unknown.
+   * @return This verifier instance.
+   */
+  public synchronized RunningHashVerifier setAnchor(final Instant consensusTimestamp, final long sequenceNumber,
+                                                    final byte[] runningHash) {
+    this.lastConsensusTimestamp = consensusTimestamp;
+    this.lastSequenceNumber = sequenceNumber;
+    this.lastRunningHash = runningHash == null ? null : runningHash.clone();
+    this.anchored = true;
+    return this;
+  }
+
+  /**
+   * Defines a function that returns the payer account of the message with the given sequence number,
+   * or NULL if it is not known. Without it, or for messages with unknown payers, only gaps are detected.
+   * The payer is not part of the mirror node stream and can be looked up, for example, in the mirror node REST API.
+   *
+   * @param payerResolver The payer lookup function.
+   * @return This verifier instance.
+   */
+  public synchronized RunningHashVerifier setPayerResolver(final LongFunction<AccountId> payerResolver) {
+    this.payerResolver = payerResolver;
+    return this;
+  }
+
+  /**
+   * Defines a handler of gaps in the received sequence numbers.
+   *
+   * @param handler The gap handler.
+   * @return This verifier instance.
+   */
+  public synchronized RunningHashVerifier onGap(final Consumer<TopicGap> handler) {
+    this.gapHandler = handler;
+    return this;
+  }
+
+  public synchronized long getLastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  public long getVerifiedCount() {
+    return verifiedCount.get();
+  }
+
+  public long getGapCount() {
+    return gapCount.get();
+  }
+
+  public long getMismatchCount() {
+    return mismatchCount.get();
+  }
+
+  /**
+   * Result of a message verification.
+   */
+  public enum Result {
+    /**
+     * The running hash of the message was recomputed and matches.
+     */
+    VERIFIED,
+
+    /**
+     * The message follows the previous one, but its running hash could not be recomputed.
+     */
+    UNVERIFIED,
+
+    /**
+     * One or more messages are missing before this message.
+     */
+    GAP,
+
+    /**
+     * The message was already verified.
+     */
+    DUPLICATE,
+
+    /**
+     * The running hash of the message does not match, the message must not be trusted.
+     */
+    MISMATCH
+  }
+}
@@ -27,6 +27,31 @@ public class SerializableMirrorConsensusResponse implements Serializable {
     this.sequenceNumber = response.sequenceNumber;
   }
 
+  SerializableMirrorConsensusResponse(final Instant consensusTimestamp, final byte[] message,
+                                      final byte[] runningHash, final long sequenceNumber) {
+    this.consensusTimestamp = consensusTimestamp;
+    this.message = message;
+    this.runningHash = runningHash;
+    this.sequenceNumber = sequenceNumber;
+  }
+
+  private SerializableMirrorConsensusResponse(final SerializableMirrorConsensusResponse source,
+                                              final byte[] message) {
+    this.consensusTimestamp = source.consensusTimestamp;
+    this.message = message;
+    this.runningHash = source.runningHash;
+    this.sequenceNumber = source.sequenceNumber;
+  }
+
+  /**
+   * Creates a copy of this response without the message bytes.
+   *
+   * @return The copy of this response with NULL message.
+   */
+  SerializableMirrorConsensusResponse withoutMessage() {
+    return message == null ? this : new SerializableMirrorConsensusResponse(this, null);
+  }
+
   // TODO: Use a standard debug serialization
   @Override
   public String toString() {
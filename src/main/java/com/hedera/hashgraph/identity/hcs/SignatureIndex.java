@@ -0,0 +1,307 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.LongBuffer;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import org.threeten.bp.Instant;
+
+/**
+ * Compact index of message signatures used to detect duplicate messages.
+ * Instead of signature strings, the index holds a 16-byte SHA-256 digest of each signature together with the
+ * consensus timestamp of its message in an open-addressing table of primitive longs, which takes 24 bytes per entry
+ * plus the free space of the table. The table can be allocated outside of the heap.
+ * As topic listeners resume from their last consensus timestamp, signatures of messages older than
+ * a retention window behind the newest message will not be received again and can be aged out.
+ */
+public class SignatureIndex {
+  /**
+   * Default initial number of entries the index can hold without growing.
+   */
+  public static final int DEFAULT_EXPECTED_SIZE = 1024;
+
+  /**
+   * Number of longs in a single slot: two halves of the digest and the consensus timestamp.
+   */
+  private static final int SLOT_SIZE = 3;
+
+  /**
+   * Timestamp of entries added without one, such entries are never aged out.
+   */
+  private static final long NO_TIMESTAMP = Long.MAX_VALUE;
+
+  /**
+   * Maximum number of slots, so that the size of the table in bytes fits into an int for direct allocation.
+   */
+  private static final int MAX_CAPACITY = Integer.highestOneBit(Integer.MAX_VALUE / (SLOT_SIZE * Long.BYTES));
+
+  private static final double MAX_LOAD_FACTOR = 0.75;
+
+  /**
+   * SHA-256 digests are not thread-safe, so each thread hashing signatures, also outside of the index lock,
+   * uses its own.
+   */
+  private static final ThreadLocal<MessageDigest> DIGEST = ThreadLocal.withInitial(() -> {
+    try {
+      return MessageDigest.getInstance("SHA-256");
+    } catch (NoSuchAlgorithmException e) {
+      throw new IllegalStateException("SHA-256 is not available.", e);
+    }
+  });
+
+  private final boolean offHeap;
+  private LongBuffer table;
+  private int capacity;
+  private int size;
+  private long newestTimestamp;
+  private long retentionWindow;
+
+  /**
+   * Creates a new index on the heap with the default expected size.
+   */
+  public SignatureIndex() {
+    this(DEFAULT_EXPECTED_SIZE, false);
+  }
+
+  /**
+   * Creates a new index.
+   *
+   * @param expectedSize The number of entries the index can hold without growing.
+   * @param offHeap      Whether to allocate the table in direct memory outside of the heap.
+   */
+  public SignatureIndex(final int expectedSize, final boolean offHeap) {
+    if (expectedSize < 1 || expectedSize > MAX_CAPACITY * MAX_LOAD_FACTOR) {
+      throw new IllegalArgumentException("Expected size must be positive and at most "
+              + (int) (MAX_CAPACITY * MAX_LOAD_FACTOR) + ".");
+    }
+
+    this.offHeap = offHeap;
+    this.newestTimestamp = Long.MIN_VALUE;
+    this.table = allocate(tableCapacity(expectedSize));
+  }
+
+  /**
+   * Adds the signature of a message to the index.
+   *
+   * @param signature          The message signature.
+   * @param consensusTimestamp The consensus timestamp of the message or NULL if it should never be aged out.
+   * @return True if the signature was added, false if it was already in the index.
+   */
+  public synchronized boolean add(final String signature, final Instant consensusTimestamp) {
+    long[] hash = hash(signature);
+    return add(hash[0], hash[1], toNanos(consensusTimestamp));
+  }
+
+  /**
+   * Checks if the signature is in the index.
+   *
+   * @param signature The message signature.
+   * @return True if the signature was added before and was not aged out, false otherwise.
+   */
+  public synchronized boolean contains(final String signature) {
+    long[] hash = hash(signature);
+    int slot = find(hash[0], hash[1]);
+    return table.get(slot) != 0 || table.get(slot + 1) != 0;
+  }
+
+  /**
+   * Returns the number of signatures in the index.
+   *
+   * @return The number of signatures.
+   */
+  public synchronized int size() {
+    return size;
+  }
+
+  /**
+   * Returns the number of bytes occupied by the table of the index.
+   *
+   * @return The size of the table in bytes.
+   */
+  public synchronized long getTableSize() {
+    return (long) capacity * SLOT_SIZE * Long.BYTES;
+  }
+
+  /**
+   * Defines the window of consensus time behind the newest added message, outside of which signatures are aged out.
+   * Aged out signatures are removed when the index would otherwise grow. Default is 0, keeping signatures forever.
+   *
+   * @param retentionWindow The retention window in milliseconds.
+   * @return This index instance.
+   */
+  public synchronized SignatureIndex setRetentionWindow(final long retentionWindow) {
+    if (retentionWindow < 0) {
+      throw new IllegalArgumentException("Retention window must not be negative.");
+    }
+
+    this.retentionWindow = retentionWindow;
+    return this;
+  }
+
+  /**
+   * Removes all signatures of messages with consensus timestamps before the given time.
+   *
+   * @param consensusTimestamp The oldest consensus timestamp to keep.
+   */
+  public synchronized void expireBefore(final Instant consensusTimestamp) {
+    rehash(capacity, toNanos(consensusTimestamp));
+  }
+
+  /**
+   * Adds the digest of a signature to the index.
+   *
+   * @param hi        The first half of the digest.
+   * @param lo        The second half of the digest.
+   * @param timestamp The consensus timestamp in nanoseconds since the epoch.
+   * @return True if the digest was added, false if it was already in the index.
+   */
+  synchronized boolean add(final long hi, final long lo, final long timestamp) {
+    if (timestamp != NO_TIMESTAMP && timestamp > newestTimestamp) {
+      newestTimestamp = timestamp;
+    }
+
+    int slot = find(hi, lo);
+    if (table.get(slot) != 0 || table.get(slot + 1) != 0) {
+      return false;
+    }
+
+    if (size + 1 > capacity * MAX_LOAD_FACTOR) {
+      grow();
+      slot = find(hi, lo);
+    }
+
+    table.put(slot, hi);
+    table.put(slot + 1, lo);
+    table.put(slot + 2, timestamp);
+    size++;
+    return true;
+  }
+
+  /**
+   * Passes every entry of the index to the given consumer.
+   *
+   * @param consumer The consumer of digest halves and timestamps.
+   * @throws IOException In case the consumer failed to write the entry.
+   */
+  synchronized void forEach(final EntryConsumer consumer) throws IOException {
+    for (int i = 0; i < capacity; i++) {
+      int slot = i * SLOT_SIZE;
+      long hi = table.get(slot);
+      long lo = table.get(slot + 1);
+      if (hi != 0 || lo != 0) {
+        consumer.accept(hi, lo, table.get(slot + 2));
+      }
+    }
+  }
+
+  /**
+   * Calculates the digest of a signature, split into two longs. The all-zero digest marks empty slots,
+   * so it is replaced by another value.
+   *
+   * @param signature The message signature.
+   * @return The two halves of the digest.
+   */
+  long[] hash(final String signature) {
+    if (signature == null) {
+      throw new IllegalArgumentException("Signature must be provided.");
+    }
+
+    ByteBuffer hash = ByteBuffer.wrap(DIGEST.get().digest(signature.getBytes(StandardCharsets.UTF_8)));
+    long hi = hash.getLong();
+    long lo = hash.getLong();
+
+    return new long[] {hi, hi == 0 && lo == 0 ? 1 : lo};
+  }
+
+  /**
+   * Finds the slot holding the given digest or the empty slot where it belongs, using linear probing.
+   *
+   * @param hi The first half of the digest.
+   * @param lo The second half of the digest.
+   * @return The index of the first long of the slot.
+   */
+  private int find(final long hi, final long lo) {
+    int mask = capacity - 1;
+    int i = (int) (lo ^ (lo >>> 32)) & mask;
+    while (true) {
+      int slot = i * SLOT_SIZE;
+      long slotHi = table.get(slot);
+      long slotLo = table.get(slot + 1);
+      if ((slotHi == 0 && slotLo == 0) || (slotHi == hi && slotLo == lo)) {
+        return slot;
+      }
+      i = (i + 1) & mask;
+    }
+  }
+
+  /**
+   * Makes room for new entries, first by aging out old signatures, then by doubling the table.
+   */
+  private void grow() {
+    if (retentionWindow > 0 && newestTimestamp != Long.MIN_VALUE) {
+      rehash(capacity, newestTimestamp - retentionWindow * 1_000_000);
+      if (size + 1 <= capacity * MAX_LOAD_FACTOR / 2) {
+        return;
+      }
+    }
+
+    rehash(capacity * 2, Long.MIN_VALUE);
+  }
+
+  /**
+   * Moves entries not older than the given timestamp to a new table.
+   *
+   * @param newCapacity The number of slots of the new table.
+   * @param oldest      The oldest timestamp to keep in nanoseconds since the epoch.
+   */
+  private void rehash(final int newCapacity, final long oldest) {
+    LongBuffer old = table;
+    int oldCapacity = capacity;
+
+    table = allocate(newCapacity);
+    size = 0;
+    for (int i = 0; i < oldCapacity; i++) {
+      int slot = i * SLOT_SIZE;
+      long hi = old.get(slot);
+      long lo = old.get(slot + 1);
+      long timestamp = old.get(slot + 2);
+      if ((hi != 0 || lo != 0) && timestamp >= oldest) {
+        int target = find(hi, lo);
+        table.put(target, hi);
+        table.put(target + 1, lo);
+        table.put(target + 2, timestamp);
+        size++;
+      }
+    }
+  }
+
+  private LongBuffer allocate(final int slots) {
+    if (slots > MAX_CAPACITY) {
+      throw new IllegalStateException("Signature index cannot hold more than "
+              + (int) (MAX_CAPACITY * MAX_LOAD_FACTOR) + " entries.");
+    }
+
+    capacity = slots;
+    int longs = slots * SLOT_SIZE;
+    return offHeap ? ByteBuffer.allocateDirect(longs * Long.BYTES).asLongBuffer() : LongBuffer.allocate(longs);
+  }
+
+  private static int tableCapacity(final int expectedSize) {
+    int required = (int) Math.ceil(expectedSize / MAX_LOAD_FACTOR);
+    return Integer.highestOneBit(Math.max(required, 2) - 1) << 1;
+  }
+
+  private static long toNanos(final Instant consensusTimestamp) {
+    return consensusTimestamp == null ? NO_TIMESTAMP
+            : consensusTimestamp.getEpochSecond() * 1_000_000_000L + consensusTimestamp.getNano();
+  }
+
+  /**
+   * Consumer of index entries.
+   */
+  interface EntryConsumer {
+    void accept(long hi, long lo, long timestamp) throws IOException;
+  }
+}
@@ -0,0 +1,380 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.hedera.hashgraph.sdk.TopicMessage;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.function.Consumer;
+import org.threeten.bp.Instant;
+
+/**
+ * Local archive of the raw messages of a single topic, so that the topic can be replayed from disk
+ * instead of being streamed from the mirror node again.
+ * Messages are appended in consensus order to segment files in the archive directory, each record carrying
+ * the consensus timestamp, sequence number, running hash and contents of the message, protected by a checksum.
+ * The archive holds a contiguous range of the topic, starting with the first appended message,
+ * so it can only replace the mirror node for queries that start within this range.
+ * Segments are memory-mapped for replay. Records are framed by {@link ChecksummedRecords}.
+ */
+public class TopicArchive implements Closeable {
+  /**
+   * Default size in bytes after which a new segment is started.
+   */
+  public static final long DEFAULT_SEGMENT_SIZE = 64L * 1024 * 1024;
+
+  private static final String SEGMENT_SUFFIX = ".segment";
+
+  /**
+   * Consensus timestamp seconds and nanos, sequence number and lengths of the running hash and contents.
+   */
+  private static final int FIXED_PAYLOAD_SIZE = 8 + 4 + 8 + 4 + 4;
+
+  /**
+   * Records larger than this are considered corrupted.
+   */
+  private static final int MAX_RECORD_SIZE = 16 * 1024 * 1024;
+
+  private final Path directory;
+  private final List<Path> segments;
+  private long segmentSize;
+  private FileChannel channel;
+  private Instant firstConsensusTimestamp;
+  private long firstSequenceNumber;
+  private Instant lastConsensusTimestamp;
+  private long lastSequenceNumber;
+
+  /**
+   * Opens the archive in the given directory, creating the directory if it does not exist.
+   *
+   * @param directory The archive directory, which must only be used for a single topic.
+   * @throws IOException In case the archive could not be read or opened for writing.
+   */
+  public TopicArchive(final Path directory) throws IOException {
+    if (directory == null) {
+      throw new IllegalArgumentException("Archive directory must be provided.");
+    }
+
+    this.directory = directory;
+    this.segments = new ArrayList<>();
+    this.segmentSize = DEFAULT_SEGMENT_SIZE;
+
+    Files.createDirectories(directory);
+    try (DirectoryStream<Path> stream = Files.newDirectoryStream(directory, "*" + SEGMENT_SUFFIX)) {
+      stream.forEach(segments::add);
+    }
+    // Segment names are zero-padded sequence numbers of their first message.
+    Collections.sort(segments);
+
+    if (!segments.isEmpty()) {
+      readFirstMessage(segments.get(0));
+
+      Path last = segments.get(segments.size() - 1);
+      long validLength = ChecksummedRecords.recover(last, MAX_RECORD_SIZE, payload -> {
+        SerializableMirrorConsensusResponse record = parseRecord(payload);
+        lastConsensusTimestamp = record.consensusTimestamp;
+        lastSequenceNumber = record.sequenceNumber;
+      });
+      channel = FileChannel.open(last, StandardOpenOption.WRITE, StandardOpenOption.READ);
+      if (channel.size() > validLength) {
+        channel.truncate(validLength);
+      }
+      channel.position(validLength);
+    }
+  }
+
+  /**
+   * Appends a message received from the mirror node to the archive.
+   * Messages with sequence numbers not greater than the last archived one are skipped.
+   *
+   * @param response The mirror response.
+   * @return True if the message was archived, false if it was skipped.
+   * @throws IOException              In case the message could not be written.
+   * @throws IllegalArgumentException In case the message does not directly follow the last archived one.
+   */
+  public synchronized boolean append(final TopicMessage response) throws IOException {
+    return append(response.consensusTimestamp, response.sequenceNumber, response.runningHash, response.contents);
+  }
+
+  /**
+   * Appends a message to the archive.
+   * Messages with sequence numbers not greater than the last archived one are skipped.
+   * The first message appended to an empty archive defines the start of its range,
+   * every following message must have the next sequence number, so that the archive has no gaps.
+   *
+   * @param consensusTimestamp The consensus timestamp of the message.
+   * @param sequenceNumber     The sequence number of the message.
+   * @param runningHash        The running hash of the topic after the message.
+   * @param contents           The message contents.
+   * @return True if the message was archived, false if it was skipped.
+   * @throws IOException              In case the message could not be written.
+   * @throws IllegalArgumentException In case the message does not directly follow the last archived one.
+   */
+  public synchronized boolean append(final Instant consensusTimestamp, final long sequenceNumber,
+                                     final byte[] runningHash, final byte[] contents) throws IOException {
+    if (sequenceNumber <= lastSequenceNumber) {
+      return false;
+    }
+
+    if (lastSequenceNumber > 0 && sequenceNumber != lastSequenceNumber + 1) {
+      throw new IllegalArgumentException("Message " + sequenceNumber
+              + " does not follow the last archived message " + lastSequenceNumber + ".");
+    }
+
+    byte[] hash = runningHash == null ? new byte[0] : runningHash;
+    byte[] message = contents == null ? new byte[0] : contents;
+
+    if (channel == null || channel.position() >= segmentSize) {
+      startSegment(sequenceNumber);
+    }
+
+    ByteBuffer buffer = ChecksummedRecords.allocate(FIXED_PAYLOAD_SIZE + hash.length + message.length);
+    buffer.putLong(consensusTimestamp.getEpochSecond())
+            .putInt(consensusTimestamp.getNano())
+            .putLong(sequenceNumber)
+            .putInt(hash.length)
+            .put(hash)
+            .putInt(message.length)
+            .put(message);
+    ChecksummedRecords.append(channel, ChecksummedRecords.seal(buffer));
+
+    if (firstSequenceNumber == 0) {
+      firstConsensusTimestamp = consensusTimestamp;
+      firstSequenceNumber = sequenceNumber;
+    }
+    lastConsensusTimestamp = consensusTimestamp;
+    lastSequenceNumber = sequenceNumber;
+    return true;
+  }
+
+  /**
+   * Replays archived messages with sequence numbers greater than the given one, in consensus order.
+   * Segments are memory-mapped and messages are read directly from the mapped memory.
+   * Messages appended while the replay is running may or may not be replayed.
+   *
+   * @param afterSequenceNumber The sequence number after which to start, 0 to replay the whole archive.
+   * @param consumer            The consumer of archived messages, returning false to stop the replay.
+   * @return The number of replayed messages.
+   * @throws IOException In case a segment could not be read or is corrupted.
+   */
+  public long replay(final long afterSequenceNumber, final ArchivedMessageConsumer consumer) throws IOException {
+    List<Path> snapshot;
+    long activeLength;
+    synchronized (this) {
+      snapshot = new ArrayList<>(segments);
+      activeLength = channel == null ? 0 : channel.position();
+    }
+
+    long count = 0;
+    for (int i = 0; i < snapshot.size(); i++) {
+      // Skip segments that end before the requested sequence number.
+      if (i + 1 < snapshot.size() && firstSequenceNumber(snapshot.get(i + 1)) <= afterSequenceNumber + 1) {
+        continue;
+      }
+
+      try (FileChannel segment = FileChannel.open(snapshot.get(i), StandardOpenOption.READ)) {
+        long length = i == snapshot.size() - 1 ? Math.min(activeLength, segment.size()) : segment.size();
+        MappedByteBuffer mapped = segment.map(FileChannel.MapMode.READ_ONLY, 0, length);
+        while (mapped.hasRemaining()) {
+          // Only the active segment may end with a torn record, which was cut off when the archive was opened.
+          ByteBuffer payload = ChecksummedRecords.read(mapped, MAX_RECORD_SIZE);
+          if (payload == null) {
+            throw ChecksummedRecords.corrupted(snapshot.get(i), mapped.position());
+          }
+
+          SerializableMirrorConsensusResponse record = parseRecord(payload);
+
+          if (record.sequenceNumber > afterSequenceNumber) {
+            count++;
+            if (!consumer.accept(record)) {
+              return count;
+            }
+          }
+        }
+      }
+    }
+
+    return count;
+  }
+
+  /**
+   * Replays the whole archive.
+   *
+   * @param consumer The consumer of archived messages.
+   * @return The number of replayed messages.
+   * @throws IOException In case a segment could not be read.
+   */
+  public long replay(final Consumer<SerializableMirrorConsensusResponse> consumer) throws IOException {
+    return replay(0, record -> {
+      consumer.accept(record);
+      return true;
+    });
+  }
+
+  /**
+   * Checks if the archive holds every message of the topic from the given start time to its last message,
+   * that is if the archive starts with the first message of the topic or at or before the start time.
+   * Only then archived messages can be replayed instead of streaming them from the mirror node.
+   *
+   * @param startTime The start time of the query or NULL for the start of the topic.
+   * @return True if the archive covers the start time, false if it is empty or starts later.
+   */
+  public synchronized boolean covers(final Instant startTime) {
+    if (firstSequenceNumber == 0) {
+      return false;
+    }
+
+    return firstSequenceNumber == 1 || (startTime != null && !startTime.isBefore(firstConsensusTimestamp));
+  }
+
+  /**
+   * Returns the consensus timestamp of the first archived message.
+   *
+   * @return The consensus timestamp or NULL if the archive is empty.
+   */
+  public synchronized Instant getFirstConsensusTimestamp() {
+    return firstConsensusTimestamp;
+  }
+
+  /**
+   * Returns the sequence number of the first archived message.
+   *
+   * @return The sequence number or 0 if the archive is empty.
+   */
+  public synchronized long getFirstSequenceNumber() {
+    return firstSequenceNumber;
+  }
+
+  /**
+   * Returns the consensus timestamp of the last archived message.
+   *
+   * @return The consensus timestamp or NULL if the archive is empty.
+   */
+  public synchronized Instant getLastConsensusTimestamp() {
+    return lastConsensusTimestamp;
+  }
+
+  /**
+   * Returns the sequence number of the last archived message.
+   *
+   * @return The sequence number or 0 if the archive is empty.
+   */
+  public synchronized long getLastSequenceNumber() {
+    return lastSequenceNumber;
+  }
+
+  /**
+   * Defines the size in bytes after which a new segment is started. Default is 64 MiB.
+   *
+   * @param segmentSize The segment size in bytes.
+   * @return This archive instance.
+   */
+  public synchronized TopicArchive setSegmentSize(final long segmentSize) {
+    if (segmentSize < 1) {
+      throw new IllegalArgumentException("Segment size must be positive.");
+    }
+
+    this.segmentSize = segmentSize;
+    return this;
+  }
+
+  /**
+   * Forces all appended messages to the storage device.
+   *
+   * @throws IOException In case the segment could not be written.
+   */
+  public synchronized void flush() throws IOException {
+    if (channel != null) {
+      channel.force(false);
+    }
+  }
+
+  @Override
+  public synchronized void close() throws IOException {
+    if (channel != null && channel.isOpen()) {
+      channel.force(false);
+      channel.close();
+    }
+  }
+
+  /**
+   * Closes the current segment and starts a new one.
+   *
+   * @param sequenceNumber The sequence number of the first message in the new segment.
+   * @throws IOException In case the segment could not be created.
+   */
+  private void startSegment(final long sequenceNumber) throws IOException {
+    if (channel != null) {
+      channel.force(false);
+      channel.close();
+    }
+
+    Path segment = directory.resolve(String.format("%020d", sequenceNumber) + SEGMENT_SUFFIX);
+    channel = FileChannel.open(segment, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+            StandardOpenOption.READ, StandardOpenOption.TRUNCATE_EXISTING);
+    segments.add(segment);
+  }
+
+  /**
+   * Reads the first archived message, which starts the range of the archive.
+   *
+   * @param segment The first segment.
+   * @throws IOException In case the segment could not be read.
+   */
+  private void readFirstMessage(final Path segment) throws IOException {
+    try (FileChannel first = FileChannel.open(segment, StandardOpenOption.READ)) {
+      MappedByteBuffer mapped = first.map(FileChannel.MapMode.READ_ONLY, 0, first.size());
+      ByteBuffer payload = ChecksummedRecords.read(mapped, MAX_RECORD_SIZE);
+      if (payload != null) {
+        SerializableMirrorConsensusResponse record = parseRecord(payload);
+        firstConsensusTimestamp = record.consensusTimestamp;
+        firstSequenceNumber = record.sequenceNumber;
+      }
+    }
+  }
+
+  /**
+   * Parses the payload of an archived record.
+   *
+   * @param payload The record payload.
+   * @return The archived message.
+   */
+  private static SerializableMirrorConsensusResponse parseRecord(final ByteBuffer payload) {
+    long seconds = payload.getLong();
+    int nanos = payload.getInt();
+    long sequenceNumber = payload.getLong();
+    byte[] runningHash = new byte[payload.getInt()];
+    payload.get(runningHash);
+    byte[] contents = new byte[payload.getInt()];
+    payload.get(contents);
+
+    return new SerializableMirrorConsensusResponse(Instant.ofEpochSecond(seconds, nanos), contents, runningHash,
+            sequenceNumber);
+  }
+
+  private static long firstSequenceNumber(final Path segment) {
+    String name = segment.getFileName().toString();
+    return Long.parseLong(name.substring(0, name.length() - SEGMENT_SUFFIX.length()));
+  }
+
+  /**
+   * Consumer of archived messages during a replay.
+   */
+  public interface ArchivedMessageConsumer {
+    /**
+     * Accepts the next archived message.
+     *
+     * @param record The archived message.
+     * @return True to continue the replay, false to stop it.
+     */
+    boolean accept(SerializableMirrorConsensusResponse record);
+  }
+}
@@ -0,0 +1,77 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import org.threeten.bp.Instant;
+
+/**
+ * A range of consecutive topic messages that were not received from the mirror node.
+ * The missing messages can be requested again by a listener with start and end time of the gap.
+ */
+public final class TopicGap {
+  private final long firstMissingSequenceNumber;
+  private final long lastMissingSequenceNumber;
+  private final Instant startTime;
+  private final Instant endTime;
+
+  /**
+   * Creates a new gap.
+   *
+   * @param firstMissingSequenceNumber The sequence number of the first missing message.
+   * @param lastMissingSequenceNumber  The sequence number of the last missing message.
+   * @param startTime                  The consensus time from which the missing messages can be requested.
+   * @param endTime                    The consensus timestamp of the message received after the gap.
+   */
+  TopicGap(final long firstMissingSequenceNumber, final long lastMissingSequenceNumber,
+           final Instant startTime, final Instant endTime) {
+    this.firstMissingSequenceNumber = firstMissingSequenceNumber;
+    this.lastMissingSequenceNumber = lastMissingSequenceNumber;
+    this.startTime = startTime;
+    this.endTime = endTime;
+  }
+
+  public long getFirstMissingSequenceNumber() {
+    return firstMissingSequenceNumber;
+  }
+
+  public long getLastMissingSequenceNumber() {
+    return lastMissingSequenceNumber;
+  }
+
+  /**
+   * Returns the number of missing messages, which can be used as the limit of a query for them.
+   *
+   * @return The number of missing messages.
+   */
+  public long getMissingCount() {
+    return lastMissingSequenceNumber - firstMissingSequenceNumber + 1;
+  }
+
+  /**
+   * Returns the inclusive start time of a query for the missing messages,
+   * that is the consensus timestamp of the last message before the gap plus one nanosecond.
+   *
+   * @return The start time or NULL if no message was received before the gap.
+   */
+  public Instant getStartTime() {
+    return startTime;
+  }
+
+  /**
+   * Returns the exclusive end time of a query for the missing messages,
+   * that is the consensus timestamp of the message received after the gap.
+   *
+   * @return The end time.
+   */
+  public Instant getEndTime() {
+    return endTime;
+  }
+
+  @Override
+  public String toString() {
+    return "TopicGap{"
+            + "firstMissingSequenceNumber=" + firstMissingSequenceNumber
+            + ", lastMissingSequenceNumber=" + lastMissingSequenceNumber
+            + ", startTime=" + startTime
+            + ", endTime=" + endTime
+            + '}';
+  }
+}
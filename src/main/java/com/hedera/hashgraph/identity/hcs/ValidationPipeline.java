@@ -0,0 +1,316 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.function.Consumer;
+import java.util.function.Function;
+
+/**
+ * Validates topic messages of a {@link MessageListener} in micro-batches on a worker pool
+ * and delivers valid messages to the receiver in the order they were received, that is in consensus order.
+ * Batches are only dispatched while fewer than the configured number of batches are in flight, so that messages
+ * are not delayed under low load. When all workers are busy, received messages are grouped into full batches
+ * that wait for a worker to become free, which happens during a replay.
+ * Batches are queued in the order they were dispatched and validated batches wait in this queue
+ * until all preceding batches are delivered. Delivery is done by one worker at a time.
+ * At most twice as many batches as the parallelism are waiting, in flight or waiting for delivery.
+ * Beyond that the submitting thread blocks, so that a stream faster than validation, e.g. a replay from the start
+ * of a topic, is held back instead of being buffered on the heap.
+ * Errors that the error handler rethrows, because none was defined and errors are not ignored, cannot be thrown
+ * on worker threads, so the first one is thrown to the submitting thread on its next submission.
+ *
+ * @param <R> Type of the mirror responses.
+ * @param <T> Type of the messages in the topic.
+ */
+final class ValidationPipeline<R, T extends Message> {
+  private final Function<R, MessageEnvelope<T>> validator;
+  private final Consumer<R> progressTracker;
+  private final Consumer<MessageEnvelope<T>> receiver;
+  private final Consumer<Throwable> errorHandler;
+  private final Executor executor;
+  private final int batchSize;
+  private final int parallelism;
+  private final int maxBatches;
+  private final ArrayDeque<Batch> reorderBuffer;
+  private final ArrayDeque<List<R>> fullBatches;
+  private List<R> pending;
+  private int inFlight;
+  private boolean draining;
+  private RuntimeException unhandledError;
+
+  /**
+   * Creates a new pipeline.
+   *
+   * @param validator       Validates a mirror response, returning its envelope or NULL if it is invalid.
+   * @param progressTracker Records the progress of the listener once a response was delivered.
+   * @param receiver        Receiver of valid messages.
+   * @param errorHandler    Handles errors of validation and delivery, may rethrow them.
+   * @param executor        The executor to validate batches in.
+   * @param batchSize       The maximum number of messages in a batch.
+   * @param parallelism     The maximum number of batches validated at the same time.
+   */
+  ValidationPipeline(final Function<R, MessageEnvelope<T>> validator, final Consumer<R> progressTracker,
+                     final Consumer<MessageEnvelope<T>> receiver, final Consumer<Throwable> errorHandler,
+                     final Executor executor, final int batchSize, final int parallelism) {
+    this.validator = validator;
+    this.progressTracker = progressTracker;
+    this.receiver = receiver;
+    this.errorHandler = errorHandler;
+    this.executor = executor;
+    this.batchSize = batchSize;
+    this.parallelism = parallelism;
+    this.maxBatches = parallelism * 2;
+    this.pending = new ArrayList<>(batchSize);
+    this.fullBatches = new ArrayDeque<>();
+    this.reorderBuffer = new ArrayDeque<>();
+  }
+
+  /**
+   * Adds a message received from the mirror node to the pipeline.
+   * Blocks while the maximum number of batches is waiting, in flight or waiting for delivery.
+   *
+   * @param response The mirror response.
+   * @throws RuntimeException The first error that the error handler rethrew since the last submission.
+   */
+  void submit(final R response) {
+    List<Batch> dispatched;
+    synchronized (this) {
+      throwUnhandledError();
+      boolean interrupted = false;
+      while (fullBatches.size() + reorderBuffer.size() >= maxBatches) {
+        try {
+          wait();
+        } catch (InterruptedException e) {
+          // The message must not be lost, so keep waiting and restore the interrupt afterwards.
+          interrupted = true;
+        }
+      }
+
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+
+      pending.add(response);
+      if (pending.size() >= batchSize) {
+        fullBatches.add(pending);
+        pending = new ArrayList<>(batchSize);
+      }
+
+      dispatched = dispatchPending();
+    }
+
+    execute(dispatched);
+  }
+
+  /**
+   * Returns the number of batches waiting, in flight or waiting for delivery.
+   *
+   * @return The number of batches.
+   */
+  synchronized int getQueuedBatchCount() {
+    return fullBatches.size() + reorderBuffer.size();
+  }
+
+  /**
+   * Throws the first error rethrown by the error handler on a worker. Must be called while holding the lock.
+   */
+  private void throwUnhandledError() {
+    RuntimeException err = unhandledError;
+    if (err != null) {
+      unhandledError = null;
+      throw err;
+    }
+  }
+
+  /**
+   * Takes waiting batches, full ones first, while fewer than the configured number of batches are in flight
+   * and the reorder buffer is not full, and queues them for delivery. Must be called while holding the lock.
+   *
+   * @return The batches to validate.
+   */
+  private List<Batch> dispatchPending() {
+    List<Batch> dispatched = Collections.emptyList();
+    while (inFlight < parallelism && reorderBuffer.size() < maxBatches) {
+      List<R> responses;
+      if (!fullBatches.isEmpty()) {
+        responses = fullBatches.poll();
+      } else if (!pending.isEmpty()) {
+        responses = pending;
+        pending = new ArrayList<>(batchSize);
+      } else {
+        break;
+      }
+
+      Batch batch = new Batch(responses);
+      reorderBuffer.add(batch);
+      inFlight++;
+
+      if (dispatched.isEmpty()) {
+        dispatched = new ArrayList<>();
+      }
+      dispatched.add(batch);
+    }
+
+    return dispatched;
+  }
+
+  /**
+   * Starts validation of dispatched batches on the executor. Must be called without holding the lock.
+   * Batches rejected by the executor are validated on the calling thread.
+   *
+   * @param batches The dispatched batches.
+   */
+  private void execute(final List<Batch> batches) {
+    for (Batch batch : batches) {
+      try {
+        executor.execute(() -> validateBatch(batch));
+      } catch (RejectedExecutionException e) {
+        validateBatch(batch);
+      }
+    }
+  }
+
+  /**
+   * Validates the batch and passes the result on, even if validation failed, so that the pipeline does not stall.
+   *
+   * @param batch The dispatched batch.
+   */
+  private void validateBatch(final Batch batch) {
+    List<MessageEnvelope<T>> envelopes = null;
+    try {
+      envelopes = validate(batch.responses);
+    } finally {
+      onBatchValidated(batch, envelopes != null ? envelopes
+              : Collections.nCopies(batch.responses.size(), null));
+    }
+  }
+
+  /**
+   * Stores the validated batch in the reorder buffer and delivers all batches that are next in order,
+   * unless another worker is already delivering them.
+   *
+   * @param batch     The validated batch.
+   * @param envelopes The valid envelopes, NULL at positions of invalid messages.
+   */
+  private void onBatchValidated(final Batch batch, final List<MessageEnvelope<T>> envelopes) {
+    List<Batch> dispatched;
+    boolean drain;
+    synchronized (this) {
+      batch.envelopes = envelopes;
+      inFlight--;
+
+      // Dispatch messages collected while the pool was busy.
+      dispatched = dispatchPending();
+
+      drain = !draining;
+      draining = true;
+    }
+
+    execute(dispatched);
+    if (!drain) {
+      return;
+    }
+
+    try {
+      while (true) {
+        Batch head;
+        synchronized (this) {
+          head = reorderBuffer.peek();
+          if (head == null || head.envelopes == null) {
+            draining = false;
+            // Dispatch batches held back while the reorder buffer was full.
+            dispatched = dispatchPending();
+            break;
+          }
+
+          reorderBuffer.poll();
+          notifyAll();
+        }
+
+        deliver(head.responses, head.envelopes);
+      }
+    } catch (Error e) {
+      // Let the next validated batch continue the delivery.
+      synchronized (this) {
+        draining = false;
+      }
+      throw e;
+    }
+
+    execute(dispatched);
+  }
+
+  /**
+   * Validates messages of a batch.
+   *
+   * @param batch The mirror responses.
+   * @return The valid envelopes, NULL at positions of invalid messages.
+   */
+  private List<MessageEnvelope<T>> validate(final List<R> batch) {
+    List<MessageEnvelope<T>> result = new ArrayList<>(batch.size());
+    for (R response : batch) {
+      MessageEnvelope<T> envelope = null;
+      try {
+        envelope = validator.apply(response);
+      } catch (RuntimeException e) {
+        reportError(e);
+      }
+      result.add(envelope);
+    }
+
+    return result;
+  }
+
+  /**
+   * Delivers valid messages of a batch to the receiver and records listener progress.
+   *
+   * @param batch     The mirror responses.
+   * @param envelopes The valid envelopes, NULL at positions of invalid messages.
+   */
+  private void deliver(final List<R> batch, final List<MessageEnvelope<T>> envelopes) {
+    for (int i = 0; i < batch.size(); i++) {
+      try {
+        if (envelopes.get(i) != null) {
+          receiver.accept(envelopes.get(i));
+        }
+        progressTracker.accept(batch.get(i));
+      } catch (RuntimeException e) {
+        reportError(e);
+      }
+    }
+  }
+
+  /**
+   * Passes the error to the error handler. If it rethrows the error, there is no caller on worker threads to
+   * throw it to, so it is kept for the submitting thread, while the pipeline keeps going.
+   *
+   * @param err The error.
+   */
+  private void reportError(final Throwable err) {
+    try {
+      errorHandler.accept(err);
+    } catch (RuntimeException e) {
+      synchronized (this) {
+        if (unhandledError == null) {
+          unhandledError = e;
+        }
+      }
+    }
+  }
+
+  /**
+   * Messages validated together and their validation results.
+   */
+  private final class Batch {
+    private final List<R> responses;
+    private List<MessageEnvelope<T>> envelopes;
+
+    Batch(final List<R> responses) {
+      this.responses = responses;
+    }
+  }
+}
@@ -1,6 +1,7 @@
 package com.hedera.hashgraph.identity.hcs.did;
 
-import com.google.common.base.Splitter;
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
 import com.google.common.hash.Hashing;
 import com.hedera.hashgraph.identity.DidDocumentBase;
 import com.hedera.hashgraph.identity.DidSyntax;
@@ -11,10 +12,6 @@ import com.hedera.hashgraph.sdk.FileId;
 import com.hedera.hashgraph.sdk.PrivateKey;
 import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicId;
-import java.util.HashMap;
-import java.util.Iterator;
-import java.util.Map;
-import java.util.NoSuchElementException;
 import java.util.Optional;
 import org.bitcoinj.core.Base58;
 
@@ -23,13 +20,26 @@ import org.bitcoinj.core.Base58;
  */
 public class HcsDid implements HederaDid {
   public static final Method DID_METHOD = Method.HEDERA_HCS;
-  private static final int DID_PARAMETER_VALUE_PARTS = 2;
+  private static final int MIN_ID_STRING_LENGTH = 32;
+  private static final String METHOD_NAME = DID_METHOD.toString();
+  private static final char METHOD_SEPARATOR = DidSyntax.DID_METHOD_SEPARATOR.charAt(0);
+  private static final char PARAMETER_SEPARATOR = DidSyntax.DID_PARAMETER_SEPARATOR.charAt(0);
+  private static final char PARAMETER_VALUE_SEPARATOR = DidSyntax.DID_PARAMETER_VALUE_SEPARATOR.charAt(0);
+
+  /**
+   * Cache of parsed DIDs, NULL if disabled.
+   */
+  private static volatile Cache<String, HcsDid> parseCache;
 
   private TopicId didTopicId;
   private FileId addressBookFileId;
   private String network;
   private String idString;
-  private String did;
+
+  /**
+   * The DID string, built on first use as parsed DIDs are often only inspected.
+   */
+  private volatile String did;
   private PublicKey didRootKey;
   private PrivateKey privateDidRootKey;
 
@@ -48,7 +58,6 @@ public class HcsDid implements HederaDid {
     this.network = network;
     this.didRootKey = didRootKey;
     this.idString = HcsDid.publicKeyToIdString(didRootKey);
-    this.did = buildDid();
   }
 
   /**
@@ -91,96 +100,260 @@ public class HcsDid implements HederaDid {
     this.network = network;
 
     this.idString = idString;
-    this.did = buildDid();
   }
 
   /**
    * Converts a Hedera DID string into {@link HcsDid} object.
+   * If the parse cache is enabled, DIDs parsed before are returned from the cache.
    *
    * @param didString A Hedera DID string.
    * @return {@link HcsDid} object derived from the given Hedera DID string.
+   * @see #setParseCacheSize(long)
    */
   public static HcsDid fromString(final String didString) {
     if (didString == null) {
       throw new IllegalArgumentException("DID string cannot be null");
     }
 
-    // Split the DID string by parameter separator.
-    // There should be at least one as address book parameter is mandatory by DID specification.
-    Iterator<String> mainParts = Splitter.on(DidSyntax.DID_PARAMETER_SEPARATOR).split(didString).iterator();
+    Cache<String, HcsDid> cache = parseCache;
+    if (cache == null) {
+      return parse(didString);
+    }
 
-    TopicId topicId = null;
-    FileId addressBookFileId = null;
+    HcsDid result = cache.getIfPresent(didString);
+    if (result == null) {
+      result = parse(didString);
+      cache.put(didString, result);
+    }
 
-    try {
-      Iterator<String> didParts = Splitter.on(DidSyntax.DID_METHOD_SEPARATOR).split(mainParts.next()).iterator();
+    return result;
+  }
 
-      if (!DidSyntax.DID_PREFIX.equals(didParts.next())) {
-        throw new IllegalArgumentException("DID string is invalid: invalid prefix.");
-      }
+  /**
+   * Parses a Hedera DID string in a single pass over its characters, without splitting it.
+   * The grammar is did:hedera:network:id-string followed by method-specific parameters separated by ';',
+   * of which the address book file ID is mandatory and the DID topic ID is optional.
+   * Unknown parameters are ignored.
+   *
+   * @param didString A Hedera DID string.
+   * @return {@link HcsDid} object derived from the given Hedera DID string.
+   */
+  private static HcsDid parse(final String didString) {
+    final int length = didString.length();
+    int mainEnd = didString.indexOf(PARAMETER_SEPARATOR);
+    if (mainEnd < 0) {
+      mainEnd = length;
+    }
 
-      String methodName = didParts.next();
-      if (!Method.HEDERA_HCS.toString().equals(methodName)) {
-        throw new IllegalArgumentException("DID string is invalid: invalid method name: " + methodName);
-      }
+    int prefixEnd = indexOf(didString, METHOD_SEPARATOR, 0, mainEnd);
+    if (!regionEquals(didString, 0, prefixEnd, DidSyntax.DID_PREFIX)) {
+      throw new IllegalArgumentException("DID string is invalid: invalid prefix.");
+    }
 
-      String networkName = didParts.next();
-      // Extract method-specific parameters: address book file ID and (if provided) DID topic ID.
-      Map<String, String> params = extractParameters(mainParts, methodName, networkName);
-      addressBookFileId = FileId.fromString(params.get(MethodSpecificParameter.ADDRESS_BOOK_FILE_ID));
-      if (params.containsKey(MethodSpecificParameter.DID_TOPIC_ID)) {
-        topicId = TopicId.fromString(params.get(MethodSpecificParameter.DID_TOPIC_ID));
-      }
+    if (prefixEnd == mainEnd) {
+      throw new IllegalArgumentException("DID string is invalid.");
+    }
 
-      String didIdString = didParts.next();
-      if (didIdString.length() < 32 || didParts.hasNext()) {
-        throw new IllegalArgumentException("DID string is invalid.");
+    int methodStart = prefixEnd + 1;
+    int methodEnd = indexOf(didString, METHOD_SEPARATOR, methodStart, mainEnd);
+    if (!regionEquals(didString, methodStart, methodEnd, METHOD_NAME)) {
+      throw new IllegalArgumentException("DID string is invalid: invalid method name: "
+              + didString.substring(methodStart, methodEnd));
+    }
+
+    if (methodEnd == mainEnd) {
+      throw new IllegalArgumentException("DID string is invalid.");
+    }
+
+    int networkStart = methodEnd + 1;
+    int networkEnd = indexOf(didString, METHOD_SEPARATOR, networkStart, mainEnd);
+
+    // Find method-specific parameters: address book file ID and (if provided) DID topic ID.
+    // Later occurrences of a parameter override earlier ones.
+    int fidStart = -1;
+    int fidEnd = -1;
+    int tidStart = -1;
+    int tidEnd = -1;
+    int paramStart = mainEnd + 1;
+    while (paramStart <= length) {
+      int paramEnd = indexOf(didString, PARAMETER_SEPARATOR, paramStart, length);
+      int valueStart = indexOf(didString, PARAMETER_VALUE_SEPARATOR, paramStart, paramEnd) + 1;
+      int valueEnd = valueStart > paramEnd ? paramEnd : indexOf(didString, PARAMETER_VALUE_SEPARATOR, valueStart,
+              paramEnd);
+
+      // A parameter must have exactly one name and one non-empty value.
+      if (valueStart <= paramEnd && valueEnd > valueStart && isOnlyValueSeparators(didString, valueEnd, paramEnd)) {
+        char parameter = parameterName(didString, paramStart, valueStart - 1, methodStart, methodEnd,
+                networkStart, networkEnd);
+        if (parameter == 'f') {
+          fidStart = valueStart;
+          fidEnd = valueEnd;
+        } else if (parameter == 't') {
+          tidStart = valueStart;
+          tidEnd = valueEnd;
+        }
       }
 
-      return new HcsDid(networkName, didIdString, addressBookFileId, topicId);
-    } catch (NoSuchElementException e) {
-      throw new IllegalArgumentException("DID string is invalid.", e);
+      paramStart = paramEnd + 1;
+    }
+
+    // Address book is mandatory
+    if (fidStart < 0) {
+      throw new IllegalArgumentException("DID string is invalid. Required method-specific URL parameter not found: "
+              + MethodSpecificParameter.ADDRESS_BOOK_FILE_ID);
+    }
+
+    FileId addressBookFileId = new FileId(parseEntityIdPart(didString, fidStart, fidEnd, 0),
+            parseEntityIdPart(didString, fidStart, fidEnd, 1), parseEntityIdPart(didString, fidStart, fidEnd, 2));
+    TopicId topicId = tidStart < 0 ? null : new TopicId(parseEntityIdPart(didString, tidStart, tidEnd, 0),
+            parseEntityIdPart(didString, tidStart, tidEnd, 1), parseEntityIdPart(didString, tidStart, tidEnd, 2));
+
+    if (networkEnd == mainEnd || mainEnd - networkEnd - 1 < MIN_ID_STRING_LENGTH
+            || indexOf(didString, METHOD_SEPARATOR, networkEnd + 1, mainEnd) != mainEnd) {
+      throw new IllegalArgumentException("DID string is invalid.");
     }
+
+    return new HcsDid(didString.substring(networkStart, networkEnd), didString.substring(networkEnd + 1, mainEnd),
+            addressBookFileId, topicId);
   }
 
   /**
-   * Extracts method-specific URL parameters.
+   * Identifies a method-specific parameter by its name, which must be qualified with the method and network
+   * of the DID, e.g. hedera:testnet:fid.
    *
-   * @param mainParts   Iterator over main parts of the DID.
-   * @param methodName  The method name.
-   * @param networkName The network name.
-   * @return A map of method-specific URL parameters and their values.
+   * @param s            The DID string.
+   * @param start        Start of the parameter name.
+   * @param end          End of the parameter name.
+   * @param methodStart  Start of the method name in the DID string.
+   * @param methodEnd    End of the method name in the DID string.
+   * @param networkStart Start of the network name in the DID string.
+   * @param networkEnd   End of the network name in the DID string.
+   * @return 'f' for the address book file ID, 't' for the DID topic ID or 0 for an unknown parameter.
    */
-  private static Map<String, String> extractParameters(final Iterator<String> mainParts,
-                                                       final String methodName, final String networkName) {
-
-    Map<String, String> result = new HashMap<>();
-
-    String fidParamName = String.join(DidSyntax.DID_METHOD_SEPARATOR, methodName, networkName,
-            MethodSpecificParameter.ADDRESS_BOOK_FILE_ID);
-    String tidParamName = String.join(DidSyntax.DID_METHOD_SEPARATOR, methodName, networkName,
-            MethodSpecificParameter.DID_TOPIC_ID);
-
-    while (mainParts.hasNext()) {
-      String[] paramValue = mainParts.next().split(DidSyntax.DID_PARAMETER_VALUE_SEPARATOR);
-      if (paramValue.length != DID_PARAMETER_VALUE_PARTS) {
-        continue;
-      } else if (fidParamName.equals(paramValue[0])) {
-        result.put(MethodSpecificParameter.ADDRESS_BOOK_FILE_ID, paramValue[1]);
-      } else if (tidParamName.equals(paramValue[0])) {
-        result.put(MethodSpecificParameter.DID_TOPIC_ID, paramValue[1]);
-      }
+  private static char parameterName(final String s, final int start, final int end, final int methodStart,
+                                    final int methodEnd, final int networkStart, final int networkEnd) {
+    int methodLength = methodEnd - methodStart;
+    int networkLength = networkEnd - networkStart;
+    int nameStart = start + methodLength + networkLength + 2;
+    if (end - nameStart != MethodSpecificParameter.DID_TOPIC_ID.length()
+            || !s.regionMatches(start, s, methodStart, methodLength)
+            || s.charAt(start + methodLength) != METHOD_SEPARATOR
+            || !s.regionMatches(start + methodLength + 1, s, networkStart, networkLength)
+            || s.charAt(nameStart - 1) != METHOD_SEPARATOR) {
+      return 0;
     }
 
-    // Address book is mandatory
-    if (!result.containsKey(MethodSpecificParameter.ADDRESS_BOOK_FILE_ID)) {
-      throw new IllegalArgumentException("DID string is invalid. Required method-specific URL parameter not found: "
-              + MethodSpecificParameter.ADDRESS_BOOK_FILE_ID);
+    if (s.startsWith(MethodSpecificParameter.ADDRESS_BOOK_FILE_ID, nameStart)) {
+      return 'f';
+    }
+
+    return s.startsWith(MethodSpecificParameter.DID_TOPIC_ID, nameStart) ? 't' : 0;
+  }
+
+  /**
+   * Parses one part of an entity ID in the shard.realm.num format.
+   *
+   * @param s     The DID string.
+   * @param start Start of the entity ID.
+   * @param end   End of the entity ID.
+   * @param part  Index of the part: 0 for shard, 1 for realm and 2 for num.
+   * @return The value of the part.
+   */
+  private static long parseEntityIdPart(final String s, final int start, final int end, final int part) {
+    int partStart = start;
+    for (int i = 0; i < part; i++) {
+      partStart = indexOf(s, '.', partStart, end) + 1;
+    }
+
+    int partEnd = indexOf(s, '.', partStart, end);
+    if (partStart > end || partStart == partEnd || (part == 2) != (partEnd == end)) {
+      throw new IllegalArgumentException("DID string is invalid: invalid entity ID: " + s.substring(start, end));
+    }
+
+    long result = 0;
+    for (int i = partStart; i < partEnd; i++) {
+      int digit = s.charAt(i) - '0';
+      if (digit < 0 || digit > 9 || result > (Long.MAX_VALUE - digit) / 10) {
+        throw new IllegalArgumentException("DID string is invalid: invalid entity ID: " + s.substring(start, end));
+      }
+      result = result * 10 + digit;
     }
 
     return result;
   }
 
+  /**
+   * Finds a character within the given range of a string.
+   *
+   * @param s     The string.
+   * @param c     The character to find.
+   * @param start Start of the range.
+   * @param end   End of the range.
+   * @return Index of the character or the end of the range if it was not found.
+   */
+  private static int indexOf(final String s, final char c, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (s.charAt(i) == c) {
+        return i;
+      }
+    }
+
+    return end;
+  }
+
+  private static boolean regionEquals(final String s, final int start, final int end, final String expected) {
+    return end - start == expected.length() && s.startsWith(expected, start);
+  }
+
+  private static boolean isOnlyValueSeparators(final String s, final int start, final int end) {
+    for (int i = start; i < end; i++) {
+      if (s.charAt(i) != PARAMETER_VALUE_SEPARATOR) {
+        return false;
+      }
+    }
+
+    return true;
+  }
+
+  /**
+   * Enables a bounded cache of DIDs parsed by {@link #fromString(String)}, so that frequently seen DIDs,
+   * like those of credential issuers, are parsed once and the same {@link HcsDid} instance is returned for them.
+   * Parsed DIDs hold no private key and cannot be modified, so they can be shared.
+   * Disabled by default.
+   *
+   * @param maximumSize The maximum number of cached DIDs, 0 to disable the cache.
+   */
+  public static void setParseCacheSize(final long maximumSize) {
+    if (maximumSize < 0) {
+      throw new IllegalArgumentException("Maximum cache size must not be negative.");
+    }
+
+    parseCache = maximumSize == 0 ? null : CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .recordStats()
+            .<String, HcsDid>build();
+  }
+
+  /**
+   * Returns the number of DIDs returned from the parse cache since it was enabled.
+   *
+   * @return The number of cache hits or 0 if the cache is disabled.
+   */
+  public static long getParseCacheHitCount() {
+    Cache<String, HcsDid> cache = parseCache;
+    return cache == null ? 0 : cache.stats().hitCount();
+  }
+
+  /**
+   * Returns the number of DIDs that were parsed because they were not in the parse cache since it was enabled.
+   *
+   * @return The number of cache misses or 0 if the cache is disabled.
+   */
+  public static long getParseCacheMissCount() {
+    Cache<String, HcsDid> cache = parseCache;
+    return cache == null ? 0 : cache.stats().missCount();
+  }
+
   /**
    * Generates a random DID root key.
    *
@@ -246,7 +419,13 @@ public class HcsDid implements HederaDid {
 
   @Override
   public String toString() {
-    return did;
+    String result = did;
+    if (result == null) {
+      result = buildDid();
+      did = result;
+    }
+
+    return result;
   }
 
   public TopicId getDidTopicId() {
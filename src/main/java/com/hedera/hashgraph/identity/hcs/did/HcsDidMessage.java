@@ -1,6 +1,8 @@
 package com.hedera.hashgraph.identity.hcs.did;
 
+import com.google.gson.Gson;
 import com.google.gson.JsonObject;
+import com.google.gson.JsonParseException;
 import com.google.gson.JsonParser;
 import com.google.gson.annotations.Expose;
 import com.hedera.hashgraph.identity.DidDocumentBase;
@@ -49,6 +51,17 @@ public class HcsDidMessage extends Message {
   @Expose(serialize = false, deserialize = false)
   protected Instant updated;
 
+  /**
+   * The DID document decoded from didDocumentBase64, without injected timestamps.
+   * It is the only form of the document kept, decoded on first use and not serialized.
+   */
+  private transient volatile String decodedDocument;
+
+  /**
+   * What was learned from parsing the DID document once, the parsed document itself is not kept.
+   */
+  private transient volatile DocumentInspection inspection;
+
   /**
    * Creates a new instance of {@link HcsDidMessage}.
    *
@@ -160,39 +173,13 @@ public class HcsDidMessage extends Message {
       return false;
     }
 
-    try {
-      DidDocumentBase doc = DidDocumentBase.fromJson(getDidDocument());
-
-      // Validate if DID and DID document are present and match
-      if (!did.equals(doc.getId())) {
-        return false;
-      }
-
-      // Validate if DID root key is present in the document
-      if (doc.getDidRootKey() == null || doc.getDidRootKey().getPublicKeyBase58() == null) {
-        return false;
-      }
-
-      // Verify that DID was derived from this DID root key
-      HcsDid hcsDid = HcsDid.fromString(did);
-
-      // Extract public key from the DID document
-      byte[] publicKeyBytes = Base58.decode(doc.getDidRootKey().getPublicKeyBase58());
-      PublicKey publicKey = PublicKey.fromBytes(publicKeyBytes);
-
-      if (!HcsDid.publicKeyToIdString(publicKey).equals(hcsDid.getIdString())) {
-        return false;
-      }
-
-      // Verify that the message was sent to the right topic, if the DID contains the topic
-      if (didTopicId != null && hcsDid.getDidTopicId() != null && !didTopicId.equals(hcsDid.getDidTopicId())) {
-        return false;
-      }
-    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+    HcsDid hcsDid = inspectDocument().validDid;
+    if (hcsDid == null) {
       return false;
     }
 
-    return true;
+    // Verify that the message was sent to the right topic, if the DID contains the topic
+    return didTopicId == null || hcsDid.getDidTopicId() == null || didTopicId.equals(hcsDid.getDidTopicId());
   }
 
   /**
@@ -201,25 +188,74 @@ public class HcsDidMessage extends Message {
    * @return Public key of the DID subject.
    */
   public PublicKey extractDidRootKey() {
-    PublicKey result = null;
+    return inspectDocument().didRootKey;
+  }
+
+  /**
+   * Parses the DID document once, extracting its DID root key and validating it independently of the topic
+   * it was submitted to. Only the results are kept.
+   *
+   * @return The results of the inspection.
+   */
+  private DocumentInspection inspectDocument() {
+    DocumentInspection result = inspection;
+    if (result != null) {
+      return result;
+    }
 
+    if (didDocumentBase64 == null || didDocumentBase64.trim().isEmpty()) {
+      result = new DocumentInspection(null, null, false);
+      inspection = result;
+      return result;
+    }
+
+    DidDocumentBase doc = null;
+    PublicKey publicKey = null;
+    boolean spliceable = false;
     try {
-      DidDocumentBase doc = DidDocumentBase.fromJson(getDidDocument());
+      JsonObject root = parseDocumentTree();
+      spliceable = root.size() > 0
+              && !root.has(DidDocumentJsonProperties.CREATED) && !root.has(DidDocumentJsonProperties.UPDATED);
+      doc = DidDocumentBase.fromJson(root);
 
       // Make sure that DID root key is present in the document
       if (doc.getDidRootKey() != null && doc.getDidRootKey().getPublicKeyBase58() != null) {
         byte[] publicKeyBytes = Base58.decode(doc.getDidRootKey().getPublicKeyBase58());
-        result = PublicKey.fromBytes(publicKeyBytes);
+        publicKey = PublicKey.fromBytes(publicKeyBytes);
       }
 
       // ArrayIndexOutOfBoundsException is thrown in case public key is invalid in PublicKey.fromBytes
     } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
-      return null;
+      publicKey = null;
     }
 
+    result = new DocumentInspection(publicKey, validateDocument(doc, publicKey), spliceable);
+    inspection = result;
     return result;
   }
 
+  /**
+   * Validates the DID document of this message independently of the topic it was submitted to.
+   *
+   * @param doc       The parsed DID document or NULL if it could not be parsed.
+   * @param publicKey The DID root key of the document or NULL if it is missing or invalid.
+   * @return The parsed DID if the DID document is valid, NULL otherwise.
+   */
+  private HcsDid validateDocument(@Nullable final DidDocumentBase doc, @Nullable final PublicKey publicKey) {
+    // Validate if DID and DID document are present and match, and the DID root key is present in the document
+    if (did == null || doc == null || !did.equals(doc.getId()) || publicKey == null) {
+      return null;
+    }
+
+    try {
+      // Verify that DID was derived from this DID root key
+      HcsDid hcsDid = HcsDid.fromString(did);
+      return HcsDid.publicKeyToIdString(publicKey).equals(hcsDid.getIdString()) ? hcsDid : null;
+    } catch (IllegalArgumentException | ArrayIndexOutOfBoundsException e) {
+      return null;
+    }
+  }
+
   /**
    * Decodes didDocumentBase64 field and returns its content.
    * In case this message is in encrypted mode, it will return encrypted content,
@@ -234,26 +270,81 @@ public class HcsDidMessage extends Message {
       return null;
     }
 
-    byte[] decodedDoc = Base64.getDecoder().decode(didDocumentBase64.getBytes(StandardCharsets.UTF_8));
-    String document = new String(decodedDoc, StandardCharsets.UTF_8);
+    if (created == null && updated == null) {
+      return decodeDocument();
+    }
 
-    // inject timestamps
-    if (created != null || updated != null) {
-      JsonObject root = JsonParser.parseString(document).getAsJsonObject();
-      Iso8601InstantTypeAdapter adapter = Iso8601InstantTypeAdapter.getInstance();
+    Iso8601InstantTypeAdapter adapter = Iso8601InstantTypeAdapter.getInstance();
+    if (inspectDocument().spliceable) {
+      // Append the timestamps as the last members of the decoded document, without parsing it again.
+      String document = decodeDocument();
+      StringBuilder result = new StringBuilder(document.length() + 80)
+              .append(document, 0, document.lastIndexOf('}'));
+      appendMember(result, DidDocumentJsonProperties.CREATED, created, adapter);
+      appendMember(result, DidDocumentJsonProperties.UPDATED, updated, adapter);
+      return result.append('}').toString();
+    }
 
-      if (created != null) {
-        root.add(DidDocumentJsonProperties.CREATED, adapter.toJsonTree(created));
-      }
+    // The document already holds timestamps to be replaced or is not a JSON object, so it is parsed.
+    JsonObject root = parseDocumentTree();
 
-      if (updated != null) {
-        root.add(DidDocumentJsonProperties.UPDATED, adapter.toJsonTree(updated));
-      }
+    if (created != null) {
+      root.add(DidDocumentJsonProperties.CREATED, adapter.toJsonTree(created));
+    }
 
-      document = JsonUtils.getGson().toJson(root);
+    if (updated != null) {
+      root.add(DidDocumentJsonProperties.UPDATED, adapter.toJsonTree(updated));
     }
 
-    return document;
+    return JsonUtils.getGson().toJson(root);
+  }
+
+  /**
+   * Appends a timestamp member to a JSON object that already has members and is not closed yet.
+   *
+   * @param json      The JSON object without the closing brace.
+   * @param name      The name of the member.
+   * @param timestamp The timestamp or NULL if the member shall be omitted.
+   * @param adapter   The adapter formatting the timestamp.
+   */
+  private static void appendMember(final StringBuilder json, final String name, @Nullable final Instant timestamp,
+                                   final Iso8601InstantTypeAdapter adapter) {
+    if (timestamp == null) {
+      return;
+    }
+
+    Gson gson = JsonUtils.getGson();
+    json.append(',').append(gson.toJson(name)).append(':').append(gson.toJson(adapter.toJsonTree(timestamp)));
+  }
+
+  /**
+   * Decodes didDocumentBase64 field once.
+   *
+   * @return The decoded DID document as JSON string without injected timestamps.
+   */
+  private String decodeDocument() {
+    String result = decodedDocument;
+    if (result == null) {
+      byte[] decodedDoc = Base64.getDecoder().decode(didDocumentBase64.getBytes(StandardCharsets.UTF_8));
+      result = new String(decodedDoc, StandardCharsets.UTF_8);
+      decodedDocument = result;
+    }
+
+    return result;
+  }
+
+  /**
+   * Parses the decoded DID document into a JSON tree, which is not cached.
+   *
+   * @return The DID document JSON tree.
+   * @throws IllegalArgumentException In case the document is not a valid JSON object.
+   */
+  private JsonObject parseDocumentTree() {
+    try {
+      return JsonParser.parseString(decodeDocument()).getAsJsonObject();
+    } catch (JsonParseException | IllegalStateException e) {
+      throw new IllegalArgumentException("Given JSON string is not a valid DID document", e);
+    }
   }
 
   public DidMethodOperation getOperation() {
@@ -283,4 +374,31 @@ public class HcsDidMessage extends Message {
   public void setUpdated(final Instant updated) {
     this.updated = updated;
   }
+
+  /**
+   * The results of parsing the DID document of a message.
+   */
+  private static final class DocumentInspection {
+    /**
+     * The DID root key extracted from the DID document, NULL if it is missing or invalid.
+     */
+    private final PublicKey didRootKey;
+
+    /**
+     * The parsed DID of the message if the DID document is valid, NULL otherwise.
+     */
+    private final HcsDid validDid;
+
+    /**
+     * Whether the document is a JSON object with members and without timestamps,
+     * so that timestamps can be appended to its decoded form.
+     */
+    private final boolean spliceable;
+
+    DocumentInspection(final PublicKey didRootKey, final HcsDid validDid, final boolean spliceable) {
+      this.didRootKey = didRootKey;
+      this.validDid = validDid;
+      this.spliceable = spliceable;
+    }
+  }
 }
@@ -0,0 +1,188 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.google.common.cache.Cache;
+import com.google.common.cache.CacheBuilder;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.sdk.Client;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import org.threeten.bp.Instant;
+
+/**
+ * Bounded in-memory cache of DID resolution results in front of {@link HcsDidResolutionCoordinator}.
+ * Entries are evicted when the cache exceeds its maximum size or after the configured time since they were resolved.
+ * When connected to a {@link HcsDidTopicListener}, entries are invalidated as soon as a new message for the DID
+ * is submitted to the topic, so that updated or deleted DIDs do not remain stale until they expire.
+ */
+public class HcsDidResolutionCache {
+  /**
+   * Default maximum number of DIDs in a cache created by {@link com.hedera.hashgraph.identity.hcs.HcsIdentityNetwork}.
+   */
+  public static final long DEFAULT_MAXIMUM_SIZE = 10_000;
+
+  /**
+   * Default time in milliseconds after which a resolved DID is evicted from a cache created by
+   * {@link com.hedera.hashgraph.identity.hcs.HcsIdentityNetwork}.
+   */
+  public static final long DEFAULT_EXPIRE_AFTER = 300_000;
+
+  private final HcsDidResolutionCoordinator coordinator;
+  private final Cache<String, CachedResolution> cache;
+
+  /**
+   * Resolutions in flight by DID. Invalidating a DID removes its entry, so that its resolution is not cached.
+   */
+  private final Map<String, Object> inFlight;
+  private HcsDidTopicListener listener;
+
+  /**
+   * Creates a new resolution cache.
+   *
+   * @param coordinator       The coordinator used to resolve DIDs missing in the cache.
+   * @param maximumSize       The maximum number of DIDs in the cache.
+   * @param expireAfterMillis Time in milliseconds after which a resolved DID is evicted from the cache.
+   */
+  public HcsDidResolutionCache(final HcsDidResolutionCoordinator coordinator, final long maximumSize,
+                               final long expireAfterMillis) {
+    if (coordinator == null) {
+      throw new IllegalArgumentException("Resolution coordinator must be provided.");
+    }
+
+    this.coordinator = coordinator;
+    this.inFlight = new ConcurrentHashMap<>();
+    this.cache = CacheBuilder.newBuilder()
+            .maximumSize(maximumSize)
+            .expireAfterWrite(expireAfterMillis, TimeUnit.MILLISECONDS)
+            .recordStats()
+            .build();
+  }
+
+  /**
+   * Resolves the given DID from the cache or from the DID topic if it is not cached.
+   *
+   * @param client The mirror node client.
+   * @param did    The DID string.
+   * @return The future completed with the last valid message of the DID or NULL if the DID was not found.
+   */
+  public CompletableFuture<MessageEnvelope<HcsDidMessage>> resolve(final Client client, final String did) {
+    CachedResolution cached = cache.getIfPresent(did);
+    if (cached != null) {
+      return CompletableFuture.completedFuture(cached.envelope);
+    }
+
+    Object resolution = new Object();
+    inFlight.put(did, resolution);
+    return coordinator.resolve(client, did).whenComplete((envelope, err) -> {
+      // Do not cache results of the DID that might have been invalidated while being resolved.
+      if (inFlight.remove(did, resolution) && err == null) {
+        cache.put(did, new CachedResolution(envelope));
+      }
+    });
+  }
+
+  /**
+   * Returns the cached resolution of the given DID without resolving it.
+   *
+   * @param did The DID string.
+   * @return The cached last valid message of the DID or NULL if the DID is not cached or was not found.
+   */
+  public MessageEnvelope<HcsDidMessage> getIfPresent(final String did) {
+    // Peeking at the cache is not recorded as a hit or miss.
+    CachedResolution cached = cache.asMap().get(did);
+    return cached == null ? null : cached.envelope;
+  }
+
+  /**
+   * Returns the consensus timestamp of the cached message of the given DID.
+   *
+   * @param did The DID string.
+   * @return The consensus timestamp or NULL if the DID is not cached or was not found.
+   */
+  public Instant getConsensusTimestamp(final String did) {
+    CachedResolution cached = cache.asMap().get(did);
+    return cached == null ? null : cached.consensusTimestamp;
+  }
+
+  /**
+   * Removes the given DID from the cache.
+   *
+   * @param did The DID string.
+   */
+  public void invalidate(final String did) {
+    inFlight.remove(did);
+    cache.invalidate(did);
+  }
+
+  /**
+   * Removes all DIDs from the cache.
+   */
+  public void invalidateAll() {
+    inFlight.clear();
+    cache.invalidateAll();
+  }
+
+  /**
+   * Starts invalidating cached DIDs on new messages received by the given listener.
+   * The listener is subscribed from now on and is unsubscribed by {@link #stopListening()}.
+   *
+   * @param client        The mirror node client.
+   * @param topicListener The DID topic listener, configured with error handler and decrypter if needed.
+   * @return This cache instance.
+   */
+  public synchronized HcsDidResolutionCache listenForUpdates(final Client client,
+                                                             final HcsDidTopicListener topicListener) {
+    stopListening();
+
+    this.listener = topicListener;
+    topicListener.setStartTime(Instant.now())
+            .subscribe(client, envelope -> invalidate(envelope.open().getDid()));
+
+    return this;
+  }
+
+  /**
+   * Stops invalidating cached DIDs on new topic messages.
+   */
+  public synchronized void stopListening() {
+    if (listener != null) {
+      listener.unsubscribe();
+      listener = null;
+    }
+  }
+
+  /**
+   * Returns the number of DIDs in the cache.
+   *
+   * @return The approximate number of cached DIDs.
+   */
+  public long size() {
+    return cache.size();
+  }
+
+  public long getHitCount() {
+    return cache.stats().hitCount();
+  }
+
+  public long getMissCount() {
+    return cache.stats().missCount();
+  }
+
+  public long getEvictionCount() {
+    return cache.stats().evictionCount();
+  }
+
+  /**
+   * Resolution result of a single DID, NULL envelope if the DID was not found.
+   */
+  private static final class CachedResolution {
+    private final MessageEnvelope<HcsDidMessage> envelope;
+    private final Instant consensusTimestamp;
+
+    CachedResolution(final MessageEnvelope<HcsDidMessage> envelope) {
+      this.envelope = envelope;
+      this.consensusTimestamp = envelope == null ? null : envelope.getConsensusTimestamp();
+    }
+  }
+}
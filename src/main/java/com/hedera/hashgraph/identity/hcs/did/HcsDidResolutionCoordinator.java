@@ -0,0 +1,248 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.identity.hcs.MessageResolver;
+import com.hedera.hashgraph.sdk.Client;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Coordinates concurrent DID resolutions against a single DID topic.
+ * Requests arriving within a short batching window are merged into a single {@link HcsDidResolver} execution,
+ * so that the topic is scanned once for all of them and each caller receives the envelope of its DID.
+ * At most one scan runs at a time, requests arriving during a scan are merged into the next one.
+ * This way the mirror node load grows with the number of topics rather than with the number of requests.
+ * Closing the coordinator stops the running scan and fails all requests that are not resolved yet.
+ */
+public class HcsDidResolutionCoordinator implements AutoCloseable {
+  /**
+   * Default time in milliseconds to collect requests before a topic scan is started.
+   */
+  public static final long DEFAULT_BATCH_WINDOW = 50;
+
+  private final Supplier<HcsDidResolver> resolverSupplier;
+  private final ScheduledExecutorService scheduler;
+  private final Object lock = new Object();
+  private Map<String, CompletableFuture<MessageEnvelope<HcsDidMessage>>> pendingRequests;
+  private Client pendingClient;
+  private CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> runningScan;
+  private boolean scanScheduled;
+  private boolean scanRunning;
+  private boolean closed;
+  private long batchWindow;
+  private long timeout;
+
+  /**
+   * Creates a new coordinator.
+   *
+   * @param resolverSupplier Supplier of DID resolvers for the DID topic, called once per topic scan.
+   * @param scheduler        The scheduler used to start topic scans.
+   */
+  public HcsDidResolutionCoordinator(final Supplier<HcsDidResolver> resolverSupplier,
+                                     final ScheduledExecutorService scheduler) {
+    this.resolverSupplier = resolverSupplier;
+    this.scheduler = scheduler;
+    this.pendingRequests = new HashMap<>();
+    this.batchWindow = DEFAULT_BATCH_WINDOW;
+    this.timeout = MessageResolver.DEFAULT_TIMEOUT;
+  }
+
+  /**
+   * Resolves the given DID in the next topic scan.
+   * Concurrent requests for the same DID share the result.
+   * The scan is executed with the client of the request that opened the batch.
+   *
+   * @param client The mirror node client.
+   * @param did    The DID string.
+   * @return The future completed with the last valid message of the DID or NULL if the DID was not found.
+   * @throws IllegalStateException If this coordinator was already closed.
+   */
+  public CompletableFuture<MessageEnvelope<HcsDidMessage>> resolve(final Client client, final String did) {
+    if (client == null || did == null) {
+      throw new IllegalArgumentException("Client and DID must be provided.");
+    }
+
+    CompletableFuture<MessageEnvelope<HcsDidMessage>> shared;
+    synchronized (lock) {
+      if (closed) {
+        throw new IllegalStateException("Resolution coordinator has been closed.");
+      }
+
+      shared = pendingRequests.computeIfAbsent(did, k -> new CompletableFuture<>());
+      if (pendingClient == null) {
+        pendingClient = client;
+      }
+
+      if (!scanScheduled && !scanRunning) {
+        scheduleScan(batchWindow);
+      }
+    }
+
+    // Callers get their own dependent future, so cancelling it does not affect others waiting for the same DID.
+    return shared.thenApply(envelope -> envelope);
+  }
+
+  /**
+   * Resolves the given DIDs in the next topic scan.
+   *
+   * @param client The mirror node client.
+   * @param dids   The set of DID strings.
+   * @return The future completed with a map of DIDs to their last valid messages, NULL for DIDs not found.
+   */
+  public CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> resolve(final Client client,
+                                                                                final Set<String> dids) {
+    Map<String, CompletableFuture<MessageEnvelope<HcsDidMessage>>> futures = new HashMap<>();
+    dids.forEach(did -> futures.put(did, resolve(client, did)));
+
+    return CompletableFuture.allOf(futures.values().toArray(new CompletableFuture[0]))
+            .thenApply(v -> {
+              Map<String, MessageEnvelope<HcsDidMessage>> results = new HashMap<>();
+              futures.forEach((did, future) -> results.put(did, future.join()));
+              return results;
+            });
+  }
+
+  /**
+   * Defines the time in milliseconds to collect requests before a topic scan is started.
+   * Default is 50 milliseconds.
+   *
+   * @param batchWindow The batching window in milliseconds.
+   * @return This coordinator instance.
+   */
+  public HcsDidResolutionCoordinator setBatchWindow(final long batchWindow) {
+    this.batchWindow = batchWindow;
+    return this;
+  }
+
+  /**
+   * Defines a maximum time in milliseconds to wait for new messages from the topic during a scan.
+   *
+   * @param timeout The timeout in milliseconds.
+   * @return This coordinator instance.
+   * @see MessageResolver#setTimeout(long)
+   */
+  public HcsDidResolutionCoordinator setTimeout(final long timeout) {
+    this.timeout = timeout;
+    return this;
+  }
+
+  /**
+   * Returns the number of DIDs waiting for the next topic scan.
+   *
+   * @return The number of pending DIDs.
+   */
+  public int getPendingCount() {
+    synchronized (lock) {
+      return pendingRequests.size();
+    }
+  }
+
+  /**
+   * Stops the running topic scan and fails all pending requests.
+   * Requests made after the coordinator was closed are rejected.
+   */
+  @Override
+  public void close() {
+    Map<String, CompletableFuture<MessageEnvelope<HcsDidMessage>>> batch;
+    CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> scan;
+    synchronized (lock) {
+      if (closed) {
+        return;
+      }
+
+      closed = true;
+      batch = pendingRequests;
+      scan = runningScan;
+      pendingRequests = new HashMap<>();
+      pendingClient = null;
+    }
+
+    // Cancelling the scan stops its resolver and fails the requests of the scan.
+    if (scan != null) {
+      scan.cancel(false);
+    }
+
+    IllegalStateException error = new IllegalStateException("Resolution coordinator has been closed.");
+    batch.values().forEach(f -> f.completeExceptionally(error));
+  }
+
+  /**
+   * Schedules the next topic scan, must be called while holding the lock.
+   *
+   * @param delay The delay in milliseconds.
+   */
+  private void scheduleScan(final long delay) {
+    scanScheduled = true;
+    try {
+      scheduler.schedule(this::startScan, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      scanScheduled = false;
+      Map<String, CompletableFuture<MessageEnvelope<HcsDidMessage>>> batch = pendingRequests;
+      pendingRequests = new HashMap<>();
+      pendingClient = null;
+      batch.values().forEach(f -> f.completeExceptionally(e));
+    }
+  }
+
+  /**
+   * Starts a topic scan for all pending requests.
+   */
+  private void startScan() {
+    Map<String, CompletableFuture<MessageEnvelope<HcsDidMessage>>> batch;
+    Client client;
+    synchronized (lock) {
+      scanScheduled = false;
+      batch = pendingRequests;
+      client = pendingClient;
+      pendingRequests = new HashMap<>();
+      pendingClient = null;
+
+      if (batch.isEmpty() || closed) {
+        return;
+      }
+      scanRunning = true;
+    }
+
+    CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> scan;
+    try {
+      HcsDidResolver resolver = resolverSupplier.get().addDids(Collections.unmodifiableSet(batch.keySet()));
+      resolver.setTimeout(timeout);
+      scan = resolver.executeAsync(client);
+    } catch (RuntimeException e) {
+      scan = new CompletableFuture<>();
+      scan.completeExceptionally(e);
+    }
+
+    synchronized (lock) {
+      runningScan = scan;
+      if (closed) {
+        scan.cancel(false);
+      }
+    }
+
+    scan.whenComplete((results, err) -> {
+      batch.forEach((did, future) -> {
+        if (err != null) {
+          future.completeExceptionally(err);
+        } else {
+          future.complete(results.get(did));
+        }
+      });
+
+      synchronized (lock) {
+        scanRunning = false;
+        runningScan = null;
+        if (!closed && !pendingRequests.isEmpty() && !scanScheduled) {
+          scheduleScan(0);
+        }
+      }
+    });
+  }
+}
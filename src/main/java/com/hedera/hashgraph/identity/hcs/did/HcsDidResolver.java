@@ -5,6 +5,7 @@ import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
 import com.hedera.hashgraph.identity.hcs.MessageListener;
 import com.hedera.hashgraph.identity.hcs.MessageResolver;
 import com.hedera.hashgraph.sdk.TopicId;
+import java.util.Map;
 import java.util.Set;
 
 /**
@@ -54,10 +55,11 @@ public class HcsDidResolver extends MessageResolver<HcsDidMessage> {
   }
 
   @Override
-  protected void processMessage(final MessageEnvelope<HcsDidMessage> envelope) {
+  protected void processMessage(final MessageEnvelope<HcsDidMessage> envelope,
+                                final Map<String, MessageEnvelope<HcsDidMessage>> state) {
     HcsDidMessage message = envelope.open();
     // Also skip messages that are older than the once collected or if we already have a DELETE message
-    MessageEnvelope<HcsDidMessage> existing = results.get(message.getDid());
+    MessageEnvelope<HcsDidMessage> existing = state.get(message.getDid());
     if (existing != null
             && (envelope.getConsensusTimestamp().isBefore(existing.getConsensusTimestamp())
             || (DidMethodOperation.DELETE.equals(existing.open().getOperation())
@@ -74,7 +76,23 @@ public class HcsDidResolver extends MessageResolver<HcsDidMessage> {
     }
 
     // Add valid message to the results
-    results.put(message.getDid(), envelope);
+    state.put(message.getDid(), envelope);
+  }
+
+  @Override
+  protected String getResultKey(final HcsDidMessage message) {
+    return message.getDid();
+  }
+
+  /**
+   * A deleted DID is final, as after a DELETE message only further DELETE messages are accepted.
+   *
+   * @param result The resolved message.
+   * @return True if the DID was deleted, false otherwise.
+   */
+  @Override
+  protected boolean isResultFinal(final MessageEnvelope<HcsDidMessage> result) {
+    return DidMethodOperation.DELETE.equals(result.open().getOperation());
   }
 
   @Override
@@ -1,17 +1,23 @@
 package com.hedera.hashgraph.identity.hcs.did;
 
+import com.hedera.hashgraph.identity.hcs.IdentityMetrics;
 import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
 import com.hedera.hashgraph.identity.hcs.MessageListener;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
+import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicId;
 import com.hedera.hashgraph.sdk.TopicMessage;
-import java8.util.function.BiFunction;
-import org.threeten.bp.Instant;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * A listener of confirmed {@link HcsDidMessage} messages from a DID topic.
  * Messages are received from a given mirror node, parsed and validated.
  */
 public class HcsDidTopicListener extends MessageListener<HcsDidMessage> {
+  /**
+   * Number of messages validated together by one task in the pipelined mode.
+   */
+  public static final int DEFAULT_PIPELINE_BATCH_SIZE = 16;
 
   /**
    * Creates a new instance of a DID topic listener for the given consensus topic.
@@ -23,6 +29,22 @@ public class HcsDidTopicListener extends MessageListener<HcsDidMessage> {
     super(didTopicId);
   }
 
+  /**
+   * Enables the pipelined mode, in which parsing and validation of DID messages, including decoding of DID documents
+   * and signature verification, fan out to the common fork-join pool, with at most as many batches in flight
+   * as the parallelism of the pool, which by default is one less than the number of processors.
+   * The pool is shared with other tasks of the application, so they compete for its workers.
+   * Messages are still delivered in consensus order.
+   *
+   * @return This listener instance.
+   * @see MessageListener#setParallelValidation(java.util.concurrent.Executor, int, int)
+   */
+  public HcsDidTopicListener enablePipelinedValidation() {
+    ForkJoinPool pool = ForkJoinPool.commonPool();
+    setParallelValidation(pool, DEFAULT_PIPELINE_BATCH_SIZE, pool.getParallelism());
+    return this;
+  }
+
   @Override
   protected MessageEnvelope<HcsDidMessage> extractMessage(final TopicMessage response) {
     MessageEnvelope<HcsDidMessage> result = null;
@@ -35,33 +57,53 @@ public class HcsDidTopicListener extends MessageListener<HcsDidMessage> {
     return result;
   }
 
+  @Override
+  protected MessageEnvelope<HcsDidMessage> extractArchivedMessage(final SerializableMirrorConsensusResponse response) {
+    MessageEnvelope<HcsDidMessage> result = null;
+    try {
+      result = MessageEnvelope.fromArchivedResponse(response, HcsDidMessage.class);
+    } catch (Exception err) {
+      handleError(err);
+    }
+
+    return result;
+  }
+
   @Override
   protected boolean isMessageValid(final MessageEnvelope<HcsDidMessage> envelope,
                                    final TopicMessage response) {
     try {
-      BiFunction<HcsDidMessage, Instant, HcsDidMessage> msgDecrypter = decrypter == null ? null
-              : HcsDidMessage.getDecrypter(decrypter);
-
-      HcsDidMessage message = envelope.open(msgDecrypter);
+      HcsDidMessage message = openMessage(envelope, HcsDidMessage::getDecrypter);
       if (message == null) {
-        reportInvalidMessage(response, "Empty message received when opening envelope");
+        reportInvalidMessage(response, IdentityMetrics.RejectionReason.EMPTY,
+                "Empty message received when opening envelope");
         return false;
       }
 
-      if (!envelope.isSignatureValid(e -> message.extractDidRootKey())) {
-        reportInvalidMessage(response, "Signature validation failed");
+      long start = System.nanoTime();
+      PublicKey didRootKey = message.extractDidRootKey();
+      metrics.recordLatency(topicId, IdentityMetrics.Stage.DOCUMENT, System.nanoTime() - start);
+
+      start = System.nanoTime();
+      boolean signatureValid = envelope.isSignatureValid(e -> didRootKey);
+      metrics.recordLatency(topicId, IdentityMetrics.Stage.VERIFY, System.nanoTime() - start);
+      if (!signatureValid) {
+        reportInvalidMessage(response, IdentityMetrics.RejectionReason.INVALID_SIGNATURE,
+                "Signature validation failed");
         return false;
       }
 
       if (!message.isValid(topicId)) {
-        reportInvalidMessage(response, "Message content validation failed.");
+        reportInvalidMessage(response, IdentityMetrics.RejectionReason.INVALID_CONTENT,
+                "Message content validation failed.");
         return false;
       }
 
       return true;
     } catch (Exception err) {
       handleError(err);
-      reportInvalidMessage(response, "Exception while validating message: " + err.getMessage());
+      reportInvalidMessage(response, IdentityMetrics.RejectionReason.ERROR,
+              "Exception while validating message: " + err.getMessage());
       return false;
     }
 
@@ -1,11 +1,13 @@
 package com.hedera.hashgraph.identity.hcs.vc;
 
+import com.hedera.hashgraph.identity.hcs.IdentityMetrics;
 import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
 import com.hedera.hashgraph.identity.hcs.MessageListener;
 import com.hedera.hashgraph.identity.hcs.MessageResolver;
 import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicId;
 import java.util.Collection;
+import java.util.Map;
 import java.util.Set;
 import java.util.function.Function;
 
@@ -73,17 +75,46 @@ public class HcsVcStatusResolver extends MessageResolver<HcsVcMessage> {
     return results.containsKey(message.getCredentialHash());
   }
 
+  @Override
+  protected String getResultKey(final HcsVcMessage message) {
+    return message.getCredentialHash();
+  }
+
+  /**
+   * A revoked credential is final, as after a REVOKE message only further REVOKE messages are accepted.
+   *
+   * @param result The resolved message.
+   * @return True if the credential was revoked, false otherwise.
+   */
+  @Override
+  protected boolean isResultFinal(final MessageEnvelope<HcsVcMessage> result) {
+    return HcsVcOperation.REVOKE.equals(result.open().getOperation());
+  }
+
   @Override
   protected MessageListener<HcsVcMessage> supplyMessageListener() {
     return new HcsVcTopicListener(topicId, publicKeysProvider);
   }
 
+  /**
+   * Signatures are validated against keys supplied for the credential hash at the time of the resolution,
+   * so a message rejected now may be accepted once the provider knows its keys.
+   * When resolving from a checkpoint, supply a provider that knows the issuer keys of all credentials in the topic,
+   * otherwise the checkpoint does not advance past the first message it could not validate
+   * until the limit of {@link #setCheckpointHoldBackLimit(int)} is reached.
+   */
+  @Override
+  protected boolean isRejectionFinal(final IdentityMetrics.RejectionReason reason) {
+    return publicKeysProvider == null || !IdentityMetrics.RejectionReason.INVALID_SIGNATURE.equals(reason);
+  }
+
   @Override
-  protected void processMessage(final MessageEnvelope<HcsVcMessage> envelope) {
+  protected void processMessage(final MessageEnvelope<HcsVcMessage> envelope,
+                                final Map<String, MessageEnvelope<HcsVcMessage>> state) {
     HcsVcMessage message = envelope.open();
 
     // Skip messages that are older than the once collected or if we already have a REVOKED message
-    MessageEnvelope<HcsVcMessage> existing = results.get(message.getCredentialHash());
+    MessageEnvelope<HcsVcMessage> existing = state.get(message.getCredentialHash());
     if (existing != null
             && (envelope.getConsensusTimestamp().isBefore(existing.getConsensusTimestamp())
             || (HcsVcOperation.REVOKE.equals(existing.open().getOperation())
@@ -92,6 +123,6 @@ public class HcsVcStatusResolver extends MessageResolver<HcsVcMessage> {
     }
 
     // Add valid message to the results
-    results.put(message.getCredentialHash(), envelope);
+    state.put(message.getCredentialHash(), envelope);
   }
 }
@@ -1,14 +1,14 @@
 package com.hedera.hashgraph.identity.hcs.vc;
 
+import com.hedera.hashgraph.identity.hcs.IdentityMetrics;
 import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
 import com.hedera.hashgraph.identity.hcs.MessageListener;
+import com.hedera.hashgraph.identity.hcs.SerializableMirrorConsensusResponse;
 import com.hedera.hashgraph.sdk.PublicKey;
 import com.hedera.hashgraph.sdk.TopicId;
 import com.hedera.hashgraph.sdk.TopicMessage;
 import java.util.Collection;
 import java.util.function.Function;
-import java8.util.function.BiFunction;
-import org.threeten.bp.Instant;
 
 /**
  * A listener of confirmed {@link HcsVcMessage} messages from a VC topic.
@@ -58,34 +58,47 @@ public class HcsVcTopicListener extends MessageListener<HcsVcMessage> {
     return result;
   }
 
+  @Override
+  protected MessageEnvelope<HcsVcMessage> extractArchivedMessage(final SerializableMirrorConsensusResponse response) {
+    MessageEnvelope<HcsVcMessage> result = null;
+    try {
+      result = MessageEnvelope.fromArchivedResponse(response, HcsVcMessage.class);
+    } catch (Exception err) {
+      handleError(err);
+    }
+
+    return result;
+  }
+
   @Override
   protected boolean isMessageValid(final MessageEnvelope<HcsVcMessage> envelope,
                                    final TopicMessage response) {
     try {
-      BiFunction<HcsVcMessage, Instant, HcsVcMessage> msgDecrypter = decrypter == null ? null
-              : HcsVcMessage.getDecrypter(decrypter);
-
-      HcsVcMessage message = envelope.open(msgDecrypter);
+      HcsVcMessage message = openMessage(envelope, HcsVcMessage::getDecrypter);
       if (message == null) {
-        reportInvalidMessage(response, "Empty message received when opening envelope");
+        reportInvalidMessage(response, IdentityMetrics.RejectionReason.EMPTY,
+                "Empty message received when opening envelope");
         return false;
       }
 
       if (!message.isValid()) {
-        reportInvalidMessage(response, "Message content validation failed.");
+        reportInvalidMessage(response, IdentityMetrics.RejectionReason.INVALID_CONTENT,
+                "Message content validation failed.");
         return false;
       }
 
       // Validate signature only if public key provider has been supplied.
       if (publicKeysProvider != null && !isSignatureAccepted(envelope)) {
-        reportInvalidMessage(response, "Signature validation failed");
+        reportInvalidMessage(response, IdentityMetrics.RejectionReason.INVALID_SIGNATURE,
+                "Signature validation failed");
         return false;
       }
 
       return true;
     } catch (Exception err) {
       handleError(err);
-      reportInvalidMessage(response, "Exception while validating message: " + err.getMessage());
+      reportInvalidMessage(response, IdentityMetrics.RejectionReason.ERROR,
+              "Exception while validating message: " + err.getMessage());
       return false;
     }
   }
@@ -106,12 +119,17 @@ public class HcsVcTopicListener extends MessageListener<HcsVcMessage> {
       return false;
     }
 
-    for (PublicKey publicKey : acceptedKeys) {
-      if (envelope.isSignatureValid(e -> publicKey)) {
-        return true;
+    long start = System.nanoTime();
+    try {
+      for (PublicKey publicKey : acceptedKeys) {
+        if (envelope.isSignatureValid(e -> publicKey)) {
+          return true;
+        }
       }
-    }
 
-    return false;
+      return false;
+    } finally {
+      metrics.recordLatency(topicId, IdentityMetrics.Stage.VERIFY, System.nanoTime() - start);
+    }
   }
 }
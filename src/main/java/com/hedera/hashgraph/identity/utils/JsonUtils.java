@@ -2,12 +2,34 @@ package com.hedera.hashgraph.identity.utils;
 
 import com.google.gson.Gson;
 import com.google.gson.GsonBuilder;
+import com.google.gson.TypeAdapterFactory;
+import java.lang.reflect.Type;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
 import org.threeten.bp.Instant;
 
 /**
  * JSON utilities for Hedera identity.
+ * A single {@link Gson} instance is shared by the whole SDK, so that type adapters resolved once via reflection
+ * are reused by all serialization calls. {@link Gson} instances are immutable and thread-safe.
  */
 public final class JsonUtils {
+  /**
+   * Custom type adapters registered by the application, in registration order.
+   */
+  private static final Map<Type, Object> CUSTOM_TYPE_ADAPTERS = new LinkedHashMap<>();
+
+  /**
+   * Custom type adapter factories registered by the application, in registration order.
+   */
+  private static final List<TypeAdapterFactory> CUSTOM_TYPE_ADAPTER_FACTORIES = new ArrayList<>();
+
+  /**
+   * The shared, pre-built {@link Gson} instance.
+   */
+  private static volatile Gson gson = buildGson();
 
   /**
    * This is a utility class, never to be instantiated.
@@ -17,15 +39,66 @@ public final class JsonUtils {
   }
 
   /**
-   * Builds {@link Gson} instance with default configuration for Hedera identity.
+   * Returns the shared {@link Gson} instance with default configuration for Hedera identity
+   * and any custom type adapters registered by the application.
    *
    * @return {@link Gson} instance.
    */
   public static Gson getGson() {
-    return new GsonBuilder()
+    return gson;
+  }
+
+  /**
+   * Registers an additional type adapter for the shared {@link Gson} instance.
+   * This is meant to be called once at application startup, before any identity messages are processed,
+   * as each registration rebuilds the shared instance.
+   *
+   * @param type        The type definition for the type adapter being registered.
+   * @param typeAdapter The type adapter, as accepted by {@link GsonBuilder#registerTypeAdapter(Type, Object)}.
+   */
+  public static void registerTypeAdapter(final Type type, final Object typeAdapter) {
+    if (type == null || typeAdapter == null) {
+      throw new IllegalArgumentException("Type and type adapter must be provided.");
+    }
+
+    synchronized (CUSTOM_TYPE_ADAPTERS) {
+      CUSTOM_TYPE_ADAPTERS.put(type, typeAdapter);
+      gson = buildGson();
+    }
+  }
+
+  /**
+   * Registers an additional type adapter factory for the shared {@link Gson} instance.
+   * This is meant to be called once at application startup, before any identity messages are processed,
+   * as each registration rebuilds the shared instance.
+   *
+   * @param factory The type adapter factory.
+   */
+  public static void registerTypeAdapterFactory(final TypeAdapterFactory factory) {
+    if (factory == null) {
+      throw new IllegalArgumentException("Type adapter factory must be provided.");
+    }
+
+    synchronized (CUSTOM_TYPE_ADAPTERS) {
+      CUSTOM_TYPE_ADAPTER_FACTORIES.add(factory);
+      gson = buildGson();
+    }
+  }
+
+  /**
+   * Builds {@link Gson} instance with default configuration for Hedera identity and registered custom adapters.
+   *
+   * @return {@link Gson} instance.
+   */
+  private static Gson buildGson() {
+    GsonBuilder builder = new GsonBuilder()
             .disableHtmlEscaping()
             .excludeFieldsWithoutExposeAnnotation()
-            .registerTypeAdapter(Instant.class, Iso8601InstantTypeAdapter.getInstance())
-            .create();
+            .registerTypeAdapter(Instant.class, Iso8601InstantTypeAdapter.getInstance());
+
+    CUSTOM_TYPE_ADAPTERS.forEach(builder::registerTypeAdapter);
+    CUSTOM_TYPE_ADAPTER_FACTORIES.forEach(builder::registerTypeAdapterFactory);
+
+    return builder.create();
   }
 }
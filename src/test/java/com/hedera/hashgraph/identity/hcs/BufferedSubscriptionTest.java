@@ -0,0 +1,123 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicBoolean;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests demand handling and overflow strategies of publisher subscriptions.
+ */
+public class BufferedSubscriptionTest {
+
+  @Test
+  void testMessagesAreDeliveredOnDemand() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    AtomicBoolean released = new AtomicBoolean();
+    BufferedSubscription<HcsVcMessage> subscription = new BufferedSubscription<>(subscriber, 4,
+            OverflowStrategy.BLOCK, Runnable::run, () -> released.set(true));
+
+    subscription.offer(envelope("a"));
+    subscription.offer(envelope("b"));
+    subscription.offer(envelope("c"));
+    assertTrue(subscriber.received.isEmpty());
+
+    subscription.request(2);
+    assertEquals(2, subscriber.received.size());
+    assertEquals(1, subscription.getBufferedCount());
+
+    subscription.complete();
+    assertFalse(subscriber.completed);
+
+    subscription.request(1);
+    assertEquals(3, subscriber.received.size());
+    assertEquals("c", subscriber.received.get(2).open().getCredentialHash());
+    assertTrue(subscriber.completed);
+    assertTrue(released.get());
+  }
+
+  @Test
+  void testDropOldestKeepsNewestMessages() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    BufferedSubscription<HcsVcMessage> subscription = new BufferedSubscription<>(subscriber, 2,
+            OverflowStrategy.DROP_OLDEST, Runnable::run, () -> { });
+
+    subscription.offer(envelope("a"));
+    subscription.offer(envelope("b"));
+    subscription.offer(envelope("c"));
+    assertEquals(1, subscription.getDroppedCount());
+
+    subscription.request(Long.MAX_VALUE);
+    assertEquals(2, subscriber.received.size());
+    assertEquals("b", subscriber.received.get(0).open().getCredentialHash());
+    assertEquals("c", subscriber.received.get(1).open().getCredentialHash());
+  }
+
+  @Test
+  void testFailOnOverflow() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    AtomicBoolean released = new AtomicBoolean();
+    BufferedSubscription<HcsVcMessage> subscription = new BufferedSubscription<>(subscriber, 1,
+            OverflowStrategy.FAIL, Runnable::run, () -> released.set(true));
+
+    subscription.offer(envelope("a"));
+    subscription.offer(envelope("b"));
+
+    assertTrue(subscriber.error instanceof IllegalStateException);
+    assertTrue(subscriber.received.isEmpty());
+    assertTrue(released.get());
+
+    subscription.request(1);
+    assertTrue(subscriber.received.isEmpty());
+  }
+
+  @Test
+  void testNonPositiveRequestFailsSubscription() {
+    RecordingSubscriber subscriber = new RecordingSubscriber();
+    BufferedSubscription<HcsVcMessage> subscription = new BufferedSubscription<>(subscriber, 1,
+            OverflowStrategy.BLOCK, Runnable::run, () -> { });
+
+    subscription.request(0);
+
+    assertTrue(subscriber.error instanceof IllegalArgumentException);
+  }
+
+  private static MessageEnvelope<HcsVcMessage> envelope(final String credentialHash) {
+    return HcsVcMessage.fromCredentialHash(credentialHash, HcsVcOperation.ISSUE);
+  }
+
+  /**
+   * Subscriber that records all signals.
+   */
+  private static class RecordingSubscriber implements MessageSubscriber<HcsVcMessage> {
+    private final List<MessageEnvelope<HcsVcMessage>> received = new ArrayList<>();
+    private Throwable error;
+    private boolean completed;
+
+    @Override
+    public void onSubscribe(final MessageSubscription subscription) {
+      // Subscriptions are created directly in these tests.
+    }
+
+    @Override
+    public void onNext(final MessageEnvelope<HcsVcMessage> envelope) {
+      received.add(envelope);
+    }
+
+    @Override
+    public void onError(final Throwable err) {
+      error = err;
+    }
+
+    @Override
+    public void onComplete() {
+      completed = true;
+    }
+  }
+}
@@ -3,6 +3,7 @@ package com.hedera.hashgraph.identity.hcs;
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.google.common.base.Charsets;
@@ -137,6 +138,27 @@ public class HcsIdentityNetworkTest {
     assertEquals(didNetwork.getNetwork(), network);
   }
 
+  @Test
+  void testNetworkSharesParsedTopicIdsAndConfiguration() {
+    AddressBook addressBook = AddressBook.fromJson(ADDRESS_BOOK_JSON, addressBookFileId);
+    IdentityMetrics metrics = new IdentityMetrics() {
+    };
+
+    try (HcsIdentityNetwork didNetwork = HcsIdentityNetwork.fromAddressBook(network, addressBook)) {
+      didNetwork.setMetrics(metrics);
+
+      assertSame(didNetwork.getDidTopicId(), didNetwork.getDidTopicId());
+      assertSame(didNetwork.getVcTopicId(), didNetwork.getVcTopicId());
+      assertEquals(addressBook.getDidTopicId(), didNetwork.getDidTopicId().toString());
+      assertSame(didNetwork.getDidResolutionCache(), didNetwork.getDidResolutionCache());
+      assertSame(metrics, didNetwork.getMetrics());
+
+      // Changes of the address book are picked up.
+      addressBook.setVcTopicId("0.0.1234");
+      assertEquals("0.0.1234", didNetwork.getVcTopicId().toString());
+    }
+  }
+
   @Test
   void testInitNetworkFromDid() throws TimeoutException, PrecheckStatusException {
     // Generate HcsDid
@@ -0,0 +1,139 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidTopicListener;
+import com.hedera.hashgraph.sdk.FileId;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.threeten.bp.Instant;
+
+/**
+ * Tests measurements recorded by topic listeners.
+ */
+public class IdentityMetricsTest {
+  private static final TopicId DID_TOPIC_ID = TopicId.fromString("0.0.2");
+  private static final Instant TIMESTAMP = Instant.ofEpochSecond(1_600_000_000L);
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testListenerRecordsReceivedAndRejectedMessages() throws IOException {
+    PrivateKey didRootKey = HcsDid.generateDidRootKey();
+    PrivateKey otherKey = HcsDid.generateDidRootKey();
+
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      archive.append(TIMESTAMP.plusSeconds(1), 1, new byte[48], didMessage(didRootKey, didRootKey));
+      archive.append(TIMESTAMP.plusSeconds(2), 2, new byte[48], "not an envelope".getBytes(StandardCharsets.UTF_8));
+      archive.append(TIMESTAMP.plusSeconds(3), 3, new byte[48], didMessage(didRootKey, otherKey));
+
+      RecordingMetrics metrics = new RecordingMetrics();
+      List<MessageEnvelope<HcsDidMessage>> received = new ArrayList<>();
+      MessageListener<HcsDidMessage> listener = new HcsDidTopicListener(DID_TOPIC_ID)
+              .setArchive(archive)
+              .setEndSequenceNumber(3)
+              .setIgnoreErrors(true)
+              .setMetrics(metrics)
+              .subscribe(null, received::add);
+
+      assertEquals(1, received.size());
+      assertEquals(3, listener.getReceivedMessagesCount());
+      assertEquals(3, metrics.count("received"));
+      assertEquals(1, metrics.count(IdentityMetrics.RejectionReason.MALFORMED.name()));
+      assertEquals(1, metrics.count(IdentityMetrics.RejectionReason.INVALID_SIGNATURE.name()));
+      assertEquals(2, metrics.count(IdentityMetrics.Stage.PARSE.name()));
+      assertEquals(2, metrics.count(IdentityMetrics.Stage.DOCUMENT.name()));
+      assertEquals(2, metrics.count(IdentityMetrics.Stage.VERIFY.name()));
+      assertEquals(0, metrics.count(IdentityMetrics.Stage.DECRYPT.name()));
+    }
+  }
+
+  @Test
+  void testListenerRecordsDecryptionOfEncryptedMessages() throws IOException {
+    PrivateKey didRootKey = HcsDid.generateDidRootKey();
+    String secret = "Secret encryption password";
+
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      HcsDid did = new HcsDid("testnet", didRootKey.getPublicKey(), FileId.fromString("0.0.1"));
+      String document = did.generateDidDocument().toJson();
+      byte[] encrypted = HcsDidMessage.fromDidDocumentJson(document, DidMethodOperation.CREATE)
+              .encrypt(HcsDidMessage.getEncrypter(m -> AesEncryptionUtil.encrypt(m, secret)))
+              .sign(didRootKey::sign);
+      archive.append(TIMESTAMP.plusSeconds(1), 1, new byte[48], encrypted);
+      archive.append(TIMESTAMP.plusSeconds(2), 2, new byte[48], didMessage(didRootKey, didRootKey));
+
+      RecordingMetrics metrics = new RecordingMetrics();
+      List<MessageEnvelope<HcsDidMessage>> received = new ArrayList<>();
+      new HcsDidTopicListener(DID_TOPIC_ID)
+              .setArchive(archive)
+              .setEndSequenceNumber(2)
+              .onDecrypt((m, i) -> AesEncryptionUtil.decrypt(m, secret))
+              .setMetrics(metrics)
+              .subscribe(null, received::add);
+
+      assertEquals(2, received.size());
+      assertEquals(did.toDid(), received.get(0).open().getDid());
+      assertEquals(2, metrics.count(IdentityMetrics.Stage.PARSE.name()));
+      assertEquals(1, metrics.count(IdentityMetrics.Stage.DECRYPT.name()));
+      assertEquals(2, metrics.count(IdentityMetrics.Stage.DOCUMENT.name()));
+      assertEquals(2, metrics.count(IdentityMetrics.Stage.VERIFY.name()));
+    }
+  }
+
+  @Test
+  void testMetricsMustBeProvided() {
+    assertThrows(IllegalArgumentException.class, () -> new HcsDidTopicListener(DID_TOPIC_ID).setMetrics(null));
+  }
+
+  private static byte[] didMessage(final PrivateKey didRootKey, final PrivateKey signingKey) {
+    HcsDid did = new HcsDid("testnet", didRootKey.getPublicKey(), FileId.fromString("0.0.1"));
+    return HcsDidMessage.fromDidDocumentJson(did.generateDidDocument().toJson(), DidMethodOperation.CREATE)
+            .sign(signingKey::sign);
+  }
+
+  /**
+   * Counts recorded events by their name, stage or rejection reason.
+   */
+  private static final class RecordingMetrics implements IdentityMetrics {
+    private final Map<String, AtomicLong> counters = new ConcurrentHashMap<>();
+
+    @Override
+    public void messageReceived(final TopicId topicId) {
+      increment("received");
+    }
+
+    @Override
+    public void messageRejected(final TopicId topicId, final RejectionReason reason) {
+      increment(reason.name());
+    }
+
+    @Override
+    public void recordLatency(final TopicId topicId, final Stage stage, final long nanos) {
+      increment(stage.name());
+    }
+
+    long count(final String name) {
+      AtomicLong counter = counters.get(name);
+      return counter == null ? 0 : counter.get();
+    }
+
+    private void increment(final String name) {
+      counters.computeIfAbsent(name, k -> new AtomicLong()).incrementAndGet();
+    }
+  }
+}
@@ -0,0 +1,141 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.TIMESTAMP;
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.timestamp;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests persistence, crash recovery and compaction of the log-structured identity state store.
+ */
+public class LogStructuredStateStoreTest {
+  private static final String CREDENTIAL_HASH = "AvvNLoDTLbbCaQp8jUY9YLQmK8w7jnmaeX8VxFWZRmcX";
+
+  @TempDir
+  Path directory;
+
+  @Test
+  void testStateIsRecoveredAfterReopen() throws IOException {
+    Path file = directory.resolve("vc.log");
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      store.put(CREDENTIAL_HASH, envelope(HcsVcOperation.ISSUE));
+      assertTrue(store.addSignature("signature", TIMESTAMP));
+      assertFalse(store.addSignature("signature", TIMESTAMP));
+      store.advance(TIMESTAMP, 42);
+    }
+
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      assertEquals(1, store.size());
+      assertEquals(HcsVcOperation.ISSUE, store.get(CREDENTIAL_HASH).open().getOperation());
+      assertNull(store.get("unknown"));
+      assertTrue(store.containsSignature("signature"));
+      assertEquals(TIMESTAMP, store.getLastConsensusTimestamp());
+      assertEquals(42, store.getLastSequenceNumber());
+    }
+  }
+
+  @Test
+  void testTornRecordIsDiscarded() throws IOException {
+    Path file = directory.resolve("vc.log");
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      store.put(CREDENTIAL_HASH, envelope(HcsVcOperation.ISSUE));
+    }
+
+    long validLength = TopicFixtures.appendTornRecord(file, new byte[] {0, 0, 1, 0, 7, 7});
+
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      assertEquals(validLength, Files.size(file));
+      assertEquals(HcsVcOperation.ISSUE, store.get(CREDENTIAL_HASH).open().getOperation());
+      store.put(CREDENTIAL_HASH, envelope(HcsVcOperation.REVOKE));
+    }
+
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      assertEquals(HcsVcOperation.REVOKE, store.get(CREDENTIAL_HASH).open().getOperation());
+    }
+  }
+
+  @Test
+  void testCorruptedRecordFailsRecovery() throws IOException {
+    Path file = directory.resolve("vc.log");
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      store.put(CREDENTIAL_HASH, envelope(HcsVcOperation.ISSUE));
+      store.put(CREDENTIAL_HASH, envelope(HcsVcOperation.REVOKE));
+    }
+
+    // Flip a byte in the payload of the first record, which is followed by another one.
+    byte[] log = Files.readAllBytes(file);
+    log[10] ^= 1;
+    Files.write(file, log);
+
+    assertThrows(IOException.class, () -> new LogStructuredStateStore<>(file, HcsVcMessage.class));
+    assertEquals(log.length, Files.size(file));
+  }
+
+  @Test
+  void testLogIsCompactedInBackground() throws IOException {
+    Path file = directory.resolve("vc.log");
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      List<Runnable> compactions = new ArrayList<>();
+      store.setCompactionThreshold(10).setCompactionExecutor(compactions::add);
+      for (int i = 0; i < 20; i++) {
+        store.advance(timestamp(i), i);
+      }
+      assertEquals(1, compactions.size());
+
+      // The log is only rewritten once the executor runs the compaction.
+      long sizeBeforeCompaction = Files.size(file);
+      store.put(CREDENTIAL_HASH, envelope(HcsVcOperation.ISSUE));
+      compactions.get(0).run();
+      assertTrue(Files.size(file) < sizeBeforeCompaction);
+    }
+
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      assertEquals(HcsVcOperation.ISSUE, store.get(CREDENTIAL_HASH).open().getOperation());
+      assertEquals(timestamp(19), store.getLastConsensusTimestamp());
+    }
+  }
+
+  @Test
+  void testCompactionKeepsLatestState() throws IOException {
+    Path file = directory.resolve("vc.log");
+    long sizeBeforeCompaction;
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      store.setCompactionThreshold(Integer.MAX_VALUE);
+      for (int i = 0; i < 100; i++) {
+        store.put(CREDENTIAL_HASH, envelope(i % 2 == 0 ? HcsVcOperation.SUSPEND : HcsVcOperation.RESUME));
+        store.advance(timestamp(i), i);
+      }
+      sizeBeforeCompaction = Files.size(file);
+
+      store.compact();
+      assertTrue(Files.size(file) < sizeBeforeCompaction / 10);
+      store.addSignature("signature", TIMESTAMP);
+    }
+
+    try (LogStructuredStateStore<HcsVcMessage> store = new LogStructuredStateStore<>(file, HcsVcMessage.class)) {
+      assertEquals(HcsVcOperation.RESUME, store.get(CREDENTIAL_HASH).open().getOperation());
+      assertEquals(timestamp(99), store.getLastConsensusTimestamp());
+      assertEquals(99, store.getLastSequenceNumber());
+      assertTrue(store.containsSignature("signature"));
+    }
+  }
+
+  private static MessageEnvelope<HcsVcMessage> envelope(final HcsVcOperation operation) {
+    MessageEnvelope<HcsVcMessage> envelope = HcsVcMessage.fromCredentialHash(CREDENTIAL_HASH, operation);
+    envelope.open();
+    return envelope;
+  }
+}
@@ -0,0 +1,222 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcTransaction;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import com.hedera.hashgraph.sdk.TopicMessage;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Consumer;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+/**
+ * Tests tracking of message confirmations with a fake topic subscription
+ * and removal of tracked messages by transactions.
+ */
+public class MessageConfirmationTrackerTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1007);
+
+  private FakeListener listener;
+  private Client client;
+  private MessageConfirmationTracker<HcsVcMessage> tracker;
+
+  @BeforeEach
+  void setUp() {
+    listener = new FakeListener();
+    client = Client.forTestnet();
+    tracker = new MessageConfirmationTracker<>(listener, client).setConfirmationTimeout(0);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    tracker.close();
+    client.close();
+  }
+
+  @Test
+  void testConfirmedMessageCompletesItsFuture() throws Exception {
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> first = tracker.track(content("a"));
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> second = tracker.track(content("b"));
+    assertEquals(1, listener.subscriptions);
+    assertEquals(2, tracker.getPendingCount());
+
+    MessageEnvelope<HcsVcMessage> confirmed = listener.confirm(content("a"));
+    assertSame(confirmed, first.get(1, TimeUnit.SECONDS));
+    assertTrue(!second.isDone());
+    assertEquals(1, tracker.getPendingCount());
+  }
+
+  @Test
+  void testCancelledFutureIsNoLongerTracked() {
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> first = tracker.track(content("a"));
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> second = tracker.track(content("a"));
+    assertEquals(1, tracker.getPendingCount());
+
+    first.cancel(false);
+    assertEquals(1, tracker.getPendingCount());
+    second.cancel(false);
+    assertEquals(0, tracker.getPendingCount());
+  }
+
+  @Test
+  void testUnconfirmedMessageTimesOut() {
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> future = tracker.setConfirmationTimeout(50)
+            .track(content("a"));
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof TimeoutException);
+    assertEquals(0, tracker.getPendingCount());
+  }
+
+  @Test
+  void testSubscriptionErrorFailsPendingMessages() {
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> future = tracker.track(content("a"));
+    IllegalStateException error = new IllegalStateException("Stream failed");
+    listener.fail(error);
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+    assertSame(error, e.getCause());
+    assertEquals(0, tracker.getPendingCount());
+    assertEquals(1, listener.unsubscriptions);
+
+    // The next tracked message subscribes again.
+    tracker.track(content("b"));
+    assertEquals(2, listener.subscriptions);
+  }
+
+  @Test
+  void testCloseCancelsPendingMessages() {
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> first = tracker.track(content("a"));
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> second = tracker.track(content("a"));
+    tracker.close();
+
+    assertTrue(first.isCancelled());
+    assertTrue(second.isCancelled());
+    assertEquals(0, tracker.getPendingCount());
+    assertThrows(IllegalStateException.class, () -> tracker.track(content("b")));
+  }
+
+  @Test
+  void testCancelledTransactionIsRemovedFromTracker() throws InterruptedException {
+    CountDownLatch submitting = new CountDownLatch(1);
+    CountDownLatch released = new CountDownLatch(1);
+    ExecutorService executor = Executors.newSingleThreadExecutor();
+    try {
+      CompletableFuture<MessageEnvelope<HcsVcMessage>> future = transaction()
+              .buildAndSignTransaction(tx -> {
+                submitting.countDown();
+                awaitQuietly(released);
+                throw new IllegalStateException("Not submitted in tests");
+              })
+              .executeAsync(client, executor);
+
+      assertTrue(submitting.await(5, TimeUnit.SECONDS));
+      assertEquals(1, tracker.getPendingCount());
+
+      future.cancel(false);
+      assertEquals(0, tracker.getPendingCount());
+    } finally {
+      released.countDown();
+      executor.shutdown();
+    }
+  }
+
+  @Test
+  void testFailedTransactionIsRemovedFromTracker() {
+    CompletableFuture<MessageEnvelope<HcsVcMessage>> future = transaction()
+            .buildAndSignTransaction(tx -> {
+              throw new IllegalStateException("Not submitted in tests");
+            })
+            .executeAsync(client, Runnable::run);
+
+    ExecutionException e = assertThrows(ExecutionException.class, () -> future.get(1, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof IllegalStateException);
+    Awaitility.await().atMost(1, TimeUnit.SECONDS).until(() -> tracker.getPendingCount() == 0);
+  }
+
+  private MessageTransaction<HcsVcMessage> transaction() {
+    PrivateKey key = PrivateKey.generate();
+    return new HcsVcTransaction(TOPIC_ID, HcsVcOperation.ISSUE, "hash", key.getPublicKey())
+            .setSigningKey(key)
+            .setConfirmationTracker(tracker)
+            .onMessageConfirmed(msg -> {
+            });
+  }
+
+  private static byte[] content(final String value) {
+    return value.getBytes(StandardCharsets.UTF_8);
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Listener that is not connected to a mirror node, the test delivers confirmations and errors.
+   */
+  private static final class FakeListener extends MessageListener<HcsVcMessage> {
+    private Consumer<MessageEnvelope<HcsVcMessage>> receiver;
+    private int subscriptions;
+    private int unsubscriptions;
+
+    FakeListener() {
+      super(TOPIC_ID);
+    }
+
+    @Override
+    public MessageListener<HcsVcMessage> subscribe(final Client client,
+                                                   final Consumer<MessageEnvelope<HcsVcMessage>> receiver) {
+      this.receiver = receiver;
+      subscriptions++;
+      return this;
+    }
+
+    @Override
+    public void unsubscribe() {
+      unsubscriptions++;
+    }
+
+    MessageEnvelope<HcsVcMessage> confirm(final byte[] content) {
+      MessageEnvelope<HcsVcMessage> envelope = HcsVcMessage.fromCredentialHash("hash", HcsVcOperation.ISSUE);
+      envelope.mirrorResponse = new SerializableMirrorConsensusResponse(Instant.now(), content, new byte[48], 1);
+      receiver.accept(envelope);
+      return envelope;
+    }
+
+    void fail(final Throwable err) {
+      handleError(err);
+    }
+
+    @Override
+    protected MessageEnvelope<HcsVcMessage> extractMessage(final TopicMessage response) {
+      return null;
+    }
+
+    @Override
+    protected boolean isMessageValid(final MessageEnvelope<HcsVcMessage> message, final TopicMessage response) {
+      return false;
+    }
+  }
+}
@@ -0,0 +1,92 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.gson.JsonSyntaxException;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import java.nio.charset.StandardCharsets;
+import java.util.Base64;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests parsing of message envelopes and verification of their signatures.
+ */
+public class MessageEnvelopeTest {
+  private static final String CREDENTIAL_HASH = "AvvNLoDTLbbCaQp8jUY9YLQmK8w7jnmaeX8VxFWZRmcX";
+
+  @Test
+  void testSignatureIsVerifiedOverOriginalMessageBytes() {
+    PrivateKey privateKey = PrivateKey.generate();
+
+    // Message JSON formatted differently than Gson would serialize it.
+    String messageJson = "{ \"operation\" : \"issue\",\n  \"credentialHash\":\"" + CREDENTIAL_HASH + "\","
+            + " \"timestamp\": \"2021-03-01T10:00:00.000Z\" }";
+    byte[] signature = privateKey.sign(messageJson.getBytes(StandardCharsets.UTF_8));
+    String signatureBase64 = Base64.getEncoder().encodeToString(signature);
+
+    // Members in a different order than the envelope fields.
+    String envelopeJson = "{\"signature\":\"" + signatureBase64 + "\",\n \"message\" : " + messageJson
+            + ", \"mode\":\"plain\", \"unknown\": [1, {\"a\": \"}\"}]}";
+
+    MessageEnvelope<HcsVcMessage> envelope = MessageEnvelope.fromJson(envelopeJson, HcsVcMessage.class);
+
+    assertEquals(MessageMode.PLAIN, envelope.getMode());
+    assertEquals(signatureBase64, envelope.getSignature());
+    assertEquals(CREDENTIAL_HASH, envelope.open().getCredentialHash());
+    assertEquals(HcsVcOperation.ISSUE, envelope.open().getOperation());
+    assertTrue(envelope.isSignatureValid(e -> privateKey.getPublicKey()));
+    assertFalse(envelope.isSignatureValid(e -> PrivateKey.generate().getPublicKey()));
+  }
+
+  @Test
+  void testSignedEnvelopeRoundTrip() {
+    PrivateKey privateKey = PrivateKey.generate();
+    byte[] json = HcsVcMessage.fromCredentialHash(CREDENTIAL_HASH, HcsVcOperation.REVOKE).sign(privateKey);
+
+    MessageEnvelope<HcsVcMessage> envelope = MessageEnvelope.fromJson(json, HcsVcMessage.class);
+
+    assertEquals(HcsVcOperation.REVOKE, envelope.open().getOperation());
+    assertTrue(envelope.isSignatureValid(e -> privateKey.getPublicKey()));
+    assertEquals(new String(json, StandardCharsets.UTF_8), envelope.toJson());
+  }
+
+  @Test
+  void testDiscardedRawMessageIsNotVerified() {
+    PrivateKey privateKey = PrivateKey.generate();
+    byte[] json = HcsVcMessage.fromCredentialHash(CREDENTIAL_HASH, HcsVcOperation.ISSUE).sign(privateKey);
+
+    MessageEnvelope<HcsVcMessage> envelope = MessageEnvelope.fromJson(json, HcsVcMessage.class);
+    assertTrue(envelope.isSignatureValid(e -> privateKey.getPublicKey()));
+
+    envelope.discardRawMessage();
+
+    assertFalse(envelope.isSignatureValid(e -> privateKey.getPublicKey()));
+    assertEquals(CREDENTIAL_HASH, envelope.open().getCredentialHash());
+    assertEquals(new String(json, StandardCharsets.UTF_8), envelope.toJson());
+  }
+
+  @Test
+  void testEnvelopeWithoutMessage() {
+    MessageEnvelope<HcsVcMessage> envelope = MessageEnvelope
+            .fromJson("{\"mode\":\"plain\",\"signature\":\"abc\"}", HcsVcMessage.class);
+
+    assertNull(envelope.open());
+    assertFalse(envelope.isSignatureValid(e -> PrivateKey.generate().getPublicKey()));
+  }
+
+  @Test
+  void testInvalidJson() {
+    assertThrows(JsonSyntaxException.class, () -> MessageEnvelope.fromJson("{\"message\":", HcsVcMessage.class));
+    assertThrows(JsonSyntaxException.class, () -> MessageEnvelope.fromJson("[]", HcsVcMessage.class));
+    assertThrows(JsonSyntaxException.class,
+            () -> MessageEnvelope.fromJson("{\"mode\":\"plain\"} {}", HcsVcMessage.class));
+    assertThrows(JsonSyntaxException.class,
+            () -> MessageEnvelope.fromJson("{\"message\":{\"a\":\"unterminated}", HcsVcMessage.class));
+  }
+}
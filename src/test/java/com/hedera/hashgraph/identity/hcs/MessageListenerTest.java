@@ -0,0 +1,193 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.contents;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.TopicId;
+import com.hedera.hashgraph.sdk.TopicMessage;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests reconnection of topic listeners against the mirror node simulator.
+ */
+public class MessageListenerTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1002);
+  private static final long IDLE_TIMEOUT = 100;
+
+  private MirrorNodeSimulator simulator;
+  private Client client;
+  private SequenceListener listener;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    simulator = new MirrorNodeSimulator();
+    client = simulator.newClient();
+    listener = new SequenceListener(TOPIC_ID);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    listener.unsubscribe();
+    client.close();
+    simulator.close();
+  }
+
+  @Test
+  void testDisconnectsAreResumedWithoutGapsOrDuplicates() {
+    simulator.generate(TOPIC_ID, 100, i -> contents(i))
+            .setSeed(42)
+            .setDuplicateProbability(0.2)
+            .setDisconnectAfter(30);
+
+    List<TopicGap> gaps = Collections.synchronizedList(new ArrayList<>());
+    RunningHashVerifier verifier = new RunningHashVerifier(TOPIC_ID)
+            .setPayerResolver(seq -> simulator.getPayer(TOPIC_ID, seq))
+            .onGap(gaps::add);
+    List<Long> received = Collections.synchronizedList(new ArrayList<>());
+
+    listener.setAutoReconnect(IDLE_TIMEOUT)
+            .setReconnectBackoff(20, 100)
+            .setRunningHashVerifier(verifier)
+            .subscribe(client, envelope -> received.add(envelope.open().sequenceNumber));
+
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() >= 100);
+
+    assertEquals(LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()), received);
+    assertTrue(simulator.getDisconnectCount() >= 3);
+    assertTrue(listener.getReconnectCount() > 0);
+    assertTrue(listener.getDuplicateCount() > 0);
+
+    // Each reconnection after a failed stream waited for the jittered backoff of at least half the initial delay.
+    assertTrue(listener.getTotalGapMillis() >= 10 * listener.getReconnectCount());
+
+    assertTrue(gaps.isEmpty());
+    assertEquals(100, verifier.getVerifiedCount());
+  }
+
+  @Test
+  void testStreamFailedWithUnavailableIsResumedAfterIdleTimeout() {
+    simulator.generate(TOPIC_ID, 10, i -> contents(i))
+            .setDisconnectAfter(5);
+
+    List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+    List<Long> received = Collections.synchronizedList(new ArrayList<>());
+    listener.setAutoReconnect(IDLE_TIMEOUT)
+            .onError(errors::add)
+            .subscribe(client, envelope -> received.add(envelope.open().sequenceNumber));
+
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() >= 10);
+    assertEquals(LongStream.rangeClosed(1, 10).boxed().collect(Collectors.toList()), received);
+    assertTrue(simulator.getDisconnectCount() > 0);
+    assertTrue(listener.getReconnectCount() > 0);
+    assertEquals(10, listener.getReceivedMessagesCount());
+    assertTrue(errors.isEmpty());
+  }
+
+  @Test
+  void testQuietTopicIsNotReconnectedForever() throws InterruptedException {
+    simulator.generate(TOPIC_ID, 5, i -> contents(i));
+
+    List<Long> received = Collections.synchronizedList(new ArrayList<>());
+    listener.setAutoReconnect(IDLE_TIMEOUT)
+            .setReconnectBackoff(10, 20)
+            .subscribe(client, envelope -> received.add(envelope.open().sequenceNumber));
+
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() >= 5);
+    Thread.sleep(20 * IDLE_TIMEOUT);
+    assertEquals(3, listener.getReconnectCount());
+
+    // A new message resumes idle checks.
+    simulator.generate(TOPIC_ID, 1, i -> contents(6));
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() >= 6);
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> listener.getReconnectCount() > 3);
+    assertEquals(6, received.size());
+  }
+
+  @Test
+  void testSlowReceiverIsNotIdle() {
+    simulator.generate(TOPIC_ID, 3, i -> contents(i));
+
+    List<Long> received = Collections.synchronizedList(new ArrayList<>());
+    listener.setAutoReconnect(IDLE_TIMEOUT)
+            .subscribe(client, envelope -> {
+              try {
+                Thread.sleep(3 * IDLE_TIMEOUT);
+              } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+              }
+              received.add(envelope.open().sequenceNumber);
+            });
+
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> received.size() >= 3);
+    assertEquals(0, listener.getReconnectCount());
+    assertEquals(0, listener.getDuplicateCount());
+  }
+
+  @Test
+  void testParallelValidationDeliversInTopicOrder() {
+    simulator.generate(TOPIC_ID, 100, i -> contents(i))
+            .setDisconnectAfter(40);
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Long> received = Collections.synchronizedList(new ArrayList<>());
+      listener.setAutoReconnect(IDLE_TIMEOUT)
+              .setReconnectBackoff(20, 100)
+              .setParallelValidation(executor, 3, 4)
+              .subscribe(client, envelope -> received.add(envelope.open().sequenceNumber));
+
+      Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> received.size() >= 100);
+      assertEquals(LongStream.rangeClosed(1, 100).boxed().collect(Collectors.toList()), received);
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  /**
+   * Listener delivering the sequence numbers of all messages of a topic.
+   */
+  private static final class SequenceListener extends MessageListener<SequenceMessage> {
+    SequenceListener(final TopicId topicId) {
+      super(topicId);
+    }
+
+    @Override
+    protected MessageEnvelope<SequenceMessage> extractMessage(final TopicMessage response) {
+      MessageEnvelope<SequenceMessage> envelope = new MessageEnvelope<>(new SequenceMessage(response.sequenceNumber));
+      envelope.mirrorResponse = new SerializableMirrorConsensusResponse(response);
+      return envelope;
+    }
+
+    @Override
+    protected boolean isMessageValid(final MessageEnvelope<SequenceMessage> message, final TopicMessage response) {
+      return true;
+    }
+  }
+
+  /**
+   * Message holding the sequence number it was received with.
+   */
+  private static final class SequenceMessage extends Message {
+    private static final long serialVersionUID = 1L;
+
+    private final long sequenceNumber;
+
+    SequenceMessage(final long sequenceNumber) {
+      this.sequenceNumber = sequenceNumber;
+    }
+  }
+}
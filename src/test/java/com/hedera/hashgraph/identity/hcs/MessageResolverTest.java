@@ -0,0 +1,121 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcStatusResolver;
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.io.IOException;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests end of topic detection and streaming of final results of resolvers against the mirror node simulator.
+ * Resolutions are given a timeout far longer than the tests wait for them, so they only finish in time
+ * if the end of the topic is detected.
+ */
+public class MessageResolverTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1009);
+  private static final long TIMEOUT = 60_000;
+  private static final int FILLER_COUNT = 50;
+
+  private final PrivateKey issuerKey = PrivateKey.generate();
+  private MirrorNodeSimulator simulator;
+  private Client client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    simulator = new MirrorNodeSimulator();
+    client = simulator.newClient().setOperator(new AccountId(0, 0, 1001), PrivateKey.generate());
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+    simulator.close();
+  }
+
+  @Test
+  void testEndOfTopicDetectionFinishesAtLastMessage() throws Exception {
+    append(message("a", HcsVcOperation.ISSUE), message("b", HcsVcOperation.ISSUE),
+            message("a", HcsVcOperation.REVOKE));
+
+    Map<String, MessageEnvelope<HcsVcMessage>> results = resolver("a", "b")
+            .executeAsync(client)
+            .get(10, TimeUnit.SECONDS);
+
+    assertTrue(simulator.getTopicInfoQueryCount() > 0);
+    assertEquals(3, simulator.getDeliveredCount());
+    assertEquals(HcsVcOperation.REVOKE, results.get("a").open().getOperation());
+    assertEquals(HcsVcOperation.ISSUE, results.get("b").open().getOperation());
+  }
+
+  @Test
+  void testEndOfTopicDetectionSkipsSubscriptionWithoutNewMessages() throws Exception {
+    append(message("a", HcsVcOperation.ISSUE));
+
+    ResolverCheckpoint<HcsVcMessage> checkpoint = new ResolverCheckpoint<>();
+    resolver("a").setCheckpoint(checkpoint).executeAsync(client).get(10, TimeUnit.SECONDS);
+    assertEquals(1, checkpoint.getLastSequenceNumber());
+
+    // The topic did not change since the checkpoint, so nothing is streamed.
+    Map<String, MessageEnvelope<HcsVcMessage>> results = resolver("a")
+            .setCheckpoint(checkpoint)
+            .executeAsync(client)
+            .get(10, TimeUnit.SECONDS);
+
+    assertEquals(1, simulator.getDeliveredCount());
+    assertEquals(HcsVcOperation.ISSUE, results.get("a").open().getOperation());
+  }
+
+  @Test
+  void testStreamingHandsOutFinalResultsBeforeTopicEnds() {
+    append(message("a", HcsVcOperation.ISSUE), message("a", HcsVcOperation.REVOKE));
+    simulator.generate(TOPIC_ID, FILLER_COUNT, i -> message("filler-" + i, HcsVcOperation.ISSUE));
+    append(message("b", HcsVcOperation.ISSUE));
+    simulator.setRate(20);
+
+    Iterator<Map.Entry<String, MessageEnvelope<HcsVcMessage>>> results = resolver("a", "b")
+            .executeStreaming(client);
+
+    // The revoked credential is handed out while the rest of the topic is still being streamed.
+    Map.Entry<String, MessageEnvelope<HcsVcMessage>> first = results.next();
+    assertEquals("a", first.getKey());
+    assertEquals(HcsVcOperation.REVOKE, first.getValue().open().getOperation());
+    assertTrue(simulator.getDeliveredCount() < FILLER_COUNT);
+
+    Map.Entry<String, MessageEnvelope<HcsVcMessage>> second = results.next();
+    assertEquals("b", second.getKey());
+    assertEquals(HcsVcOperation.ISSUE, second.getValue().open().getOperation());
+    assertTrue(!results.hasNext());
+    assertEquals(FILLER_COUNT + 3, simulator.getDeliveredCount());
+  }
+
+  private HcsVcStatusResolver resolver(final String... hashes) {
+    HcsVcStatusResolver resolver = new HcsVcStatusResolver(TOPIC_ID);
+    for (String hash : hashes) {
+      resolver.addCredentialHash(hash);
+    }
+
+    resolver.setEndOfTopicDetection(true)
+            .setTimeout(TIMEOUT);
+    return resolver;
+  }
+
+  private void append(final byte[]... messages) {
+    simulator.generate(TOPIC_ID, messages.length, i -> messages[i]);
+  }
+
+  private byte[] message(final String credentialHash, final HcsVcOperation operation) {
+    return HcsVcMessage.fromCredentialHash(credentialHash, operation).sign(issuerKey);
+  }
+}
@@ -0,0 +1,202 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.Hbar;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.Status;
+import com.hedera.hashgraph.sdk.TopicId;
+import com.hedera.hashgraph.sdk.TransactionId;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests the in-flight limit and retries of the message submitter with scripted submissions.
+ */
+public class MessageSubmitterTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1008);
+  private static final Object TIMEOUT = new Object();
+
+  private final List<ScriptedSubmission> submissions = Collections.synchronizedList(new ArrayList<>());
+  private ExecutorService executor;
+  private Client client;
+  private MessageSubmitter<HcsVcMessage> submitter;
+
+  @BeforeEach
+  void setUp() {
+    executor = Executors.newCachedThreadPool();
+    client = Client.forTestnet();
+    submitter = new MessageSubmitter<HcsVcMessage>(client, TOPIC_ID)
+            .setSigningKey(PrivateKey.generate())
+            .setMaxTransactionFee(new Hbar(2))
+            .setRetryBackoff(1)
+            .setExecutor(executor);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    executor.shutdownNow();
+    client.close();
+  }
+
+  @Test
+  void testCallerIsBlockedAtInFlightLimit() throws Exception {
+    CountDownLatch released = new CountDownLatch(1);
+    submitter.setMaxInFlight(2)
+            .setSubmissionFactory(content -> new ScriptedSubmission(released, Status.OK));
+
+    CompletableFuture<TransactionId> first = submitter.submit(envelope("a"));
+    CompletableFuture<TransactionId> second = submitter.submit(envelope("b"));
+    assertEquals(2, submitter.getInFlightCount());
+
+    List<CompletableFuture<TransactionId>> third = new ArrayList<>();
+    Thread caller = new Thread(() -> third.add(submitter.submit(envelope("c"))));
+    caller.start();
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> caller.getState() == Thread.State.WAITING);
+    assertTrue(third.isEmpty());
+
+    released.countDown();
+    caller.join(5000);
+    assertEquals(1, third.size());
+    first.get(5, TimeUnit.SECONDS);
+    second.get(5, TimeUnit.SECONDS);
+    third.get(0).get(5, TimeUnit.SECONDS);
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> submitter.getInFlightCount() == 0);
+  }
+
+  @Test
+  void testBusyAndTimedOutSubmissionsAreRetriedWithSameTransaction() throws Exception {
+    submitter.setSubmissionFactory(content -> new ScriptedSubmission(null, Status.BUSY, TIMEOUT, Status.OK));
+
+    TransactionId transactionId = submitter.submit(envelope("a")).get(5, TimeUnit.SECONDS);
+    assertEquals(1, submissions.size());
+    assertEquals(3, submissions.get(0).executions);
+    assertSame(submissions.get(0).transactionId, transactionId);
+  }
+
+  @Test
+  void testDuplicateAfterTimeoutIsSuccess() throws Exception {
+    submitter.setSubmissionFactory(content -> new ScriptedSubmission(null, TIMEOUT,
+            Status.DUPLICATE_TRANSACTION));
+
+    TransactionId transactionId = submitter.submit(envelope("a")).get(5, TimeUnit.SECONDS);
+    assertEquals(1, submissions.size());
+    assertSame(submissions.get(0).transactionId, transactionId);
+  }
+
+  @Test
+  void testDuplicateWithoutTimeoutFails() {
+    submitter.setSubmissionFactory(content -> new ScriptedSubmission(null, Status.DUPLICATE_TRANSACTION));
+
+    ExecutionException e = assertThrows(ExecutionException.class,
+            () -> submitter.submit(envelope("a")).get(5, TimeUnit.SECONDS));
+    assertSame(submissions.get(0).rejection, e.getCause());
+  }
+
+  @Test
+  void testExpiredAfterTimeoutFailsWithoutResubmission() {
+    submitter.setSubmissionFactory(content -> new ScriptedSubmission(null, TIMEOUT, Status.TRANSACTION_EXPIRED));
+
+    ExecutionException e = assertThrows(ExecutionException.class,
+            () -> submitter.submit(envelope("a")).get(5, TimeUnit.SECONDS));
+    assertTrue(e.getCause() instanceof TimeoutException);
+    assertEquals(1, submissions.size());
+    assertEquals(2, submissions.get(0).executions);
+  }
+
+  @Test
+  void testExpiredTransactionIsReplaced() throws Exception {
+    List<Object[]> scripts = new LinkedList<>(Arrays.asList(
+            new Object[]{Status.TRANSACTION_EXPIRED}, new Object[]{Status.OK}));
+    submitter.setSubmissionFactory(content -> new ScriptedSubmission(null, scripts.remove(0)));
+
+    TransactionId transactionId = submitter.submit(envelope("a")).get(5, TimeUnit.SECONDS);
+    assertEquals(2, submissions.size());
+    assertSame(submissions.get(1).transactionId, transactionId);
+  }
+
+  @Test
+  void testRetriesAreLimited() {
+    submitter.setMaxRetries(2)
+            .setSubmissionFactory(content -> new ScriptedSubmission(null, Status.BUSY, Status.BUSY, Status.BUSY,
+                    Status.OK));
+
+    assertThrows(ExecutionException.class, () -> submitter.submit(envelope("a")).get(5, TimeUnit.SECONDS));
+    assertEquals(3, submissions.get(0).executions);
+  }
+
+  private static MessageEnvelope<HcsVcMessage> envelope(final String credentialHash) {
+    return HcsVcMessage.fromCredentialHash(credentialHash, HcsVcOperation.ISSUE);
+  }
+
+  /**
+   * Submission that returns the scripted outcomes of consecutive executions, a status or a timeout.
+   */
+  private final class ScriptedSubmission implements MessageSubmitter.Submission {
+    private final TransactionId transactionId = TransactionId.generate(new AccountId(2));
+    private final CountDownLatch released;
+    private final List<Object> outcomes;
+    private Exception rejection;
+    private int executions;
+
+    ScriptedSubmission(final CountDownLatch released, final Object... outcomes) {
+      this.released = released;
+      this.outcomes = new LinkedList<>(Arrays.asList(outcomes));
+      submissions.add(this);
+    }
+
+    @Override
+    public Status execute() throws TimeoutException {
+      if (released != null) {
+        try {
+          released.await(5, TimeUnit.SECONDS);
+        } catch (InterruptedException e) {
+          Thread.currentThread().interrupt();
+        }
+      }
+
+      executions++;
+      Object outcome = outcomes.remove(0);
+      if (outcome == TIMEOUT) {
+        throw new TimeoutException("Scripted timeout");
+      }
+
+      if (outcome != Status.OK) {
+        rejection = new IllegalStateException("Scripted rejection: " + outcome);
+      }
+
+      return (Status) outcome;
+    }
+
+    @Override
+    public TransactionId getTransactionId() {
+      return transactionId;
+    }
+
+    @Override
+    public Exception getRejection() {
+      return rejection;
+    }
+  }
+}
@@ -0,0 +1,1098 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import com.google.common.io.ByteStreams;
+import com.google.protobuf.CodedInputStream;
+import com.google.protobuf.CodedOutputStream;
+import com.google.protobuf.WireFormat;
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.TopicId;
+import io.grpc.MethodDescriptor;
+import io.grpc.Server;
+import io.grpc.ServerBuilder;
+import io.grpc.ServerServiceDefinition;
+import io.grpc.Status;
+import io.grpc.stub.ServerCallStreamObserver;
+import io.grpc.stub.ServerCalls;
+import io.grpc.stub.StreamObserver;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.IntFunction;
+import org.threeten.bp.Instant;
+
+/**
+ * In-process stand-in for the mirror node topic subscription service and the consensus submit and topic info
+ * services of a node, served over gRPC on a local port, so that listeners, resolvers and message transactions can be load-tested
+ * without a Hedera network.
+ * Topics are generated, loaded from a {@link TopicArchive} or filled by submitted messages, which receive
+ * consensus timestamps, sequence numbers and version 3 running hashes the way the network assigns them.
+ * Chunks of messages larger than a single transaction are stored as separate messages with their chunk info,
+ * so that the mirror node client reassembles them.
+ * Subscriptions are streamed at a configurable rate with jitter and can be disrupted by redelivered messages
+ * and disconnects. Messages are encoded on the wire directly, so no generated protobuf classes are needed.
+ */
+public class MirrorNodeSimulator implements AutoCloseable {
+  static final MethodDescriptor<TopicQuery, SerializableMirrorConsensusResponse> SUBSCRIBE_TOPIC =
+          MethodDescriptor.<TopicQuery, SerializableMirrorConsensusResponse>newBuilder()
+                  .setType(MethodDescriptor.MethodType.SERVER_STREAMING)
+                  .setFullMethodName(MethodDescriptor.generateFullMethodName(
+                          "com.hedera.mirror.api.proto.ConsensusService", "subscribeTopic"))
+                  .setRequestMarshaller(new WireMarshaller<>(TopicQuery::encode, TopicQuery::decode))
+                  .setResponseMarshaller(new WireMarshaller<>(MirrorNodeSimulator::clientOnly,
+                          MirrorNodeSimulator::decodeResponse))
+                  .build();
+
+  static final MethodDescriptor<TopicQuery, Optional<ChunkInfo>> SUBSCRIBE_TOPIC_CHUNKS =
+          SUBSCRIBE_TOPIC.toBuilder(new WireMarshaller<>(TopicQuery::encode, TopicQuery::decode),
+                  new WireMarshaller<>(MirrorNodeSimulator::clientOnly, ChunkInfo::decodeResponse)).build();
+
+  private static final MethodDescriptor<TopicQuery, SimulatedMessage> SERVE_TOPIC =
+          SUBSCRIBE_TOPIC.toBuilder(new WireMarshaller<>(TopicQuery::encode, TopicQuery::decode),
+                  new WireMarshaller<SimulatedMessage>(MirrorNodeSimulator::encodeResponse, bytes -> {
+                    throw new IOException("Streamed messages are only decoded by clients.");
+                  })).build();
+
+  static final MethodDescriptor<byte[], byte[]> SUBMIT_MESSAGE =
+          MethodDescriptor.<byte[], byte[]>newBuilder()
+                  .setType(MethodDescriptor.MethodType.UNARY)
+                  .setFullMethodName(MethodDescriptor.generateFullMethodName("proto.ConsensusService", "submitMessage"))
+                  .setRequestMarshaller(new WireMarshaller<>(bytes -> bytes, bytes -> bytes))
+                  .setResponseMarshaller(new WireMarshaller<>(bytes -> bytes, bytes -> bytes))
+                  .build();
+
+  private static final MethodDescriptor<byte[], byte[]> GET_TOPIC_INFO = SUBMIT_MESSAGE.toBuilder()
+          .setFullMethodName(MethodDescriptor.generateFullMethodName("proto.ConsensusService", "getTopicInfo"))
+          .build();
+
+  /**
+   * Account ID of the simulated node.
+   */
+  public static final AccountId NODE_ACCOUNT_ID = new AccountId(3);
+
+  /**
+   * Payer of generated messages.
+   */
+  public static final AccountId DEFAULT_PAYER = new AccountId(2);
+
+  private static final long RUNNING_HASH_VERSION = 3;
+  private static final int RUNNING_HASH_SIZE = 48;
+  private static final long POLL_INTERVAL = 10;
+  private static final int MAX_BURST = 256;
+  private static final int PRECHECK_OK = 0;
+  private static final int QUERY_TOPIC_INFO_FIELD = 50;
+  private static final int RESPONSE_TOPIC_INFO_FIELD = 150;
+  private static final long AUTO_RENEW_PERIOD = 7_776_000;
+
+  private final Map<String, SimulatedTopic> topics;
+  private final ScheduledExecutorService executor;
+  private final Server server;
+  private final AtomicLong deliveredCount;
+  private final AtomicLong duplicateCount;
+  private final AtomicLong disconnectCount;
+  private final AtomicLong submittedCount;
+  private final AtomicLong topicInfoQueryCount;
+  private volatile double messagesPerSecond;
+  private volatile long jitterMillis;
+  private volatile double duplicateProbability;
+  private volatile long disconnectAfter;
+  private volatile Random random;
+
+  /**
+   * Starts a simulator on a free local port.
+   *
+   * @throws IOException If the server could not be started.
+   */
+  public MirrorNodeSimulator() throws IOException {
+    this.topics = new ConcurrentHashMap<>();
+    this.executor = Executors.newScheduledThreadPool(2, r -> {
+      Thread thread = new Thread(r, "mirror-node-simulator");
+      thread.setDaemon(true);
+      return thread;
+    });
+    this.deliveredCount = new AtomicLong();
+    this.duplicateCount = new AtomicLong();
+    this.disconnectCount = new AtomicLong();
+    this.submittedCount = new AtomicLong();
+    this.topicInfoQueryCount = new AtomicLong();
+    this.random = new Random();
+
+    ServerServiceDefinition mirrorService = ServerServiceDefinition
+            .builder(SERVE_TOPIC.getServiceName())
+            .addMethod(SERVE_TOPIC, ServerCalls.asyncServerStreamingCall(this::subscribeTopic))
+            .build();
+    ServerServiceDefinition consensusService = ServerServiceDefinition
+            .builder(SUBMIT_MESSAGE.getServiceName())
+            .addMethod(SUBMIT_MESSAGE, ServerCalls.asyncUnaryCall(this::submitMessage))
+            .addMethod(GET_TOPIC_INFO, ServerCalls.asyncUnaryCall(this::getTopicInfo))
+            .build();
+
+    this.server = ServerBuilder.forPort(0)
+            .addService(mirrorService)
+            .addService(consensusService)
+            .build()
+            .start();
+  }
+
+  /**
+   * Creates a client that submits transactions to and subscribes to topics of this simulator.
+   * An operator must still be set on the client to submit messages and to query topic info.
+   *
+   * @return The client.
+   */
+  public Client newClient() {
+    return Client.forNetwork(Collections.singletonMap(getAddress(), NODE_ACCOUNT_ID))
+            .setMirrorNetwork(Collections.singletonList(getAddress()));
+  }
+
+  public String getAddress() {
+    return "localhost:" + server.getPort();
+  }
+
+  public int getPort() {
+    return server.getPort();
+  }
+
+  /**
+   * Appends generated messages to the given topic, one millisecond apart in consensus time and paid by
+   * {@link #DEFAULT_PAYER}.
+   *
+   * @param topicId  The topic ID.
+   * @param count    The number of messages.
+   * @param contents Provider of the contents of the message at the given index.
+   * @return This simulator instance.
+   */
+  public MirrorNodeSimulator generate(final TopicId topicId, final int count, final IntFunction<byte[]> contents) {
+    SimulatedTopic topic = getTopic(topicId);
+    for (int i = 0; i < count; i++) {
+      topic.append(DEFAULT_PAYER, contents.apply(i), null, 1_000_000);
+    }
+
+    return this;
+  }
+
+  /**
+   * Appends all messages of a recorded topic archive to the given topic, keeping their consensus timestamps,
+   * sequence numbers and running hashes. The topic must not contain any messages yet.
+   *
+   * @param topicId The topic ID.
+   * @param archive The archive of a real topic.
+   * @return This simulator instance.
+   * @throws IOException If the archive could not be read.
+   */
+  public MirrorNodeSimulator load(final TopicId topicId, final TopicArchive archive) throws IOException {
+    SimulatedTopic topic = getTopic(topicId);
+    archive.replay(topic::add);
+    return this;
+  }
+
+  /**
+   * Defines the rate at which messages are streamed to each subscription. Default is 0, that is unlimited.
+   *
+   * @param messagesPerSecond The number of messages per second per subscription, 0 for unlimited.
+   * @return This simulator instance.
+   */
+  public MirrorNodeSimulator setRate(final double messagesPerSecond) {
+    this.messagesPerSecond = messagesPerSecond;
+    return this;
+  }
+
+  /**
+   * Defines the maximum random delay added to each message of a rate-limited subscription.
+   *
+   * @param jitterMillis The maximum jitter in milliseconds.
+   * @return This simulator instance.
+   */
+  public MirrorNodeSimulator setJitter(final long jitterMillis) {
+    this.jitterMillis = jitterMillis;
+    return this;
+  }
+
+  /**
+   * Defines the probability that a message is streamed again right after it was streamed.
+   *
+   * @param duplicateProbability The probability between 0 and 1.
+   * @return This simulator instance.
+   */
+  public MirrorNodeSimulator setDuplicateProbability(final double duplicateProbability) {
+    this.duplicateProbability = duplicateProbability;
+    return this;
+  }
+
+  /**
+   * Defines the number of messages after which each subscription is failed with {@link Status#UNAVAILABLE}.
+   *
+   * @param disconnectAfter The number of messages streamed before disconnecting, 0 to never disconnect.
+   * @return This simulator instance.
+   */
+  public MirrorNodeSimulator setDisconnectAfter(final long disconnectAfter) {
+    this.disconnectAfter = disconnectAfter;
+    return this;
+  }
+
+  /**
+   * Defines the seed of random jitter and duplicates, so that disruptions are reproducible.
+   *
+   * @param seed The random seed.
+   * @return This simulator instance.
+   */
+  public MirrorNodeSimulator setSeed(final long seed) {
+    this.random = new Random(seed);
+    return this;
+  }
+
+  /**
+   * Returns the payer of the given message, which can serve as the payer resolver of a {@link RunningHashVerifier}.
+   *
+   * @param topicId        The topic ID.
+   * @param sequenceNumber The sequence number of the message.
+   * @return The payer account or NULL if the message does not exist or was loaded from an archive.
+   */
+  public AccountId getPayer(final TopicId topicId, final long sequenceNumber) {
+    SimulatedMessage message = getTopic(topicId).get((int) sequenceNumber - 1);
+    return message == null ? null : message.payer;
+  }
+
+  /**
+   * Returns the number of messages in the given topic.
+   *
+   * @param topicId The topic ID.
+   * @return The number of messages.
+   */
+  public int getMessageCount(final TopicId topicId) {
+    return getTopic(topicId).size();
+  }
+
+  public long getDeliveredCount() {
+    return deliveredCount.get();
+  }
+
+  public long getDuplicateCount() {
+    return duplicateCount.get();
+  }
+
+  public long getDisconnectCount() {
+    return disconnectCount.get();
+  }
+
+  public long getTopicInfoQueryCount() {
+    return topicInfoQueryCount.get();
+  }
+
+  public long getSubmittedCount() {
+    return submittedCount.get();
+  }
+
+  @Override
+  public void close() {
+    server.shutdownNow();
+    executor.shutdownNow();
+  }
+
+  private SimulatedTopic getTopic(final TopicId topicId) {
+    return topics.computeIfAbsent(topicId.toString(), id -> new SimulatedTopic(topicId));
+  }
+
+  /**
+   * Starts streaming messages of the queried topic.
+   *
+   * @param query    The topic query.
+   * @param observer The response stream.
+   */
+  private void subscribeTopic(final TopicQuery query, final StreamObserver<SimulatedMessage> observer) {
+    if (query.topicId == null) {
+      observer.onError(Status.INVALID_ARGUMENT.withDescription("Topic ID is missing").asRuntimeException());
+      return;
+    }
+
+    Subscription subscription = new Subscription(getTopic(query.topicId), query,
+            (ServerCallStreamObserver<SimulatedMessage>) observer);
+    schedule(subscription, 0);
+  }
+
+  /**
+   * Appends a submitted message to its topic, with the consensus timestamp of its arrival.
+   *
+   * @param transaction The encoded transaction.
+   * @param observer    The response stream.
+   */
+  private void submitMessage(final byte[] transaction, final StreamObserver<byte[]> observer) {
+    SubmittedMessage submitted;
+    try {
+      submitted = SubmittedMessage.decode(transaction);
+    } catch (IOException e) {
+      observer.onError(Status.INVALID_ARGUMENT.withCause(e).asRuntimeException());
+      return;
+    }
+
+    if (submitted.topicId == null || submitted.message == null) {
+      observer.onError(Status.INVALID_ARGUMENT.withDescription("Not a topic message submission").asRuntimeException());
+      return;
+    }
+
+    getTopic(submitted.topicId).append(submitted.payer, submitted.message, submitted.chunkInfo, 0);
+    submittedCount.incrementAndGet();
+
+    observer.onNext(encode(out -> out.writeEnum(1, PRECHECK_OK)));
+    observer.onCompleted();
+  }
+
+  /**
+   * Answers a topic info query, or its cost query, with the current sequence number and running hash of the topic.
+   * Queries are free and their payment is not checked.
+   *
+   * @param query    The encoded query.
+   * @param observer The response stream.
+   */
+  private void getTopicInfo(final byte[] query, final StreamObserver<byte[]> observer) {
+    TopicId topicId;
+    int responseType = 0;
+    try {
+      byte[] topicInfoQuery = readField(query, QUERY_TOPIC_INFO_FIELD);
+      byte[] encodedTopicId = topicInfoQuery == null ? null : readField(topicInfoQuery, 2);
+      if (encodedTopicId == null) {
+        observer.onError(Status.INVALID_ARGUMENT.withDescription("Not a topic info query").asRuntimeException());
+        return;
+      }
+
+      topicId = decodeTopicId(encodedTopicId);
+      byte[] header = readField(topicInfoQuery, 1);
+      CodedInputStream in = CodedInputStream.newInstance(header == null ? new byte[0] : header);
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        if (WireFormat.getTagFieldNumber(tag) == 2) {
+          responseType = in.readEnum();
+        } else {
+          in.skipField(tag);
+        }
+      }
+    } catch (IOException e) {
+      observer.onError(Status.INVALID_ARGUMENT.withCause(e).asRuntimeException());
+      return;
+    }
+
+    topicInfoQueryCount.incrementAndGet();
+    SimulatedTopic topic = getTopic(topicId);
+    byte[] topicInfo = topic.encodeInfo();
+    int type = responseType;
+    byte[] response = encode(out -> {
+      out.writeEnum(1, PRECHECK_OK);
+      out.writeEnum(2, type);
+      out.writeUInt64(3, 0);
+    });
+
+    observer.onNext(encode(out -> out.writeByteArray(RESPONSE_TOPIC_INFO_FIELD, encode(info -> {
+      info.writeByteArray(1, response);
+      info.writeByteArray(2, encodeTopicId(topicId));
+      info.writeByteArray(5, topicInfo);
+    }))));
+    observer.onCompleted();
+  }
+
+  private void schedule(final Runnable task, final long delay) {
+    try {
+      executor.schedule(task, delay, TimeUnit.MILLISECONDS);
+    } catch (RejectedExecutionException e) {
+      // The simulator was closed.
+    }
+  }
+
+  /**
+   * Returns the delay before the next message of a rate-limited subscription.
+   *
+   * @return The delay in milliseconds.
+   */
+  private long nextDelay() {
+    double rate = messagesPerSecond;
+    long delay = rate > 0 ? (long) (1000 / rate) : 0;
+    long jitter = jitterMillis;
+    return jitter > 0 ? delay + (long) (random.nextDouble() * jitter) : delay;
+  }
+
+  /**
+   * A topic with its messages in consensus order.
+   */
+  private static final class SimulatedTopic {
+    private final TopicId topicId;
+    private final List<SimulatedMessage> messages;
+    private final MessageDigest digest;
+    private byte[] runningHash;
+    private Instant lastConsensusTimestamp;
+
+    SimulatedTopic(final TopicId topicId) {
+      this.topicId = topicId;
+      this.messages = new ArrayList<>();
+      this.runningHash = new byte[RUNNING_HASH_SIZE];
+      try {
+        this.digest = MessageDigest.getInstance("SHA-384");
+      } catch (NoSuchAlgorithmException e) {
+        throw new IllegalStateException("SHA-384 is not available.", e);
+      }
+    }
+
+    /**
+     * Appends a new message, assigning it the next consensus timestamp, sequence number and running hash.
+     *
+     * @param payer     The payer of the message.
+     * @param contents  The message contents.
+     * @param chunkInfo The encoded chunk info of the message or NULL if it was submitted in a single transaction.
+     * @param spacing   The minimum consensus time in nanoseconds since the previous message, 0 to use the clock.
+     */
+    synchronized void append(final AccountId payer, final byte[] contents, final byte[] chunkInfo,
+                             final long spacing) {
+      Instant timestamp;
+      if (lastConsensusTimestamp == null) {
+        timestamp = spacing > 0 ? Instant.now().minusSeconds(3600) : Instant.now();
+      } else if (spacing > 0) {
+        timestamp = lastConsensusTimestamp.plusNanos(spacing);
+      } else {
+        Instant now = Instant.now();
+        timestamp = now.isAfter(lastConsensusTimestamp) ? now : lastConsensusTimestamp.plusNanos(1);
+      }
+
+      long sequenceNumber = messages.size() + 1L;
+      runningHash = runningHash(payer, timestamp, sequenceNumber, contents);
+      lastConsensusTimestamp = timestamp;
+      messages.add(new SimulatedMessage(payer,
+              new SerializableMirrorConsensusResponse(timestamp, contents, runningHash, sequenceNumber), chunkInfo));
+    }
+
+    /**
+     * Adds a recorded message as it is.
+     *
+     * @param response The recorded message.
+     */
+    synchronized void add(final SerializableMirrorConsensusResponse response) {
+      messages.add(new SimulatedMessage(null, response, null));
+      runningHash = response.runningHash;
+      lastConsensusTimestamp = response.consensusTimestamp;
+    }
+
+    synchronized SimulatedMessage get(final int index) {
+      return index >= 0 && index < messages.size() ? messages.get(index) : null;
+    }
+
+    synchronized int size() {
+      return messages.size();
+    }
+
+    /**
+     * Encodes the topic info with the sequence number and running hash of the last message.
+     * The topic has no memo and is administered and paid by the default payer with a key of zeros.
+     *
+     * @return The encoded topic info.
+     */
+    synchronized byte[] encodeInfo() {
+      byte[] key = encode(out -> out.writeByteArray(2, new byte[32]));
+      Instant expiration = (lastConsensusTimestamp == null ? Instant.now() : lastConsensusTimestamp)
+              .plusSeconds(AUTO_RENEW_PERIOD);
+      long sequenceNumber = messages.size();
+      byte[] hash = runningHash;
+
+      return encode(out -> {
+        out.writeString(1, "");
+        out.writeByteArray(2, hash);
+        out.writeUInt64(3, sequenceNumber);
+        out.writeByteArray(4, encodeTimestamp(expiration));
+        out.writeByteArray(5, key);
+        out.writeByteArray(6, key);
+        out.writeByteArray(7, encode(period -> period.writeInt64(1, AUTO_RENEW_PERIOD)));
+        out.writeByteArray(8, encodeEntityId(DEFAULT_PAYER.shard, DEFAULT_PAYER.realm, DEFAULT_PAYER.num));
+      });
+    }
+
+    /**
+     * Finds the index of the first message at or after the given consensus time.
+     *
+     * @param startTime The start time, NULL for the beginning of the topic.
+     * @return The index of the message.
+     */
+    synchronized int indexOf(final Instant startTime) {
+      if (startTime == null) {
+        return 0;
+      }
+
+      int low = 0;
+      int high = messages.size();
+      while (low < high) {
+        int mid = (low + high) >>> 1;
+        if (messages.get(mid).response.consensusTimestamp.isBefore(startTime)) {
+          low = mid + 1;
+        } else {
+          high = mid;
+        }
+      }
+
+      return low;
+    }
+
+    private byte[] runningHash(final AccountId payer, final Instant timestamp, final long sequenceNumber,
+                               final byte[] contents) {
+      byte[] contentsHash = digest.digest(contents);
+      ByteBuffer buffer = ByteBuffer.allocate(RUNNING_HASH_SIZE + 9 * Long.BYTES + Integer.BYTES + RUNNING_HASH_SIZE)
+              .put(runningHash)
+              .putLong(RUNNING_HASH_VERSION)
+              .putLong(payer.shard)
+              .putLong(payer.realm)
+              .putLong(payer.num)
+              .putLong(topicId.shard)
+              .putLong(topicId.realm)
+              .putLong(topicId.num)
+              .putLong(timestamp.getEpochSecond())
+              .putInt(timestamp.getNano())
+              .putLong(sequenceNumber)
+              .put(contentsHash);
+
+      return digest.digest(buffer.array());
+    }
+  }
+
+  /**
+   * A message of a simulated topic with its payer and chunk info.
+   */
+  private static final class SimulatedMessage {
+    private final AccountId payer;
+    private final SerializableMirrorConsensusResponse response;
+    private final byte[] chunkInfo;
+
+    SimulatedMessage(final AccountId payer, final SerializableMirrorConsensusResponse response,
+                     final byte[] chunkInfo) {
+      this.payer = payer;
+      this.response = response;
+      this.chunkInfo = chunkInfo;
+    }
+  }
+
+  /**
+   * Streams messages of one topic query, rescheduling itself for every message or burst of messages.
+   */
+  private final class Subscription implements Runnable {
+    private final SimulatedTopic topic;
+    private final TopicQuery query;
+    private final ServerCallStreamObserver<SimulatedMessage> observer;
+    private volatile boolean cancelled;
+    private int index;
+    private long sent;
+
+    Subscription(final SimulatedTopic topic, final TopicQuery query,
+                 final ServerCallStreamObserver<SimulatedMessage> observer) {
+      this.topic = topic;
+      this.query = query;
+      this.observer = observer;
+      this.index = topic.indexOf(query.startTime);
+      observer.setOnCancelHandler(() -> cancelled = true);
+    }
+
+    @Override
+    public void run() {
+      int burst = messagesPerSecond > 0 ? 1 : MAX_BURST;
+      for (int i = 0; i < burst; i++) {
+        if (cancelled) {
+          return;
+        }
+
+        SimulatedMessage message = topic.get(index);
+        if (message == null) {
+          // Wait for new messages, like the mirror node does for open-ended queries.
+          schedule(this, POLL_INTERVAL);
+          return;
+        }
+
+        SerializableMirrorConsensusResponse response = message.response;
+        if (query.endTime != null && !response.consensusTimestamp.isBefore(query.endTime)) {
+          observer.onCompleted();
+          return;
+        }
+
+        observer.onNext(message);
+        deliveredCount.incrementAndGet();
+        if (duplicateProbability > 0 && random.nextDouble() < duplicateProbability) {
+          observer.onNext(message);
+          duplicateCount.incrementAndGet();
+        }
+
+        index++;
+        sent++;
+        if (query.limit > 0 && sent >= query.limit) {
+          observer.onCompleted();
+          return;
+        }
+
+        if (disconnectAfter > 0 && sent % disconnectAfter == 0) {
+          disconnectCount.incrementAndGet();
+          observer.onError(Status.UNAVAILABLE.withDescription("Simulated disconnect").asRuntimeException());
+          return;
+        }
+      }
+
+      schedule(this, nextDelay());
+    }
+  }
+
+  /**
+   * Topic subscription query of the mirror node API.
+   */
+  static final class TopicQuery {
+    private final TopicId topicId;
+    private final Instant startTime;
+    private final Instant endTime;
+    private final long limit;
+
+    TopicQuery(final TopicId topicId, final Instant startTime, final Instant endTime, final long limit) {
+      this.topicId = topicId;
+      this.startTime = startTime;
+      this.endTime = endTime;
+      this.limit = limit;
+    }
+
+    byte[] encode() {
+      return MirrorNodeSimulator.encode(out -> {
+        out.writeByteArray(1, encodeTopicId(topicId));
+        if (startTime != null) {
+          out.writeByteArray(2, encodeTimestamp(startTime));
+        }
+        if (endTime != null) {
+          out.writeByteArray(3, encodeTimestamp(endTime));
+        }
+        if (limit > 0) {
+          out.writeUInt64(4, limit);
+        }
+      });
+    }
+
+    static TopicQuery decode(final byte[] bytes) throws IOException {
+      TopicId topicId = null;
+      Instant startTime = null;
+      Instant endTime = null;
+      long limit = 0;
+
+      CodedInputStream in = CodedInputStream.newInstance(bytes);
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case 1:
+            topicId = decodeTopicId(in.readByteArray());
+            break;
+          case 2:
+            startTime = decodeTimestamp(in.readByteArray());
+            break;
+          case 3:
+            endTime = decodeTimestamp(in.readByteArray());
+            break;
+          case 4:
+            limit = in.readUInt64();
+            break;
+          default:
+            in.skipField(tag);
+        }
+      }
+
+      return new TopicQuery(topicId, startTime, endTime, limit);
+    }
+  }
+
+  /**
+   * The topic, message and payer of a submitted topic message transaction.
+   */
+  static final class SubmittedMessage {
+    private AccountId payer;
+    private TopicId topicId;
+    private byte[] message;
+    private byte[] chunkInfo;
+
+    /**
+     * Encodes a topic message submission the way the SDK does, with an empty signature map.
+     *
+     * @param payer   The payer account.
+     * @param topicId The topic ID.
+     * @param message The message contents.
+     * @return The encoded transaction.
+     */
+    static byte[] encode(final AccountId payer, final TopicId topicId, final byte[] message) {
+      return encode(payer, topicId, message, null);
+    }
+
+    /**
+     * Encodes a chunk of a topic message submission the way the SDK does, with an empty signature map.
+     *
+     * @param payer     The payer account.
+     * @param topicId   The topic ID.
+     * @param message   The contents of the chunk.
+     * @param chunkInfo The chunk info or NULL if the message is submitted in a single transaction.
+     * @return The encoded transaction.
+     */
+    static byte[] encode(final AccountId payer, final TopicId topicId, final byte[] message,
+                         final ChunkInfo chunkInfo) {
+      byte[] transactionId = encodeTransactionId(payer, Instant.now());
+      byte[] submitBody = MirrorNodeSimulator.encode(out -> {
+        out.writeByteArray(1, encodeTopicId(topicId));
+        out.writeByteArray(2, message);
+        if (chunkInfo != null) {
+          out.writeByteArray(3, chunkInfo.encode());
+        }
+      });
+      byte[] body = MirrorNodeSimulator.encode(out -> {
+        out.writeByteArray(1, transactionId);
+        out.writeByteArray(27, submitBody);
+      });
+      byte[] signedTransaction = MirrorNodeSimulator.encode(out -> out.writeByteArray(1, body));
+
+      return MirrorNodeSimulator.encode(out -> out.writeByteArray(5, signedTransaction));
+    }
+
+    /**
+     * Decodes a transaction, either from its signed transaction bytes or from the deprecated body bytes.
+     *
+     * @param transaction The encoded transaction.
+     * @return The submitted message.
+     * @throws IOException If the transaction is malformed.
+     */
+    static SubmittedMessage decode(final byte[] transaction) throws IOException {
+      byte[] body = null;
+      CodedInputStream in = CodedInputStream.newInstance(transaction);
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        int field = WireFormat.getTagFieldNumber(tag);
+        if (field == 5) {
+          body = readField(in.readByteArray(), 1);
+        } else if (field == 4 && body == null) {
+          body = in.readByteArray();
+        } else {
+          in.skipField(tag);
+        }
+      }
+
+      SubmittedMessage result = new SubmittedMessage();
+      if (body == null) {
+        return result;
+      }
+
+      in = CodedInputStream.newInstance(body);
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        int field = WireFormat.getTagFieldNumber(tag);
+        if (field == 1) {
+          byte[] payer = readField(in.readByteArray(), 2);
+          result.payer = payer == null ? DEFAULT_PAYER : decodeAccountId(payer);
+        } else if (field == 27) {
+          CodedInputStream submit = CodedInputStream.newInstance(in.readByteArray());
+          for (int t = submit.readTag(); t != 0; t = submit.readTag()) {
+            int f = WireFormat.getTagFieldNumber(t);
+            if (f == 1) {
+              result.topicId = decodeTopicId(submit.readByteArray());
+            } else if (f == 2) {
+              result.message = submit.readByteArray();
+            } else if (f == 3) {
+              result.chunkInfo = submit.readByteArray();
+            } else {
+              submit.skipField(t);
+            }
+          }
+        } else {
+          in.skipField(tag);
+        }
+      }
+
+      if (result.payer == null) {
+        result.payer = DEFAULT_PAYER;
+      }
+
+      return result;
+    }
+  }
+
+  /**
+   * Chunk info of a message submitted in multiple transactions.
+   */
+  static final class ChunkInfo {
+    private final byte[] initialTransactionId;
+    private final int total;
+    private final int number;
+
+    /**
+     * Creates the chunk info of a chunk of a message.
+     *
+     * @param payer      The payer of the message.
+     * @param validStart The valid start of the transaction of the first chunk.
+     * @param total      The number of chunks.
+     * @param number     The number of this chunk, starting with 1.
+     */
+    ChunkInfo(final AccountId payer, final Instant validStart, final int total, final int number) {
+      this(encodeTransactionId(payer, validStart), total, number);
+    }
+
+    private ChunkInfo(final byte[] initialTransactionId, final int total, final int number) {
+      this.initialTransactionId = initialTransactionId;
+      this.total = total;
+      this.number = number;
+    }
+
+    byte[] getInitialTransactionId() {
+      return initialTransactionId;
+    }
+
+    int getTotal() {
+      return total;
+    }
+
+    int getNumber() {
+      return number;
+    }
+
+    byte[] encode() {
+      return MirrorNodeSimulator.encode(out -> {
+        out.writeByteArray(1, initialTransactionId);
+        out.writeInt32(2, total);
+        out.writeInt32(3, number);
+      });
+    }
+
+    static ChunkInfo decode(final byte[] bytes) throws IOException {
+      byte[] initialTransactionId = null;
+      int total = 0;
+      int number = 0;
+
+      CodedInputStream in = CodedInputStream.newInstance(bytes);
+      for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+        switch (WireFormat.getTagFieldNumber(tag)) {
+          case 1:
+            initialTransactionId = in.readByteArray();
+            break;
+          case 2:
+            total = in.readInt32();
+            break;
+          case 3:
+            number = in.readInt32();
+            break;
+          default:
+            in.skipField(tag);
+        }
+      }
+
+      return new ChunkInfo(initialTransactionId, total, number);
+    }
+
+    /**
+     * Decodes the chunk info of a streamed message.
+     *
+     * @param bytes The encoded mirror node response.
+     * @return The chunk info or empty if the message was submitted in a single transaction.
+     * @throws IOException If the response is malformed.
+     */
+    static Optional<ChunkInfo> decodeResponse(final byte[] bytes) throws IOException {
+      byte[] chunkInfo = readField(bytes, 6);
+      return chunkInfo == null ? Optional.empty() : Optional.of(decode(chunkInfo));
+    }
+  }
+
+  private static byte[] encodeResponse(final SimulatedMessage message) {
+    SerializableMirrorConsensusResponse response = message.response;
+    return encode(out -> {
+      out.writeByteArray(1, encodeTimestamp(response.consensusTimestamp));
+      out.writeByteArray(2, response.message);
+      out.writeByteArray(3, response.runningHash);
+      out.writeUInt64(4, response.sequenceNumber);
+      out.writeUInt64(5, RUNNING_HASH_VERSION);
+      if (message.chunkInfo != null) {
+        out.writeByteArray(6, message.chunkInfo);
+      }
+    });
+  }
+
+  private static SerializableMirrorConsensusResponse decodeResponse(final byte[] bytes) throws IOException {
+    Instant consensusTimestamp = null;
+    byte[] message = null;
+    byte[] runningHash = null;
+    long sequenceNumber = 0;
+
+    CodedInputStream in = CodedInputStream.newInstance(bytes);
+    for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+      switch (WireFormat.getTagFieldNumber(tag)) {
+        case 1:
+          consensusTimestamp = decodeTimestamp(in.readByteArray());
+          break;
+        case 2:
+          message = in.readByteArray();
+          break;
+        case 3:
+          runningHash = in.readByteArray();
+          break;
+        case 4:
+          sequenceNumber = in.readUInt64();
+          break;
+        default:
+          in.skipField(tag);
+      }
+    }
+
+    return new SerializableMirrorConsensusResponse(consensusTimestamp, message, runningHash, sequenceNumber);
+  }
+
+  private static byte[] encodeTransactionId(final AccountId payer, final Instant validStart) {
+    return encode(out -> {
+      out.writeByteArray(1, encodeTimestamp(validStart));
+      out.writeByteArray(2, encodeEntityId(payer.shard, payer.realm, payer.num));
+    });
+  }
+
+  private static byte[] encodeTimestamp(final Instant timestamp) {
+    return encode(out -> {
+      out.writeInt64(1, timestamp.getEpochSecond());
+      out.writeInt32(2, timestamp.getNano());
+    });
+  }
+
+  private static Instant decodeTimestamp(final byte[] bytes) throws IOException {
+    long seconds = 0;
+    int nanos = 0;
+    CodedInputStream in = CodedInputStream.newInstance(bytes);
+    for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+      int field = WireFormat.getTagFieldNumber(tag);
+      if (field == 1) {
+        seconds = in.readInt64();
+      } else if (field == 2) {
+        nanos = in.readInt32();
+      } else {
+        in.skipField(tag);
+      }
+    }
+
+    return Instant.ofEpochSecond(seconds, nanos);
+  }
+
+  private static byte[] encodeTopicId(final TopicId topicId) {
+    return encodeEntityId(topicId.shard, topicId.realm, topicId.num);
+  }
+
+  private static TopicId decodeTopicId(final byte[] bytes) throws IOException {
+    long[] id = decodeEntityId(bytes);
+    return new TopicId(id[0], id[1], id[2]);
+  }
+
+  private static AccountId decodeAccountId(final byte[] bytes) throws IOException {
+    long[] id = decodeEntityId(bytes);
+    return new AccountId(id[0], id[1], id[2]);
+  }
+
+  private static byte[] encodeEntityId(final long shard, final long realm, final long num) {
+    return encode(out -> {
+      out.writeInt64(1, shard);
+      out.writeInt64(2, realm);
+      out.writeInt64(3, num);
+    });
+  }
+
+  private static long[] decodeEntityId(final byte[] bytes) throws IOException {
+    long[] id = new long[3];
+    CodedInputStream in = CodedInputStream.newInstance(bytes);
+    for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+      int field = WireFormat.getTagFieldNumber(tag);
+      if (field >= 1 && field <= 3) {
+        id[field - 1] = in.readInt64();
+      } else {
+        in.skipField(tag);
+      }
+    }
+
+    return id;
+  }
+
+  /**
+   * Reads the first occurrence of a length-delimited field of a message.
+   *
+   * @param bytes The encoded message.
+   * @param field The field number.
+   * @return The field bytes or NULL if the field is not present.
+   * @throws IOException If the message is malformed.
+   */
+  private static byte[] readField(final byte[] bytes, final int field) throws IOException {
+    CodedInputStream in = CodedInputStream.newInstance(bytes);
+    for (int tag = in.readTag(); tag != 0; tag = in.readTag()) {
+      if (WireFormat.getTagFieldNumber(tag) == field) {
+        return in.readByteArray();
+      }
+      in.skipField(tag);
+    }
+
+    return null;
+  }
+
+  /**
+   * Encoder of the client side descriptors, which never send responses.
+   *
+   * @param response The response.
+   * @param <T>      The response type.
+   * @return Never returns.
+   */
+  private static <T> byte[] clientOnly(final T response) {
+    throw new UnsupportedOperationException("Responses are only encoded by the simulator.");
+  }
+
+  private static byte[] encode(final FieldWriter writer) {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    CodedOutputStream out = CodedOutputStream.newInstance(bytes);
+    try {
+      writer.write(out);
+      out.flush();
+    } catch (IOException e) {
+      throw new UncheckedIOException(e);
+    }
+
+    return bytes.toByteArray();
+  }
+
+  /**
+   * Writes fields of a protobuf message.
+   */
+  private interface FieldWriter {
+    void write(CodedOutputStream out) throws IOException;
+  }
+
+  /**
+   * Decodes a protobuf message.
+   */
+  private interface Decoder<T> {
+    T decode(byte[] bytes) throws IOException;
+  }
+
+  /**
+   * Marshaller of gRPC messages encoded by the simulator.
+   */
+  private static final class WireMarshaller<T> implements MethodDescriptor.Marshaller<T> {
+    private final Function<T, byte[]> encoder;
+    private final Decoder<T> decoder;
+
+    WireMarshaller(final Function<T, byte[]> encoder, final Decoder<T> decoder) {
+      this.encoder = encoder;
+      this.decoder = decoder;
+    }
+
+    @Override
+    public InputStream stream(final T value) {
+      return new ByteArrayInputStream(encoder.apply(value));
+    }
+
+    @Override
+    public T parse(final InputStream stream) {
+      try {
+        return decoder.decode(ByteStreams.toByteArray(stream));
+      } catch (IOException e) {
+        throw Status.INTERNAL.withCause(e).asRuntimeException();
+      }
+    }
+  }
+}
@@ -0,0 +1,149 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.contents;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.MirrorNodeSimulator.ChunkInfo;
+import com.hedera.hashgraph.identity.hcs.MirrorNodeSimulator.SubmittedMessage;
+import com.hedera.hashgraph.identity.hcs.MirrorNodeSimulator.TopicQuery;
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.TopicId;
+import io.grpc.CallOptions;
+import io.grpc.ManagedChannel;
+import io.grpc.ManagedChannelBuilder;
+import io.grpc.Status;
+import io.grpc.StatusRuntimeException;
+import io.grpc.stub.ClientCalls;
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.TimeUnit;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+/**
+ * Tests the mirror node simulator through its gRPC interface.
+ */
+public class MirrorNodeSimulatorTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1001);
+
+  private MirrorNodeSimulator simulator;
+  private ManagedChannel channel;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    simulator = new MirrorNodeSimulator();
+    channel = ManagedChannelBuilder.forAddress("localhost", simulator.getPort()).usePlaintext().build();
+  }
+
+  @AfterEach
+  void tearDown() throws InterruptedException {
+    channel.shutdownNow().awaitTermination(5, TimeUnit.SECONDS);
+    simulator.close();
+  }
+
+  @Test
+  void testGeneratedTopicIsStreamedWithValidRunningHashes() {
+    simulator.generate(TOPIC_ID, 100, i -> contents(i));
+
+    List<SerializableMirrorConsensusResponse> received = subscribe(new TopicQuery(TOPIC_ID, null, null, 50));
+    assertEquals(50, received.size());
+
+    RunningHashVerifier verifier = new RunningHashVerifier(TOPIC_ID)
+            .setPayerResolver(seq -> simulator.getPayer(TOPIC_ID, seq));
+    for (SerializableMirrorConsensusResponse response : received) {
+      assertEquals(RunningHashVerifier.Result.VERIFIED, verifier.verify(response.consensusTimestamp,
+              response.sequenceNumber, response.runningHash, response.message));
+    }
+
+    Instant startTime = received.get(9).consensusTimestamp;
+    received = subscribe(new TopicQuery(TOPIC_ID, startTime, null, 5));
+    assertEquals(5, received.size());
+    assertEquals(10, received.get(0).sequenceNumber);
+    assertArrayEquals(contents(13), received.get(4).message);
+  }
+
+  @Test
+  void testStreamIsDisrupted() {
+    simulator.generate(TOPIC_ID, 100, i -> contents(i))
+            .setSeed(42)
+            .setRate(2000)
+            .setJitter(1)
+            .setDuplicateProbability(0.2)
+            .setDisconnectAfter(20);
+
+    List<SerializableMirrorConsensusResponse> received = new ArrayList<>();
+    Iterator<SerializableMirrorConsensusResponse> stream = ClientCalls.blockingServerStreamingCall(channel,
+            MirrorNodeSimulator.SUBSCRIBE_TOPIC, CallOptions.DEFAULT, new TopicQuery(TOPIC_ID, null, null, 0));
+    StatusRuntimeException error = assertThrows(StatusRuntimeException.class, () -> stream.forEachRemaining(received::add));
+
+    assertEquals(Status.Code.UNAVAILABLE, error.getStatus().getCode());
+    assertEquals(1, simulator.getDisconnectCount());
+    assertEquals(20, simulator.getDeliveredCount());
+    assertEquals(20 + simulator.getDuplicateCount(), received.size());
+    assertTrue(simulator.getDuplicateCount() > 0);
+    assertEquals(20, received.get(received.size() - 1).sequenceNumber);
+  }
+
+  @Test
+  void testSubmittedMessageIsStreamed() {
+    AccountId payer = new AccountId(0, 0, 5005);
+    byte[] message = contents(7);
+    ClientCalls.blockingUnaryCall(channel, MirrorNodeSimulator.SUBMIT_MESSAGE, CallOptions.DEFAULT,
+            SubmittedMessage.encode(payer, TOPIC_ID, message));
+
+    assertEquals(1, simulator.getSubmittedCount());
+    assertEquals(payer, simulator.getPayer(TOPIC_ID, 1));
+
+    List<SerializableMirrorConsensusResponse> received = subscribe(new TopicQuery(TOPIC_ID, null, null, 1));
+    assertEquals(1, received.size());
+    assertEquals(1, received.get(0).sequenceNumber);
+    assertArrayEquals(message, received.get(0).message);
+  }
+
+  @Test
+  void testSubmittedChunksAreStreamedWithChunkInfo() {
+    AccountId payer = new AccountId(0, 0, 5005);
+    Instant validStart = Instant.now();
+    ClientCalls.blockingUnaryCall(channel, MirrorNodeSimulator.SUBMIT_MESSAGE, CallOptions.DEFAULT,
+            SubmittedMessage.encode(payer, TOPIC_ID, contents(1)));
+    for (int number = 1; number <= 2; number++) {
+      ClientCalls.blockingUnaryCall(channel, MirrorNodeSimulator.SUBMIT_MESSAGE, CallOptions.DEFAULT,
+              SubmittedMessage.encode(payer, TOPIC_ID, contents(number + 1),
+                      new ChunkInfo(payer, validStart, 2, number)));
+    }
+
+    List<Optional<ChunkInfo>> chunks = new ArrayList<>();
+    ClientCalls.blockingServerStreamingCall(channel, MirrorNodeSimulator.SUBSCRIBE_TOPIC_CHUNKS, CallOptions.DEFAULT,
+            new TopicQuery(TOPIC_ID, null, null, 3)).forEachRemaining(chunks::add);
+    assertEquals(3, chunks.size());
+    assertFalse(chunks.get(0).isPresent());
+
+    byte[] initialTransactionId = new ChunkInfo(payer, validStart, 2, 1).getInitialTransactionId();
+    for (int number = 1; number <= 2; number++) {
+      ChunkInfo chunk = chunks.get(number).get();
+      assertArrayEquals(initialTransactionId, chunk.getInitialTransactionId());
+      assertEquals(2, chunk.getTotal());
+      assertEquals(number, chunk.getNumber());
+    }
+
+    // Chunks are still separate messages of the topic.
+    List<SerializableMirrorConsensusResponse> received = subscribe(new TopicQuery(TOPIC_ID, null, null, 3));
+    assertArrayEquals(contents(3), received.get(2).message);
+  }
+
+  private List<SerializableMirrorConsensusResponse> subscribe(final TopicQuery query) {
+    List<SerializableMirrorConsensusResponse> received = new ArrayList<>();
+    ClientCalls.blockingServerStreamingCall(channel, MirrorNodeSimulator.SUBSCRIBE_TOPIC, CallOptions.DEFAULT, query)
+            .forEachRemaining(received::add);
+    return received;
+  }
+}
@@ -0,0 +1,139 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcStatusResolver;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.PublicKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests incremental resolution from persisted checkpoints against the mirror node simulator.
+ */
+public class ResolverCheckpointTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1006);
+  private static final long TIMEOUT = 300;
+
+  private final PrivateKey issuerKey = PrivateKey.generate();
+  private MirrorNodeSimulator simulator;
+  private Client client;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    simulator = new MirrorNodeSimulator();
+    client = simulator.newClient();
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    client.close();
+    simulator.close();
+  }
+
+  @Test
+  void testPersistedCheckpointResumesAfterLastMessage() throws Exception {
+    append(message("a", HcsVcOperation.ISSUE, issuerKey), message("b", HcsVcOperation.ISSUE, issuerKey));
+
+    ResolverCheckpoint<HcsVcMessage> checkpoint = new ResolverCheckpoint<>();
+    Map<String, MessageEnvelope<HcsVcMessage>> results = resolve(checkpoint, null, "a");
+    assertEquals(HcsVcOperation.ISSUE, results.get("a").open().getOperation());
+
+    ResolverCheckpoint<HcsVcMessage> restored = roundTrip(checkpoint);
+    assertEquals(2, restored.size());
+    assertEquals(2, restored.getLastSequenceNumber());
+    assertEquals(checkpoint.getLastConsensusTimestamp(), restored.getLastConsensusTimestamp());
+    assertEquals(HcsVcOperation.ISSUE, restored.get("b").open().getOperation());
+
+    append(message("a", HcsVcOperation.REVOKE, issuerKey));
+    long delivered = simulator.getDeliveredCount();
+    results = resolve(restored, null, "a", "b");
+
+    // Only the message submitted after the checkpoint was streamed.
+    assertEquals(1, simulator.getDeliveredCount() - delivered);
+    assertEquals(HcsVcOperation.REVOKE, results.get("a").open().getOperation());
+    assertEquals(HcsVcOperation.ISSUE, results.get("b").open().getOperation());
+    assertEquals(3, restored.getLastSequenceNumber());
+  }
+
+  @Test
+  void testUnverifiedMessageHoldsCheckpointBackUpToLimit() throws Exception {
+    PrivateKey unknownKey = PrivateKey.generate();
+    append(message("a", HcsVcOperation.ISSUE, issuerKey), message("b", HcsVcOperation.ISSUE, unknownKey),
+            message("a", HcsVcOperation.SUSPEND, issuerKey));
+
+    Function<String, Collection<PublicKey>> keys = hash -> Collections.singleton(issuerKey.getPublicKey());
+    ResolverCheckpoint<HcsVcMessage> checkpoint = new ResolverCheckpoint<>();
+    for (int i = 1; i <= 2; i++) {
+      checkpoint = roundTrip(checkpoint);
+      Map<String, MessageEnvelope<HcsVcMessage>> results = resolve(checkpoint, keys, "a");
+
+      // Later messages are resolved, but the checkpoint stays before the rejected one.
+      assertEquals(HcsVcOperation.SUSPEND, results.get("a").open().getOperation());
+      assertEquals(1, checkpoint.getLastSequenceNumber());
+      assertEquals(i, checkpoint.getHeldBackCount());
+    }
+
+    // The limit is reached, so the rejected message is skipped.
+    checkpoint = roundTrip(checkpoint);
+    Map<String, MessageEnvelope<HcsVcMessage>> results = resolve(checkpoint, keys, "a");
+    assertEquals(HcsVcOperation.SUSPEND, results.get("a").open().getOperation());
+    assertEquals(3, checkpoint.getLastSequenceNumber());
+    assertEquals(0, checkpoint.getHeldBackCount());
+    assertNull(checkpoint.get("b"));
+  }
+
+  /**
+   * Resolves the given credential hashes from the checkpoint, with a hold back limit of two resolutions.
+   *
+   * @param checkpoint The checkpoint.
+   * @param keys       The public keys provider or NULL.
+   * @param hashes     The credential hashes.
+   * @return The results.
+   * @throws Exception In case the resolution failed.
+   */
+  private Map<String, MessageEnvelope<HcsVcMessage>> resolve(final ResolverCheckpoint<HcsVcMessage> checkpoint,
+                                                             final Function<String, Collection<PublicKey>> keys,
+                                                             final String... hashes) throws Exception {
+    HcsVcStatusResolver resolver = new HcsVcStatusResolver(TOPIC_ID, keys);
+    for (String hash : hashes) {
+      resolver.addCredentialHash(hash);
+    }
+
+    return resolver.setCheckpoint(checkpoint)
+            .setCheckpointHoldBackLimit(2)
+            .setTimeout(TIMEOUT)
+            .executeAsync(client)
+            .get(10, TimeUnit.SECONDS);
+  }
+
+  private static ResolverCheckpoint<HcsVcMessage> roundTrip(final ResolverCheckpoint<HcsVcMessage> checkpoint)
+          throws IOException, ClassNotFoundException {
+    ByteArrayOutputStream out = new ByteArrayOutputStream();
+    checkpoint.writeTo(out);
+    return ResolverCheckpoint.readFrom(new ByteArrayInputStream(out.toByteArray()));
+  }
+
+  private void append(final byte[]... messages) {
+    simulator.generate(TOPIC_ID, messages.length, i -> messages[i]);
+  }
+
+  private static byte[] message(final String credentialHash, final HcsVcOperation operation,
+                                final PrivateKey signingKey) {
+    return HcsVcMessage.fromCredentialHash(credentialHash, operation).sign(signingKey);
+  }
+}
@@ -0,0 +1,153 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.contents;
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.timestamp;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+
+import com.google.common.io.BaseEncoding;
+import com.hedera.hashgraph.identity.hcs.RunningHashVerifier.Result;
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.util.ArrayList;
+import java.util.List;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests sequence continuity and running hash verification of topic messages.
+ */
+public class RunningHashVerifierTest {
+  private static final TopicId TOPIC_ID = new TopicId(0, 0, 1234);
+  private static final AccountId PAYER = new AccountId(0, 0, 98);
+  private static final int MESSAGES = 10;
+
+  /**
+   * Running hashes of the first two messages, computed independently of the verifier.
+   */
+  private static final String[] KNOWN_RUNNING_HASHES = {
+      "af25bba85a5a3c9e5c8ffc15223d8cb9cd5db634225be903924a9bf248ce4711bc96475aa385c06dea839b8178ce7b83",
+      "b63214531831fa742d8fb2d3338872a6a1417afe698bc428d05b4e1e8ae4c57b221a68256b4ce509f26c120b30e7b07c"
+  };
+
+  private final List<byte[]> runningHashes = new ArrayList<>();
+
+  @BeforeEach
+  void setUp() throws Exception {
+    byte[] runningHash = new byte[RunningHashVerifier.RUNNING_HASH_SIZE];
+    for (int i = 1; i <= MESSAGES; i++) {
+      runningHash = runningHash(runningHash, i);
+      runningHashes.add(runningHash);
+    }
+  }
+
+  @Test
+  void testChainIsVerified() {
+    RunningHashVerifier verifier = new RunningHashVerifier(TOPIC_ID).setPayerResolver(seq -> PAYER);
+    for (int i = 1; i <= MESSAGES; i++) {
+      assertEquals(Result.VERIFIED, verify(verifier, i));
+    }
+
+    assertEquals(Result.DUPLICATE, verify(verifier, 5));
+    assertEquals(MESSAGES, verifier.getVerifiedCount());
+    assertEquals(0, verifier.getMismatchCount());
+  }
+
+  @Test
+  void testKnownRunningHashes() {
+    for (int i = 0; i < KNOWN_RUNNING_HASHES.length; i++) {
+      assertArrayEquals(BaseEncoding.base16().lowerCase().decode(KNOWN_RUNNING_HASHES[i]), runningHashes.get(i));
+    }
+
+    RunningHashVerifier verifier = new RunningHashVerifier(TOPIC_ID).setPayerResolver(seq -> PAYER);
+    assertEquals(Result.VERIFIED, verify(verifier, 1));
+    assertEquals(Result.VERIFIED, verify(verifier, 2));
+  }
+
+  @Test
+  void testTamperedMessageIsRejected() {
+    List<TopicGap> gaps = new ArrayList<>();
+    RunningHashVerifier verifier = new RunningHashVerifier(TOPIC_ID).setPayerResolver(seq -> PAYER).onGap(gaps::add);
+    assertEquals(Result.VERIFIED, verify(verifier, 1));
+    assertEquals(Result.MISMATCH, verifier.verify(timestamp(2), 2, runningHashes.get(1),
+            "tampered".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(Result.MISMATCH, verifier.verify(timestamp(2), 2, null, contents(2)));
+
+    // The chain does not advance past a rejected message, so a valid copy of it is still verified.
+    assertEquals(1, verifier.getLastSequenceNumber());
+    assertEquals(Result.VERIFIED, verify(verifier, 2));
+    assertEquals(0, verifier.getGapCount());
+
+    // Otherwise the rejected message is reported as missing and the chain continues from the next message.
+    assertEquals(Result.MISMATCH, verifier.verify(timestamp(3), 3, runningHashes.get(2),
+            "tampered".getBytes(StandardCharsets.UTF_8)));
+    assertEquals(Result.GAP, verify(verifier, 4));
+    assertEquals(Result.VERIFIED, verify(verifier, 5));
+
+    assertEquals(1, gaps.size());
+    assertEquals(3, gaps.get(0).getFirstMissingSequenceNumber());
+    assertEquals(3, gaps.get(0).getLastMissingSequenceNumber());
+    assertEquals(3, verifier.getMismatchCount());
+  }
+
+  @Test
+  void testGapIsReported() {
+    List<TopicGap> gaps = new ArrayList<>();
+    RunningHashVerifier verifier = new RunningHashVerifier(TOPIC_ID).onGap(gaps::add);
+
+    // The chain starts at the first received message, the payer of messages is not known.
+    assertEquals(Result.UNVERIFIED, verify(verifier, 3));
+    assertEquals(Result.UNVERIFIED, verify(verifier, 4));
+    assertEquals(Result.GAP, verify(verifier, 8));
+    assertEquals(Result.UNVERIFIED, verify(verifier, 9));
+
+    assertEquals(1, gaps.size());
+    TopicGap gap = gaps.get(0);
+    assertEquals(5, gap.getFirstMissingSequenceNumber());
+    assertEquals(7, gap.getLastMissingSequenceNumber());
+    assertEquals(3, gap.getMissingCount());
+    assertEquals(timestamp(4).plusNanos(1), gap.getStartTime());
+    assertEquals(timestamp(8), gap.getEndTime());
+
+    verifier = new RunningHashVerifier(TOPIC_ID).onGap(gaps::add).setAnchor(null, 0, null);
+    assertEquals(Result.GAP, verify(verifier, 2));
+    assertNull(gaps.get(1).getStartTime());
+  }
+
+  private Result verify(final RunningHashVerifier verifier, final long sequenceNumber) {
+    return verifier.verify(timestamp(sequenceNumber), sequenceNumber, runningHashes.get((int) sequenceNumber - 1),
+            contents(sequenceNumber));
+  }
+
+  /**
+   * Computes the running hash the way consensus nodes do for running hash version 3.
+   */
+  private static byte[] runningHash(final byte[] previous, final long sequenceNumber) throws Exception {
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    try (DataOutputStream out = new DataOutputStream(bytes)) {
+      out.writeLong(3);
+      out.writeLong(PAYER.shard);
+      out.writeLong(PAYER.realm);
+      out.writeLong(PAYER.num);
+      out.writeLong(TOPIC_ID.shard);
+      out.writeLong(TOPIC_ID.realm);
+      out.writeLong(TOPIC_ID.num);
+      out.writeLong(timestamp(sequenceNumber).getEpochSecond());
+      out.writeInt(timestamp(sequenceNumber).getNano());
+      out.writeLong(sequenceNumber);
+      out.write(MessageDigest.getInstance("SHA-384").digest(contents(sequenceNumber)));
+    } catch (IOException e) {
+      throw new IllegalStateException(e);
+    }
+
+    MessageDigest digest = MessageDigest.getInstance("SHA-384");
+    digest.update(previous);
+    return digest.digest(bytes.toByteArray());
+  }
+}
@@ -0,0 +1,99 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+/**
+ * Tests the duplicate signature index.
+ */
+public class SignatureIndexTest {
+  private static final Instant TIMESTAMP = Instant.ofEpochSecond(1_600_000_000L);
+
+  @Test
+  void testDuplicatesAreDetectedWhileGrowing() {
+    SignatureIndex index = new SignatureIndex(4, false);
+    for (int i = 0; i < 10_000; i++) {
+      assertTrue(index.add("signature-" + i, TIMESTAMP.plusMillis(i)));
+    }
+
+    assertEquals(10_000, index.size());
+    for (int i = 0; i < 10_000; i++) {
+      assertFalse(index.add("signature-" + i, TIMESTAMP.plusMillis(i)));
+      assertTrue(index.contains("signature-" + i));
+    }
+    assertFalse(index.contains("signature-10000"));
+  }
+
+  @Test
+  void testOldSignaturesAreAgedOut() {
+    SignatureIndex index = new SignatureIndex(16, true).setRetentionWindow(100);
+    for (int i = 0; i < 10_000; i++) {
+      index.add("signature-" + i, TIMESTAMP.plusMillis(i));
+    }
+
+    // The table stays small, as old signatures make room for new ones.
+    assertTrue(index.size() < 1_000);
+    assertTrue(index.contains("signature-9999"));
+    assertTrue(index.contains("signature-9900"));
+    assertFalse(index.contains("signature-0"));
+
+    index.expireBefore(TIMESTAMP.plusMillis(9_950));
+    assertFalse(index.contains("signature-9900"));
+    assertTrue(index.contains("signature-9950"));
+  }
+
+  @Test
+  void testSignaturesAreHashedConcurrently() throws Exception {
+    SignatureIndex index = new SignatureIndex();
+    long[][] expected = new long[1_000][];
+    for (int i = 0; i < expected.length; i++) {
+      expected[i] = index.hash("signature-" + i);
+    }
+
+    ExecutorService executor = Executors.newFixedThreadPool(4);
+    try {
+      List<Future<?>> futures = new ArrayList<>();
+      for (int t = 0; t < 4; t++) {
+        futures.add(executor.submit(() -> {
+          for (int round = 0; round < 20; round++) {
+            for (int i = 0; i < expected.length; i++) {
+              assertArrayEquals(expected[i], index.hash("signature-" + i));
+            }
+          }
+        }));
+      }
+
+      for (Future<?> future : futures) {
+        future.get();
+      }
+    } finally {
+      executor.shutdownNow();
+    }
+  }
+
+  @Test
+  void testExpectedSizeIsBounded() {
+    assertThrows(IllegalArgumentException.class, () -> new SignatureIndex(0, true));
+    assertThrows(IllegalArgumentException.class, () -> new SignatureIndex(Integer.MAX_VALUE, true));
+  }
+
+  @Test
+  void testSignaturesWithoutTimestampAreKept() {
+    SignatureIndex index = new SignatureIndex().setRetentionWindow(1);
+    index.add("permanent", null);
+    index.expireBefore(TIMESTAMP);
+
+    assertTrue(index.contains("permanent"));
+  }
+}
@@ -0,0 +1,178 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.google.common.base.Strings;
+import com.google.gson.JsonArray;
+import com.google.gson.JsonElement;
+import com.google.gson.JsonParser;
+import com.hedera.hashgraph.identity.DidDocumentJsonProperties;
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.did.HcsDid;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidMessage;
+import com.hedera.hashgraph.identity.hcs.did.HcsDidResolutionCoordinator;
+import com.hedera.hashgraph.identity.utils.JsonUtils;
+import com.hedera.hashgraph.sdk.AccountId;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.FileId;
+import com.hedera.hashgraph.sdk.Hbar;
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReference;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.threeten.bp.Instant;
+
+/**
+ * Tests DID transactions and the DID topic listener of an identity network running on the mirror node simulator.
+ */
+public class SimulatedIdentityNetworkTest {
+  private static final TopicId DID_TOPIC_ID = new TopicId(0, 0, 1003);
+  private static final TopicId VC_TOPIC_ID = new TopicId(0, 0, 1004);
+  private static final int MAX_CHUNK_SIZE = 1024;
+
+  private MirrorNodeSimulator simulator;
+  private Client client;
+  private HcsIdentityNetwork didNetwork;
+
+  @BeforeEach
+  void setUp() throws IOException {
+    simulator = new MirrorNodeSimulator();
+    client = simulator.newClient().setOperator(new AccountId(0, 0, 1001), PrivateKey.generate());
+
+    AddressBook addressBook = AddressBook.create("simulated", DID_TOPIC_ID.toString(), VC_TOPIC_ID.toString(), null);
+    addressBook.setFileId(new FileId(0, 0, 1005));
+    didNetwork = HcsIdentityNetwork.fromAddressBook("testnet", addressBook);
+  }
+
+  @AfterEach
+  void tearDown() throws Exception {
+    didNetwork.close();
+    client.close();
+    simulator.close();
+  }
+
+  @Test
+  void testDocumentLargerThanOneChunkIsConfirmedAndReceivedWhole() {
+    HcsDid did = didNetwork.generateDid(false);
+    String didDocument = largeDidDocument(did);
+    assertTrue(didDocument.getBytes(StandardCharsets.UTF_8).length > MAX_CHUNK_SIZE);
+
+    List<MessageEnvelope<HcsDidMessage>> received = Collections.synchronizedList(new ArrayList<>());
+    didNetwork.getDidTopicListener()
+            .setStartTime(Instant.EPOCH)
+            .subscribe(client, received::add);
+
+    AtomicReference<MessageEnvelope<HcsDidMessage>> confirmed = new AtomicReference<>();
+    AtomicReference<Throwable> error = new AtomicReference<>();
+    didNetwork.createDidTransaction(DidMethodOperation.CREATE)
+            .setDidDocument(didDocument)
+            .signMessage(doc -> did.getPrivateDidRootKey().get().sign(doc))
+            .buildAndSignTransaction(tx -> tx.setMaxTransactionFee(new Hbar(2)))
+            .onMessageConfirmed(confirmed::set)
+            .onError(error::set)
+            .execute(client);
+
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> confirmed.get() != null || error.get() != null);
+    assertNull(error.get());
+    assertEquals(didDocument, confirmed.get().open().getDidDocument());
+    assertTrue(simulator.getSubmittedCount() > 1);
+
+    Awaitility.await().atMost(10, TimeUnit.SECONDS).until(() -> !received.isEmpty());
+    assertEquals(1, received.size());
+    HcsDidMessage message = received.get(0).open();
+    assertEquals(did.toDid(), message.getDid());
+    assertEquals(didDocument, message.getDidDocument());
+    assertTrue(message.isValid());
+  }
+
+  @Test
+  void testListenerReportsClosedNetwork() {
+    List<Throwable> errors = Collections.synchronizedList(new ArrayList<>());
+    MessageListener<HcsDidMessage> listener = didNetwork.getDidTopicListener()
+            .setAutoReconnect(100)
+            .onError(errors::add);
+    listener.subscribe(client, envelope -> {
+    });
+
+    // The pending idle check of the quiet topic cannot be rescheduled on the scheduler of the closed network.
+    didNetwork.close();
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> !errors.isEmpty());
+    assertTrue(errors.get(0) instanceof RejectedExecutionException);
+    assertEquals(0, listener.getReconnectCount());
+  }
+
+  @Test
+  void testLiveResolversAreCountedPerNetwork() throws Exception {
+    try (HcsIdentityNetwork otherNetwork = HcsIdentityNetwork.fromAddressBook("testnet", didNetwork.getAddressBook())) {
+      CompletableFuture<?> resolution = didNetwork.getDidResolver()
+              .addDid(didNetwork.generateDid(false).toDid())
+              .setTimeout(500)
+              .executeAsync(client);
+      Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> didNetwork.getLiveResolverCount() == 1);
+      assertEquals(0, otherNetwork.getLiveResolverCount());
+
+      resolution.get(5, TimeUnit.SECONDS);
+      assertEquals(0, didNetwork.getLiveResolverCount());
+    }
+  }
+
+  @Test
+  void testSchedulerInUseIsNotReplacedAndCloseFailsPendingResolutions() throws Exception {
+    ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    try {
+      didNetwork.setScheduler(scheduler);
+      HcsDidResolutionCoordinator coordinator = didNetwork.getDidResolutionCoordinator().setBatchWindow(60_000);
+      assertThrows(IllegalStateException.class,
+              () -> didNetwork.setScheduler(Executors.newSingleThreadScheduledExecutor()));
+
+      CompletableFuture<?> resolution = coordinator.resolve(client, didNetwork.generateDid(false).toDid());
+      didNetwork.close();
+
+      ExecutionException e = assertThrows(ExecutionException.class, () -> resolution.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof IllegalStateException);
+
+      // The scheduler is owned by the caller and is not shut down with the network.
+      assertTrue(!scheduler.isShutdown());
+    } finally {
+      scheduler.shutdown();
+    }
+  }
+
+  /**
+   * Generates a DID document with additional public keys, so that its message is submitted in multiple chunks.
+   *
+   * @param did The DID.
+   * @return The DID document JSON.
+   */
+  private static String largeDidDocument(final HcsDid did) {
+    JsonElement root = JsonParser.parseString(did.generateDidDocument().toJson());
+    JsonArray publicKeys = root.getAsJsonObject().getAsJsonArray(DidDocumentJsonProperties.PUBLIC_KEY);
+    for (int i = 2; i < 12; i++) {
+      publicKeys.add(JsonParser.parseString("{"
+              + "\"id\": \"" + did.toDid() + "#keys-" + i + "\","
+              + "\"type\": \"Ed25519VerificationKey2018\","
+              + "\"controller\": \"" + did.toDid() + "\","
+              + "\"publicKeyBase58\": \"" + Strings.repeat("H", 44) + "\""
+              + "}"));
+    }
+
+    return JsonUtils.getGson().toJson(root);
+  }
+}
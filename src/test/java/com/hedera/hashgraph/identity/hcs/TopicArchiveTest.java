@@ -0,0 +1,148 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.contents;
+import static com.hedera.hashgraph.identity.hcs.TopicFixtures.timestamp;
+import static org.junit.jupiter.api.Assertions.assertArrayEquals;
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.stream.Stream;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+/**
+ * Tests appending, segmenting, replay and crash recovery of the topic archive.
+ */
+public class TopicArchiveTest {
+  @TempDir
+  Path directory;
+
+  @Test
+  void testMessagesAreReplayedInOrderAcrossSegments() throws IOException {
+    try (TopicArchive archive = new TopicArchive(directory).setSegmentSize(256)) {
+      assertNull(archive.getLastConsensusTimestamp());
+      for (int i = 1; i <= 20; i++) {
+        assertTrue(append(archive, i));
+      }
+      assertFalse(append(archive, 20));
+      assertFalse(append(archive, 3));
+    }
+
+    try (Stream<Path> files = Files.list(directory)) {
+      assertTrue(files.count() > 1);
+    }
+
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      assertEquals(20, archive.getLastSequenceNumber());
+      assertEquals(timestamp(20), archive.getLastConsensusTimestamp());
+
+      List<SerializableMirrorConsensusResponse> replayed = new ArrayList<>();
+      assertEquals(20, archive.replay(replayed::add));
+      for (int i = 0; i < replayed.size(); i++) {
+        SerializableMirrorConsensusResponse record = replayed.get(i);
+        assertEquals(i + 1, record.sequenceNumber);
+        assertEquals(timestamp(i + 1), record.consensusTimestamp);
+        assertArrayEquals(contents(i + 1), record.message);
+        assertArrayEquals(new byte[] {(byte) (i + 1)}, record.runningHash);
+      }
+    }
+  }
+
+  @Test
+  void testReplayStartsAfterSequenceNumber() throws IOException {
+    try (TopicArchive archive = new TopicArchive(directory).setSegmentSize(256)) {
+      for (int i = 1; i <= 20; i++) {
+        append(archive, i);
+      }
+
+      List<Long> replayed = new ArrayList<>();
+      assertEquals(3, archive.replay(15, record -> {
+        replayed.add(record.sequenceNumber);
+        return replayed.size() < 3;
+      }));
+      assertEquals(16L, replayed.get(0).longValue());
+      assertEquals(18L, replayed.get(2).longValue());
+    }
+  }
+
+  @Test
+  void testArchiveRangeIsContiguous() throws IOException {
+    try (TopicArchive archive = new TopicArchive(directory).setSegmentSize(256)) {
+      assertFalse(archive.covers(null));
+      for (int i = 5; i <= 10; i++) {
+        assertTrue(append(archive, i));
+      }
+      assertThrows(IllegalArgumentException.class, () -> append(archive, 12));
+      assertEquals(10, archive.getLastSequenceNumber());
+    }
+
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      assertEquals(5, archive.getFirstSequenceNumber());
+      assertEquals(timestamp(5), archive.getFirstConsensusTimestamp());
+
+      // Messages before the first archived one are unknown.
+      assertFalse(archive.covers(null));
+      assertFalse(archive.covers(timestamp(4)));
+      assertTrue(archive.covers(timestamp(5)));
+      assertTrue(archive.covers(timestamp(20)));
+    }
+  }
+
+  @Test
+  void testTornRecordIsDiscarded() throws IOException {
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      append(archive, 1);
+      append(archive, 2);
+    }
+
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.findFirst().get();
+    }
+    long validLength = TopicFixtures.appendTornRecord(segment, new byte[] {0, 0, 0, 80, 1, 2, 3, 4, 5});
+
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      assertEquals(validLength, Files.size(segment));
+      assertEquals(2, archive.getLastSequenceNumber());
+      assertTrue(append(archive, 3));
+    }
+
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      List<SerializableMirrorConsensusResponse> replayed = new ArrayList<>();
+      archive.replay(replayed::add);
+      assertEquals(3, replayed.size());
+      assertEquals(3, replayed.get(2).sequenceNumber);
+    }
+  }
+
+  @Test
+  void testCorruptedRecordIsReported() throws IOException {
+    try (TopicArchive archive = new TopicArchive(directory)) {
+      append(archive, 1);
+      append(archive, 2);
+    }
+
+    Path segment;
+    try (Stream<Path> files = Files.list(directory)) {
+      segment = files.findFirst().get();
+    }
+    byte[] bytes = Files.readAllBytes(segment);
+    bytes[10] ^= 1;
+    Files.write(segment, bytes);
+
+    assertThrows(IOException.class, () -> new TopicArchive(directory));
+  }
+
+  private static boolean append(final TopicArchive archive, final long sequenceNumber) throws IOException {
+    return archive.append(timestamp(sequenceNumber), sequenceNumber,
+            new byte[] {(byte) sequenceNumber}, contents(sequenceNumber));
+  }
+}
@@ -0,0 +1,59 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import org.threeten.bp.Instant;
+
+/**
+ * Topic messages and files shared by the tests of topic processing.
+ */
+final class TopicFixtures {
+  /**
+   * Consensus timestamp before the first message of a topic.
+   */
+  static final Instant TIMESTAMP = Instant.ofEpochSecond(1_600_000_000L, 123);
+
+  /**
+   * This is a utility class, never to be instantiated.
+   */
+  private TopicFixtures() {
+    // Empty on purpose.
+  }
+
+  /**
+   * Returns the consensus timestamp of a message, one second after the previous one.
+   *
+   * @param sequenceNumber The sequence number of the message.
+   * @return The consensus timestamp.
+   */
+  static Instant timestamp(final long sequenceNumber) {
+    return TIMESTAMP.plusSeconds(sequenceNumber);
+  }
+
+  /**
+   * Returns the contents of a message.
+   *
+   * @param sequenceNumber The sequence number of the message.
+   * @return The message contents.
+   */
+  static byte[] contents(final long sequenceNumber) {
+    return ("{\"message\":" + sequenceNumber + "}").getBytes(StandardCharsets.UTF_8);
+  }
+
+  /**
+   * Simulates a crash in the middle of appending a record to a file by appending only a part of it.
+   *
+   * @param file         The file.
+   * @param partialBytes The bytes of the record that were written before the crash.
+   * @return The length of the file before the record.
+   * @throws IOException In case the file could not be written.
+   */
+  static long appendTornRecord(final Path file, final byte[] partialBytes) throws IOException {
+    long validLength = Files.size(file);
+    Files.write(file, partialBytes, StandardOpenOption.APPEND);
+    return validLength;
+  }
+}
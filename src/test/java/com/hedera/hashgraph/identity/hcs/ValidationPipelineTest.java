@@ -0,0 +1,185 @@
+package com.hedera.hashgraph.identity.hcs;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcMessage;
+import com.hedera.hashgraph.identity.hcs.vc.HcsVcOperation;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedList;
+import java.util.List;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import org.awaitility.Awaitility;
+import org.junit.jupiter.api.Test;
+
+/**
+ * Tests ordering, limits and error handling of the validation pipeline.
+ */
+public class ValidationPipelineTest {
+  private final ManualExecutor executor = new ManualExecutor();
+  private final List<String> received = Collections.synchronizedList(new ArrayList<>());
+  private final List<Integer> tracked = Collections.synchronizedList(new ArrayList<>());
+
+  @Test
+  void testBatchesValidatedOutOfOrderAreDeliveredInOrder() {
+    ValidationPipeline<Integer, HcsVcMessage> pipeline = pipeline(2, 3, err -> {
+    });
+    submitAll(pipeline, 1, 6);
+
+    // The first three messages were dispatched alone, the next two as one batch and the last one waits.
+    assertEquals(3, executor.tasks.size());
+    executor.runLast();
+    executor.runLast();
+    assertTrue(received.isEmpty());
+
+    executor.runAll();
+    assertEquals(range(1, 6), tracked);
+    assertEquals(Arrays.asList("1", "2", "3", "4", "5", "6"), received);
+    assertEquals(0, pipeline.getQueuedBatchCount());
+  }
+
+  @Test
+  void testPartialLastBatchIsDeliveredWithoutFurtherMessages() {
+    ValidationPipeline<Integer, HcsVcMessage> pipeline = pipeline(3, 2, err -> {
+    });
+    submitAll(pipeline, 1, 6);
+
+    // Two messages in flight, one full batch and one partial batch waiting.
+    assertEquals(2, executor.tasks.size());
+    assertEquals(3, pipeline.getQueuedBatchCount());
+    executor.runAll();
+    assertEquals(range(1, 6), tracked);
+    assertEquals(6, received.size());
+  }
+
+  @Test
+  void testSubmitterIsBlockedAtBatchLimit() throws InterruptedException {
+    ValidationPipeline<Integer, HcsVcMessage> pipeline = pipeline(1, 1, err -> {
+    });
+
+    // One batch in flight and one waiting reach the limit of twice the parallelism.
+    submitAll(pipeline, 1, 2);
+    assertEquals(2, pipeline.getQueuedBatchCount());
+
+    Thread submitter = new Thread(() -> pipeline.submit(3));
+    submitter.start();
+    Awaitility.await().atMost(5, TimeUnit.SECONDS).until(() -> submitter.getState() == Thread.State.WAITING);
+
+    executor.runNext();
+    submitter.join(5000);
+    assertTrue(!submitter.isAlive());
+    assertEquals(Collections.singletonList(1), tracked);
+
+    executor.runAll();
+    assertEquals(range(1, 3), tracked);
+  }
+
+  @Test
+  void testRethrownErrorIsThrownToSubmitter() {
+    List<Throwable> errors = new ArrayList<>();
+    ValidationPipeline<Integer, HcsVcMessage> pipeline = pipeline(1, 1, err -> {
+      errors.add(err);
+      throw (RuntimeException) err;
+    });
+
+    pipeline.submit(-1);
+    executor.runAll();
+    assertEquals(1, errors.size());
+
+    // The invalid message was skipped, but its progress is tracked.
+    assertTrue(received.isEmpty());
+    assertEquals(Collections.singletonList(-1), tracked);
+
+    RuntimeException thrown = assertThrows(IllegalArgumentException.class, () -> pipeline.submit(2));
+    assertSame(errors.get(0), thrown);
+
+    pipeline.submit(2);
+    executor.runAll();
+    assertEquals(Collections.singletonList("2"), received);
+  }
+
+  @Test
+  void testHandledErrorDoesNotStopPipeline() {
+    List<Throwable> errors = new ArrayList<>();
+    ValidationPipeline<Integer, HcsVcMessage> pipeline = pipeline(2, 2, errors::add);
+
+    pipeline.submit(1);
+    pipeline.submit(-2);
+    pipeline.submit(3);
+    executor.runAll();
+
+    assertEquals(1, errors.size());
+    assertEquals(Arrays.asList("1", "3"), received);
+    assertEquals(Arrays.asList(1, -2, 3), tracked);
+  }
+
+  private ValidationPipeline<Integer, HcsVcMessage> pipeline(final int batchSize, final int parallelism,
+                                                             final Consumer<Throwable> errorHandler) {
+    return new ValidationPipeline<>(ValidationPipelineTest::validate, tracked::add,
+            envelope -> received.add(envelope.open().getCredentialHash()), errorHandler, executor, batchSize,
+            parallelism);
+  }
+
+  /**
+   * Validates a response, negative responses are invalid.
+   *
+   * @param response The response.
+   * @return The envelope.
+   */
+  private static MessageEnvelope<HcsVcMessage> validate(final Integer response) {
+    if (response < 0) {
+      throw new IllegalArgumentException("Invalid message: " + response);
+    }
+
+    return HcsVcMessage.fromCredentialHash(String.valueOf(response), HcsVcOperation.ISSUE);
+  }
+
+  private static void submitAll(final ValidationPipeline<Integer, ?> pipeline, final int from, final int to) {
+    for (int i = from; i <= to; i++) {
+      pipeline.submit(i);
+    }
+  }
+
+  private static List<Integer> range(final int from, final int to) {
+    return IntStream.rangeClosed(from, to).boxed().collect(Collectors.toList());
+  }
+
+  /**
+   * Executor that runs tasks only when the test asks for it, in the order the test chooses.
+   */
+  private static final class ManualExecutor implements Executor {
+    private final LinkedList<Runnable> tasks = new LinkedList<>();
+
+    @Override
+    public synchronized void execute(final Runnable command) {
+      tasks.add(command);
+    }
+
+    private synchronized Runnable take(final boolean last) {
+      return last ? tasks.pollLast() : tasks.pollFirst();
+    }
+
+    void runNext() {
+      take(false).run();
+    }
+
+    void runLast() {
+      take(true).run();
+    }
+
+    void runAll() {
+      Runnable task;
+      while ((task = take(false)) != null) {
+        task.run();
+      }
+    }
+  }
+}
@@ -4,23 +4,24 @@ import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertFalse;
 import static org.junit.jupiter.api.Assertions.assertNotNull;
 import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertThrows;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 import com.hedera.hashgraph.identity.DidDocumentBase;
+import com.hedera.hashgraph.identity.DidDocumentJsonProperties;
 import com.hedera.hashgraph.identity.DidMethodOperation;
 import com.hedera.hashgraph.identity.hcs.AesEncryptionUtil;
 import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
-import com.hedera.hashgraph.sdk.TopicId;
-import com.hedera.hashgraph.sdk.PrivateKey;
 import com.hedera.hashgraph.sdk.FileId;
-
+import com.hedera.hashgraph.sdk.PrivateKey;
+import com.hedera.hashgraph.sdk.TopicId;
+import io.github.cdimascio.dotenv.Dotenv;
 import java.nio.charset.StandardCharsets;
 import java.util.Objects;
-
-import io.github.cdimascio.dotenv.Dotenv;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.TestInstance;
+import org.threeten.bp.Instant;
 
 /**
  * Tests DID message construction and validation.
@@ -53,6 +54,32 @@ public class HcsDidMessageTest {
     assertEquals(originalEnvelope.open().getTimestamp(), envelope.open().getTimestamp());
   }
 
+  @Test
+  void testTimestampsAreAppendedToTheDecodedDocumentOnOutput() {
+    PrivateKey privateKey = HcsDid.generateDidRootKey();
+    HcsDid did = new HcsDid(network, privateKey.getPublicKey(), ADDRESS_BOOK_FID);
+    String didJson = did.generateDidDocument().toJson();
+    HcsDidMessage message = HcsDidMessage.fromDidDocumentJson(didJson, DidMethodOperation.CREATE).open();
+
+    assertEquals(didJson, message.getDidDocument());
+    assertTrue(message.isValid(DID_TOPIC_ID1));
+    assertSame(message.extractDidRootKey(), message.extractDidRootKey());
+    assertEquals(privateKey.getPublicKey().toString(), message.extractDidRootKey().toString());
+
+    Instant created = Instant.ofEpochSecond(1_600_000_000);
+    message.setCreated(created);
+    message.setUpdated(created.plusSeconds(10));
+    String withTimestamps = message.getDidDocument();
+    assertEquals(didJson.substring(0, didJson.length() - 1)
+            + ",\"created\":\"2020-09-13T12:26:40Z\",\"updated\":\"2020-09-13T12:26:50Z\"}", withTimestamps);
+    assertEquals(did.toDid(), DidDocumentBase.fromJson(withTimestamps).getId());
+
+    // Injection must not leak into the cached document
+    message.setCreated(null);
+    message.setUpdated(null);
+    assertEquals(didJson, message.getDidDocument());
+  }
+
   @Test
   void testEncryptedMessage() {
     final String secret = "Secret encryption password";
@@ -153,6 +180,38 @@ public class HcsDidMessageTest {
     assertEquals(operation, msg.getOperation());
   }
 
+  @Test
+  void testTimestampsAreReplacedInDocumentThatHasThem() {
+    PrivateKey privateKey = HcsDid.generateDidRootKey();
+    HcsDid did = new HcsDid(network, privateKey.getPublicKey(), ADDRESS_BOOK_FID);
+    String didJson = did.generateDidDocument().toJson();
+    String stale = didJson.substring(0, didJson.length() - 1) + ",\"created\":\"2000-01-01T00:00:00Z\"}";
+    HcsDidMessage message = HcsDidMessage.fromDidDocumentJson(stale, DidMethodOperation.CREATE).open();
+
+    message.setCreated(Instant.ofEpochSecond(1_600_000_000));
+    String withTimestamps = message.getDidDocument();
+    assertTrue(withTimestamps.contains("\"created\":\"2020-09-13T12:26:40Z\""));
+    assertFalse(withTimestamps.contains("2000-01-01"));
+  }
+
+  @Test
+  void testMessageWithoutDocumentIsInvalid() {
+    PrivateKey privateKey = HcsDid.generateDidRootKey();
+    HcsDid did = new HcsDid(network, privateKey.getPublicKey(), ADDRESS_BOOK_FID);
+
+    for (String document : new String[] {null, "", " "}) {
+      HcsDidMessage message = new HcsDidMessage(DidMethodOperation.CREATE, did.toDid(), document);
+      assertNull(message.extractDidRootKey());
+      assertFalse(message.isValid());
+    }
+
+    byte[] unsigned = new MessageEnvelope<>(new HcsDidMessage(DidMethodOperation.CREATE, did.toDid(), null))
+            .sign(privateKey::sign);
+    MessageEnvelope<HcsDidMessage> envelope = MessageEnvelope
+            .fromJson(new String(unsigned, StandardCharsets.UTF_8), HcsDidMessage.class);
+    assertFalse(envelope.isSignatureValid(e -> e.open().extractDidRootKey()));
+  }
+
   @Test
   void testInvalidSignature() {
     PrivateKey privateKey = HcsDid.generateDidRootKey();
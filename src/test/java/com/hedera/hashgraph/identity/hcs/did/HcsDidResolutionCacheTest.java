@@ -0,0 +1,99 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.TopicId;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Tests caching of DID resolution results.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HcsDidResolutionCacheTest {
+  private static final String DID = "did:hedera:testnet:7c38oC4ytrYDGCqsaZ1AXt7ZPQ8etzfwaxoKjfJNzfoc;hedera:testnet:fid=0.0.1";
+  private static final String OTHER_DID =
+          "did:hedera:testnet:8mJ8Gj5VyNqtFdNWn7ugKqKdyGGKxGJ5BuMbGLvDCwHm;hedera:testnet:fid=0.0.1";
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+  private final Client client = Client.forTestnet();
+
+  @AfterAll
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void testResolvedDidIsCachedUntilInvalidated() throws Exception {
+    AtomicInteger scans = new AtomicInteger();
+    MessageEnvelope<HcsDidMessage> envelope = new MessageEnvelope<>(
+            new HcsDidMessage(DidMethodOperation.CREATE, DID, ""));
+    HcsDidResolutionCache cache = new HcsDidResolutionCache(
+            coordinator(envelope, scans, CompletableFuture.completedFuture(null)), 10, 60_000);
+
+    assertNull(cache.getIfPresent(DID));
+    assertSame(envelope, cache.resolve(client, DID).get(5, TimeUnit.SECONDS));
+    assertSame(envelope, cache.resolve(client, DID).get(5, TimeUnit.SECONDS));
+    assertSame(envelope, cache.getIfPresent(DID));
+    assertEquals(1, scans.get());
+    assertEquals(1, cache.size());
+
+    cache.invalidate(DID);
+    assertNull(cache.getIfPresent(DID));
+    assertSame(envelope, cache.resolve(client, DID).get(5, TimeUnit.SECONDS));
+    assertEquals(2, scans.get());
+
+    // Peeking at the cache is not recorded.
+    assertEquals(1, cache.getHitCount());
+    assertEquals(2, cache.getMissCount());
+  }
+
+  @Test
+  void testInvalidationDuringResolutionOnlyAffectsTheSameDid() throws Exception {
+    MessageEnvelope<HcsDidMessage> envelope = new MessageEnvelope<>(
+            new HcsDidMessage(DidMethodOperation.CREATE, DID, ""));
+
+    CompletableFuture<Void> release = new CompletableFuture<>();
+    HcsDidResolutionCache cache = new HcsDidResolutionCache(
+            coordinator(envelope, new AtomicInteger(), release), 10, 60_000);
+    CompletableFuture<MessageEnvelope<HcsDidMessage>> future = cache.resolve(client, DID);
+    cache.invalidate(OTHER_DID);
+    release.complete(null);
+    assertSame(envelope, future.get(5, TimeUnit.SECONDS));
+    assertSame(envelope, cache.getIfPresent(DID));
+
+    release = new CompletableFuture<>();
+    cache = new HcsDidResolutionCache(coordinator(envelope, new AtomicInteger(), release), 10, 60_000);
+    future = cache.resolve(client, DID);
+    cache.invalidate(DID);
+    release.complete(null);
+    assertSame(envelope, future.get(5, TimeUnit.SECONDS));
+    assertNull(cache.getIfPresent(DID));
+  }
+
+  private HcsDidResolutionCoordinator coordinator(final MessageEnvelope<HcsDidMessage> envelope,
+                                                  final AtomicInteger scans, final CompletableFuture<Void> release) {
+    return new HcsDidResolutionCoordinator(
+            () -> new HcsDidResolver(TopicId.fromString("0.0.2")) {
+              @Override
+              public CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> executeAsync(final Client c) {
+                scans.incrementAndGet();
+                return release.thenApply(v -> {
+                  results.replaceAll((did, value) -> envelope);
+                  return results;
+                });
+              }
+            }, scheduler).setBatchWindow(0);
+  }
+}
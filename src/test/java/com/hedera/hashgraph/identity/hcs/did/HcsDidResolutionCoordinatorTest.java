@@ -0,0 +1,161 @@
+package com.hedera.hashgraph.identity.hcs.did;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertNull;
+import static org.junit.jupiter.api.Assertions.assertSame;
+import static org.junit.jupiter.api.Assertions.assertThrows;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+import com.hedera.hashgraph.identity.DidMethodOperation;
+import com.hedera.hashgraph.identity.hcs.MessageEnvelope;
+import com.hedera.hashgraph.sdk.Client;
+import com.hedera.hashgraph.sdk.TopicId;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import org.junit.jupiter.api.AfterAll;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.TestInstance;
+
+/**
+ * Tests merging of concurrent DID resolution requests.
+ */
+@TestInstance(TestInstance.Lifecycle.PER_CLASS)
+class HcsDidResolutionCoordinatorTest {
+  private static final String DID_1 = "did:hedera:testnet:7c38oC4ytrYDGCqsaZ1AXt7ZPQ8etzfwaxoKjfJNzfoc;hedera:testnet:fid=0.0.1";
+  private static final String DID_2 = "did:hedera:testnet:8c38oC4ytrYDGCqsaZ1AXt7ZPQ8etzfwaxoKjfJNzfoc;hedera:testnet:fid=0.0.1";
+
+  private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+  @AfterAll
+  void tearDown() {
+    scheduler.shutdown();
+  }
+
+  @Test
+  void testConcurrentRequestsShareOneScan() throws Exception {
+    AtomicInteger scans = new AtomicInteger();
+    Map<String, MessageEnvelope<HcsDidMessage>> found = new HashMap<>();
+    MessageEnvelope<HcsDidMessage> envelope = new MessageEnvelope<>(
+            new HcsDidMessage(DidMethodOperation.CREATE, DID_1, ""));
+    found.put(DID_1, envelope);
+
+    HcsDidResolutionCoordinator coordinator = new HcsDidResolutionCoordinator(
+            () -> new StubResolver(scans, found), scheduler);
+
+    try (Client client = Client.forTestnet()) {
+      // Hold the scheduler, so that the batching window cannot close before all requests were made.
+      CountDownLatch requested = new CountDownLatch(1);
+      scheduler.execute(() -> awaitQuietly(requested));
+
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> first = coordinator.resolve(client, DID_1);
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> second = coordinator.resolve(client, DID_1);
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> third = coordinator.resolve(client, DID_2);
+      assertEquals(2, coordinator.getPendingCount());
+      requested.countDown();
+
+      assertSame(envelope, first.get(5, TimeUnit.SECONDS));
+      assertSame(envelope, second.get(5, TimeUnit.SECONDS));
+      assertNull(third.get(5, TimeUnit.SECONDS));
+      assertEquals(1, scans.get());
+
+      Map<String, MessageEnvelope<HcsDidMessage>> results = coordinator
+              .resolve(client, new HashSet<>(Arrays.asList(DID_1, DID_2)))
+              .get(5, TimeUnit.SECONDS);
+      assertEquals(2, results.size());
+      assertSame(envelope, results.get(DID_1));
+      assertEquals(2, scans.get());
+    }
+  }
+
+  @Test
+  void testFailedScanFailsAllRequests() throws Exception {
+    CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> failed = new CompletableFuture<>();
+    failed.completeExceptionally(new IllegalStateException("Mirror node not available."));
+
+    HcsDidResolutionCoordinator coordinator = new HcsDidResolutionCoordinator(
+            () -> new HcsDidResolver(TopicId.fromString("0.0.2")) {
+              @Override
+              public CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> executeAsync(final Client c) {
+                return failed;
+              }
+            }, scheduler);
+
+    try (Client client = Client.forTestnet()) {
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> first = coordinator.resolve(client, DID_1);
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> second = coordinator.resolve(client, DID_2);
+
+      assertThrows(Exception.class, () -> first.get(5, TimeUnit.SECONDS));
+      assertThrows(Exception.class, () -> second.get(5, TimeUnit.SECONDS));
+    }
+  }
+
+  @Test
+  void testCloseStopsRunningScanAndFailsPendingRequests() throws Exception {
+    CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> scan = new CompletableFuture<>();
+    CountDownLatch started = new CountDownLatch(1);
+
+    HcsDidResolutionCoordinator coordinator = new HcsDidResolutionCoordinator(
+            () -> new HcsDidResolver(TopicId.fromString("0.0.2")) {
+              @Override
+              public CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> executeAsync(final Client c) {
+                started.countDown();
+                return scan;
+              }
+            }, scheduler);
+
+    try (Client client = Client.forTestnet()) {
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> scanned = coordinator.resolve(client, DID_1);
+      assertTrue(started.await(5, TimeUnit.SECONDS));
+
+      // Requested during the scan, so it waits for the next one.
+      CompletableFuture<MessageEnvelope<HcsDidMessage>> pending = coordinator.resolve(client, DID_2);
+      assertEquals(1, coordinator.getPendingCount());
+
+      coordinator.close();
+      assertTrue(scan.isCancelled());
+      assertThrows(ExecutionException.class, () -> scanned.get(5, TimeUnit.SECONDS));
+      ExecutionException e = assertThrows(ExecutionException.class, () -> pending.get(5, TimeUnit.SECONDS));
+      assertTrue(e.getCause() instanceof IllegalStateException);
+      assertEquals(0, coordinator.getPendingCount());
+      assertThrows(IllegalStateException.class, () -> coordinator.resolve(client, DID_1));
+    }
+  }
+
+  private static void awaitQuietly(final CountDownLatch latch) {
+    try {
+      latch.await(5, TimeUnit.SECONDS);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Resolver that answers from a fixed map instead of scanning a topic.
+   */
+  private static class StubResolver extends HcsDidResolver {
+    private final AtomicInteger scans;
+    private final Map<String, MessageEnvelope<HcsDidMessage>> found;
+
+    StubResolver(final AtomicInteger scans, final Map<String, MessageEnvelope<HcsDidMessage>> found) {
+      super(TopicId.fromString("0.0.2"));
+      this.scans = scans;
+      this.found = found;
+    }
+
+    @Override
+    public CompletableFuture<Map<String, MessageEnvelope<HcsDidMessage>>> executeAsync(final Client client) {
+      scans.incrementAndGet();
+      results.replaceAll((did, value) -> found.get(did));
+      return CompletableFuture.completedFuture(results);
+    }
+  }
+}
@@ -134,6 +134,19 @@ class HcsDidTest {
             "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid",
             "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak:unknownPart;hedera:testnet:fid=0.0.1",
             "did:notHedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0.0.1",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0.0",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0..1",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0.0.1.2",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0.x.1",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0.0.1"
+                    + ";hedera:testnet:tid=1.5.99999999999999999999",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:xid=0.0.1",
+            "did:hedera:testnet:8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:mainnet:fid=0.0.1",
+            "did:hedera::8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak;hedera:testnet:fid=0.0.1",
+            "did:hedera",
+            "did",
+            "",
     };
 
     // Expect to fail parsing all invalid DIDs
@@ -157,4 +170,43 @@ class HcsDidTest {
 
     assertEquals(validDid.getMethod(), HcsDid.DID_METHOD);
   }
+
+  @Test
+  void testParseToleratesUnknownAndRepeatedParameters() {
+    final String idString = "8LjUL78kFVnWV9rFnNCTE5bZdRmjm2obqJwS892jVLak";
+    HcsDid did = HcsDid.fromString("did:hedera:testnet:" + idString
+            + ";unknown:parameter=1;hedera:testnet:fid=0.0.1;;hedera:testnet:tid=1.5.2;hedera:testnet:fid=0.0.7;");
+
+    assertEquals("testnet", did.getNetwork());
+    assertEquals(idString, did.getIdString());
+    assertEquals("0.0.7", did.getAddressBookFileId().toString());
+    assertEquals("1.5.2", did.getDidTopicId().toString());
+    assertEquals("did:hedera:testnet:" + idString + ";hedera:testnet:fid=0.0.7;hedera:testnet:tid=1.5.2",
+            did.toString());
+  }
+
+  @Test
+  void testParseCacheReturnsSameInstance() {
+    String didString = new HcsDid(network, HcsDid.generateDidRootKey().getPublicKey(), FileId.fromString("0.0.1"))
+            .toString();
+    assertNotSame(HcsDid.fromString(didString), HcsDid.fromString(didString));
+
+    HcsDid.setParseCacheSize(16);
+    try {
+      HcsDid parsed = HcsDid.fromString(didString);
+      assertSame(parsed, HcsDid.fromString(didString));
+      assertEquals(didString, parsed.toString());
+      assertEquals(1, HcsDid.getParseCacheHitCount());
+      assertEquals(1, HcsDid.getParseCacheMissCount());
+
+      // Invalid DIDs are not cached
+      assertThrows(IllegalArgumentException.class, () -> HcsDid.fromString("did:hedera:testnet"));
+      assertThrows(IllegalArgumentException.class, () -> HcsDid.fromString("did:hedera:testnet"));
+    } finally {
+      HcsDid.setParseCacheSize(0);
+    }
+
+    assertEquals(0, HcsDid.getParseCacheHitCount());
+    assertThrows(IllegalArgumentException.class, () -> HcsDid.setParseCacheSize(-1));
+  }
 }